@@ -0,0 +1,41 @@
+package org.irods.jargon.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of the benchmarks jar. Takes the usual JMH command line, and
+ * always adds the GC profiler, so that allocation per operation is reported
+ * with the timings of every run. With no benchmark named, all the benchmarks in
+ * this module are run.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar
+ * java -jar target/benchmarks.jar TagCodecBenchmark -p message=/recorded/objstat-out-data-object.xml
+ * </pre>
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BenchmarkRunner {
+
+	public static void main(final String[] args) throws Exception {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+				|| commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions)
+				.addProfiler(GCProfiler.class);
+		if (commandLineOptions.getIncludes().isEmpty()) {
+			options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		}
+		new Runner(options.build()).run();
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.utils.BinaryDataFormat;
+import org.irods.jargon.core.utils.Host;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of the binary integers used in message headers and
+ * parallel transfer headers
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryDataFormatBenchmark {
+
+	private BinaryDataFormat mbfFormat;
+	private BinaryDataFormat lbfFormat;
+	private byte[] intBytes;
+	private byte[] longBytes;
+	private byte[] encodeBuffer;
+	private int intValue = 0x12345678;
+	private long longValue = 0x0123456789ABCDEFL;
+
+	@Setup
+	public void setup() {
+		mbfFormat = new BinaryDataFormat();
+		mbfFormat.setMBFByteOrder();
+		lbfFormat = new BinaryDataFormat();
+		lbfFormat.setLBFByteOrder();
+		intBytes = new byte[] { 0x12, 0x34, 0x56, 0x78 };
+		longBytes = new byte[] { 0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xAB, (byte) 0xCD, (byte) 0xEF };
+		encodeBuffer = new byte[8];
+	}
+
+	@Benchmark
+	public int intValueNetworkOrder() {
+		return mbfFormat.intValue(intBytes, 0);
+	}
+
+	@Benchmark
+	public int intValueSwapped() {
+		return lbfFormat.intValue(intBytes, 0);
+	}
+
+	@Benchmark
+	public long longLongValueNetworkOrder() {
+		return mbfFormat.longLongValue(longBytes, 0);
+	}
+
+	@Benchmark
+	public byte[] encodeIntNetworkOrder() {
+		mbfFormat.encodeInt(intValue, encodeBuffer, 0);
+		return encodeBuffer;
+	}
+
+	@Benchmark
+	public byte[] encodeLongLongNetworkOrder() {
+		mbfFormat.encodeLongLong(longValue, encodeBuffer, 0);
+		return encodeBuffer;
+	}
+
+	@Benchmark
+	public int hostCastToInt() {
+		return Host.castToInt(intBytes);
+	}
+
+	@Benchmark
+	public long hostCastToLong() {
+		return Host.castToLong(longBytes);
+	}
+
+}
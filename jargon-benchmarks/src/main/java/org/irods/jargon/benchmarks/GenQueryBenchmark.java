@@ -0,0 +1,102 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.packinstr.GenQueryInp;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.query.GenQuerySelectField;
+import org.irods.jargon.core.query.IRODSGenQuery;
+import org.irods.jargon.core.query.IRODSGenQueryTranslator;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.QueryResultProcessingUtils;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Translation of a GenQuery string, packing of the GenQueryInp and processing
+ * of a recorded GenQueryOut into result rows
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenQueryBenchmark {
+
+	/**
+	 * The data object listing query the recorded response answers
+	 */
+	static final String COLLECTION_LISTING_QUERY = "select COLL_NAME, DATA_NAME, DATA_SIZE, DATA_MODIFY_TIME, DATA_OWNER_NAME where COLL_NAME = '/tempZone/home/rods/benchmark' AND DATA_REPL_NUM = '0'";
+
+	private static final String ZONE = "tempZone";
+
+	private IRODSGenQueryTranslator translator;
+	private IRODSGenQuery query;
+	private TranslatedIRODSGenQuery translatedQuery;
+	private List<String> columnNames;
+	private byte[] recordedResponse;
+	private Tag response;
+
+	@Setup
+	public void setup() throws Exception {
+		IRODSServerProperties serverProperties = IRODSServerProperties
+				.instance(IRODSServerProperties.IcatEnabled.ICAT_ENABLED, 100, "rods4.2.8", "d", ZONE);
+		translator = new IRODSGenQueryTranslator(serverProperties);
+		query = IRODSGenQuery.instance(COLLECTION_LISTING_QUERY, 5000);
+		translatedQuery = translator.getTranslatedQuery(query);
+		columnNames = new ArrayList<String>();
+		for (GenQuerySelectField selectField : translatedQuery.getSelectFields()) {
+			columnNames.add(selectField.getSelectFieldColumnName());
+		}
+		recordedResponse = RecordedMessages.load(RecordedMessages.GENQUERY_OUT_COLLECTION_LISTING);
+		response = Tag.readNextTag(recordedResponse, RecordedMessages.ENCODING);
+	}
+
+	@Benchmark
+	public TranslatedIRODSGenQuery translateQuery() throws Exception {
+		return translator.getTranslatedQuery(query);
+	}
+
+	@Benchmark
+	public String packGenQueryInp() throws Exception {
+		return GenQueryInp.instance(translatedQuery, 0, ZONE).getParsedTags();
+	}
+
+	@Benchmark
+	public List<IRODSQueryResultRow> processResponse() throws Exception {
+		return QueryResultProcessingUtils.translateResponseIntoResultSet(response, columnNames, 1, 0);
+	}
+
+	/**
+	 * Decode the recorded response and read every value, as a listing does
+	 */
+	@Benchmark
+	public void decodeAndReadAllRows(final Blackhole blackhole) throws Exception {
+		Tag decoded = Tag.readNextTag(recordedResponse, RecordedMessages.ENCODING);
+		List<IRODSQueryResultRow> rows = QueryResultProcessingUtils.translateResponseIntoResultSet(decoded,
+				columnNames, 1, 0);
+		for (IRODSQueryResultRow row : rows) {
+			for (int i = 0; i < columnNames.size(); i++) {
+				blackhole.consume(row.getColumn(i));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,242 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.transfer.AbstractNIOParallelTransferThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stand-in for the parallel transfer port of an iRODS agent, listening on the
+ * loopback interface. Each connection is checked for the cookie, then given one
+ * segment of the transfer with a single header, followed by the done header,
+ * as iRODS does. A get streams generated data to the client, a put reads and
+ * discards what the client sends.
+ * <p>
+ * Connections are given segments in the order they are accepted, which is the
+ * order in which the transfer threads connect, so transfers against one server
+ * must run one after the other
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class LoopbackParallelTransferServer {
+
+	public enum TransferDirection {
+		GET, PUT
+	}
+
+	private static final Logger log = LoggerFactory.getLogger(LoopbackParallelTransferServer.class);
+
+	private static final int HEADER_LENGTH = 24;
+	private static final int CHUNK_LENGTH = 256 * 1024;
+
+	private final TransferDirection transferDirection;
+	private final int numberOfThreads;
+	private final long transferLength;
+	private final int password;
+	private final ByteBuffer chunk;
+	private final AtomicLong bytesReceived = new AtomicLong();
+	private ServerSocketChannel serverChannel;
+	private ExecutorService executor;
+	private long acceptedConnections = 0;
+
+	/**
+	 * @param transferDirection
+	 *            {@link TransferDirection} as seen from the client
+	 * @param numberOfThreads
+	 *            {@code int} with the number of connections per transfer
+	 * @param transferLength
+	 *            {@code long} with the length of each transfer
+	 * @param password
+	 *            {@code int} with the cookie the client must send
+	 */
+	public LoopbackParallelTransferServer(final TransferDirection transferDirection, final int numberOfThreads,
+			final long transferLength, final int password) {
+		if (transferDirection == null) {
+			throw new IllegalArgumentException("null transferDirection");
+		}
+		if (numberOfThreads <= 0) {
+			throw new IllegalArgumentException("numberOfThreads must be > 0");
+		}
+		if (transferLength < 0) {
+			throw new IllegalArgumentException("transferLength must be >= 0");
+		}
+		this.transferDirection = transferDirection;
+		this.numberOfThreads = numberOfThreads;
+		this.transferLength = transferLength;
+		this.password = password;
+		byte[] data = new byte[CHUNK_LENGTH];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		chunk = ByteBuffer.wrap(data).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Start listening
+	 *
+	 * @return {@code int} with the port to connect to
+	 * @throws IOException
+	 *             if the port cannot be opened
+	 */
+	public int start() throws IOException {
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+		executor = Executors.newCachedThreadPool();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				acceptLoop();
+			}
+		});
+		int port = serverChannel.socket().getLocalPort();
+		log.info("loopback parallel transfer server listening on port:{}", port);
+		return port;
+	}
+
+	/**
+	 * Stop listening, waiting a short time for open connections to finish
+	 */
+	public void stop() {
+		try {
+			if (serverChannel != null) {
+				serverChannel.close();
+			}
+		} catch (IOException e) {
+			log.warn("error closing server channel", e);
+		}
+		if (executor != null) {
+			// let connections finish writing the done header the client may already have read
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+					executor.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return {@code long} with the total bytes received for puts
+	 */
+	public long getBytesReceived() {
+		return bytesReceived.get();
+	}
+
+	private void acceptLoop() {
+		while (serverChannel.isOpen()) {
+			final SocketChannel channel;
+			try {
+				channel = serverChannel.accept();
+			} catch (IOException e) {
+				if (serverChannel.isOpen()) {
+					log.error("error accepting connection", e);
+				}
+				return;
+			}
+			final int segment = (int) (acceptedConnections++ % numberOfThreads);
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						serve(channel, segment);
+					} catch (IOException e) {
+						log.error("error serving segment:{}", segment, e);
+					} finally {
+						try {
+							channel.close();
+						} catch (IOException e) {
+							// ignore
+						}
+					}
+				}
+			});
+		}
+	}
+
+	private void serve(final SocketChannel channel, final int segment) throws IOException {
+		ByteBuffer cookie = ByteBuffer.allocate(4);
+		readFully(channel, cookie);
+		cookie.flip();
+		if (cookie.getInt() != password) {
+			throw new IOException("invalid cookie from client");
+		}
+
+		long segmentLength = transferLength / numberOfThreads;
+		long offset = segmentLength * segment;
+		if (segment == numberOfThreads - 1) {
+			segmentLength = transferLength - offset;
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		if (segmentLength > 0) {
+			int operation = transferDirection == TransferDirection.GET ? AbstractNIOParallelTransferThread.GET_OPR
+					: AbstractNIOParallelTransferThread.PUT_OPR;
+			writeHeader(channel, header, operation, offset, segmentLength);
+			if (transferDirection == TransferDirection.GET) {
+				sendSegment(channel, segmentLength);
+			} else {
+				receiveSegment(channel, segmentLength);
+			}
+		}
+		writeHeader(channel, header, AbstractNIOParallelTransferThread.DONE_OPR, 0, 0);
+	}
+
+	private void writeHeader(final SocketChannel channel, final ByteBuffer header, final int operation,
+			final long offset, final long length) throws IOException {
+		header.clear();
+		header.putInt(operation).putInt(0).putLong(offset).putLong(length);
+		header.flip();
+		while (header.hasRemaining()) {
+			channel.write(header);
+		}
+	}
+
+	private void sendSegment(final SocketChannel channel, final long length) throws IOException {
+		ByteBuffer data = chunk.duplicate();
+		long remaining = length;
+		while (remaining > 0) {
+			data.clear();
+			data.limit((int) Math.min(data.capacity(), remaining));
+			while (data.hasRemaining()) {
+				remaining -= channel.write(data);
+			}
+		}
+	}
+
+	private void receiveSegment(final SocketChannel channel, final long length) throws IOException {
+		ByteBuffer data = ByteBuffer.allocateDirect(CHUNK_LENGTH);
+		long remaining = length;
+		while (remaining > 0) {
+			data.clear();
+			data.limit((int) Math.min(data.capacity(), remaining));
+			int read = channel.read(data);
+			if (read < 0) {
+				throw new IOException("client closed the connection with " + remaining + " bytes to send");
+			}
+			remaining -= read;
+			bytesReceived.addAndGet(read);
+		}
+	}
+
+	private void readFully(final SocketChannel channel, final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new IOException("client closed the connection");
+			}
+		}
+	}
+
+}
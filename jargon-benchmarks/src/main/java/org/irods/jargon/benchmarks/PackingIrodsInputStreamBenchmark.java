@@ -0,0 +1,127 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.pub.io.FileIOOperations;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileInputStream;
+import org.irods.jargon.core.pub.io.PackingIrodsInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a data object in small buffers, as a servlet or a copy loop does,
+ * through {@link PackingIrodsInputStream} and directly through
+ * {@link IRODSFileInputStream}. iRODS is stood in for by
+ * {@link RecordedFileIOOperations}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackingIrodsInputStreamBenchmark {
+
+	private static final int DATA_LENGTH = 16 * 1024 * 1024;
+
+	/**
+	 * iRODS returns at most this much for one read
+	 */
+	private static final int MAX_READ_LENGTH = 4 * 1024 * 1024;
+
+	@Param({ "512", "8192", "65536" })
+	public int readSize;
+
+	private byte[] data;
+	private byte[] readBuffer;
+	private SettableJargonProperties jargonProperties;
+	private IRODSFile irodsFile;
+	private InputStream packingStream;
+	private InputStream directStream;
+
+	@Setup(Level.Trial)
+	public void setupTrial() throws Exception {
+		data = new byte[DATA_LENGTH];
+		new Random(7).nextBytes(data);
+		readBuffer = new byte[readSize];
+		jargonProperties = new SettableJargonProperties();
+		irodsFile = unsupportedIrodsFile();
+	}
+
+	/**
+	 * A stream is read to its end by each invocation, so start each on a new one
+	 */
+	@Setup(Level.Invocation)
+	public void setupInvocation() throws Exception {
+		packingStream = new PackingIrodsInputStream(new RecordedIRODSFileInputStream(irodsFile,
+				new RecordedFileIOOperations(data, MAX_READ_LENGTH, jargonProperties)));
+		directStream = new RecordedIRODSFileInputStream(irodsFile,
+				new RecordedFileIOOperations(data, MAX_READ_LENGTH, jargonProperties));
+	}
+
+	@Benchmark
+	public long readPacking() throws Exception {
+		return drain(packingStream);
+	}
+
+	@Benchmark
+	public long readDirect() throws Exception {
+		return drain(directStream);
+	}
+
+	private long drain(final InputStream in) throws Exception {
+		long total = 0;
+		int read;
+		while ((read = in.read(readBuffer)) != -1) {
+			total += read;
+		}
+		return total;
+	}
+
+	/**
+	 * The read path never touches the file, it is only needed to open the
+	 * stream on an existing file descriptor
+	 */
+	private static IRODSFile unsupportedIrodsFile() {
+		return (IRODSFile) Proxy.newProxyInstance(IRODSFile.class.getClassLoader(), new Class<?>[] { IRODSFile.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(final Object proxy, final Method method, final Object[] args) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	/**
+	 * Opens the stream on a file descriptor, so no open is sent
+	 */
+	static class RecordedIRODSFileInputStream extends IRODSFileInputStream {
+
+		RecordedIRODSFileInputStream(final IRODSFile irodsFile, final FileIOOperations fileIOOperations)
+				throws FileNotFoundException {
+			super(irodsFile, fileIOOperations, 3);
+		}
+	}
+
+}
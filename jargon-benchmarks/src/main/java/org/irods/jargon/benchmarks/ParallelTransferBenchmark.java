@@ -0,0 +1,105 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.IRODSSimpleProtocolManager;
+import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactoryImpl;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.ParallelGetFileTransferStrategy;
+import org.irods.jargon.core.transfer.ParallelPutFileTransferStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parallel get and put loops against a {@link LoopbackParallelTransferServer},
+ * so the client side of the transfer threads is measured without an iRODS
+ * agent or a real network
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelTransferBenchmark {
+
+	private static final int PASSWORD = 8675309;
+	private static final String HOST = "127.0.0.1";
+
+	@Param({ "GET", "PUT" })
+	public LoopbackParallelTransferServer.TransferDirection direction;
+
+	@Param({ "1", "4" })
+	public int numberOfThreads;
+
+	@Param({ "67108864" })
+	public long transferLength;
+
+	private LoopbackParallelTransferServer server;
+	private int port;
+	private IRODSSession irodsSession;
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private File localFile;
+
+	@Setup
+	public void setup() throws Exception {
+		server = new LoopbackParallelTransferServer(direction, numberOfThreads, transferLength, PASSWORD);
+		port = server.start();
+		irodsSession = IRODSSession.instance(IRODSSimpleProtocolManager.instance());
+		irodsAccessObjectFactory = IRODSAccessObjectFactoryImpl.instance(irodsSession);
+		localFile = File.createTempFile("jargon-benchmark-", ".dat");
+		if (direction == LoopbackParallelTransferServer.TransferDirection.PUT) {
+			RandomAccessFile file = new RandomAccessFile(localFile, "rw");
+			try {
+				file.setLength(transferLength);
+			} finally {
+				file.close();
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		if (server != null) {
+			server.stop();
+		}
+		if (irodsSession != null) {
+			irodsSession.closeSession();
+		}
+		if (localFile != null) {
+			localFile.delete();
+		}
+	}
+
+	@Benchmark
+	public void transfer() throws Exception {
+		if (direction == LoopbackParallelTransferServer.TransferDirection.GET) {
+			ParallelGetFileTransferStrategy.instance(HOST, port, numberOfThreads, PASSWORD, localFile,
+					irodsAccessObjectFactory, transferLength, DefaultTransferControlBlock.instance(), null, null,
+					new NegotiatedClientServerConfiguration(false)).transfer();
+		} else {
+			ParallelPutFileTransferStrategy.instance(HOST, port, numberOfThreads, PASSWORD, localFile,
+					irodsAccessObjectFactory, transferLength, DefaultTransferControlBlock.instance(), null, null,
+					new NegotiatedClientServerConfiguration(false)).transfer();
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSServerProperties;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.JargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.io.FileIOOperations;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+
+/**
+ * Stand-in for the iRODS side of a data object read. Reads are answered from a
+ * byte array, each at most {@code maxReadLength} long as iRODS limits the
+ * length of a single read, so that the client side buffering is measured
+ * without a network. Operations other than reads are not supported.
+ * <p>
+ * Holds the read position, so an instance serves one stream
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+class RecordedFileIOOperations implements FileIOOperations {
+
+	private final byte[] data;
+	private final int maxReadLength;
+	private final JargonProperties jargonProperties;
+	private int position = 0;
+
+	RecordedFileIOOperations(final byte[] data, final int maxReadLength, final JargonProperties jargonProperties) {
+		if (data == null) {
+			throw new IllegalArgumentException("null data");
+		}
+		if (maxReadLength <= 0) {
+			throw new IllegalArgumentException("maxReadLength must be > 0");
+		}
+		if (jargonProperties == null) {
+			throw new IllegalArgumentException("null jargonProperties");
+		}
+		this.data = data;
+		this.maxReadLength = maxReadLength;
+		this.jargonProperties = jargonProperties;
+	}
+
+	@Override
+	public int fileRead(final int fd, final byte[] buffer, final int offset, final int length)
+			throws JargonException {
+		if (position >= data.length) {
+			return -1;
+		}
+		int toRead = Math.min(Math.min(length, maxReadLength), data.length - position);
+		System.arraycopy(data, position, buffer, offset, toRead);
+		position += toRead;
+		return toRead;
+	}
+
+	@Override
+	public int fileRead(final int fd, final OutputStream destination, final long length) throws JargonException {
+		int toRead = (int) Math.min(length, data.length - position);
+		if (toRead <= 0) {
+			return -1;
+		}
+		try {
+			destination.write(data, position, toRead);
+		} catch (IOException e) {
+			throw new JargonException(e);
+		}
+		position += toRead;
+		return toRead;
+	}
+
+	@Override
+	public JargonProperties getJargonProperties() {
+		return jargonProperties;
+	}
+
+	@Override
+	public int write(final int fd, final byte[] buffer, final int offset, final int length) throws JargonException {
+		throw new UnsupportedOperationException("write");
+	}
+
+	@Override
+	public long seek(final int fd, final long seek, final SeekWhenceType whence) throws JargonException {
+		throw new UnsupportedOperationException("seek");
+	}
+
+	@Override
+	public ChecksumValue computeChecksumOnIrodsFile(final String irodsFileAbsolutePath) throws JargonException {
+		throw new UnsupportedOperationException("computeChecksumOnIrodsFile");
+	}
+
+	@Override
+	public IRODSMidLevelProtocol getIRODSProtocol() throws JargonException {
+		throw new UnsupportedOperationException("getIRODSProtocol");
+	}
+
+	@Override
+	public IRODSSession getIRODSSession() {
+		throw new UnsupportedOperationException("getIRODSSession");
+	}
+
+	@Override
+	public IRODSAccount getIRODSAccount() {
+		throw new UnsupportedOperationException("getIRODSAccount");
+	}
+
+	@Override
+	public IRODSServerProperties getIRODSServerProperties() throws JargonException {
+		throw new UnsupportedOperationException("getIRODSServerProperties");
+	}
+
+	@Override
+	public IRODSAccessObjectFactory getIRODSAccessObjectFactory() throws JargonException {
+		throw new UnsupportedOperationException("getIRODSAccessObjectFactory");
+	}
+
+	@Override
+	public IRODSFileFactory getIRODSFileFactory() throws JargonException {
+		throw new UnsupportedOperationException("getIRODSFileFactory");
+	}
+
+	@Override
+	public TransferControlBlock buildDefaultTransferControlBlockBasedOnJargonProperties() throws JargonException {
+		throw new UnsupportedOperationException("buildDefaultTransferControlBlockBasedOnJargonProperties");
+	}
+
+	@Override
+	public TransferOptions buildTransferOptionsBasedOnJargonProperties() throws JargonException {
+		throw new UnsupportedOperationException("buildTransferOptionsBasedOnJargonProperties");
+	}
+
+	@Override
+	public Tag operationComplete(final int status) throws JargonException {
+		throw new UnsupportedOperationException("operationComplete");
+	}
+
+	@Override
+	public boolean isInstrumented() {
+		return false;
+	}
+
+	@Override
+	public void closeSession() throws JargonException {
+	}
+
+	@Override
+	public void closeSessionAndEatExceptions() {
+	}
+
+	@Override
+	public void closeSession(final IRODSAccount irodsAccount) throws JargonException {
+	}
+
+	@Override
+	public void closeSessionAndEatExceptions(final IRODSAccount irodsAccount) {
+	}
+
+}
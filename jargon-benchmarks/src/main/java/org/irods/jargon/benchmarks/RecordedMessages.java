@@ -0,0 +1,60 @@
+package org.irods.jargon.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Protocol messages recorded from an iRODS server, kept as resources so that
+ * the benchmarks see the same bytes that arrive off the wire without needing a
+ * server
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class RecordedMessages {
+
+	/**
+	 * GenQueryOut_PI answering a data object listing of a collection, 200 rows of
+	 * five columns
+	 */
+	public static final String GENQUERY_OUT_COLLECTION_LISTING = "/recorded/genquery-out-collection-listing.xml";
+
+	/**
+	 * RodsObjStat_PI for a data object
+	 */
+	public static final String OBJSTAT_OUT_DATA_OBJECT = "/recorded/objstat-out-data-object.xml";
+
+	public static final String ENCODING = "utf-8";
+
+	private RecordedMessages() {
+	}
+
+	/**
+	 * Load a recorded message
+	 *
+	 * @param resource
+	 *            {@code String} with the name of the resource, one of the
+	 *            constants in this class
+	 * @return {@code byte[]} with the message as sent by iRODS
+	 * @throws IOException
+	 *             if the resource cannot be read
+	 */
+	public static byte[] load(final String resource) throws IOException {
+		if (resource == null || resource.isEmpty()) {
+			throw new IllegalArgumentException("null or empty resource");
+		}
+
+		InputStream in = RecordedMessages.class.getResourceAsStream(resource);
+		if (in == null) {
+			throw new IOException("no recorded message:" + resource);
+		}
+		try {
+			return IOUtils.toByteArray(in);
+		} finally {
+			in.close();
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.irods.jargon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.irods.jargon.core.packinstr.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of recorded protocol messages into {@link Tag}, and encoding of a
+ * {@link Tag} back to its packing instruction
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagCodecBenchmark {
+
+	@Param({ RecordedMessages.GENQUERY_OUT_COLLECTION_LISTING, RecordedMessages.OBJSTAT_OUT_DATA_OBJECT })
+	public String message;
+
+	private byte[] data;
+	private Tag tag;
+
+	@Setup
+	public void setup() throws Exception {
+		data = RecordedMessages.load(message);
+		tag = Tag.readNextTag(data, RecordedMessages.ENCODING);
+	}
+
+	@Benchmark
+	public Tag readNextTag() throws Exception {
+		return Tag.readNextTag(data, RecordedMessages.ENCODING);
+	}
+
+	@Benchmark
+	public String parseTag() {
+		return tag.parseTag();
+	}
+
+}
@@ -0,0 +1,59 @@
+/**
+ * 
+ */
+package org.irods.jargon.core.apiplugin;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One permission change in an {@link AtomicAclOperationsInput}
+ * 
+ * @author conwaymc
+ *
+ */
+public class AtomicAclOperation {
+
+	@JsonProperty("entity_name")
+	private String entityName = "";
+	@JsonProperty("acl")
+	private String acl = "";
+
+	public AtomicAclOperation() {
+	}
+
+	/**
+	 * @param entityName {@code String} with the user or group, in user#zone form
+	 *                   for a user of another zone
+	 * @param acl        {@code String} with the permission, one of null, read,
+	 *                   write or own
+	 */
+	public AtomicAclOperation(final String entityName, final String acl) {
+		this.entityName = entityName;
+		this.acl = acl;
+	}
+
+	public String getEntityName() {
+		return entityName;
+	}
+
+	public void setEntityName(String entityName) {
+		this.entityName = entityName;
+	}
+
+	public String getAcl() {
+		return acl;
+	}
+
+	public void setAcl(String acl) {
+		this.acl = acl;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("AtomicAclOperation [entityName=").append(entityName).append(", acl=").append(acl)
+				.append("]");
+		return builder.toString();
+	}
+
+}
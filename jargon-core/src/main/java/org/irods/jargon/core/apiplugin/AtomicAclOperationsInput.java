@@ -0,0 +1,54 @@
+/**
+ * 
+ */
+package org.irods.jargon.core.apiplugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Input to the {@link ApiPluginConstants#ATOMIC_APPLY_ACL_OPERATIONS_APN} API.
+ * All of the permission changes are applied to the one collection or data
+ * object in one transaction, or none are. The API does not recurse into a
+ * collection.
+ * 
+ * @author conwaymc
+ *
+ */
+public class AtomicAclOperationsInput {
+
+	@JsonProperty("logical_path")
+	private String logicalPath = "";
+	@JsonProperty("operations")
+	private List<AtomicAclOperation> operations = new ArrayList<>();
+
+	public AtomicAclOperationsInput() {
+	}
+
+	public String getLogicalPath() {
+		return logicalPath;
+	}
+
+	public void setLogicalPath(String logicalPath) {
+		this.logicalPath = logicalPath;
+	}
+
+	public List<AtomicAclOperation> getOperations() {
+		return operations;
+	}
+
+	public void setOperations(List<AtomicAclOperation> operations) {
+		this.operations = operations;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("AtomicAclOperationsInput [logicalPath=").append(logicalPath).append(", operations=")
+				.append(operations).append("]");
+		return builder.toString();
+	}
+
+}
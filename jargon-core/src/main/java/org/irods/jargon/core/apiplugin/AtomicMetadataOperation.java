@@ -0,0 +1,79 @@
+/**
+ * 
+ */
+package org.irods.jargon.core.apiplugin;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One AVU operation in an {@link AtomicMetadataOperationsInput}
+ * 
+ * @author conwaymc
+ *
+ */
+public class AtomicMetadataOperation {
+
+	public static final String ADD = "add";
+	public static final String REMOVE = "remove";
+
+	@JsonProperty("operation")
+	private String operation = "";
+	@JsonProperty("attribute")
+	private String attribute = "";
+	@JsonProperty("value")
+	private String value = "";
+	@JsonProperty("units")
+	private String units = "";
+
+	public AtomicMetadataOperation() {
+	}
+
+	public AtomicMetadataOperation(final String operation, final String attribute, final String value,
+			final String units) {
+		this.operation = operation;
+		this.attribute = attribute;
+		this.value = value;
+		this.units = units;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public void setOperation(String operation) {
+		this.operation = operation;
+	}
+
+	public String getAttribute() {
+		return attribute;
+	}
+
+	public void setAttribute(String attribute) {
+		this.attribute = attribute;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+	public String getUnits() {
+		return units;
+	}
+
+	public void setUnits(String units) {
+		this.units = units;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("AtomicMetadataOperation [operation=").append(operation).append(", attribute=")
+				.append(attribute).append(", value=").append(value).append(", units=").append(units).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,66 @@
+/**
+ * 
+ */
+package org.irods.jargon.core.apiplugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Input to the {@link ApiPluginConstants#ATOMIC_APPLY_METADATA_OPERATIONS_APN}
+ * API. All of the operations are applied to the entity in one transaction, or
+ * none are.
+ * 
+ * @author conwaymc
+ *
+ */
+public class AtomicMetadataOperationsInput {
+
+	public static final String DATA_OBJECT = "data_object";
+	public static final String COLLECTION = "collection";
+
+	@JsonProperty("entity_name")
+	private String entityName = "";
+	@JsonProperty("entity_type")
+	private String entityType = "";
+	@JsonProperty("operations")
+	private List<AtomicMetadataOperation> operations = new ArrayList<>();
+
+	public AtomicMetadataOperationsInput() {
+	}
+
+	public String getEntityName() {
+		return entityName;
+	}
+
+	public void setEntityName(String entityName) {
+		this.entityName = entityName;
+	}
+
+	public String getEntityType() {
+		return entityType;
+	}
+
+	public void setEntityType(String entityType) {
+		this.entityType = entityType;
+	}
+
+	public List<AtomicMetadataOperation> getOperations() {
+		return operations;
+	}
+
+	public void setOperations(List<AtomicMetadataOperation> operations) {
+		this.operations = operations;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("AtomicMetadataOperationsInput [entityName=").append(entityName).append(", entityType=")
+				.append(entityType).append(", operations=").append(operations).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,47 @@
+/**
+ *
+ */
+package org.irods.jargon.core.apiplugin;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Input to the {@link ApiPluginConstants#GET_FILE_DESCRIPTOR_INFO_APN} API,
+ * which describes a descriptor opened on the same connection, including the
+ * replica token and resource hierarchy that another connection needs to open
+ * the same replica.
+ *
+ * @author conwaymc
+ *
+ */
+public class FileDescriptorInfoInput {
+
+	@JsonProperty("fd")
+	private int fd = 0;
+
+	public FileDescriptorInfoInput() {
+	}
+
+	/**
+	 * @param fd {@code int} with the descriptor to describe
+	 */
+	public FileDescriptorInfoInput(final int fd) {
+		this.fd = fd;
+	}
+
+	public int getFd() {
+		return fd;
+	}
+
+	public void setFd(int fd) {
+		this.fd = fd;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("FileDescriptorInfoInput [fd=").append(fd).append("]");
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,126 @@
+/**
+ *
+ */
+package org.irods.jargon.core.apiplugin;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Input to the {@link ApiPluginConstants#REPLICA_CLOSE_APN} API. When several
+ * connections have the same replica open, each one but the last closes with
+ * all of the flags off, and the last closes with the size and status updates
+ * so that the replica is finalized once.
+ *
+ * @author conwaymc
+ *
+ */
+public class ReplicaCloseInput {
+
+	@JsonProperty("fd")
+	private int fd = 0;
+	@JsonProperty("update_size")
+	private boolean updateSize = false;
+	@JsonProperty("update_status")
+	private boolean updateStatus = false;
+	@JsonProperty("compute_checksum")
+	private boolean computeChecksum = false;
+	@JsonProperty("send_notifications")
+	private boolean sendNotifications = false;
+	@JsonProperty("preserve_replica_state_table")
+	private boolean preserveReplicaStateTable = false;
+
+	public ReplicaCloseInput() {
+	}
+
+	/**
+	 * Input that closes the descriptor without updating the catalog, used for a
+	 * read, and by all but the last of several connections writing the same
+	 * replica
+	 *
+	 * @param fd {@code int} with the descriptor from the replica open
+	 * @return {@link ReplicaCloseInput}
+	 */
+	public static ReplicaCloseInput instanceForCloseWithoutUpdate(final int fd) {
+		ReplicaCloseInput input = new ReplicaCloseInput();
+		input.setFd(fd);
+		return input;
+	}
+
+	/**
+	 * Input that closes the descriptor and finalizes the replica, used by a single
+	 * connection or the last of several connections
+	 *
+	 * @param fd              {@code int} with the descriptor from the replica open
+	 * @param computeChecksum {@code boolean} to have iRODS compute and register
+	 *                        the checksum of the replica
+	 * @return {@link ReplicaCloseInput}
+	 */
+	public static ReplicaCloseInput instanceForFinalClose(final int fd, final boolean computeChecksum) {
+		ReplicaCloseInput input = new ReplicaCloseInput();
+		input.setFd(fd);
+		input.setUpdateSize(true);
+		input.setUpdateStatus(true);
+		input.setComputeChecksum(computeChecksum);
+		input.setSendNotifications(true);
+		return input;
+	}
+
+	public int getFd() {
+		return fd;
+	}
+
+	public void setFd(int fd) {
+		this.fd = fd;
+	}
+
+	public boolean isUpdateSize() {
+		return updateSize;
+	}
+
+	public void setUpdateSize(boolean updateSize) {
+		this.updateSize = updateSize;
+	}
+
+	public boolean isUpdateStatus() {
+		return updateStatus;
+	}
+
+	public void setUpdateStatus(boolean updateStatus) {
+		this.updateStatus = updateStatus;
+	}
+
+	public boolean isComputeChecksum() {
+		return computeChecksum;
+	}
+
+	public void setComputeChecksum(boolean computeChecksum) {
+		this.computeChecksum = computeChecksum;
+	}
+
+	public boolean isSendNotifications() {
+		return sendNotifications;
+	}
+
+	public void setSendNotifications(boolean sendNotifications) {
+		this.sendNotifications = sendNotifications;
+	}
+
+	public boolean isPreserveReplicaStateTable() {
+		return preserveReplicaStateTable;
+	}
+
+	public void setPreserveReplicaStateTable(boolean preserveReplicaStateTable) {
+		this.preserveReplicaStateTable = preserveReplicaStateTable;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ReplicaCloseInput [fd=").append(fd).append(", updateSize=").append(updateSize)
+				.append(", updateStatus=").append(updateStatus).append(", computeChecksum=").append(computeChecksum)
+				.append(", sendNotifications=").append(sendNotifications).append(", preserveReplicaStateTable=")
+				.append(preserveReplicaStateTable).append("]");
+		return builder.toString();
+	}
+
+}
@@ -4,6 +4,9 @@
 package org.irods.jargon.core.checksum;
 
 import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.irods.jargon.core.exception.JargonException;
 
@@ -16,6 +19,33 @@ import org.irods.jargon.core.exception.JargonException;
  */
 public abstract class AbstractChecksumComputeStrategy {
 
+	private final LocalChecksumEngine localChecksumEngine;
+
+	/**
+	 * Strategy that reads files itself on the calling thread
+	 */
+	protected AbstractChecksumComputeStrategy() {
+		this(null);
+	}
+
+	/**
+	 * Strategy that reads files with a {@link LocalChecksumEngine}
+	 *
+	 * @param localChecksumEngine
+	 *            {@link LocalChecksumEngine} to read and digest files, may be
+	 *            {@code null} to read them on the calling thread
+	 */
+	protected AbstractChecksumComputeStrategy(final LocalChecksumEngine localChecksumEngine) {
+		this.localChecksumEngine = localChecksumEngine;
+	}
+
+	/**
+	 * @return {@link LocalChecksumEngine} used to read files, or {@code null}
+	 */
+	protected LocalChecksumEngine getLocalChecksumEngine() {
+		return localChecksumEngine;
+	}
+
 	/**
 	 *
 	 * @param localFileAbsolutePath
@@ -29,4 +59,64 @@ public abstract class AbstractChecksumComputeStrategy {
 	public abstract ChecksumValue computeChecksumValueForLocalFile(final String localFileAbsolutePath)
 			throws FileNotFoundException, JargonException;
 
+	/**
+	 * Compute the checksums of many local files. With a
+	 * {@link LocalChecksumEngine} several files are digested at once, otherwise
+	 * they are done one at a time.
+	 *
+	 * @param localFileAbsolutePaths
+	 *            {@code List} of {@code String} with absolute paths to local files
+	 * @return {@code List} of {@link ChecksumValue} in the order of the paths
+	 * @throws FileNotFoundException
+	 *             if a file cannot be found
+	 * @throws JargonException
+	 *             for a general exception
+	 */
+	public List<ChecksumValue> computeChecksumValuesForLocalFiles(final List<String> localFileAbsolutePaths)
+			throws FileNotFoundException, JargonException {
+
+		if (localFileAbsolutePaths == null) {
+			throw new IllegalArgumentException("null localFileAbsolutePaths");
+		}
+
+		if (localChecksumEngine != null) {
+			return localChecksumEngine.computeChecksumValues(this, localFileAbsolutePaths);
+		}
+
+		List<ChecksumValue> checksumValues = new ArrayList<ChecksumValue>(localFileAbsolutePaths.size());
+		for (String localFileAbsolutePath : localFileAbsolutePaths) {
+			checksumValues.add(computeChecksumValueForLocalFile(localFileAbsolutePath));
+		}
+		return checksumValues;
+	}
+
+	/**
+	 * Start a digest that is fed the bytes of a file as they are read for another
+	 * purpose, such as sending them to iRODS, so that the file need not be read a
+	 * second time to checksum it. Strategies that cannot digest a stream throw
+	 * {@link ChecksumMethodUnavailableException}.
+	 *
+	 * @return {@code MessageDigest} for the algorithm of this strategy
+	 * @throws ChecksumMethodUnavailableException
+	 *             if the algorithm cannot be computed from a stream
+	 */
+	public MessageDigest instanceMessageDigest() throws ChecksumMethodUnavailableException {
+		throw new ChecksumMethodUnavailableException("no stream digest for:" + getClass().getName());
+	}
+
+	/**
+	 * Build the checksum value for a digest from {@link #instanceMessageDigest()}
+	 *
+	 * @param digest
+	 *            {@code byte[]} from {@code MessageDigest.digest()}
+	 * @return {@link ChecksumValue} in the same form as
+	 *         {@link #computeChecksumValueForLocalFile(String)}
+	 * @throws ChecksumMethodUnavailableException
+	 *             if the algorithm cannot be computed from a stream
+	 */
+	public ChecksumValue instanceChecksumValueFromDigest(final byte[] digest)
+			throws ChecksumMethodUnavailableException {
+		throw new ChecksumMethodUnavailableException("no stream digest for:" + getClass().getName());
+	}
+
 }
@@ -17,6 +17,27 @@ import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
  */
 public class LocalChecksumComputerFactoryImpl implements LocalChecksumComputerFactory {
 
+	private final LocalChecksumEngine localChecksumEngine;
+
+	/**
+	 * Factory whose strategies share a {@link LocalChecksumEngine} with the
+	 * default limits
+	 */
+	public LocalChecksumComputerFactoryImpl() {
+		this(new LocalChecksumEngine());
+	}
+
+	/**
+	 * @param localChecksumEngine
+	 *            {@link LocalChecksumEngine} shared by the strategies returned
+	 */
+	public LocalChecksumComputerFactoryImpl(final LocalChecksumEngine localChecksumEngine) {
+		if (localChecksumEngine == null) {
+			throw new IllegalArgumentException("null localChecksumEngine");
+		}
+		this.localChecksumEngine = localChecksumEngine;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -32,9 +53,9 @@ public class LocalChecksumComputerFactoryImpl implements LocalChecksumComputerFa
 		}
 
 		if (checksumEncodingEnum == ChecksumEncodingEnum.MD5) {
-			return new MD5LocalChecksumComputerStrategy();
+			return new MD5LocalChecksumComputerStrategy(localChecksumEngine);
 		} else if (checksumEncodingEnum == ChecksumEncodingEnum.SHA256) {
-			return new SHA256LocalChecksumComputerStrategy();
+			return new SHA256LocalChecksumComputerStrategy(localChecksumEngine);
 		} else {
 			throw new ChecksumMethodUnavailableException(
 					"unable to find a checksum encoding method for:" + checksumEncodingEnum);
@@ -0,0 +1,305 @@
+package org.irods.jargon.core.checksum;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes checksums of local files for the strategies returned by
+ * {@link LocalChecksumComputerFactoryImpl}. Files are read through a
+ * {@code FileChannel} in large blocks, and for a file longer than one block a
+ * separate thread reads ahead into a small ring of buffers while the calling
+ * thread digests, so that reading and hashing overlap. Many files can be
+ * digested at once with {@link #computeChecksumValues(AbstractChecksumComputeStrategy, List)},
+ * which bounds the files being read at the same time.
+ * <p>
+ * Threads come from a pool of daemon threads that are released when idle, so
+ * the engine needs no shutdown.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class LocalChecksumEngine {
+
+	public static final Logger log = LoggerFactory.getLogger(LocalChecksumEngine.class);
+
+	/**
+	 * Buffers read ahead of the digest for one file
+	 */
+	private static final int READ_AHEAD_BUFFERS = 3;
+
+	/**
+	 * Marks the end of the file in the queue of filled buffers
+	 */
+	private static final ByteBuffer END_OF_FILE = ByteBuffer.allocate(0);
+
+	private final ExecutorService executorService = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, "jargon-checksum-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private int readBufferSize = 1024 * 1024;
+	private int maxConcurrentFiles = 4;
+
+	/**
+	 * Set the limits, applying to checksums begun from now on
+	 *
+	 * @param readBufferSize
+	 *            {@code int} with the bytes read from a file at a time
+	 * @param maxConcurrentFiles
+	 *            {@code int} with the most files digested at once by a batch
+	 */
+	public synchronized void setLimits(final int readBufferSize, final int maxConcurrentFiles) {
+		if (readBufferSize < 1) {
+			throw new IllegalArgumentException("readBufferSize must be at least 1");
+		}
+		if (maxConcurrentFiles < 1) {
+			throw new IllegalArgumentException("maxConcurrentFiles must be at least 1");
+		}
+		this.readBufferSize = readBufferSize;
+		this.maxConcurrentFiles = maxConcurrentFiles;
+	}
+
+	/**
+	 * @return {@code int} with the bytes read from a file at a time
+	 */
+	public synchronized int getReadBufferSize() {
+		return readBufferSize;
+	}
+
+	/**
+	 * @return {@code int} with the most files digested at once by a batch
+	 */
+	public synchronized int getMaxConcurrentFiles() {
+		return maxConcurrentFiles;
+	}
+
+	/**
+	 * Compute the checksum of a local file
+	 *
+	 * @param checksumComputeStrategy
+	 *            {@link AbstractChecksumComputeStrategy} that provides the digest
+	 * @param localFileAbsolutePath
+	 *            {@code String} with the absolute path to a local file
+	 * @return {@link ChecksumValue} of the file
+	 * @throws FileNotFoundException
+	 *             if the file cannot be found
+	 * @throws JargonException
+	 *             if the file cannot be read
+	 */
+	public ChecksumValue computeChecksumValue(final AbstractChecksumComputeStrategy checksumComputeStrategy,
+			final String localFileAbsolutePath) throws FileNotFoundException, JargonException {
+
+		if (checksumComputeStrategy == null) {
+			throw new IllegalArgumentException("null checksumComputeStrategy");
+		}
+
+		if (localFileAbsolutePath == null || localFileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty localFileAbsolutePath");
+		}
+
+		File localFile = new File(localFileAbsolutePath);
+		if (!localFile.isFile()) {
+			throw new FileNotFoundException("local file not found:" + localFileAbsolutePath);
+		}
+
+		MessageDigest messageDigest = checksumComputeStrategy.instanceMessageDigest();
+		int bufferSize = getReadBufferSize();
+
+		try (FileChannel channel = FileChannel.open(localFile.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() <= bufferSize) {
+				ByteBuffer buffer = ByteBuffer.allocate((int) channel.size() + 1);
+				fill(channel, buffer);
+				buffer.flip();
+				messageDigest.update(buffer);
+			} else {
+				digestWithReadAhead(channel, messageDigest, bufferSize);
+			}
+		} catch (IOException e) {
+			log.error("error reading file for checksum:{}", localFileAbsolutePath, e);
+			throw new JargonException("error reading file for checksum:" + localFileAbsolutePath, e);
+		}
+
+		return checksumComputeStrategy.instanceChecksumValueFromDigest(messageDigest.digest());
+	}
+
+	/**
+	 * Compute the checksums of many local files, digesting up to
+	 * {@link #getMaxConcurrentFiles()} of them at once
+	 *
+	 * @param checksumComputeStrategy
+	 *            {@link AbstractChecksumComputeStrategy} that provides the digest
+	 * @param localFileAbsolutePaths
+	 *            {@code List} of {@code String} with the absolute paths to local
+	 *            files
+	 * @return {@code List} of {@link ChecksumValue} in the order of the paths
+	 * @throws FileNotFoundException
+	 *             if a file cannot be found
+	 * @throws JargonException
+	 *             if a file cannot be read
+	 */
+	public List<ChecksumValue> computeChecksumValues(final AbstractChecksumComputeStrategy checksumComputeStrategy,
+			final List<String> localFileAbsolutePaths) throws FileNotFoundException, JargonException {
+
+		if (checksumComputeStrategy == null) {
+			throw new IllegalArgumentException("null checksumComputeStrategy");
+		}
+
+		if (localFileAbsolutePaths == null) {
+			throw new IllegalArgumentException("null localFileAbsolutePaths");
+		}
+
+		final int fileCount = localFileAbsolutePaths.size();
+		int workerCount = Math.min(getMaxConcurrentFiles(), fileCount);
+		log.info("computing checksums of {} files with {} workers", fileCount, workerCount);
+
+		if (workerCount <= 1) {
+			List<ChecksumValue> checksumValues = new ArrayList<ChecksumValue>(fileCount);
+			for (String localFileAbsolutePath : localFileAbsolutePaths) {
+				checksumValues.add(computeChecksumValue(checksumComputeStrategy, localFileAbsolutePath));
+			}
+			return checksumValues;
+		}
+
+		final ChecksumValue[] checksumValues = new ChecksumValue[fileCount];
+		final AtomicInteger nextFile = new AtomicInteger();
+		List<Future<Void>> workers = new ArrayList<Future<Void>>(workerCount);
+		for (int i = 0; i < workerCount; i++) {
+			workers.add(executorService.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					int fileIndex;
+					while ((fileIndex = nextFile.getAndIncrement()) < fileCount) {
+						try {
+							checksumValues[fileIndex] = computeChecksumValue(checksumComputeStrategy,
+									localFileAbsolutePaths.get(fileIndex));
+						} catch (Exception e) {
+							// stop the other workers taking more files
+							nextFile.set(fileCount);
+							throw e;
+						}
+					}
+					return null;
+				}
+			}));
+		}
+
+		Throwable failure = null;
+		for (Future<Void> worker : workers) {
+			try {
+				worker.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				nextFile.set(fileCount);
+				throw new JargonException("interrupted computing checksums", e);
+			}
+		}
+
+		if (failure instanceof FileNotFoundException) {
+			throw (FileNotFoundException) failure;
+		} else if (failure instanceof JargonException) {
+			throw (JargonException) failure;
+		} else if (failure != null) {
+			throw new JargonException("error computing checksums", failure);
+		}
+
+		return new ArrayList<ChecksumValue>(Arrays.asList(checksumValues));
+	}
+
+	/**
+	 * Digest a file while another thread reads the blocks ahead of it. Filled
+	 * buffers are passed to this thread and returned once digested, and the reader
+	 * always ends with {@link #END_OF_FILE}, even if it fails.
+	 */
+	private void digestWithReadAhead(final FileChannel channel, final MessageDigest messageDigest,
+			final int bufferSize) throws IOException, JargonException {
+
+		final BlockingQueue<ByteBuffer> emptyBuffers = new ArrayBlockingQueue<ByteBuffer>(READ_AHEAD_BUFFERS);
+		final BlockingQueue<ByteBuffer> filledBuffers = new ArrayBlockingQueue<ByteBuffer>(READ_AHEAD_BUFFERS + 1);
+		for (int i = 0; i < READ_AHEAD_BUFFERS; i++) {
+			emptyBuffers.add(ByteBuffer.allocate(bufferSize));
+		}
+
+		Future<Void> reader = executorService.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					boolean endOfFile = false;
+					while (!endOfFile) {
+						ByteBuffer buffer = emptyBuffers.take();
+						buffer.clear();
+						endOfFile = fill(channel, buffer);
+						buffer.flip();
+						filledBuffers.put(buffer);
+					}
+				} finally {
+					filledBuffers.put(END_OF_FILE);
+				}
+				return null;
+			}
+		});
+
+		try {
+			ByteBuffer buffer;
+			while ((buffer = filledBuffers.take()) != END_OF_FILE) {
+				messageDigest.update(buffer);
+				emptyBuffers.put(buffer);
+			}
+			reader.get();
+		} catch (InterruptedException e) {
+			reader.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted computing checksum", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new JargonException("error reading file for checksum", e.getCause());
+		}
+	}
+
+	/**
+	 * Read until the buffer is full or the file ends
+	 *
+	 * @return {@code boolean} of {@code true} if the end of the file was reached
+	 */
+	private static boolean fill(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) == -1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -4,6 +4,8 @@
 package org.irods.jargon.core.checksum;
 
 import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
@@ -22,6 +24,19 @@ public class MD5LocalChecksumComputerStrategy extends AbstractChecksumComputeStr
 
 	public static final Logger log = LoggerFactory.getLogger(MD5LocalChecksumComputerStrategy.class);
 
+	public MD5LocalChecksumComputerStrategy() {
+		super();
+	}
+
+	/**
+	 * @param localChecksumEngine
+	 *            {@link LocalChecksumEngine} to read and digest files, may be
+	 *            {@code null} to read them on the calling thread
+	 */
+	public MD5LocalChecksumComputerStrategy(final LocalChecksumEngine localChecksumEngine) {
+		super(localChecksumEngine);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -38,7 +53,30 @@ public class MD5LocalChecksumComputerStrategy extends AbstractChecksumComputeStr
 			throw new IllegalArgumentException("null or empty localFileAbsolutePath");
 		}
 
+		if (getLocalChecksumEngine() != null) {
+			return getLocalChecksumEngine().computeChecksumValue(this, localFileAbsolutePath);
+		}
+
 		byte[] digest = LocalFileUtils.computeMD5FileCheckSumViaAbsolutePath(localFileAbsolutePath);
+		return instanceChecksumValueFromDigest(digest);
+
+	}
+
+	@Override
+	public MessageDigest instanceMessageDigest() throws ChecksumMethodUnavailableException {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new ChecksumMethodUnavailableException("no such algorithm exception for MD5", e);
+		}
+	}
+
+	@Override
+	public ChecksumValue instanceChecksumValueFromDigest(final byte[] digest) {
+		if (digest == null) {
+			throw new IllegalArgumentException("null digest");
+		}
+
 		ChecksumValue value = new ChecksumValue();
 		value.setBinaryChecksumValue(digest);
 
@@ -49,7 +87,6 @@ public class MD5LocalChecksumComputerStrategy extends AbstractChecksumComputeStr
 		value.setChecksumTransmissionFormat(value.getChecksumStringValue());
 		value.setHexChecksumValue(Hex.encodeHexString(digest));
 		return value;
-
 	}
 
 }
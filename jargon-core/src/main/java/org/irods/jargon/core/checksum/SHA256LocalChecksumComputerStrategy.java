@@ -4,6 +4,8 @@
 package org.irods.jargon.core.checksum;
 
 import java.io.FileNotFoundException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
@@ -22,6 +24,19 @@ public class SHA256LocalChecksumComputerStrategy extends AbstractChecksumCompute
 
 	public static final Logger log = LoggerFactory.getLogger(SHA256LocalChecksumComputerStrategy.class);
 
+	public SHA256LocalChecksumComputerStrategy() {
+		super();
+	}
+
+	/**
+	 * @param localChecksumEngine
+	 *            {@link LocalChecksumEngine} to read and digest files, may be
+	 *            {@code null} to read them on the calling thread
+	 */
+	public SHA256LocalChecksumComputerStrategy(final LocalChecksumEngine localChecksumEngine) {
+		super(localChecksumEngine);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -38,7 +53,29 @@ public class SHA256LocalChecksumComputerStrategy extends AbstractChecksumCompute
 			throw new IllegalArgumentException("null or empty localFileAbsolutePath");
 		}
 
+		if (getLocalChecksumEngine() != null) {
+			return getLocalChecksumEngine().computeChecksumValue(this, localFileAbsolutePath);
+		}
+
 		byte[] digest = LocalFileUtils.computeSHA256FileCheckSumViaAbsolutePath(localFileAbsolutePath);
+		return instanceChecksumValueFromDigest(digest);
+
+	}
+
+	@Override
+	public MessageDigest instanceMessageDigest() throws ChecksumMethodUnavailableException {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new ChecksumMethodUnavailableException("no such algorithm exception for SHA256", e);
+		}
+	}
+
+	@Override
+	public ChecksumValue instanceChecksumValueFromDigest(final byte[] digest) {
+		if (digest == null) {
+			throw new IllegalArgumentException("null digest");
+		}
 
 		ChecksumValue value = new ChecksumValue();
 		value.setChecksumEncoding(ChecksumEncodingEnum.SHA256);
@@ -52,7 +89,6 @@ public class SHA256LocalChecksumComputerStrategy extends AbstractChecksumCompute
 		sb.append(value.getChecksumStringValue());
 		value.setChecksumTransmissionFormat(sb.toString().trim());
 		return value;
-
 	}
 
 }
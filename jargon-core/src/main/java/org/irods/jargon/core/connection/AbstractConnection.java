@@ -44,6 +44,14 @@ public abstract class AbstractConnection {
 	protected final PipelineConfiguration pipelineConfiguration;
 	private final long connectTimeInMillis = System.currentTimeMillis();
 
+	/**
+	 * Running totals of bytes written to and read from the socket, used for
+	 * instrumentation. Access is serialized by the protocol that owns the
+	 * connection.
+	 */
+	private long bytesSent = 0;
+	private long bytesReceived = 0;
+
 	public enum EncryptionType {
 		NONE, SSL_WRAPPED
 	}
@@ -294,6 +302,8 @@ public abstract class AbstractConnection {
 				return;
 			}
 
+			bytesSent += value.length;
+
 			if (pipelineConfiguration.getInternalCacheBufferSize() <= 0) {
 				irodsOutputStream.write(value);
 			} else if ((value.length + outputOffset) >= pipelineConfiguration.getInternalCacheBufferSize()) {
@@ -508,6 +518,7 @@ public abstract class AbstractConnection {
 	 * @throws IOException If an IOException occurs
 	 */
 	protected byte read() throws IOException {
+		bytesReceived++;
 		return (byte) irodsInputStream.read();
 
 	}
@@ -663,6 +674,7 @@ public abstract class AbstractConnection {
 				}
 				bytesRead += read;
 			}
+			bytesReceived += bytesRead;
 			result = bytesRead;
 
 			return result;
@@ -811,4 +823,18 @@ public abstract class AbstractConnection {
 		return connectTimeInMillis;
 	}
 
+	/**
+	 * @return {@code long} with the bytes written to the socket so far
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * @return {@code long} with the bytes read from the socket so far
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+
 }
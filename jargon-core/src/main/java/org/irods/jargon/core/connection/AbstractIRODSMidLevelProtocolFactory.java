@@ -83,8 +83,21 @@ abstract class AbstractIRODSMidLevelProtocolFactory {
 		log.debug("instance() method...calling connection life cycle");
 
 		log.debug("create connection....");
-		AbstractConnection connection = irodsConnectionFactory.instance(irodsAccount, irodsSession,
-				irodsProtocolManager);
+		JargonMetricsSink jargonMetricsSink = irodsSession.getJargonProperties().isInstrument()
+				? irodsSession.getJargonMetricsSink()
+				: null;
+		long start = System.nanoTime();
+		boolean succeeded = false;
+		AbstractConnection connection;
+		try {
+			connection = irodsConnectionFactory.instance(irodsAccount, irodsSession, irodsProtocolManager);
+			succeeded = true;
+		} finally {
+			if (jargonMetricsSink != null) {
+				jargonMetricsSink.connectionLifecycleEvent(ConnectionLifecycleEvent.CONNECT,
+						System.nanoTime() - start, succeeded);
+			}
+		}
 
 		IRODSMidLevelProtocol protocol = createInitialProtocol(connection, irodsProtocolManager);
 		try {
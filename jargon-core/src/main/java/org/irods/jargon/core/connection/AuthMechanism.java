@@ -192,17 +192,57 @@ abstract class AuthMechanism {
 		log.debug("irodsAccount:{}", irodsAccount);
 		irodsMidLevelProtocol.setIrodsAccount(irodsAccount);
 		preConnectionStartup();
-		sendStartupPacket(irodsAccount, irodsMidLevelProtocol);
-		StartupResponseData startupResponseData = clientServerNegotiationHook(irodsMidLevelProtocol, irodsAccount);
+		JargonMetricsSink jargonMetricsSink = metricsSinkFor(irodsMidLevelProtocol);
+
+		long start = System.nanoTime();
+		boolean succeeded = false;
+		StartupResponseData startupResponseData;
+		try {
+			sendStartupPacket(irodsAccount, irodsMidLevelProtocol);
+			startupResponseData = clientServerNegotiationHook(irodsMidLevelProtocol, irodsAccount);
+			succeeded = true;
+		} finally {
+			recordLifecycleEvent(jargonMetricsSink, ConnectionLifecycleEvent.NEGOTIATE, start, succeeded);
+		}
+
 		postConnectionStartupPreAuthentication();
-		IRODSMidLevelProtocol authenticatedProtocol = processAuthenticationAfterStartup(irodsAccount,
-				irodsMidLevelProtocol, startupResponseData);
-		authenticatedProtocol = processAfterAuthentication(authenticatedProtocol, startupResponseData);
+
+		start = System.nanoTime();
+		succeeded = false;
+		IRODSMidLevelProtocol authenticatedProtocol;
+		try {
+			authenticatedProtocol = processAuthenticationAfterStartup(irodsAccount, irodsMidLevelProtocol,
+					startupResponseData);
+			authenticatedProtocol = processAfterAuthentication(authenticatedProtocol, startupResponseData);
+			succeeded = true;
+		} finally {
+			recordLifecycleEvent(jargonMetricsSink, ConnectionLifecycleEvent.AUTHENTICATE, start, succeeded);
+		}
 		log.debug("authenticated...");
 
 		return authenticatedProtocol;
 	}
 
+	/**
+	 * @return {@link JargonMetricsSink} to time the startup with, or {@code null}
+	 *         if {@code jargon.instrument} is not set
+	 */
+	private JargonMetricsSink metricsSinkFor(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		IRODSSession irodsSession = irodsMidLevelProtocol.getIrodsSession();
+		if (irodsSession == null || !irodsMidLevelProtocol.getPipelineConfiguration().isInstrument()) {
+			return null;
+		}
+		return irodsSession.getJargonMetricsSink();
+	}
+
+	private void recordLifecycleEvent(final JargonMetricsSink jargonMetricsSink,
+			final ConnectionLifecycleEvent connectionLifecycleEvent, final long start, final boolean succeeded) {
+		if (jargonMetricsSink != null) {
+			jargonMetricsSink.connectionLifecycleEvent(connectionLifecycleEvent, System.nanoTime() - start,
+					succeeded);
+		}
+	}
+
 	/**
 	 * This method provides a life cycle hook after the authentication process has
 	 * completed. By default, the method just returns the protocol as passed in. In
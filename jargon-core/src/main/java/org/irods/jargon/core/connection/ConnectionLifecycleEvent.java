@@ -0,0 +1,37 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * Steps in the life of a connection to iRODS that are timed when
+ * instrumentation is enabled, see {@link JargonMetricsSink}
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public enum ConnectionLifecycleEvent {
+
+	/**
+	 * Open the socket to the iRODS agent
+	 */
+	CONNECT,
+
+	/**
+	 * Send the startup pack and do the client/server negotiation
+	 */
+	NEGOTIATE,
+
+	/**
+	 * Authenticate with the auth scheme of the account
+	 */
+	AUTHENTICATE,
+
+	/**
+	 * Close an aged connection and open a new one in its place
+	 */
+	RENEW,
+
+	/**
+	 * Send the disconnect and close the socket
+	 */
+	DISCONNECT
+
+}
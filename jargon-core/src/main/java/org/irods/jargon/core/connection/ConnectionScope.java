@@ -0,0 +1,74 @@
+package org.irods.jargon.core.connection;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+
+/**
+ * A block of work during which the calling thread holds one connection for an
+ * {@link IRODSAccount}. Access objects used inside the block share that
+ * connection, and it is given back to the {@link IRODSProtocolManager} when the
+ * outermost scope on the thread is closed, rather than staying bound to the
+ * thread until {@link IRODSSession#closeSession()}.
+ * <p>
+ * Scopes are opened with {@link IRODSSession#openConnectionScope(IRODSAccount)}
+ * and must be closed on the thread that opened them, typically with
+ * try-with-resources. Scopes nest, an inner scope for the same account uses the
+ * connection of the outer scope. If the thread already held a connection for
+ * the account when the scope was opened, the scope uses it and leaves it bound
+ * to the thread.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class ConnectionScope implements AutoCloseable {
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final IRODSMidLevelProtocol leasedConnection;
+	private final Thread owner;
+	private boolean closed = false;
+
+	ConnectionScope(final IRODSSession irodsSession, final IRODSAccount irodsAccount,
+			final IRODSMidLevelProtocol leasedConnection) {
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		this.leasedConnection = leasedConnection;
+		owner = Thread.currentThread();
+	}
+
+	/**
+	 * @return {@link IRODSAccount} the scope holds a connection for
+	 */
+	public IRODSAccount getIrodsAccount() {
+		return irodsAccount;
+	}
+
+	/**
+	 * @return {@link IRODSMidLevelProtocol} that this scope borrowed, or
+	 *         {@code null} if the scope is nested or uses a connection the thread
+	 *         already held
+	 */
+	IRODSMidLevelProtocol getLeasedConnection() {
+		return leasedConnection;
+	}
+
+	/**
+	 * Close the scope, giving back the connection if this is the outermost scope
+	 * that borrowed it. Closing a scope twice does nothing.
+	 *
+	 * @throws JargonException
+	 *             if the connection cannot be returned
+	 */
+	@Override
+	public void close() throws JargonException {
+		if (closed) {
+			return;
+		}
+		if (Thread.currentThread() != owner) {
+			throw new JargonRuntimeException("a connection scope must be closed by the thread that opened it");
+		}
+		closed = true;
+		irodsSession.closeConnectionScope(this);
+	}
+
+}
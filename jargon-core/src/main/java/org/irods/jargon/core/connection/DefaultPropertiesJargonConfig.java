@@ -159,6 +159,16 @@ public class DefaultPropertiesJargonConfig implements JargonProperties {
 		return Boolean.valueOf(propVal);
 	}
 
+	@Override
+	public boolean isDigestChecksumDuringTransfer() {
+		return verifyPropExistsAndGetAsBoolean("transfer.digest.checksum.during.transfer");
+	}
+
+	@Override
+	public boolean isClientDrivenParallelTransfer() {
+		return verifyPropExistsAndGetAsBoolean("transfer.client.driven.parallel");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -608,4 +618,50 @@ public class DefaultPropertiesJargonConfig implements JargonProperties {
 		return verifyPropExistsAndGetAsBoolean("rule.engine.set.destination.when.auto");
 
 	}
+
+	@Override
+	public int getConcurrentFileTransferThreads() {
+		return verifyPropExistsAndGetAsInt("transfer.concurrent.file.threads");
+	}
+
+	@Override
+	public int getPipelinedRequestWindow() {
+		return verifyPropExistsAndGetAsInt("pipelined.request.window");
+	}
+
+	@Override
+	public boolean isConnectionPerOperation() {
+		return verifyPropExistsAndGetAsBoolean("connection.per.operation");
+	}
+
+	@Override
+	public boolean isObjStatCacheEnabled() {
+		return verifyPropExistsAndGetAsBoolean("objstat.cache.enabled");
+	}
+
+	@Override
+	public int getObjStatCacheTimeToLiveMillis() {
+		return verifyPropExistsAndGetAsInt("objstat.cache.time.to.live.millis");
+	}
+
+	@Override
+	public int getObjStatCacheMaxEntries() {
+		return verifyPropExistsAndGetAsInt("objstat.cache.max.entries");
+	}
+
+	@Override
+	public int getLocalChecksumReadBufferSize() {
+		return verifyPropExistsAndGetAsInt("local.checksum.read.buffer.size");
+	}
+
+	@Override
+	public int getLocalChecksumMaxConcurrentFiles() {
+		return verifyPropExistsAndGetAsInt("local.checksum.max.concurrent.files");
+	}
+
+	@Override
+	public String getLongTransferRestartJournalFile() {
+		return verifyPropExistsAndGetAsString("transfer.long.file.restart.journal");
+	}
+
 }
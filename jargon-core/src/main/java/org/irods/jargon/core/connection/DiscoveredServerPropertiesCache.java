@@ -53,6 +53,9 @@ public class DiscoveredServerPropertiesCache {
 	public static final String EIRODS = "eirods";
 	public static final String RULE_BASE = "loadedRules";
 	public static final String CHECKSUM_TYPE = "checksumType";
+	public static final String ATOMIC_METADATA_OPERATIONS_SUPPORTED = "atomicMetadataOperationsSupported";
+	public static final String ATOMIC_ACL_OPERATIONS_SUPPORTED = "atomicAclOperationsSupported";
+	public static final String REPLICA_ACCESS_SUPPORTED = "replicaAccessSupported";
 
 	public static final String IS_TRUE = "true";
 	public static final String IS_FALSE = "false";
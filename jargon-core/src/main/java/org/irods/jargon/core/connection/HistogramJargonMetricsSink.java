@@ -0,0 +1,229 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link JargonMetricsSink}, keeping a {@link LockFreeHistogram} of the
+ * send, wait and read time of each API number and message type, of each
+ * connection life cycle step, and of the throughput of each parallel transfer
+ * thread. Recording takes no locks. The measurements can be read here or
+ * through JMX, where {@link IRODSSession} registers the sink it creates as
+ * {@code org.irods.jargon.core.connection:type=JargonMetrics}.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class HistogramJargonMetricsSink implements JargonMetricsSink, JargonMetricsMBean {
+
+	private final ConcurrentHashMap<String, ApiCallMetrics> apiCallMetrics = new ConcurrentHashMap<String, ApiCallMetrics>();
+	private final Map<ConnectionLifecycleEvent, LifecycleMetrics> lifecycleMetrics = new EnumMap<ConnectionLifecycleEvent, LifecycleMetrics>(
+			ConnectionLifecycleEvent.class);
+	private final TransferMetrics putMetrics = new TransferMetrics();
+	private final TransferMetrics getMetrics = new TransferMetrics();
+
+	public HistogramJargonMetricsSink() {
+		// filled once here, so the map is only read afterwards
+		for (ConnectionLifecycleEvent event : ConnectionLifecycleEvent.values()) {
+			lifecycleMetrics.put(event, new LifecycleMetrics());
+		}
+	}
+
+	@Override
+	public void apiCallCompleted(final int apiNumber, final String messageType, final long sendNanos,
+			final long waitNanos, final long readNanos, final long bytesSent, final long bytesReceived,
+			final int errorCode) {
+		String key = apiNumber + ":" + messageType;
+		ApiCallMetrics metrics = apiCallMetrics.get(key);
+		if (metrics == null) {
+			metrics = new ApiCallMetrics();
+			ApiCallMetrics existing = apiCallMetrics.putIfAbsent(key, metrics);
+			if (existing != null) {
+				metrics = existing;
+			}
+		}
+
+		metrics.send.record(sendNanos);
+		metrics.wait.record(waitNanos);
+		metrics.read.record(readNanos);
+		metrics.bytesSent.add(bytesSent);
+		metrics.bytesReceived.add(bytesReceived);
+		if (errorCode != 0) {
+			LongAdder errors = metrics.errorCounts.get(errorCode);
+			if (errors == null) {
+				errors = new LongAdder();
+				LongAdder existing = metrics.errorCounts.putIfAbsent(errorCode, errors);
+				if (existing != null) {
+					errors = existing;
+				}
+			}
+			errors.increment();
+		}
+	}
+
+	@Override
+	public void connectionLifecycleEvent(final ConnectionLifecycleEvent connectionLifecycleEvent,
+			final long elapsedNanos, final boolean succeeded) {
+		LifecycleMetrics metrics = lifecycleMetrics.get(connectionLifecycleEvent);
+		metrics.elapsed.record(elapsedNanos);
+		if (!succeeded) {
+			metrics.failures.increment();
+		}
+	}
+
+	@Override
+	public void parallelTransferThreadCompleted(final boolean put, final int threadNumber,
+			final long bytesTransferred, final long elapsedNanos) {
+		TransferMetrics metrics = put ? putMetrics : getMetrics;
+		metrics.bytes.add(bytesTransferred);
+		if (elapsedNanos > 0) {
+			metrics.bytesPerSecond.record((long) (bytesTransferred * 1e9 / elapsedNanos));
+		}
+	}
+
+	/**
+	 * @param apiNumber
+	 *            {@code int} with the iRODS API number
+	 * @param messageType
+	 *            {@code String} with the message type as given to
+	 *            {@link #apiCallCompleted(int, String, long, long, long, long, long, int)}
+	 * @return {@link LockFreeHistogram} of the wait times in nanoseconds, or
+	 *         {@code null} if no such call was recorded
+	 */
+	public LockFreeHistogram getWaitHistogram(final int apiNumber, final String messageType) {
+		ApiCallMetrics metrics = apiCallMetrics.get(apiNumber + ":" + messageType);
+		return metrics == null ? null : metrics.wait;
+	}
+
+	/**
+	 * @param connectionLifecycleEvent
+	 *            {@link ConnectionLifecycleEvent}
+	 * @return {@link LockFreeHistogram} of the times in nanoseconds
+	 */
+	public LockFreeHistogram getLifecycleHistogram(final ConnectionLifecycleEvent connectionLifecycleEvent) {
+		return lifecycleMetrics.get(connectionLifecycleEvent).elapsed;
+	}
+
+	/**
+	 * @param put
+	 *            {@code boolean} of {@code true} for put threads, {@code false}
+	 *            for get threads
+	 * @return {@link LockFreeHistogram} of the per-thread throughput in bytes
+	 *         per second
+	 */
+	public LockFreeHistogram getParallelTransferThroughputHistogram(final boolean put) {
+		return put ? putMetrics.bytesPerSecond : getMetrics.bytesPerSecond;
+	}
+
+	@Override
+	public long getApiCallCount() {
+		long total = 0;
+		for (ApiCallMetrics metrics : apiCallMetrics.values()) {
+			total += metrics.wait.getCount();
+		}
+		return total;
+	}
+
+	@Override
+	public long getApiErrorCount() {
+		long total = 0;
+		for (ApiCallMetrics metrics : apiCallMetrics.values()) {
+			for (LongAdder errors : metrics.errorCounts.values()) {
+				total += errors.sum();
+			}
+		}
+		return total;
+	}
+
+	@Override
+	public String[] getApiCallSummaries() {
+		List<String> summaries = new ArrayList<String>();
+		for (Map.Entry<String, ApiCallMetrics> entry : new TreeMap<String, ApiCallMetrics>(apiCallMetrics)
+				.entrySet()) {
+			ApiCallMetrics metrics = entry.getValue();
+			StringBuilder builder = new StringBuilder();
+			builder.append("api=").append(entry.getKey()).append(", count=").append(metrics.wait.getCount())
+					.append(", sendMicros[").append(micros(metrics.send)).append("], waitMicros[")
+					.append(micros(metrics.wait)).append("], readMicros[").append(micros(metrics.read))
+					.append("], bytesSent=").append(metrics.bytesSent.sum()).append(", bytesReceived=")
+					.append(metrics.bytesReceived.sum()).append(", errors=")
+					.append(new TreeMap<Integer, LongAdder>(metrics.errorCounts));
+			summaries.add(builder.toString());
+		}
+		return summaries.toArray(new String[summaries.size()]);
+	}
+
+	@Override
+	public String[] getConnectionLifecycleSummaries() {
+		List<String> summaries = new ArrayList<String>();
+		for (Map.Entry<ConnectionLifecycleEvent, LifecycleMetrics> entry : lifecycleMetrics.entrySet()) {
+			StringBuilder builder = new StringBuilder();
+			builder.append(entry.getKey()).append(": micros[").append(micros(entry.getValue().elapsed))
+					.append("], failures=").append(entry.getValue().failures.sum());
+			summaries.add(builder.toString());
+		}
+		return summaries.toArray(new String[summaries.size()]);
+	}
+
+	@Override
+	public String[] getParallelTransferSummaries() {
+		return new String[] { "put: " + putMetrics, "get: " + getMetrics };
+	}
+
+	@Override
+	public void reset() {
+		apiCallMetrics.clear();
+		for (LifecycleMetrics metrics : lifecycleMetrics.values()) {
+			metrics.elapsed.reset();
+			metrics.failures.reset();
+		}
+		putMetrics.reset();
+		getMetrics.reset();
+	}
+
+	private static String micros(final LockFreeHistogram histogram) {
+		StringBuilder builder = new StringBuilder();
+		builder.append("mean=").append(TimeUnit.NANOSECONDS.toMicros(histogram.getMean())).append(", p50=")
+				.append(TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(50))).append(", p99=")
+				.append(TimeUnit.NANOSECONDS.toMicros(histogram.getPercentile(99))).append(", max=")
+				.append(TimeUnit.NANOSECONDS.toMicros(histogram.getMax()));
+		return builder.toString();
+	}
+
+	private static final class ApiCallMetrics {
+		private final LockFreeHistogram send = new LockFreeHistogram();
+		private final LockFreeHistogram wait = new LockFreeHistogram();
+		private final LockFreeHistogram read = new LockFreeHistogram();
+		private final LongAdder bytesSent = new LongAdder();
+		private final LongAdder bytesReceived = new LongAdder();
+		private final ConcurrentHashMap<Integer, LongAdder> errorCounts = new ConcurrentHashMap<Integer, LongAdder>();
+	}
+
+	private static final class LifecycleMetrics {
+		private final LockFreeHistogram elapsed = new LockFreeHistogram();
+		private final LongAdder failures = new LongAdder();
+	}
+
+	private static final class TransferMetrics {
+		private final LockFreeHistogram bytesPerSecond = new LockFreeHistogram();
+		private final LongAdder bytes = new LongAdder();
+
+		void reset() {
+			bytesPerSecond.reset();
+			bytes.reset();
+		}
+
+		@Override
+		public String toString() {
+			return "threads=" + bytesPerSecond.getCount() + ", bytes=" + bytes.sum() + ", bytesPerSecondPerThread["
+					+ bytesPerSecond + "]";
+		}
+	}
+
+}
@@ -6,11 +6,16 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.irods.jargon.core.connection.AbstractConnection.EncryptionType;
 import org.irods.jargon.core.connection.auth.AuthResponse;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.ProtocolFormException;
+import org.irods.jargon.core.jfr.JargonFlightRecorder;
+import org.irods.jargon.core.jfr.ProtocolCallEvent;
 import org.irods.jargon.core.packinstr.AbstractIRODSPackingInstruction;
 import org.irods.jargon.core.packinstr.IRodsPI;
 import org.irods.jargon.core.packinstr.RErrMsg;
@@ -115,6 +120,43 @@ public class IRODSMidLevelProtocol {
 	 */
 	private IRODSAccount irodsAccount;
 
+	/**
+	 * Largest receive buffer that is kept between messages, bigger messages are
+	 * read into a buffer of their own
+	 */
+	private static final int MAX_RETAINED_RECEIVE_BUFFER = 1024 * 1024;
+
+	/**
+	 * Reusable buffer for protocol headers and message bodies, which are parsed
+	 * straight from these bytes. Access is guarded by the synchronization on the
+	 * public methods of this class.
+	 */
+	private byte[] receiveBuffer = new byte[8192];
+
+	/**
+	 * Most requests whose timing is kept while waiting for their responses, a
+	 * caller that sends more without reading loses the oldest
+	 */
+	private static final int MAX_TIMED_REQUESTS = 256;
+
+	/**
+	 * Requests sent and not yet answered, in order, when {@code jargon.instrument}
+	 * is set or protocol calls are being flight recorded. Empty otherwise.
+	 */
+	private final ArrayDeque<TimedRequest> timedRequests = new ArrayDeque<TimedRequest>();
+
+	/**
+	 * The request whose response is being read, so that the header arrival can
+	 * be marked
+	 */
+	private TimedRequest readingRequest = null;
+
+	/**
+	 * Packing instruction class of the request about to be sent, used to name
+	 * it in the metrics
+	 */
+	private Class<?> nextRequestType = null;
+
 	/**
 	 * Create a base instance of the mid level protocol, which may be processed
 	 * through multiple phases before being ready for use.
@@ -234,11 +276,9 @@ public class IRODSMidLevelProtocol {
 		// message may be null for some operations
 
 		try {
-			int messageLength = 0;
-
-			messageLength = inputJson.getBytes(getEncoding()).length;
+			byte[] messageBytes = inputJson.getBytes(getEncoding());
 
-			sendHeader(IRODSConstants.RODS_API_REQ, messageLength, 0, 0, apiNumber);
+			sendHeader(IRODSConstants.RODS_API_REQ, messageBytes.length, 0, 0, apiNumber);
 
 			if (getStartupResponseData() == null) {
 				log.debug("no ssl flush checking during negotiation");
@@ -247,7 +287,7 @@ public class IRODSMidLevelProtocol {
 				getIrodsConnection().flush();
 			}
 
-			getIrodsConnection().send(inputJson);
+			getIrodsConnection().send(messageBytes);
 			getIrodsConnection().flush();
 
 		} catch (UnsupportedEncodingException e) {
@@ -271,7 +311,25 @@ public class IRODSMidLevelProtocol {
 	 */
 	public synchronized String readPluggableApiMessage() throws JargonException {
 		log.debug("readPluggableApiMessage()");
+		TimedRequest timedRequest = beginTimedResponse();
+		if (timedRequest == null) {
+			return readPluggableApiResponse();
+		}
+
+		int errorCode = 0;
+		try {
+			return readPluggableApiResponse();
+		} catch (JargonException e) {
+			errorCode = errorCodeOf(e);
+			throw e;
+		} finally {
+			completeTimedResponse(timedRequest, errorCode);
+		}
+	}
+
+	private String readPluggableApiResponse() throws JargonException {
 		Tag header = readHeader();
+		markResponseHeaderRead();
 		String message = null;
 
 		int messageLength = header.getTags()[1].getIntValue();
@@ -392,10 +450,13 @@ public class IRODSMidLevelProtocol {
 		// message may be null for some operations
 
 		try {
+			// encode once, the same bytes give the length and are sent
+			byte[] messageBytes = null;
 			int messageLength = 0;
 
 			if (message != null) {
-				messageLength = message.getBytes(getEncoding()).length;
+				messageBytes = message.getBytes(getEncoding());
+				messageLength = messageBytes.length;
 			}
 
 			sendHeader(type, messageLength, errorLength, byteBufferLength, intInfo);
@@ -407,7 +468,9 @@ public class IRODSMidLevelProtocol {
 				getIrodsConnection().flush();
 			}
 
-			getIrodsConnection().send(message);
+			if (messageBytes != null) {
+				getIrodsConnection().send(messageBytes);
+			}
 			getIrodsConnection().flush();
 
 			if (byteBufferLength > 0) {
@@ -489,6 +552,7 @@ public class IRODSMidLevelProtocol {
 			}
 
 			getIrodsConnection().flush();
+			completeUnansweredRequest();
 
 		} catch (UnsupportedEncodingException e) {
 			log.error("unsupported encoding", e);
@@ -514,6 +578,13 @@ public class IRODSMidLevelProtocol {
 	public void sendHeader(final String type, final int messageLength, final int errorLength,
 			final long byteStringLength, final int intInfo) throws JargonException, IOException {
 
+		boolean instrumenting = isInstrumenting();
+		ProtocolCallEvent protocolCallEvent = JargonFlightRecorder.beginProtocolCall();
+		if (instrumenting || protocolCallEvent != null) {
+			startTimedRequest(type, intInfo, instrumenting, protocolCallEvent);
+		}
+		nextRequestType = null;
+
 		byte[] header = createHeader(type, messageLength, errorLength, byteStringLength, intInfo);
 
 		int len = header.length;
@@ -602,17 +673,15 @@ public class IRODSMidLevelProtocol {
 		log.debug("calling irodsFunctionForStreamingToIRODSInFrames");
 		log.debug("calling irods function with:{}", irodsPI);
 		log.debug("api number is:{}", irodsPI.getApiNumber());
+		nextRequestType = irodsPI.getClass();
 
 		long dataSent = 0;
 
 		try {
-			int length = 0;
-			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(irodsConnection.getPipelineConfiguration().getDefaultEncoding()).length;
-			}
-			sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
-			irodsConnection.send(message);
+			byte[] messageBytes = encodeMessage(irodsPI.getParsedTags());
+			sendHeader(IRODSConstants.RODS_API_REQ, messageBytes.length, 0, byteStreamLength,
+					irodsPI.getApiNumber());
+			irodsConnection.send(messageBytes);
 
 			if (byteStreamLength > 0) {
 				dataSent += irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
@@ -690,18 +759,17 @@ public class IRODSMidLevelProtocol {
 		log.debug("calling irods function with streams");
 		log.debug("calling irods function with:{}", irodsPI);
 		log.debug("api number is:{}", irodsPI.getApiNumber());
+		nextRequestType = irodsPI.getClass();
 
 		try {
-			int length = 0;
 			String message = irodsPI.getParsedTags();
-			if (message != null) {
-				length = message.getBytes(getEncoding()).length;
-			}
+			byte[] messageBytes = encodeMessage(message);
 
 			log.debug("message:{}", message);
 
-			sendHeader(IRODSConstants.RODS_API_REQ, length, 0, byteStreamLength, irodsPI.getApiNumber());
-			irodsConnection.send(message);
+			sendHeader(IRODSConstants.RODS_API_REQ, messageBytes.length, 0, byteStreamLength,
+					irodsPI.getApiNumber());
+			irodsConnection.send(messageBytes);
 
 			if (byteStreamLength > 0) {
 				irodsConnection.send(byteStream, byteStreamLength, connectionProgressStatusListener);
@@ -771,9 +839,11 @@ public class IRODSMidLevelProtocol {
 		}
 
 		try {
-			sendHeader(IRODSConstants.RODS_API_REQ, out.getBytes(getEncoding()).length, errorLength, byteStreamLength,
+			byte[] messageBytes = out.getBytes(getEncoding());
+			nextRequestType = irodsPI.getClass();
+			sendHeader(IRODSConstants.RODS_API_REQ, messageBytes.length, errorLength, byteStreamLength,
 					irodsPI.getApiNumber());
-			irodsConnection.send(out);
+			irodsConnection.send(messageBytes);
 
 			if (byteStreamLength > 0) {
 				irodsConnection.send(bytes, byteOffset, byteStreamLength);
@@ -906,7 +976,87 @@ public class IRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		return irodsFunction(IRODSConstants.RODS_API_REQ, irodsPI.getParsedTags(), irodsPI.getApiNumber());
+		String message = irodsPI.getParsedTags();
+		nextRequestType = irodsPI.getClass();
+		return irodsFunction(IRODSConstants.RODS_API_REQ, message, irodsPI.getApiNumber());
+	}
+
+	/**
+	 * Send a batch of independent requests, writing up to {@code window} of them
+	 * back to back before reading the responses in the order the requests were
+	 * sent. Over a high latency link this costs about one round trip per window
+	 * rather than one per request.
+	 * <p>
+	 * An error that iRODS returns for a request is recorded in its
+	 * {@link PipelinedResponse} and the remaining responses are still read, as
+	 * each reply is consumed in full. An I/O error loses the connection, and is
+	 * thrown. The requests must not depend on each other, and must be plain
+	 * request and reply calls with no byte stream in either direction.
+	 * <p>
+	 * The window bounds how many responses iRODS may have queued for this client,
+	 * so that neither side blocks writing while the other is not reading.
+	 *
+	 * @param irodsPIs {@code List} of {@link IRodsPI} with the requests to send
+	 * @param window   {@code int} with the number of requests that may be
+	 *                 outstanding, 1 or less sends each request and waits for its
+	 *                 response
+	 * @return {@code List} of {@link PipelinedResponse}, one per request in the
+	 *         same order
+	 * @throws JargonException if the connection fails
+	 */
+	public synchronized List<PipelinedResponse> irodsFunctionPipelined(final List<? extends IRodsPI> irodsPIs,
+			final int window) throws JargonException {
+
+		if (irodsPIs == null) {
+			throw new IllegalArgumentException("null irodsPIs");
+		}
+
+		int effectiveWindow = Math.max(1, window);
+		int count = irodsPIs.size();
+		log.debug("sending {} requests with window {}", count, effectiveWindow);
+		List<PipelinedResponse> responses = new ArrayList<PipelinedResponse>(count);
+
+		int sent = 0;
+		while (responses.size() < count) {
+			try {
+				while (sent < count && sent - responses.size() < effectiveWindow) {
+					sendPipelinedRequest(irodsPIs.get(sent++));
+				}
+				irodsConnection.flush();
+			} catch (UnsupportedEncodingException e) {
+				log.error("unsupported encoding", e);
+				throw new JargonException(e);
+			} catch (IOException e) {
+				log.error("io exception sending pipelined requests", e);
+				disconnectWithForce();
+				throw new JargonException(e);
+			}
+
+			IRodsPI request = irodsPIs.get(responses.size());
+			try {
+				responses.add(PipelinedResponse.success(request, readMessage()));
+			} catch (JargonException e) {
+				if (!isConnected()) {
+					log.error("connection lost reading pipelined response", e);
+					throw e;
+				}
+				log.debug("error response to pipelined request:{}", e.getMessage());
+				responses.add(PipelinedResponse.failure(request, e));
+			}
+		}
+
+		return responses;
+	}
+
+	private void sendPipelinedRequest(final IRodsPI irodsPI) throws JargonException, IOException {
+		if (irodsPI == null) {
+			throw new IllegalArgumentException("null irodsPI in pipelined requests");
+		}
+
+		byte[] messageBytes = encodeMessage(irodsPI.getParsedTags());
+		nextRequestType = irodsPI.getClass();
+		sendHeader(IRODSConstants.RODS_API_REQ, messageBytes.length, 0, 0, irodsPI.getApiNumber());
+		irodsConnection.send(messageBytes);
 	}
 
 	/**
@@ -929,7 +1079,9 @@ public class IRODSMidLevelProtocol {
 			throw new IllegalArgumentException(err);
 		}
 
-		return irodsFunction(IRODSConstants.RODS_NEG_REQ, irodsPI.getParsedTags(), irodsPI.getApiNumber());
+		String message = irodsPI.getParsedTags();
+		nextRequestType = irodsPI.getClass();
+		return irodsFunction(IRODSConstants.RODS_NEG_REQ, message, irodsPI.getApiNumber());
 	}
 
 	/**
@@ -1026,7 +1178,25 @@ public class IRODSMidLevelProtocol {
 	 */
 	public synchronized Tag readMessage(final boolean decode) throws JargonException {
 		log.debug("reading message from irods");
+		TimedRequest timedRequest = beginTimedResponse();
+		if (timedRequest == null) {
+			return readResponse(decode);
+		}
+
+		int errorCode = 0;
+		try {
+			return readResponse(decode);
+		} catch (JargonException e) {
+			errorCode = errorCodeOf(e);
+			throw e;
+		} finally {
+			completeTimedResponse(timedRequest, errorCode);
+		}
+	}
+
+	private Tag readResponse(final boolean decode) throws JargonException {
 		Tag header = readHeader();
+		markResponseHeaderRead();
 		Tag message = null;
 
 		int messageLength = header.getTags()[1].getIntValue();
@@ -1101,34 +1271,18 @@ public class IRODSMidLevelProtocol {
 	public synchronized void shutdown() throws JargonException {
 		log.debug("shutting down, need to send disconnect to irods");
 		if (isConnected()) {
-
-			preDisconnectAction();
-
-			log.debug("sending disconnect message");
+			JargonMetricsSink jargonMetricsSink = isInstrumenting() ? metricsSink() : null;
+			long start = System.nanoTime();
+			boolean succeeded = false;
 			try {
-				sendHeader(RequestTypes.RODS_DISCONNECT.getRequestType(), 0, 0, 0, 0);
-				irodsConnection.flush();
-				log.debug("finally, shutdown is being called on the given connection");
-				irodsConnection.shutdown();
-				if (getIrodsConnectionNonEncryptedRef() != null) {
-					getIrodsConnectionNonEncryptedRef().shutdown();
+				sendDisconnect();
+				succeeded = true;
+			} finally {
+				if (jargonMetricsSink != null) {
+					jargonMetricsSink.connectionLifecycleEvent(ConnectionLifecycleEvent.DISCONNECT,
+							System.nanoTime() - start, succeeded);
 				}
-			} catch (ClosedChannelException e) {
-				log.error("closed channel", e);
-				disconnectWithForce();
-
-				throw new JargonException(e);
-			} catch (InterruptedIOException e) {
-				log.error("interrupted io", e);
-				disconnectWithForce();
-
-				throw new JargonException(e);
-			} catch (IOException e) {
-				log.error("io exception", e);
-				disconnectWithForce();
-				throw new JargonException(e);
 			}
-
 		} else {
 			log.warn(
 					"disconnect called, but isConnected() is false, this is an unexpected condition that is logged and ignored");
@@ -1136,6 +1290,36 @@ public class IRODSMidLevelProtocol {
 
 	}
 
+	private void sendDisconnect() throws JargonException {
+		preDisconnectAction();
+
+		log.debug("sending disconnect message");
+		try {
+			sendHeader(RequestTypes.RODS_DISCONNECT.getRequestType(), 0, 0, 0, 0);
+			irodsConnection.flush();
+			completeUnansweredRequest();
+			log.debug("finally, shutdown is being called on the given connection");
+			irodsConnection.shutdown();
+			if (getIrodsConnectionNonEncryptedRef() != null) {
+				getIrodsConnectionNonEncryptedRef().shutdown();
+			}
+		} catch (ClosedChannelException e) {
+			log.error("closed channel", e);
+			disconnectWithForce();
+
+			throw new JargonException(e);
+		} catch (InterruptedIOException e) {
+			log.error("interrupted io", e);
+			disconnectWithForce();
+
+			throw new JargonException(e);
+		} catch (IOException e) {
+			log.error("io exception", e);
+			disconnectWithForce();
+			throw new JargonException(e);
+		}
+	}
+
 	/**
 	 * Method that will cause the connection to be released, returning it to the
 	 * {@code IRODSProtocolManager} for actual shutdown or return to a pool.
@@ -1384,7 +1568,7 @@ public class IRODSMidLevelProtocol {
 
 		}
 
-		header = new byte[length];
+		header = receiveBufferOfLength(length);
 		try {
 			irodsConnection.read(header, 0, length);
 		} catch (IOException e) {
@@ -1394,7 +1578,7 @@ public class IRODSMidLevelProtocol {
 		}
 
 		try {
-			return Tag.readNextTag(header, getEncoding());
+			return Tag.readNextTag(header, 0, length, true, getEncoding());
 		} catch (UnsupportedEncodingException e) {
 			log.error("Unsupported encoding for:{}", getEncoding());
 			throw new JargonException("Unsupported encoding for:" + getEncoding());
@@ -1421,7 +1605,7 @@ public class IRODSMidLevelProtocol {
 	}
 
 	Tag readMessageBody(final int length, final boolean decode) throws JargonException {
-		byte[] body = new byte[length];
+		byte[] body = receiveBufferOfLength(length);
 		try {
 			irodsConnection.read(body, 0, length);
 		} catch (ClosedChannelException e) {
@@ -1438,13 +1622,49 @@ public class IRODSMidLevelProtocol {
 			throw new JargonException(e);
 		}
 		try {
-			return Tag.readNextTag(body, decode, getEncoding());
+			return Tag.readNextTag(body, 0, length, decode, getEncoding());
 		} catch (UnsupportedEncodingException e) {
 			log.error("Unsupported encoding for:{}", getEncoding());
 			throw new JargonException("Unsupported encoding for:" + getEncoding());
 		}
 	}
 
+	/**
+	 * Get a buffer of at least the given length to read a message into. The
+	 * message is parsed into a {@link Tag} that holds no reference to the buffer,
+	 * so it is reused for the next message.
+	 *
+	 * @param length {@code int} with the length of the message
+	 * @return {@code byte[]} of at least {@code length}
+	 */
+	private byte[] receiveBufferOfLength(final int length) {
+		if (length <= receiveBuffer.length) {
+			return receiveBuffer;
+		}
+
+		if (length > MAX_RETAINED_RECEIVE_BUFFER) {
+			return new byte[length];
+		}
+
+		receiveBuffer = new byte[Math.max(length, Math.min(receiveBuffer.length * 2, MAX_RETAINED_RECEIVE_BUFFER))];
+		return receiveBuffer;
+	}
+
+	/**
+	 * Encode a packing instruction in the connection character set
+	 *
+	 * @param message {@code String} with the message, may be {@code null}
+	 * @return {@code byte[]} with the encoded message, empty if the message is
+	 *         {@code null}
+	 * @throws UnsupportedEncodingException for an invalid encoding
+	 */
+	private byte[] encodeMessage(final String message) throws UnsupportedEncodingException {
+		if (message == null) {
+			return new byte[0];
+		}
+		return message.getBytes(getEncoding());
+	}
+
 	Tag processMessageErrorNotEqualZero(final int errorLength) throws JargonException {
 		log.debug("error length is not zero, process error");
 		byte[] errorMessage = new byte[errorLength];
@@ -1646,4 +1866,146 @@ public class IRODSMidLevelProtocol {
 		this.irodsConnectionNonEncryptedRef = irodsConnectionNonEncryptedRef;
 	}
 
+	/**
+	 * Requests are only reported to the metrics sink when {@code jargon.instrument}
+	 * is set, and there is a session to report to
+	 */
+	private boolean isInstrumenting() {
+		PipelineConfiguration pipelineConfiguration = getPipelineConfiguration();
+		return pipelineConfiguration != null && pipelineConfiguration.isInstrument() && irodsSession != null;
+	}
+
+	private JargonMetricsSink metricsSink() {
+		IRODSSession session = irodsSession;
+		return session == null ? null : session.getJargonMetricsSink();
+	}
+
+	/**
+	 * Note a request whose header is about to be sent. Sending it ends the
+	 * sending of any request before it that is still waiting for a response, so
+	 * that pipelined requests are each charged their own bytes.
+	 */
+	private void startTimedRequest(final String type, final int intInfo, final boolean instrumenting,
+			final ProtocolCallEvent protocolCallEvent) {
+		long now = System.nanoTime();
+		long bytesSent = irodsConnection.getBytesSent();
+		TimedRequest previous = timedRequests.peekLast();
+		if (previous != null) {
+			previous.sendCompleted(now, bytesSent);
+		}
+
+		if (timedRequests.size() >= MAX_TIMED_REQUESTS) {
+			timedRequests.pollFirst();
+		}
+
+		String messageType = nextRequestType == null ? type : nextRequestType.getSimpleName();
+		timedRequests.addLast(
+				new TimedRequest(intInfo, messageType, now, bytesSent, instrumenting, protocolCallEvent));
+	}
+
+	/**
+	 * @return {@link TimedRequest} that the response about to be read answers, or
+	 *         {@code null} if requests are not timed, or this is a further message
+	 *         in an exchange already accounted for
+	 */
+	private TimedRequest beginTimedResponse() {
+		TimedRequest timedRequest = timedRequests.pollFirst();
+		if (timedRequest != null) {
+			long now = System.nanoTime();
+			timedRequest.sendCompleted(now, irodsConnection.getBytesSent());
+			timedRequest.responseStartNanos = now;
+			timedRequest.bytesReceivedAtResponseStart = irodsConnection.getBytesReceived();
+			readingRequest = timedRequest;
+		}
+		return timedRequest;
+	}
+
+	private void markResponseHeaderRead() {
+		if (readingRequest != null) {
+			readingRequest.headerReadNanos = System.nanoTime();
+			readingRequest.headerRead = true;
+		}
+	}
+
+	private void completeTimedResponse(final TimedRequest timedRequest, final int errorCode) {
+		readingRequest = null;
+		long bytesReceived = Math.max(0,
+				irodsConnection.getBytesReceived() - timedRequest.bytesReceivedAtResponseStart);
+		JargonFlightRecorder.commitProtocolCall(timedRequest.protocolCallEvent, timedRequest.apiNumber,
+				timedRequest.messageType, timedRequest.bytesSent, bytesReceived, errorCode);
+
+		JargonMetricsSink jargonMetricsSink = timedRequest.instrumenting ? metricsSink() : null;
+		if (jargonMetricsSink == null) {
+			return;
+		}
+
+		long now = System.nanoTime();
+		long headerReadNanos = timedRequest.headerRead ? timedRequest.headerReadNanos : now;
+		jargonMetricsSink.apiCallCompleted(timedRequest.apiNumber, timedRequest.messageType,
+				timedRequest.sendDoneNanos - timedRequest.startNanos, headerReadNanos - timedRequest.responseStartNanos,
+				now - headerReadNanos, timedRequest.bytesSent, bytesReceived, errorCode);
+	}
+
+	/**
+	 * Report the request just sent, for calls where iRODS sends no response
+	 */
+	private void completeUnansweredRequest() {
+		TimedRequest timedRequest = timedRequests.pollLast();
+		if (timedRequest == null) {
+			return;
+		}
+
+		timedRequest.sendCompleted(System.nanoTime(), irodsConnection.getBytesSent());
+		JargonFlightRecorder.commitProtocolCall(timedRequest.protocolCallEvent, timedRequest.apiNumber,
+				timedRequest.messageType, timedRequest.bytesSent, 0, 0);
+		JargonMetricsSink jargonMetricsSink = timedRequest.instrumenting ? metricsSink() : null;
+		if (jargonMetricsSink != null) {
+			jargonMetricsSink.apiCallCompleted(timedRequest.apiNumber, timedRequest.messageType,
+					timedRequest.sendDoneNanos - timedRequest.startNanos, 0, 0, timedRequest.bytesSent, 0, 0);
+		}
+	}
+
+	private static int errorCodeOf(final JargonException e) {
+		int code = e.getUnderlyingIRODSExceptionCode();
+		return code == 0 ? -1 : code;
+	}
+
+	/**
+	 * Times of one request, from the start of sending it to the end of reading
+	 * its response
+	 */
+	private static final class TimedRequest {
+		private final int apiNumber;
+		private final String messageType;
+		private final long startNanos;
+		private final long bytesSentAtStart;
+		private final boolean instrumenting;
+		private final ProtocolCallEvent protocolCallEvent;
+		private boolean sent = false;
+		private long sendDoneNanos;
+		private long bytesSent;
+		private long responseStartNanos;
+		private long bytesReceivedAtResponseStart;
+		private boolean headerRead = false;
+		private long headerReadNanos;
+
+		TimedRequest(final int apiNumber, final String messageType, final long startNanos,
+				final long bytesSentAtStart, final boolean instrumenting, final ProtocolCallEvent protocolCallEvent) {
+			this.apiNumber = apiNumber;
+			this.messageType = messageType;
+			this.startNanos = startNanos;
+			this.bytesSentAtStart = bytesSentAtStart;
+			this.instrumenting = instrumenting;
+			this.protocolCallEvent = protocolCallEvent;
+		}
+
+		void sendCompleted(final long nanos, final long connectionBytesSent) {
+			if (!sent) {
+				sent = true;
+				sendDoneNanos = nanos;
+				bytesSent = Math.max(0, connectionBytesSent - bytesSentAtStart);
+			}
+		}
+	}
+
 }
@@ -3,8 +3,10 @@
  */
 package org.irods.jargon.core.connection;
 
+import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
@@ -17,13 +19,17 @@ import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.NotCompliantMBeanException;
 import javax.management.ObjectName;
+import javax.management.StandardMBean;
 import javax.net.ssl.X509TrustManager;
 
 import org.irods.jargon.core.checksum.LocalChecksumComputerFactory;
 import org.irods.jargon.core.checksum.LocalChecksumComputerFactoryImpl;
+import org.irods.jargon.core.checksum.LocalChecksumEngine;
 import org.irods.jargon.core.exception.AuthenticationException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.jfr.ConnectionEvent;
+import org.irods.jargon.core.jfr.JargonFlightRecorder;
 import org.irods.jargon.core.packinstr.TransferOptions;
 import org.irods.jargon.core.pub.IRODSFileSystem;
 import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
@@ -39,6 +45,8 @@ import org.irods.jargon.core.query.RodsGenQueryEnum;
 import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
 import org.irods.jargon.core.transfer.AbstractRestartManager;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.FileRestartManagementException;
+import org.irods.jargon.core.transfer.MappedJournalTransferRestartManager;
 import org.irods.jargon.core.transfer.MemoryBasedTransferRestartManager;
 import org.irods.jargon.core.transfer.TransferControlBlock;
 import org.irods.jargon.core.utils.MiscIRODSUtils;
@@ -65,6 +73,15 @@ import org.slf4j.LoggerFactory;
  * in the shared {@code IRODSFileSystem}. If desired, the developer can wrap
  * these objects as singletons, but that is not imposed by Jargon.
  * <p>
+ * Binding a connection to a thread until the session is closed means a thread
+ * pins a socket for as long as it lives. Work running on many short-lived or
+ * pooled threads can instead hold a connection for a block of work with
+ * {@link #openConnectionScope(IRODSAccount)}, and with the
+ * {@code connection.per.operation} property set, the access objects open such
+ * a scope around each operation themselves. Paired with a pooling
+ * {@code IRODSProtocolManager}, the number of sockets is then bounded by the
+ * pool rather than by the number of threads.
+ * <p>
  * The {@code IRODSAccount} presented by the user is the key to the session
  * cache. The actual operative account is stored within the iRODS protocol. For
  * example, a PAM login may create a temp irods user under the covers, so a user
@@ -82,6 +99,20 @@ public class IRODSSession {
 	 */
 	public static final ThreadLocal<Map<String, IRODSMidLevelProtocol>> sessionMap = new ThreadLocal<Map<String, IRODSMidLevelProtocol>>();
 
+	/**
+	 * Depth of the {@link ConnectionScope}s open on this thread, keyed like the
+	 * {@code sessionMap}
+	 */
+	private static final ThreadLocal<Map<String, Integer>> connectionScopeDepths = new ThreadLocal<Map<String, Integer>>();
+
+	/**
+	 * Connections borrowed by a {@link ConnectionScope}, with the number of
+	 * holders. A connection goes back to the {@code IRODSProtocolManager} when the
+	 * last holder releases it, which lets an open query result outlive the scope
+	 * that ran it. Guarded by itself.
+	 */
+	private final Map<IRODSMidLevelProtocol, Integer> connectionLeases = new IdentityHashMap<IRODSMidLevelProtocol, Integer>();
+
 	/**
 	 * The parallel transfer thread pool is lazily initialized on the first parallel
 	 * transfer operation. This will use the {@code JargonProperties} configured in
@@ -143,9 +174,16 @@ public class IRODSSession {
 	private JargonProperties jargonProperties;
 
 	/**
-	 * Factory to return a checksum computation strategy
+	 * Reads and digests local files for checksums
 	 */
-	private final LocalChecksumComputerFactory localChecksumComputerFactory = new LocalChecksumComputerFactoryImpl();
+	private final LocalChecksumEngine localChecksumEngine = new LocalChecksumEngine();
+
+	/**
+	 * Factory to return a checksum computation strategy, the strategies share the
+	 * {@code localChecksumEngine}
+	 */
+	private final LocalChecksumComputerFactory localChecksumComputerFactory = new LocalChecksumComputerFactoryImpl(
+			localChecksumEngine);
 
 	/**
 	 * Simple cache (tolerating concurrent access) for name/value props. This cache
@@ -160,6 +198,21 @@ public class IRODSSession {
 	 */
 	private final DiscoveredServerPropertiesCache discoveredServerPropertiesCache = new DiscoveredServerPropertiesCache();
 
+	private final ObjStatAndListingCache objStatAndListingCache = new ObjStatAndListingCache();
+
+	/**
+	 * Receives measurements when {@code jargon.instrument} is set, created on
+	 * first use if none was provided. Volatile as it is read on every timed
+	 * request.
+	 */
+	private volatile JargonMetricsSink jargonMetricsSink = null;
+
+	/**
+	 * Default sink shared by every session that was not given its own, so that
+	 * the one JMX registration reports all of them. Guarded by the class.
+	 */
+	private static HistogramJargonMetricsSink sharedJargonMetricsSink = null;
+
 	/**
 	 * Get the {@code JargonProperties} that contains metadata to tune the behavior
 	 * of Jargon. This will either be the default, loaded from the
@@ -221,10 +274,13 @@ public class IRODSSession {
 		synchronized (this) {
 			transferOptions.setMaxThreads(jargonProperties.getMaxParallelThreads());
 			transferOptions.setUseParallelTransfer(jargonProperties.isUseParallelTransfer());
+			transferOptions.setConcurrentFileTransferThreads(jargonProperties.getConcurrentFileTransferThreads());
 			transferOptions.setAllowPutGetResourceRedirects(jargonProperties.isAllowPutGetResourceRedirects());
 			transferOptions.setComputeAndVerifyChecksumAfterTransfer(
 					jargonProperties.isComputeAndVerifyChecksumAfterTransfer());
 			transferOptions.setComputeChecksumAfterTransfer(jargonProperties.isComputeChecksumAfterTransfer());
+			transferOptions.setDigestChecksumDuringTransfer(jargonProperties.isDigestChecksumDuringTransfer());
+			transferOptions.setClientDrivenParallelTransfer(jargonProperties.isClientDrivenParallelTransfer());
 			transferOptions.setIntraFileStatusCallbacks(jargonProperties.isIntraFileStatusCallbacks());
 			transferOptions.setIntraFileStatusCallbacksNumberCallsInterval(
 					jargonProperties.getIntraFileStatusCallbacksNumberCallsInterval());
@@ -257,6 +313,7 @@ public class IRODSSession {
 
 		for (IRODSMidLevelProtocol irodsMidLevelProtocol : irodsProtocols.values()) {
 			log.debug("found and am closing connection to : {}", irodsMidLevelProtocol.getIrodsAccount().toString());
+			forgetLease(irodsMidLevelProtocol);
 			// irodsMidLevelProtocol.disconnect();
 			getIrodsProtocolManager().returnIRODSProtocol(irodsMidLevelProtocol);
 			// I don't remove from the map because the map is just going to be
@@ -287,7 +344,7 @@ public class IRODSSession {
 				// in-memory implementation. If the dev futzes with this, they
 				// have to make sure
 				// a restart manager is available.
-				restartManager = new MemoryBasedTransferRestartManager();
+				restartManager = buildDefaultRestartManager();
 			}
 
 		} catch (Exception e) {
@@ -384,7 +441,9 @@ public class IRODSSession {
 			throw new IllegalArgumentException("irodsAccount is null");
 		}
 
+		ConnectionEvent connectionEvent = JargonFlightRecorder.beginConnection();
 		IRODSMidLevelProtocol irodsProtocol = null;
+		boolean reused = false;
 
 		Map<String, IRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
 
@@ -394,6 +453,7 @@ public class IRODSSession {
 			irodsProtocol = connectAndAddToProtocolsMap(irodsAccount, irodsProtocols);
 			log.debug("put a reference to a new connection for account: {}", irodsAccount.toString());
 			sessionMap.set(irodsProtocols);
+			JargonFlightRecorder.commitConnection(connectionEvent, irodsAccount, reused);
 			return irodsProtocol;
 		}
 
@@ -407,6 +467,7 @@ public class IRODSSession {
 		} else if (irodsProtocol.isConnected()) {
 
 			log.debug("session using previously established connection:{}", irodsProtocol);
+			reused = true;
 		} else {
 			log.warn(
 					"***************** session has a connection marked closed, create a new one and put back into the cache:{}",
@@ -414,6 +475,7 @@ public class IRODSSession {
 			irodsProtocol = connectAndAddToProtocolsMap(irodsAccount, irodsProtocols);
 		}
 
+		JargonFlightRecorder.commitConnection(connectionEvent, irodsAccount, reused);
 		return irodsProtocol;
 	}
 
@@ -442,12 +504,24 @@ public class IRODSSession {
 
 		log.debug("evaluate conn for renewal:{}", irodsAccount);
 
+		JargonMetricsSink metricsSink = getJargonProperties().isInstrument() ? getJargonMetricsSink() : null;
+		long renewStart = metricsSink == null ? 0 : System.nanoTime();
 		boolean shutdown = evaluateConnectionForRenewal(irodsMidLevelProtocol);
 		if (!shutdown) {
 			return irodsMidLevelProtocol;
 		} else {
 			log.debug("return a refreshed connection");
-			return currentConnection(irodsAccount);
+			boolean renewed = false;
+			try {
+				IRODSMidLevelProtocol renewedProtocol = currentConnection(irodsAccount);
+				renewed = true;
+				return renewedProtocol;
+			} finally {
+				if (metricsSink != null) {
+					metricsSink.connectionLifecycleEvent(ConnectionLifecycleEvent.RENEW,
+							System.nanoTime() - renewStart, renewed);
+				}
+			}
 		}
 
 	}
@@ -582,6 +656,7 @@ public class IRODSSession {
 		}
 		log.debug("found and am closing connection to : {}", irodsAccount.toString());
 
+		forgetLease(irodsMidLevelProtocol);
 		getIrodsProtocolManager().returnIRODSProtocol(irodsMidLevelProtocol);
 
 		irodsProtocols.remove(irodsAccount.toString());
@@ -611,6 +686,7 @@ public class IRODSSession {
 		IRODSMidLevelProtocol badConnection;
 		badConnection = irodsProtocols.get(irodsAccount.toString());
 		if (badConnection != null) {
+			forgetLease(badConnection);
 			getIrodsProtocolManager().returnWithForce(badConnection);
 			irodsProtocols.remove(irodsAccount.toString());
 		}
@@ -622,6 +698,211 @@ public class IRODSSession {
 
 	}
 
+	/**
+	 * Open a scope in which this thread holds a connection for the given account.
+	 * If the thread holds no connection for the account, one is borrowed from the
+	 * {@code IRODSProtocolManager} now, used by any access object on this thread
+	 * while the scope is open, and given back when the scope is closed. Scopes
+	 * nest, and a connection the thread already held is used and left in place.
+	 *
+	 * @param irodsAccount {@link IRODSAccount} to hold a connection for
+	 * @return {@link ConnectionScope} that must be closed on this thread
+	 * @throws JargonException for iRODS error
+	 */
+	public ConnectionScope openConnectionScope(final IRODSAccount irodsAccount) throws JargonException {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		String key = irodsAccount.toString();
+		Map<String, Integer> depths = connectionScopeDepths.get();
+		Integer depth = depths == null ? null : depths.get(key);
+		IRODSMidLevelProtocol leasedConnection = null;
+
+		if (depth == null) {
+			Map<String, IRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+			if (irodsProtocols == null || irodsProtocols.get(key) == null) {
+				leasedConnection = currentConnection(irodsAccount);
+				synchronized (connectionLeases) {
+					connectionLeases.put(leasedConnection, 1);
+				}
+				log.debug("connection scope borrowed:{}", leasedConnection);
+			} else {
+				log.debug("connection scope uses the connection this thread already holds");
+			}
+			depth = 0;
+		}
+
+		if (depths == null) {
+			depths = new HashMap<String, Integer>();
+			connectionScopeDepths.set(depths);
+		}
+		depths.put(key, depth + 1);
+		return new ConnectionScope(this, irodsAccount, leasedConnection);
+	}
+
+	/**
+	 * @param irodsAccount {@link IRODSAccount}
+	 * @return {@code boolean} of {@code true} if this thread has a
+	 *         {@link ConnectionScope} open for the account
+	 */
+	public boolean isInConnectionScope(final IRODSAccount irodsAccount) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		Map<String, Integer> depths = connectionScopeDepths.get();
+		return depths != null && depths.containsKey(irodsAccount.toString());
+	}
+
+	/**
+	 * Close a scope on the thread that opened it, the outermost scope unbinds the
+	 * connection it borrowed from this thread and releases it
+	 *
+	 * @param connectionScope {@link ConnectionScope}
+	 * @throws JargonException for iRODS error
+	 */
+	void closeConnectionScope(final ConnectionScope connectionScope) throws JargonException {
+
+		String key = connectionScope.getIrodsAccount().toString();
+		Map<String, Integer> depths = connectionScopeDepths.get();
+		Integer depth = depths == null ? null : depths.get(key);
+		if (depth == null) {
+			log.warn("closing a connection scope that is not open on this thread, silently ignore");
+			return;
+		}
+
+		if (depth > 1) {
+			depths.put(key, depth - 1);
+			return;
+		}
+
+		depths.remove(key);
+		if (depths.isEmpty()) {
+			connectionScopeDepths.set(null);
+		}
+
+		IRODSMidLevelProtocol leasedConnection = connectionScope.getLeasedConnection();
+		if (leasedConnection == null) {
+			return;
+		}
+
+		Map<String, IRODSMidLevelProtocol> irodsProtocols = sessionMap.get();
+		IRODSMidLevelProtocol boundConnection = null;
+		if (irodsProtocols != null) {
+			boundConnection = irodsProtocols.remove(key);
+			if (irodsProtocols.isEmpty()) {
+				sessionMap.set(null);
+			}
+		}
+
+		if (boundConnection != null && boundConnection != leasedConnection && !isLeased(boundConnection)) {
+			log.debug("connection was renewed inside the scope, return the new one:{}", boundConnection);
+			getIrodsProtocolManager().returnIRODSProtocol(boundConnection);
+		}
+
+		releaseConnection(leasedConnection);
+	}
+
+	/**
+	 * Borrow a connection that is not bound to any thread, for work that runs
+	 * apart from the caller's own connection, such as a query result read ahead
+	 * in the background. The connection is only reachable through the returned
+	 * reference and must be given to
+	 * {@link #releaseConnection(IRODSMidLevelProtocol)} when done.
+	 *
+	 * @param irodsAccount {@link IRODSAccount} to connect with
+	 * @return {@link IRODSMidLevelProtocol} with one holder
+	 * @throws JargonException for iRODS error
+	 */
+	public IRODSMidLevelProtocol borrowDetachedConnection(final IRODSAccount irodsAccount) throws JargonException {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		IRODSMidLevelProtocol irodsProtocol = irodsProtocolManager.getIRODSProtocol(irodsAccount,
+				buildPipelineConfigurationBasedOnJargonProperties(), this);
+		if (irodsProtocol == null) {
+			log.error("no connection returned from connection manager");
+			throw new JargonRuntimeException("null connection returned from connection manager");
+		}
+
+		synchronized (connectionLeases) {
+			connectionLeases.put(irodsProtocol, 1);
+		}
+		log.debug("borrowed detached connection:{}", irodsProtocol);
+		return irodsProtocol;
+	}
+
+	/**
+	 * Add a holder to a connection borrowed by a {@link ConnectionScope}, so that
+	 * it is not given back when the scope closes. Used by results that keep
+	 * reading from the connection after the operation that opened them returns.
+	 *
+	 * @param irodsMidLevelProtocol {@link IRODSMidLevelProtocol}
+	 * @return {@code boolean} of {@code true} if the connection was borrowed by a
+	 *         scope and must later be given to
+	 *         {@link #releaseConnection(IRODSMidLevelProtocol)}, {@code false} if
+	 *         it is bound to a thread and nothing needs to be done
+	 */
+	public boolean retainConnection(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		if (irodsMidLevelProtocol == null) {
+			throw new IllegalArgumentException("null irodsMidLevelProtocol");
+		}
+		synchronized (connectionLeases) {
+			Integer holders = connectionLeases.get(irodsMidLevelProtocol);
+			if (holders == null) {
+				return false;
+			}
+			connectionLeases.put(irodsMidLevelProtocol, holders + 1);
+			return true;
+		}
+	}
+
+	/**
+	 * Remove a holder from a connection borrowed by a {@link ConnectionScope},
+	 * giving it back to the {@code IRODSProtocolManager} when it was the last.
+	 * Does nothing if the connection is not borrowed by a scope, or was closed in
+	 * the meantime.
+	 *
+	 * @param irodsMidLevelProtocol {@link IRODSMidLevelProtocol}
+	 * @throws JargonException for iRODS error
+	 */
+	public void releaseConnection(final IRODSMidLevelProtocol irodsMidLevelProtocol) throws JargonException {
+		if (irodsMidLevelProtocol == null) {
+			throw new IllegalArgumentException("null irodsMidLevelProtocol");
+		}
+		synchronized (connectionLeases) {
+			Integer holders = connectionLeases.get(irodsMidLevelProtocol);
+			if (holders == null) {
+				return;
+			}
+			if (holders > 1) {
+				connectionLeases.put(irodsMidLevelProtocol, holders - 1);
+				return;
+			}
+			connectionLeases.remove(irodsMidLevelProtocol);
+		}
+		log.debug("giving back borrowed connection:{}", irodsMidLevelProtocol);
+		getIrodsProtocolManager().returnIRODSProtocol(irodsMidLevelProtocol);
+	}
+
+	private boolean isLeased(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		synchronized (connectionLeases) {
+			return connectionLeases.containsKey(irodsMidLevelProtocol);
+		}
+	}
+
+	/*
+	 * A connection that is closed or discarded directly is no longer borrowed, so
+	 * releasing it later does not return it twice
+	 */
+	private void forgetLease(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		synchronized (connectionLeases) {
+			connectionLeases.remove(irodsMidLevelProtocol);
+		}
+	}
+
 	/**
 	 * This method is not particularly useful, but does provide a route to get a
 	 * direct handle on the connections for this Thread in cases where such status
@@ -738,6 +1019,36 @@ public class IRODSSession {
 		return getJargonProperties().isUsingDiscoveredServerPropertiesCache();
 	}
 
+	/**
+	 * Get the cache of stats and collection listings, with the time to live and
+	 * size from the jargon properties applied
+	 *
+	 * @return {@link ObjStatAndListingCache}, or {@code null} if
+	 *         {@link JargonProperties#isObjStatCacheEnabled()} is not set
+	 */
+	public ObjStatAndListingCache getObjStatAndListingCache() {
+		// getjargonProperties is already sync'd
+		JargonProperties jargonProperties = getJargonProperties();
+		if (!jargonProperties.isObjStatCacheEnabled()) {
+			return null;
+		}
+
+		objStatAndListingCache.setLimits(jargonProperties.getObjStatCacheTimeToLiveMillis(),
+				jargonProperties.getObjStatCacheMaxEntries());
+		return objStatAndListingCache;
+	}
+
+	/**
+	 * Remove cached stats and listings affected by a change to a path. This is
+	 * done whether or not the cache is enabled, so that turning it on does not
+	 * bring back entries from before the change.
+	 *
+	 * @param irodsAbsolutePath {@code String} with the absolute path that changed
+	 */
+	public void invalidateObjStatAndListingCache(final String irodsAbsolutePath) {
+		objStatAndListingCache.invalidate(irodsAbsolutePath);
+	}
+
 	/**
 	 * Get a reference to a factory that can return checksum computation strategies
 	 * on local file systems
@@ -745,6 +1056,9 @@ public class IRODSSession {
 	 * @return {@link LocalChecksumComputerFactory}
 	 */
 	public LocalChecksumComputerFactory getLocalChecksumComputerFactory() {
+		JargonProperties jargonProperties = getJargonProperties();
+		localChecksumEngine.setLimits(jargonProperties.getLocalChecksumReadBufferSize(),
+				jargonProperties.getLocalChecksumMaxConcurrentFiles());
 		return localChecksumComputerFactory;
 	}
 
@@ -752,18 +1066,102 @@ public class IRODSSession {
 
 		if (restartManager == null) {
 			if (jargonProperties.isLongTransferRestart()) {
-				log.warn("no restart manager provided, long file restart is on, create default memory based manager");
-				restartManager = new MemoryBasedTransferRestartManager();
+				log.warn("no restart manager provided, long file restart is on, create default manager");
+				restartManager = buildDefaultRestartManager();
 			}
 		}
 
 		return restartManager;
 	}
 
+	/**
+	 * Create the restart manager used when none was set, journaled to the file in
+	 * {@link JargonProperties#getLongTransferRestartJournalFile()}, or in memory
+	 * if that is blank
+	 *
+	 * @return {@link AbstractRestartManager}
+	 */
+	private AbstractRestartManager buildDefaultRestartManager() {
+		String journalFile = jargonProperties.getLongTransferRestartJournalFile();
+		if (journalFile == null || journalFile.isEmpty()) {
+			return new MemoryBasedTransferRestartManager();
+		}
+
+		log.info("restart information journaled to:{}", journalFile);
+		try {
+			return new MappedJournalTransferRestartManager(new File(journalFile));
+		} catch (FileRestartManagementException e) {
+			log.error("unable to open restart journal:{}", journalFile, e);
+			throw new JargonRuntimeException("unable to open restart journal", e);
+		}
+	}
+
 	public synchronized void setRestartManager(final AbstractRestartManager restartManager) {
 		this.restartManager = restartManager;
 	}
 
+	/**
+	 * Get the sink that receives protocol, connection and transfer measurements.
+	 * If no sink was set, the {@link HistogramJargonMetricsSink} shared by all
+	 * sessions is used, created and registered with JMX on first use. Measurements are only taken when
+	 * {@link JargonProperties#isInstrument()} is {@code true}, callers check the
+	 * flag, usually through {@link PipelineConfiguration#isInstrument()}, before
+	 * timing anything.
+	 *
+	 * @return {@link JargonMetricsSink}
+	 */
+	public JargonMetricsSink getJargonMetricsSink() {
+		JargonMetricsSink sink = jargonMetricsSink;
+		if (sink != null) {
+			return sink;
+		}
+
+		synchronized (this) {
+			if (jargonMetricsSink == null) {
+				jargonMetricsSink = getSharedJargonMetricsSink();
+			}
+			return jargonMetricsSink;
+		}
+	}
+
+	private static synchronized HistogramJargonMetricsSink getSharedJargonMetricsSink() {
+		if (sharedJargonMetricsSink == null) {
+			log.info("create default histogram metrics sink");
+			sharedJargonMetricsSink = new HistogramJargonMetricsSink();
+			registerMetricsMBean(sharedJargonMetricsSink);
+		}
+		return sharedJargonMetricsSink;
+	}
+
+	/**
+	 * Plug in the sink that receives measurements when {@code jargon.instrument}
+	 * is set, replacing the default {@link HistogramJargonMetricsSink}
+	 *
+	 * @param jargonMetricsSink {@link JargonMetricsSink}
+	 */
+	public synchronized void setJargonMetricsSink(final JargonMetricsSink jargonMetricsSink) {
+		if (jargonMetricsSink == null) {
+			throw new IllegalArgumentException("null jargonMetricsSink");
+		}
+		this.jargonMetricsSink = jargonMetricsSink;
+	}
+
+	private static void registerMetricsMBean(final JargonMetricsMBean jargonMetricsMBean) {
+		MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName("org.irods.jargon.core.connection:type=JargonMetrics");
+			if (!mbs.isRegistered(name)) {
+				// the sink class is not named after the interface, so describe it explicitly
+				mbs.registerMBean(new StandardMBean(jargonMetricsMBean, JargonMetricsMBean.class), name);
+			} else {
+				log.info("JargonMetrics MBean already registered by another class loader");
+			}
+		} catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+				| NotCompliantMBeanException e) {
+			log.warn("unable to create an MBean for jargon metrics. Will proceed without JMX support", e);
+		}
+	}
+
 	/**
 	 * Retrieve an instance of SSL connection utilities that can manage SSL
 	 * connections to iRODS
@@ -0,0 +1,46 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * MBeans interface for the measurements kept by
+ * {@link HistogramJargonMetricsSink}. Times are in microseconds and throughput
+ * in bytes per second.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface JargonMetricsMBean {
+
+	/**
+	 * @return {@code long} with the number of requests timed
+	 */
+	long getApiCallCount();
+
+	/**
+	 * @return {@code long} with the number of requests that returned an error
+	 */
+	long getApiErrorCount();
+
+	/**
+	 * @return {@code String[]} with a line per API number and message type
+	 *         giving the count, send, wait and read times, bytes and errors
+	 */
+	String[] getApiCallSummaries();
+
+	/**
+	 * @return {@code String[]} with a line per connection life cycle step giving
+	 *         the count, times and failures
+	 */
+	String[] getConnectionLifecycleSummaries();
+
+	/**
+	 * @return {@code String[]} with a line each for put and get giving the
+	 *         threads, bytes and per-thread throughput
+	 */
+	String[] getParallelTransferSummaries();
+
+	/**
+	 * Clear all measurements
+	 */
+	void reset();
+
+}
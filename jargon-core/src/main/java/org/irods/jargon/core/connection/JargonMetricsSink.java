@@ -0,0 +1,75 @@
+package org.irods.jargon.core.connection;
+
+/**
+ * Receives measurements from the protocol and transfer layers when the
+ * {@code jargon.instrument} property is set. The default implementation is
+ * {@link HistogramJargonMetricsSink}, others can be plugged in with
+ * {@link IRODSSession#setJargonMetricsSink(JargonMetricsSink)}, for instance
+ * to forward to an application metrics library.
+ * <p>
+ * Methods are called inline on the thread doing the work, often while a
+ * connection is locked, so implementations must be thread-safe and must not
+ * block.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface JargonMetricsSink {
+
+	/**
+	 * A request and its response on a connection completed
+	 *
+	 * @param apiNumber
+	 *            {@code int} with the iRODS API number, 0 for requests that are
+	 *            not API calls
+	 * @param messageType
+	 *            {@code String} with the simple class name of the packing
+	 *            instruction, or the message type when the request was not built
+	 *            from a packing instruction
+	 * @param sendNanos
+	 *            {@code long} with the time to write the request
+	 * @param waitNanos
+	 *            {@code long} with the time from the end of the write to the
+	 *            arrival of the response header, which is mostly network and
+	 *            server time
+	 * @param readNanos
+	 *            {@code long} with the time to read the response body
+	 * @param bytesSent
+	 *            {@code long} with the request bytes written
+	 * @param bytesReceived
+	 *            {@code long} with the response bytes read
+	 * @param errorCode
+	 *            {@code int} with the iRODS error code, 0 on success, -1 for an
+	 *            error with no iRODS code
+	 */
+	void apiCallCompleted(int apiNumber, String messageType, long sendNanos, long waitNanos, long readNanos,
+			long bytesSent, long bytesReceived, int errorCode);
+
+	/**
+	 * A step in the life of a connection completed
+	 *
+	 * @param connectionLifecycleEvent
+	 *            {@link ConnectionLifecycleEvent} that was timed
+	 * @param elapsedNanos
+	 *            {@code long} with the time it took
+	 * @param succeeded
+	 *            {@code boolean} of {@code false} if it failed
+	 */
+	void connectionLifecycleEvent(ConnectionLifecycleEvent connectionLifecycleEvent, long elapsedNanos,
+			boolean succeeded);
+
+	/**
+	 * A parallel transfer thread finished its share of a file
+	 *
+	 * @param put
+	 *            {@code boolean} of {@code true} for a put, {@code false} for a get
+	 * @param threadNumber
+	 *            {@code int} with the index of the thread in the transfer
+	 * @param bytesTransferred
+	 *            {@code long} with the bytes moved by the thread
+	 * @param elapsedNanos
+	 *            {@code long} with the time the thread ran
+	 */
+	void parallelTransferThreadCompleted(boolean put, int threadNumber, long bytesTransferred, long elapsedNanos);
+
+}
@@ -111,6 +111,32 @@ public interface JargonProperties {
 	 */
 	boolean isComputeAndVerifyChecksumAfterTransfer();
 
+	/**
+	 * Should the local checksum of a put be computed from the bytes as they are
+	 * sent, rather than by reading the file before the transfer? iRODS is then
+	 * asked to register its own checksum, and when
+	 * {@link #isComputeAndVerifyChecksumAfterTransfer()} is set the two are
+	 * compared after the transfer, with a {@code FileIntegrityException} thrown if
+	 * they differ. This saves reading each file twice.
+	 *
+	 * @return {@code boolean} of {@code true} to digest puts while sending
+	 */
+	boolean isDigestChecksumDuringTransfer();
+
+	/**
+	 * Should large files be moved over several ordinary connections to iRODS, each
+	 * opening the same replica and transferring its own range of bytes, rather than
+	 * having iRODS open parallel transfer ports back to the client? This works
+	 * through NAT and ingress proxies that refuse the parallel ports. It applies
+	 * when {@link #isUseParallelTransfer()} is set, uses up to
+	 * {@link #getMaxParallelThreads()} connections, and needs a server with the
+	 * replica open and close APIs, otherwise the usual transfer is done.
+	 *
+	 * @return {@code boolean} of {@code true} to drive parallel transfers from
+	 *         the client
+	 */
+	boolean isClientDrivenParallelTransfer();
+
 	/**
 	 * Gets whether intra-file status call-backs are enabled for transfers. If
 	 * {@code true}, and a call-back listener is provided, these allow monitoring of
@@ -602,4 +628,89 @@ public interface JargonProperties {
 	 */
 	boolean isRulesSetDestinationWhenAuto();
 
+	/**
+	 * Number of worker threads used to transfer individual files concurrently
+	 * during a recursive put or get of a collection. Each worker holds its own
+	 * connection from the {@link IRODSProtocolManager}. A value of 0 or 1 means
+	 * that files are transferred one at a time on the calling thread.
+	 *
+	 * @return {@code int} with the number of concurrent file transfer threads
+	 */
+	int getConcurrentFileTransferThreads();
+
+	/**
+	 * Number of requests that batch operations, such as bulk AVU, ACL and
+	 * ObjStat calls, may have outstanding on one connection before reading the
+	 * responses. Requests are written back to back and the responses read in
+	 * order, so a batch pays about one round trip per window rather than per
+	 * request. A value of 0 or 1 sends each request and waits for its response.
+	 *
+	 * @return {@code int} with the pipelined request window
+	 */
+	int getPipelinedRequestWindow();
+
+	/**
+	 * Whether access objects borrow a connection from the
+	 * {@link IRODSProtocolManager} for each operation and give it back when the
+	 * operation completes, rather than keeping one connection per thread until the
+	 * session is closed. See {@link IRODSSession#openConnectionScope(IRODSAccount)}
+	 *
+	 * @return {@code boolean} of {@code true} to bind connections per operation
+	 */
+	boolean isConnectionPerOperation();
+
+	/**
+	 * Whether {@code ObjStat} lookups, including lookups of paths that do not
+	 * exist, and collection listings are cached in the {@link IRODSSession}. Cached
+	 * entries expire after {@link #getObjStatCacheTimeToLiveMillis()}, and writes,
+	 * deletes, renames and AVU and ACL changes made through the access objects of
+	 * the same session remove the entries they affect. Changes made by other
+	 * clients are seen once the entry expires.
+	 *
+	 * @return {@code boolean} of {@code true} to cache stats and listings
+	 */
+	boolean isObjStatCacheEnabled();
+
+	/**
+	 * Time that a cached {@code ObjStat} or listing may be used before it is
+	 * looked up again
+	 *
+	 * @return {@code int} with the time to live in milliseconds
+	 */
+	int getObjStatCacheTimeToLiveMillis();
+
+	/**
+	 * Largest number of stats, missing paths and listings kept by the cache for
+	 * each account, the oldest are evicted first
+	 *
+	 * @return {@code int} with the maximum number of cached entries
+	 */
+	int getObjStatCacheMaxEntries();
+
+	/**
+	 * Bytes read from a local file at a time when computing its checksum. A file
+	 * longer than this is read ahead on a separate thread while it is digested.
+	 *
+	 * @return {@code int} with the read size in bytes
+	 */
+	int getLocalChecksumReadBufferSize();
+
+	/**
+	 * Most local files digested at once when the checksums of many files are
+	 * computed together, as when diffing a local tree against iRODS
+	 *
+	 * @return {@code int} with the maximum files checksummed concurrently
+	 */
+	int getLocalChecksumMaxConcurrentFiles();
+
+	/**
+	 * Path of the journal file that keeps long file restart information, so that
+	 * transfers can be restarted after the JVM or machine goes down. Empty to keep
+	 * restart information in memory. Applies when
+	 * {@link #isLongTransferRestart()} is set.
+	 *
+	 * @return {@code String} with the journal file path, or empty
+	 */
+	String getLongTransferRestartJournalFile();
+
 }
@@ -0,0 +1,139 @@
+package org.irods.jargon.core.connection;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative {@code long} values with one bucket per power of
+ * two, so that a value is placed within a factor of two of its size. Recording
+ * is a few atomic adds with no locking, and the memory used is fixed, which
+ * makes it cheap enough to call on every request.
+ * <p>
+ * Percentiles are reported as the upper bound of the bucket they fall in. The
+ * counts are read without a snapshot, so a reading taken while values are
+ * being recorded may be off by the values in flight.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class LockFreeHistogram {
+
+	private static final int BUCKETS = 64;
+
+	/**
+	 * Bucket {@code i} counts values {@code v} with {@code 2^(i-1) <= v < 2^i},
+	 * bucket 0 counts zero
+	 */
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a value, negative values are recorded as zero
+	 *
+	 * @param value
+	 *            {@code long} to record
+	 */
+	public void record(final long value) {
+		long recorded = Math.max(0, value);
+		buckets.incrementAndGet(Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(recorded)));
+		count.increment();
+		sum.add(recorded);
+
+		long currentMax = max.get();
+		while (recorded > currentMax && !max.compareAndSet(currentMax, recorded)) {
+			currentMax = max.get();
+		}
+	}
+
+	/**
+	 * @return {@code long} with the number of values recorded
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return {@code long} with the sum of the values recorded
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return {@code long} with the largest value recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return {@code long} with the mean of the values recorded, 0 if there are
+	 *         none
+	 */
+	public long getMean() {
+		long n = getCount();
+		return n == 0 ? 0 : getSum() / n;
+	}
+
+	/**
+	 * Estimate a percentile
+	 *
+	 * @param percentile
+	 *            {@code double} from 0 to 100
+	 * @return {@code long} with the upper bound of the bucket holding the
+	 *         percentile, never more than {@link #getMax()}, 0 if there are no
+	 *         values
+	 */
+	public long getPercentile(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be from 0 to 100");
+		}
+
+		long total = 0;
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				long upperBound = i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+				return Math.min(upperBound, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Clear the recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("count=").append(getCount()).append(", mean=").append(getMean()).append(", p50=")
+				.append(getPercentile(50)).append(", p99=").append(getPercentile(99)).append(", max=")
+				.append(getMax());
+		return builder.toString();
+	}
+
+}
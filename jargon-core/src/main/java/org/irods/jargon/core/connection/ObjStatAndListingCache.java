@@ -0,0 +1,310 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FilenameUtils;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of {@link ObjStat} lookups, of paths found not to exist, and of
+ * collection listings, held by the {@link IRODSSession} and kept separately for
+ * each {@link IRODSAccount}, since what a user can see depends on its
+ * permissions. It is used when {@link JargonProperties#isObjStatCacheEnabled()}
+ * is set, so that repeated stats of the same path, such as
+ * {@code IRODSFile.isDirectory()} followed by {@code length()}, cost one call
+ * to iRODS.
+ * <p>
+ * Entries expire after the time to live, and once an account holds the maximum
+ * number of entries the oldest are evicted. The access objects call
+ * {@link #invalidate(String)} when they change a path, which
+ * removes the path, everything under it, and its parent collection, whose
+ * listing and modify time change with it. Changes made by other clients, or
+ * outside the access objects, are not seen until the entry expires.
+ * <p>
+ * The cached {@link ObjStat} and listing entries are shared between callers
+ * and should not be modified.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class ObjStatAndListingCache {
+
+	public static final Logger log = LoggerFactory.getLogger(ObjStatAndListingCache.class);
+
+	private final Map<String, AccountCache> accountCaches = new HashMap<String, AccountCache>();
+	private long timeToLiveMillis = 5000;
+	private int maxEntries = 10000;
+
+	/**
+	 * Set the limits, applying to entries added from now on
+	 *
+	 * @param timeToLiveMillis {@code long} with the time an entry may be used
+	 * @param maxEntries       {@code int} with the maximum entries kept for an
+	 *                         account
+	 */
+	public synchronized void setLimits(final long timeToLiveMillis, final int maxEntries) {
+		if (timeToLiveMillis < 0) {
+			throw new IllegalArgumentException("negative timeToLiveMillis");
+		}
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be at least 1");
+		}
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Find a cached {@link ObjStat}
+	 *
+	 * @param irodsAccount      {@link IRODSAccount} that did the lookup
+	 * @param irodsAbsolutePath {@code String} with the absolute path
+	 * @return {@link ObjStat}, or {@code null} if it is not cached
+	 * @throws FileNotFoundException if the path is cached as not existing
+	 */
+	public synchronized ObjStat retrieveObjStat(final IRODSAccount irodsAccount, final String irodsAbsolutePath)
+			throws FileNotFoundException {
+		CacheEntry entry = findEntry(irodsAccount, irodsAbsolutePath);
+		if (entry == null || entry.objStatExpires < currentTimeMillis()) {
+			return null;
+		}
+
+		if (entry.objStat == null) {
+			throw new FileNotFoundException("cached as not found:" + irodsAbsolutePath);
+		}
+		return entry.objStat;
+	}
+
+	/**
+	 * Cache the {@link ObjStat} of a path
+	 *
+	 * @param irodsAccount      {@link IRODSAccount} that did the lookup
+	 * @param irodsAbsolutePath {@code String} with the absolute path
+	 * @param objStat           {@link ObjStat} from iRODS
+	 */
+	public synchronized void cacheObjStat(final IRODSAccount irodsAccount, final String irodsAbsolutePath,
+			final ObjStat objStat) {
+		if (objStat == null) {
+			throw new IllegalArgumentException("null objStat");
+		}
+		CacheEntry entry = findOrAddEntry(irodsAccount, irodsAbsolutePath);
+		entry.objStat = objStat;
+		entry.objStatExpires = currentTimeMillis() + timeToLiveMillis;
+	}
+
+	/**
+	 * Cache that a path was not found
+	 *
+	 * @param irodsAccount      {@link IRODSAccount} that did the lookup
+	 * @param irodsAbsolutePath {@code String} with the absolute path
+	 */
+	public synchronized void cacheNotFound(final IRODSAccount irodsAccount, final String irodsAbsolutePath) {
+		CacheEntry entry = findOrAddEntry(irodsAccount, irodsAbsolutePath);
+		entry.objStat = null;
+		entry.objStatExpires = currentTimeMillis() + timeToLiveMillis;
+	}
+
+	/**
+	 * Find the cached children of a collection
+	 *
+	 * @param irodsAccount              {@link IRODSAccount} that did the listing
+	 * @param irodsAbsolutePathToParent {@code String} with the absolute path of
+	 *                                  the collection
+	 * @return {@code List} of {@link CollectionAndDataObjectListingEntry} that the
+	 *         caller may change, or {@code null} if it is not cached
+	 */
+	public synchronized List<CollectionAndDataObjectListingEntry> retrieveListing(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePathToParent) {
+		CacheEntry entry = findEntry(irodsAccount, irodsAbsolutePathToParent);
+		if (entry == null || entry.listing == null || entry.listingExpires < currentTimeMillis()) {
+			return null;
+		}
+		return new ArrayList<CollectionAndDataObjectListingEntry>(entry.listing);
+	}
+
+	/**
+	 * Cache the children of a collection
+	 *
+	 * @param irodsAccount              {@link IRODSAccount} that did the listing
+	 * @param irodsAbsolutePathToParent {@code String} with the absolute path of
+	 *                                  the collection
+	 * @param listing                   {@code List} of
+	 *                                  {@link CollectionAndDataObjectListingEntry},
+	 *                                  a copy is kept
+	 */
+	public synchronized void cacheListing(final IRODSAccount irodsAccount, final String irodsAbsolutePathToParent,
+			final List<CollectionAndDataObjectListingEntry> listing) {
+		if (listing == null) {
+			throw new IllegalArgumentException("null listing");
+		}
+		CacheEntry entry = findOrAddEntry(irodsAccount, irodsAbsolutePathToParent);
+		entry.listing = new ArrayList<CollectionAndDataObjectListingEntry>(listing);
+		entry.listingExpires = currentTimeMillis() + timeToLiveMillis;
+	}
+
+	/**
+	 * Remove what is cached for a path that was changed, for everything under it,
+	 * and for its parent collection. This is done for every account, since a
+	 * change by one user, such as a new ACL, may change what another sees.
+	 *
+	 * @param irodsAbsolutePath {@code String} with the absolute path
+	 */
+	public synchronized void invalidate(final String irodsAbsolutePath) {
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		if (accountCaches.isEmpty()) {
+			return;
+		}
+
+		String path = normalize(irodsAbsolutePath);
+		log.debug("invalidate:{}", path);
+		int lastSlash = path.lastIndexOf('/');
+		String parent = lastSlash <= 0 ? "/" : path.substring(0, lastSlash);
+
+		for (AccountCache accountCache : accountCaches.values()) {
+			if (path.equals("/")) {
+				accountCache.entries.clear();
+				accountCache.order.clear();
+				continue;
+			}
+
+			accountCache.entries.remove(path);
+			// '0' follows '/', so this range is every path under this one
+			accountCache.entries.subMap(path + "/", path + "0").clear();
+			accountCache.entries.remove(parent);
+		}
+	}
+
+	/**
+	 * Remove everything cached for an account
+	 *
+	 * @param irodsAccount {@link IRODSAccount}
+	 */
+	public synchronized void invalidateAll(final IRODSAccount irodsAccount) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		accountCaches.remove(irodsAccount.toString());
+	}
+
+	/**
+	 * Remove everything cached
+	 */
+	public synchronized void clear() {
+		accountCaches.clear();
+	}
+
+	/**
+	 * @param irodsAccount {@link IRODSAccount}
+	 * @return {@code int} with the number of paths with something cached for the
+	 *         account, including expired entries not yet removed
+	 */
+	public synchronized int size(final IRODSAccount irodsAccount) {
+		AccountCache accountCache = accountCaches.get(irodsAccount.toString());
+		return accountCache == null ? 0 : accountCache.entries.size();
+	}
+
+	/**
+	 * @return {@code long} with the clock that entries expire by, in
+	 *         milliseconds
+	 */
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	private CacheEntry findEntry(final IRODSAccount irodsAccount, final String irodsAbsolutePath) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		AccountCache accountCache = accountCaches.get(irodsAccount.toString());
+		return accountCache == null ? null : accountCache.entries.get(normalize(irodsAbsolutePath));
+	}
+
+	private CacheEntry findOrAddEntry(final IRODSAccount irodsAccount, final String irodsAbsolutePath) {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		String key = irodsAccount.toString();
+		AccountCache accountCache = accountCaches.get(key);
+		if (accountCache == null) {
+			accountCache = new AccountCache();
+			accountCaches.put(key, accountCache);
+		}
+
+		String path = normalize(irodsAbsolutePath);
+		CacheEntry entry = accountCache.entries.get(path);
+		if (entry == null) {
+			entry = new CacheEntry(path);
+			accountCache.entries.put(path, entry);
+			accountCache.order.add(entry);
+			accountCache.evictOverLimit(maxEntries);
+		}
+		return entry;
+	}
+
+	private static String normalize(final String irodsAbsolutePath) {
+		String path = FilenameUtils.normalizeNoEndSeparator(irodsAbsolutePath, true);
+		return path == null || path.isEmpty() ? irodsAbsolutePath : path;
+	}
+
+	private static final class CacheEntry {
+		private final String path;
+		private ObjStat objStat;
+		private long objStatExpires = Long.MIN_VALUE;
+		private List<CollectionAndDataObjectListingEntry> listing;
+		private long listingExpires = Long.MIN_VALUE;
+
+		CacheEntry(final String path) {
+			this.path = path;
+		}
+	}
+
+	private static final class AccountCache {
+		private final TreeMap<String, CacheEntry> entries = new TreeMap<String, CacheEntry>();
+		/**
+		 * Entries in the order they were added, which may still hold entries that
+		 * were invalidated, these are skipped when evicting and dropped when the
+		 * queue grows well past the map
+		 */
+		private final ArrayDeque<CacheEntry> order = new ArrayDeque<CacheEntry>();
+
+		void evictOverLimit(final int maxEntries) {
+			while (entries.size() > maxEntries) {
+				CacheEntry oldest = order.poll();
+				if (entries.get(oldest.path) == oldest) {
+					entries.remove(oldest.path);
+				}
+			}
+
+			if (order.size() > 2 * entries.size() + 64) {
+				Iterator<CacheEntry> iterator = order.iterator();
+				while (iterator.hasNext()) {
+					CacheEntry entry = iterator.next();
+					if (entries.get(entry.path) != entry) {
+						iterator.remove();
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.irods.jargon.core.connection;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.Tag;
+
+/**
+ * Outcome of one request sent with
+ * {@link IRODSMidLevelProtocol#irodsFunctionPipelined(java.util.List, int)}.
+ * Either the response, which may be {@code null} for calls that return no
+ * message, or the exception iRODS returned for this request.
+ * <p>
+ * This object is immutable
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class PipelinedResponse {
+
+	private final IRodsPI request;
+	private final Tag response;
+	private final JargonException exception;
+
+	static PipelinedResponse success(final IRodsPI request, final Tag response) {
+		return new PipelinedResponse(request, response, null);
+	}
+
+	static PipelinedResponse failure(final IRodsPI request, final JargonException exception) {
+		return new PipelinedResponse(request, null, exception);
+	}
+
+	private PipelinedResponse(final IRodsPI request, final Tag response, final JargonException exception) {
+		this.request = request;
+		this.response = response;
+		this.exception = exception;
+	}
+
+	/**
+	 * @return {@link IRodsPI} that was sent
+	 */
+	public IRodsPI getRequest() {
+		return request;
+	}
+
+	/**
+	 * @return {@link Tag} with the response, {@code null} if the request failed or
+	 *         iRODS returned no message
+	 */
+	public Tag getResponse() {
+		return response;
+	}
+
+	/**
+	 * @return {@link JargonException} with the error iRODS returned for this
+	 *         request, or {@code null} if it succeeded
+	 */
+	public JargonException getException() {
+		return exception;
+	}
+
+	/**
+	 * @return {@code boolean} of {@code true} if iRODS did not return an error
+	 */
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	/**
+	 * Get the response, or throw the error that iRODS returned for this request
+	 *
+	 * @return {@link Tag} with the response, may be {@code null}
+	 * @throws JargonException
+	 *             returned by iRODS for this request
+	 */
+	public Tag getResponseOrThrow() throws JargonException {
+		if (exception != null) {
+			throw exception;
+		}
+		return response;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("PipelinedResponse [apiNumber=").append(request.getApiNumber()).append(", success=")
+				.append(isSuccess());
+		if (exception != null) {
+			builder.append(", exception=").append(exception.getMessage());
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+
+}
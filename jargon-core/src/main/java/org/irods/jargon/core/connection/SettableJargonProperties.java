@@ -27,9 +27,20 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 	private boolean useTransferThreadsPool = false;
 	private int transferThreadPoolMaxSimultaneousTransfers = 4;
 	private int transferThreadPoolTimeoutMillis = 60000;
+	private int concurrentFileTransferThreads = 0;
+	private boolean connectionPerOperation = false;
+	private int pipelinedRequestWindow = 0;
+	private boolean objStatCacheEnabled = false;
+	private int objStatCacheTimeToLiveMillis = 5000;
+	private int objStatCacheMaxEntries = 10000;
+	private int localChecksumReadBufferSize = 1048576;
+	private int localChecksumMaxConcurrentFiles = 4;
+	private String longTransferRestartJournalFile = "";
 	private boolean allowPutGetResourceRedirects = false;
 	private boolean computeChecksumAfterTransfer = false;
 	private boolean computeAndVerifyChecksumAfterTransfer = false;
+	private boolean digestChecksumDuringTransfer = false;
+	private boolean clientDrivenParallelTransfer = false;
 	private boolean intraFileStatusCallbacks = false;
 	private int irodsSocketTimeout = 0;
 	private int irodsParallelSocketTimeout = 0;
@@ -153,6 +164,8 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		maxFilesAndDirsQueryMax = jargonProperties.getMaxFilesAndDirsQueryMax();
 		allowPutGetResourceRedirects = jargonProperties.isAllowPutGetResourceRedirects();
 		computeAndVerifyChecksumAfterTransfer = jargonProperties.isComputeAndVerifyChecksumAfterTransfer();
+		digestChecksumDuringTransfer = jargonProperties.isDigestChecksumDuringTransfer();
+		clientDrivenParallelTransfer = jargonProperties.isClientDrivenParallelTransfer();
 		computeChecksumAfterTransfer = jargonProperties.isComputeChecksumAfterTransfer();
 		intraFileStatusCallbacks = jargonProperties.isIntraFileStatusCallbacks();
 		irodsParallelSocketTimeout = jargonProperties.getIRODSParallelTransferSocketTimeout();
@@ -160,6 +173,15 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		maxParallelThreads = jargonProperties.getMaxParallelThreads();
 		transferThreadPoolTimeoutMillis = jargonProperties.getTransferThreadPoolTimeoutMillis();
 		transferThreadPoolMaxSimultaneousTransfers = jargonProperties.getTransferThreadPoolMaxSimultaneousTransfers();
+		concurrentFileTransferThreads = jargonProperties.getConcurrentFileTransferThreads();
+		connectionPerOperation = jargonProperties.isConnectionPerOperation();
+		pipelinedRequestWindow = jargonProperties.getPipelinedRequestWindow();
+		objStatCacheEnabled = jargonProperties.isObjStatCacheEnabled();
+		objStatCacheTimeToLiveMillis = jargonProperties.getObjStatCacheTimeToLiveMillis();
+		objStatCacheMaxEntries = jargonProperties.getObjStatCacheMaxEntries();
+		localChecksumReadBufferSize = jargonProperties.getLocalChecksumReadBufferSize();
+		localChecksumMaxConcurrentFiles = jargonProperties.getLocalChecksumMaxConcurrentFiles();
+		longTransferRestartJournalFile = jargonProperties.getLongTransferRestartJournalFile();
 		internalInputStreamBufferSize = jargonProperties.getInternalInputStreamBufferSize();
 		internalOutputStreamBufferSize = jargonProperties.getInternalOutputStreamBufferSize();
 		internalCacheBufferSize = jargonProperties.getInternalCacheBufferSize();
@@ -287,6 +309,26 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		this.computeAndVerifyChecksumAfterTransfer = computeAndVerifyChecksumAfterTransfer;
 	}
 
+	@Override
+	public synchronized boolean isDigestChecksumDuringTransfer() {
+		return digestChecksumDuringTransfer;
+	}
+
+	@Override
+	public synchronized void setDigestChecksumDuringTransfer(final boolean digestChecksumDuringTransfer) {
+		this.digestChecksumDuringTransfer = digestChecksumDuringTransfer;
+	}
+
+	@Override
+	public synchronized boolean isClientDrivenParallelTransfer() {
+		return clientDrivenParallelTransfer;
+	}
+
+	@Override
+	public synchronized void setClientDrivenParallelTransfer(final boolean clientDrivenParallelTransfer) {
+		this.clientDrivenParallelTransfer = clientDrivenParallelTransfer;
+	}
+
 	@Override
 	public synchronized void setIntraFileStatusCallbacks(final boolean intraFileStatusCallbacks) {
 		this.intraFileStatusCallbacks = intraFileStatusCallbacks;
@@ -714,10 +756,19 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 				.append(maxFilesAndDirsQueryMax).append(", useTransferThreadsPool=").append(useTransferThreadsPool)
 				.append(", transferThreadPoolMaxSimultaneousTransfers=")
 				.append(transferThreadPoolMaxSimultaneousTransfers).append(", transferThreadPoolTimeoutMillis=")
-				.append(transferThreadPoolTimeoutMillis).append(", allowPutGetResourceRedirects=")
+				.append(transferThreadPoolTimeoutMillis).append(", concurrentFileTransferThreads=")
+				.append(concurrentFileTransferThreads).append(", pipelinedRequestWindow=")
+				.append(pipelinedRequestWindow).append(", objStatCacheEnabled=").append(objStatCacheEnabled)
+				.append(", objStatCacheTimeToLiveMillis=").append(objStatCacheTimeToLiveMillis)
+				.append(", objStatCacheMaxEntries=").append(objStatCacheMaxEntries)
+				.append(", localChecksumReadBufferSize=").append(localChecksumReadBufferSize)
+				.append(", localChecksumMaxConcurrentFiles=").append(localChecksumMaxConcurrentFiles)
+				.append(", allowPutGetResourceRedirects=")
 				.append(allowPutGetResourceRedirects).append(", computeChecksumAfterTransfer=")
 				.append(computeChecksumAfterTransfer).append(", computeAndVerifyChecksumAfterTransfer=")
-				.append(computeAndVerifyChecksumAfterTransfer).append(", intraFileStatusCallbacks=")
+				.append(computeAndVerifyChecksumAfterTransfer).append(", digestChecksumDuringTransfer=")
+				.append(digestChecksumDuringTransfer).append(", clientDrivenParallelTransfer=")
+				.append(clientDrivenParallelTransfer).append(", intraFileStatusCallbacks=")
 				.append(intraFileStatusCallbacks).append(", irodsSocketTimeout=").append(irodsSocketTimeout)
 				.append(", irodsParallelSocketTimeout=").append(irodsParallelSocketTimeout)
 				.append(", internalInputStreamBufferSize=").append(internalInputStreamBufferSize)
@@ -759,7 +810,9 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 				.append(", primaryTcpPerformancePrefsLatency=").append(primaryTcpPerformancePrefsLatency)
 				.append(", primaryTcpPerformancePrefsBandwidth=").append(primaryTcpPerformancePrefsBandwidth)
 				.append(", socketRenewalIntervalInSeconds=").append(socketRenewalIntervalInSeconds)
-				.append(", longTransferRestart=").append(longTransferRestart).append(", rulesSetDestinationWhenAuto=")
+				.append(", longTransferRestart=").append(longTransferRestart)
+				.append(", longTransferRestartJournalFile=").append(longTransferRestartJournalFile)
+				.append(", rulesSetDestinationWhenAuto=")
 				.append(rulesSetDestinationWhenAuto).append(", ");
 		if (defaultIrodsRuleEngineIdentifier != null) {
 			builder.append("defaultIrodsRuleEngineIdentifier=").append(defaultIrodsRuleEngineIdentifier).append(", ");
@@ -946,4 +999,97 @@ public class SettableJargonProperties implements SettableJargonPropertiesMBean {
 		this.rulesSetDestinationWhenAuto = rulesSetDestinationWhenAuto;
 	}
 
+	@Override
+	public synchronized int getConcurrentFileTransferThreads() {
+		return concurrentFileTransferThreads;
+	}
+
+	@Override
+	public synchronized void setConcurrentFileTransferThreads(final int concurrentFileTransferThreads) {
+		this.concurrentFileTransferThreads = concurrentFileTransferThreads;
+	}
+
+	@Override
+	public synchronized int getPipelinedRequestWindow() {
+		return pipelinedRequestWindow;
+	}
+
+	@Override
+	public synchronized void setPipelinedRequestWindow(final int pipelinedRequestWindow) {
+		this.pipelinedRequestWindow = pipelinedRequestWindow;
+	}
+
+	@Override
+	public synchronized boolean isConnectionPerOperation() {
+		return connectionPerOperation;
+	}
+
+	@Override
+	public synchronized void setConnectionPerOperation(final boolean connectionPerOperation) {
+		this.connectionPerOperation = connectionPerOperation;
+	}
+
+	@Override
+	public synchronized boolean isObjStatCacheEnabled() {
+		return objStatCacheEnabled;
+	}
+
+	@Override
+	public synchronized void setObjStatCacheEnabled(final boolean objStatCacheEnabled) {
+		this.objStatCacheEnabled = objStatCacheEnabled;
+	}
+
+	@Override
+	public synchronized int getObjStatCacheTimeToLiveMillis() {
+		return objStatCacheTimeToLiveMillis;
+	}
+
+	@Override
+	public synchronized void setObjStatCacheTimeToLiveMillis(final int objStatCacheTimeToLiveMillis) {
+		this.objStatCacheTimeToLiveMillis = objStatCacheTimeToLiveMillis;
+	}
+
+	@Override
+	public synchronized int getObjStatCacheMaxEntries() {
+		return objStatCacheMaxEntries;
+	}
+
+	@Override
+	public synchronized void setObjStatCacheMaxEntries(final int objStatCacheMaxEntries) {
+		this.objStatCacheMaxEntries = objStatCacheMaxEntries;
+	}
+
+	@Override
+	public synchronized int getLocalChecksumReadBufferSize() {
+		return localChecksumReadBufferSize;
+	}
+
+	@Override
+	public synchronized void setLocalChecksumReadBufferSize(final int localChecksumReadBufferSize) {
+		this.localChecksumReadBufferSize = localChecksumReadBufferSize;
+	}
+
+	@Override
+	public synchronized int getLocalChecksumMaxConcurrentFiles() {
+		return localChecksumMaxConcurrentFiles;
+	}
+
+	@Override
+	public synchronized void setLocalChecksumMaxConcurrentFiles(final int localChecksumMaxConcurrentFiles) {
+		this.localChecksumMaxConcurrentFiles = localChecksumMaxConcurrentFiles;
+	}
+
+	@Override
+	public synchronized String getLongTransferRestartJournalFile() {
+		return longTransferRestartJournalFile;
+	}
+
+	@Override
+	public synchronized void setLongTransferRestartJournalFile(final String longTransferRestartJournalFile) {
+		if (longTransferRestartJournalFile == null) {
+			throw new IllegalArgumentException("null longTransferRestartJournalFile");
+		}
+		this.longTransferRestartJournalFile = longTransferRestartJournalFile;
+	}
+
 }
@@ -15,6 +15,26 @@ import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
  */
 public interface SettableJargonPropertiesMBean extends JargonProperties {
 
+	void setClientDrivenParallelTransfer(final boolean clientDrivenParallelTransfer);
+
+	void setLongTransferRestartJournalFile(final String longTransferRestartJournalFile);
+
+	void setLocalChecksumReadBufferSize(final int localChecksumReadBufferSize);
+
+	void setLocalChecksumMaxConcurrentFiles(final int localChecksumMaxConcurrentFiles);
+
+	void setObjStatCacheEnabled(final boolean objStatCacheEnabled);
+
+	void setObjStatCacheTimeToLiveMillis(final int objStatCacheTimeToLiveMillis);
+
+	void setObjStatCacheMaxEntries(final int objStatCacheMaxEntries);
+
+	void setPipelinedRequestWindow(final int pipelinedRequestWindow);
+
+	void setConnectionPerOperation(final boolean connectionPerOperation);
+
+	void setConcurrentFileTransferThreads(final int concurrentFileTransferThreads);
+
 	void setRulesSetDestinationWhenAuto(final boolean rulesSetDestinationWhenAuto);
 
 	void setDefaultCppRuleEngineIdentifier(final String defaultCppRuleEngineIdentifier);
@@ -131,6 +151,8 @@ public interface SettableJargonPropertiesMBean extends JargonProperties {
 
 	void setComputeAndVerifyChecksumAfterTransfer(final boolean computeAndVerifyChecksumAfterTransfer);
 
+	void setDigestChecksumDuringTransfer(final boolean digestChecksumDuringTransfer);
+
 	void setComputeChecksumAfterTransfer(final boolean computeChecksumAfterTransfer);
 
 	void setAllowPutGetResourceRedirects(final boolean allowPutGetResourceRedirects);
@@ -0,0 +1,37 @@
+package org.irods.jargon.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A connection obtained from the {@code IRODSSession}, either reused from the
+ * thread's cache or newly created
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@Name("org.irods.jargon.Connection")
+@Label("iRODS Connection")
+@Category({ "iRODS", "Jargon" })
+@Description("A connection obtained for the current thread")
+public class ConnectionEvent extends jdk.jfr.Event {
+
+	@Label("Host")
+	String host;
+
+	@Label("Port")
+	int port;
+
+	@Label("Zone")
+	String zone;
+
+	@Label("User")
+	String userName;
+
+	@Label("Reused")
+	@Description("true if the thread already held a connection for the account")
+	boolean reused;
+
+}
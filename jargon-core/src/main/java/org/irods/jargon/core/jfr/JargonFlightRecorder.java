@@ -0,0 +1,238 @@
+package org.irods.jargon.core.jfr;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+
+/**
+ * Begins and commits the Jargon Flight Recorder events. Each {@code begin}
+ * method returns {@code null} when its event is not enabled in a running
+ * recording, or when the JVM has no flight recorder, and each {@code commit}
+ * method ignores a {@code null} event, so the code being recorded does no more
+ * than a null check when nothing is recording.
+ * <p>
+ * The event classes are only loaded by this class, and only if
+ * {@code jdk.jfr} is present, so Jargon still runs on a JVM without it.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class JargonFlightRecorder {
+
+	public static final String BORROW = "borrow";
+	public static final String RETURN = "return";
+	public static final String INVALIDATE = "invalidate";
+
+	private static final boolean AVAILABLE = isFlightRecorderPresent();
+
+	private JargonFlightRecorder() {
+	}
+
+	private static boolean isFlightRecorderPresent() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return {@link ProtocolCallEvent} that has begun, or {@code null} if it is
+	 *         not being recorded
+	 */
+	public static ProtocolCallEvent beginProtocolCall() {
+		if (!AVAILABLE) {
+			return null;
+		}
+
+		ProtocolCallEvent event = new ProtocolCallEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End and commit a protocol call
+	 *
+	 * @param event
+	 *            {@link ProtocolCallEvent} from {@link #beginProtocolCall()}, may
+	 *            be {@code null}
+	 * @param apiNumber
+	 *            {@code int} with the iRODS API number
+	 * @param messageType
+	 *            {@code String} with the packing instruction or message type
+	 * @param bytesSent
+	 *            {@code long} with the bytes sent for the request
+	 * @param bytesReceived
+	 *            {@code long} with the bytes read for the response
+	 * @param status
+	 *            {@code int} with the iRODS error code, 0 for success
+	 */
+	public static void commitProtocolCall(final ProtocolCallEvent event, final int apiNumber,
+			final String messageType, final long bytesSent, final long bytesReceived, final int status) {
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.apiNumber = apiNumber;
+			event.messageType = messageType;
+			event.bytesSent = bytesSent;
+			event.bytesReceived = bytesReceived;
+			event.status = status;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @return {@link TransferSegmentEvent} that has begun, or {@code null} if it
+	 *         is not being recorded
+	 */
+	public static TransferSegmentEvent beginTransferSegment() {
+		if (!AVAILABLE) {
+			return null;
+		}
+
+		TransferSegmentEvent event = new TransferSegmentEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End and commit a parallel transfer segment
+	 *
+	 * @param event
+	 *            {@link TransferSegmentEvent} from
+	 *            {@link #beginTransferSegment()}, may be {@code null}
+	 * @param put
+	 *            {@code boolean} of {@code true} for a put, {@code false} for a
+	 *            get
+	 * @param threadNumber
+	 *            {@code int} with the transfer thread number
+	 * @param offset
+	 *            {@code long} with the offset of the segment in the file
+	 * @param length
+	 *            {@code long} with the bytes moved
+	 */
+	public static void commitTransferSegment(final TransferSegmentEvent event, final boolean put,
+			final int threadNumber, final long offset, final long length) {
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.put = put;
+			event.threadNumber = threadNumber;
+			event.offset = offset;
+			event.length = length;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @return {@link ConnectionEvent} that has begun, or {@code null} if it is not
+	 *         being recorded
+	 */
+	public static ConnectionEvent beginConnection() {
+		if (!AVAILABLE) {
+			return null;
+		}
+
+		ConnectionEvent event = new ConnectionEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End and commit obtaining a connection
+	 *
+	 * @param event
+	 *            {@link ConnectionEvent} from {@link #beginConnection()}, may be
+	 *            {@code null}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} of the connection
+	 * @param reused
+	 *            {@code boolean} of {@code true} if an existing connection was
+	 *            returned
+	 */
+	public static void commitConnection(final ConnectionEvent event, final IRODSAccount irodsAccount,
+			final boolean reused) {
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.host = irodsAccount.getHost();
+			event.port = irodsAccount.getPort();
+			event.zone = irodsAccount.getZone();
+			event.userName = irodsAccount.getUserName();
+			event.reused = reused;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @return {@link PoolActivityEvent} that has begun, or {@code null} if it is
+	 *         not being recorded
+	 */
+	public static PoolActivityEvent beginPoolActivity() {
+		if (!AVAILABLE) {
+			return null;
+		}
+
+		PoolActivityEvent event = new PoolActivityEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End and commit a pool borrow or return
+	 *
+	 * @param event
+	 *            {@link PoolActivityEvent} from {@link #beginPoolActivity()}, may
+	 *            be {@code null}
+	 * @param operation
+	 *            {@code String} with {@link #BORROW}, {@link #RETURN} or
+	 *            {@link #INVALIDATE}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} that keys the pool, may be {@code null} if
+	 *            not known
+	 * @param created
+	 *            {@code boolean} of {@code true} if a borrow created a connection
+	 * @param idleConnections
+	 *            {@code int} with the idle connections for the account afterwards
+	 */
+	public static void commitPoolActivity(final PoolActivityEvent event, final String operation,
+			final IRODSAccount irodsAccount, final boolean created, final int idleConnections) {
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			if (irodsAccount != null) {
+				event.host = irodsAccount.getHost();
+				event.zone = irodsAccount.getZone();
+				event.userName = irodsAccount.getUserName();
+			}
+			event.created = created;
+			event.idleConnections = idleConnections;
+			event.commit();
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package org.irods.jargon.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A borrow from, or return to, a connection pool
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@Name("org.irods.jargon.PoolActivity")
+@Label("iRODS Connection Pool Activity")
+@Category({ "iRODS", "Jargon" })
+@Description("A connection borrowed from or returned to a pool")
+public class PoolActivityEvent extends jdk.jfr.Event {
+
+	@Label("Operation")
+	@Description("borrow, return or invalidate")
+	String operation;
+
+	@Label("Host")
+	String host;
+
+	@Label("Zone")
+	String zone;
+
+	@Label("User")
+	String userName;
+
+	@Label("Created")
+	@Description("true if a borrow had to create a connection")
+	boolean created;
+
+	@Label("Idle Connections")
+	@Description("Idle connections for the account after the operation")
+	int idleConnections;
+
+}
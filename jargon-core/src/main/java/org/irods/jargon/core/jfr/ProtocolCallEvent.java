@@ -0,0 +1,43 @@
+package org.irods.jargon.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One request to iRODS, from sending its header to reading the end of its
+ * response
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@Name("org.irods.jargon.ProtocolCall")
+@Label("iRODS Protocol Call")
+@Category({ "iRODS", "Jargon" })
+@Description("A request sent to iRODS and its response")
+@StackTrace(false)
+public class ProtocolCallEvent extends jdk.jfr.Event {
+
+	@Label("API Number")
+	int apiNumber;
+
+	@Label("Message Type")
+	@Description("Packing instruction of the request, or the protocol message type")
+	String messageType;
+
+	@Label("Bytes Sent")
+	@DataAmount
+	long bytesSent;
+
+	@Label("Bytes Received")
+	@DataAmount
+	long bytesReceived;
+
+	@Label("Status")
+	@Description("iRODS error code, 0 for success, -1 for an error without a code")
+	int status;
+
+}
@@ -0,0 +1,38 @@
+package org.irods.jargon.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One segment of a parallel put or get, as directed by iRODS to a transfer
+ * thread
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+@Name("org.irods.jargon.TransferSegment")
+@Label("iRODS Parallel Transfer Segment")
+@Category({ "iRODS", "Jargon" })
+@Description("A segment moved by one thread of a parallel transfer")
+@StackTrace(false)
+public class TransferSegmentEvent extends jdk.jfr.Event {
+
+	@Label("Put")
+	@Description("true for a put to iRODS, false for a get")
+	boolean put;
+
+	@Label("Thread Number")
+	int threadNumber;
+
+	@Label("Offset")
+	long offset;
+
+	@Label("Length")
+	@DataAmount
+	long length;
+
+}
@@ -0,0 +1,9 @@
+/**
+ * JDK Flight Recorder events emitted by Jargon, so that protocol calls,
+ * transfers and connection activity can be lined up with GC and thread stalls
+ * in a recording
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+package org.irods.jargon.core.jfr;
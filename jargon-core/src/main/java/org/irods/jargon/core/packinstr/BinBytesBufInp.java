@@ -0,0 +1,86 @@
+package org.irods.jargon.core.packinstr;
+
+import java.nio.charset.StandardCharsets;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.utils.Base64;
+
+/**
+ * Packing instruction for the byte buffer taken as input by pluggable API
+ * calls. Pluggable APIs that exchange JSON, such as the atomic metadata and ACL
+ * operations, take the null terminated JSON document as the buffer.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BinBytesBufInp extends AbstractIRODSPackingInstruction {
+
+	public static final String PI_TAG = "BinBytesBuf_PI";
+	public static final String BUF_LEN = "buflen";
+	public static final String BUF = "buf";
+
+	private final byte[] buf;
+
+	/**
+	 * Create an instance carrying a JSON document to a pluggable API
+	 *
+	 * @param apiNumber {@code int} with the number of the pluggable API
+	 * @param json      {@code String} with the JSON input of the API
+	 * @return {@link BinBytesBufInp}
+	 */
+	public static BinBytesBufInp instanceForJson(final int apiNumber, final String json) {
+		if (json == null) {
+			throw new IllegalArgumentException("null json");
+		}
+
+		byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+		byte[] terminated = new byte[jsonBytes.length + 1];
+		System.arraycopy(jsonBytes, 0, terminated, 0, jsonBytes.length);
+		return new BinBytesBufInp(apiNumber, terminated);
+	}
+
+	private BinBytesBufInp(final int apiNumber, final byte[] buf) {
+		super();
+		if (apiNumber <= 0) {
+			throw new IllegalArgumentException("invalid api number");
+		}
+		this.buf = buf;
+		setApiNumber(apiNumber);
+	}
+
+	/**
+	 * Decode the buffer of a {@code BinBytesBuf_PI} returned by iRODS, dropping
+	 * the null terminator if present
+	 *
+	 * @param response {@link Tag} with the response, may be {@code null}
+	 * @return {@code String} with the content of the buffer, empty if there is no
+	 *         content
+	 */
+	public static String decodeResponseAsString(final Tag response) {
+		if (response == null) {
+			return "";
+		}
+
+		Tag bufTag = response.getTag(BUF);
+		if (bufTag == null || bufTag.getStringValue() == null) {
+			return "";
+		}
+
+		String decoded = new String(Base64.fromString(bufTag.getStringValue()), StandardCharsets.UTF_8);
+		int zeroIdx = decoded.indexOf('\0');
+		return zeroIdx == -1 ? decoded : decoded.substring(0, zeroIdx);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.irods.jargon.core.packinstr.AbstractIRODSPackingInstruction#getTagValue
+	 * ()
+	 */
+	@Override
+	public Tag getTagValue() throws JargonException {
+		return new Tag(PI_TAG, new Tag[] { new Tag(BUF_LEN, buf.length), new Tag(BUF, Base64.toString(buf)) });
+	}
+
+}
@@ -815,6 +815,17 @@ public class DataObjInp extends AbstractIRODSPackingInstruction {
 
 		if (transferOptions.isComputeAndVerifyChecksumAfterTransfer()
 				|| transferOptions.isComputeChecksumAfterTransfer()) {
+			if (fileChecksumValue == null && transferOptions.isDigestChecksumDuringTransfer()) {
+				/*
+				 * the local checksum is digested as the data is sent, so have iRODS
+				 * register its own checksum, which is compared with the local one after
+				 * the transfer
+				 */
+				log.info("adding kvp to compute checksum, local checksum digested during transfer");
+				kvps.add(KeyValuePair.instance("regChksum", ""));
+				return;
+			}
+
 			if (fileChecksumValue == null) {
 				throw new JargonException("no fileChecksumValue set, call the setter with the encoded checksum value");
 			}
@@ -0,0 +1,180 @@
+/**
+ * #define DataObjInp_PI "str objPath[MAX_NAME_LEN]; int createMode; int openFlags; double offset; double dataSize; int numThreads; int oprType; struct *SpecColl_PI; struct KeyValPair_PI;"
+ */
+package org.irods.jargon.core.packinstr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * Translation of a DataObjInp for the replica open pluggable API into XML
+ * protocol format. Unlike a plain open, several connections may open the same
+ * replica for writing by passing the replica token and resource hierarchy of
+ * the first open, so that each can write its own range of the file before one
+ * of them closes and finalizes the replica.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class DataObjInpForReplicaOpen extends AbstractIRODSPackingInstruction {
+
+	public static final String PI_TAG = DataObjInp.PI_TAG;
+
+	public static final String REPLICA_TOKEN_KW = "replicaToken";
+	public static final String RESC_HIER_KW = "resc_hier";
+	public static final String FORCE_FLAG_KW = DataObjInp.FORCE_FLAG_KW;
+	public static final String DEST_RESC_NAME_KW = DataObjInp.DEST_RESC_NAME;
+	public static final int REPLICA_OPEN_API_NBR = ApiPluginConstants.REPLICA_OPEN_APN;
+
+	public static final int READ_FLAGS = 0;
+	public static final int WRITE_FLAGS = 1;
+
+	private final String fileAbsolutePath;
+	private final int openFlags;
+	private final long dataSize;
+	private final int operationType;
+	private final boolean force;
+	private final String resourceName;
+	private final String replicaToken;
+	private final String resourceHierarchy;
+
+	/**
+	 * Open a replica for reading
+	 *
+	 * @param fileAbsolutePath  {@code String} with the absolute path of the data
+	 *                          object
+	 * @param resourceHierarchy {@code String} with the hierarchy of the replica to
+	 *                          read, may be blank to let iRODS choose
+	 * @return {@link DataObjInpForReplicaOpen}
+	 */
+	public static DataObjInpForReplicaOpen instanceForRead(final String fileAbsolutePath,
+			final String resourceHierarchy) {
+		return new DataObjInpForReplicaOpen(fileAbsolutePath, READ_FLAGS, 0L, DataObjInp.GET_OPERATION_TYPE, false,
+				"", "", resourceHierarchy);
+	}
+
+	/**
+	 * Create (or truncate) a replica for writing. This is the first open of a
+	 * multi-stream put, its replica token and hierarchy are given to the other
+	 * streams.
+	 *
+	 * @param fileAbsolutePath {@code String} with the absolute path of the data
+	 *                         object
+	 * @param dataSize         {@code long} with the length of the data that will
+	 *                         be written
+	 * @param resourceName     {@code String} with the destination resource, may
+	 *                         be blank for the default
+	 * @param force            {@code boolean} to overwrite an existing data object
+	 * @return {@link DataObjInpForReplicaOpen}
+	 */
+	public static DataObjInpForReplicaOpen instanceForCreate(final String fileAbsolutePath, final long dataSize,
+			final String resourceName, final boolean force) {
+		return new DataObjInpForReplicaOpen(fileAbsolutePath, WRITE_FLAGS | DataObjInp.CREATE | DataObjInp.TRUNCATE,
+				dataSize, DataObjInp.PUT_OPERATION_TYPE, force, resourceName, "", "");
+	}
+
+	/**
+	 * Open a replica that another connection already has open for writing
+	 *
+	 * @param fileAbsolutePath  {@code String} with the absolute path of the data
+	 *                          object
+	 * @param replicaToken      {@code String} with the replica token of the first
+	 *                          open
+	 * @param resourceHierarchy {@code String} with the resource hierarchy of the
+	 *                          first open
+	 * @return {@link DataObjInpForReplicaOpen}
+	 */
+	public static DataObjInpForReplicaOpen instanceForJoinedWrite(final String fileAbsolutePath,
+			final String replicaToken, final String resourceHierarchy) {
+		if (replicaToken == null || replicaToken.isEmpty()) {
+			throw new IllegalArgumentException("null or empty replicaToken");
+		}
+
+		if (resourceHierarchy == null || resourceHierarchy.isEmpty()) {
+			throw new IllegalArgumentException("null or empty resourceHierarchy");
+		}
+
+		return new DataObjInpForReplicaOpen(fileAbsolutePath, WRITE_FLAGS, 0L, DataObjInp.PUT_OPERATION_TYPE, false,
+				"", replicaToken, resourceHierarchy);
+	}
+
+	private DataObjInpForReplicaOpen(final String fileAbsolutePath, final int openFlags, final long dataSize,
+			final int operationType, final boolean force, final String resourceName, final String replicaToken,
+			final String resourceHierarchy) {
+
+		super();
+		if (fileAbsolutePath == null || fileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("file absolute path is null or empty");
+		}
+
+		if (resourceName == null) {
+			throw new IllegalArgumentException("resourceName is null, may be set to blank if not required");
+		}
+
+		if (resourceHierarchy == null) {
+			throw new IllegalArgumentException("resourceHierarchy is null, may be set to blank if not required");
+		}
+
+		this.fileAbsolutePath = fileAbsolutePath;
+		this.openFlags = openFlags;
+		this.dataSize = dataSize;
+		this.operationType = operationType;
+		this.force = force;
+		this.resourceName = resourceName;
+		this.replicaToken = replicaToken;
+		this.resourceHierarchy = resourceHierarchy;
+		setApiNumber(REPLICA_OPEN_API_NBR);
+	}
+
+	@Override
+	public Tag getTagValue() throws JargonException {
+
+		Tag message = new Tag(PI_TAG,
+				new Tag[] { new Tag(DataObjInp.OBJ_PATH, getFileAbsolutePath()),
+						new Tag(DataObjInp.CREATE_MODE, DataObjInp.DEFAULT_CREATE_MODE),
+						new Tag(DataObjInp.OPEN_FLAGS, openFlags), new Tag(DataObjInp.OFFSET, 0),
+						new Tag(DataObjInp.DATA_SIZE, dataSize), new Tag(DataObjInp.NUM_THREADS, 0),
+						new Tag(DataObjInp.OPR_TYPE, operationType) });
+
+		List<KeyValuePair> kvps = new ArrayList<KeyValuePair>();
+
+		if (force) {
+			kvps.add(KeyValuePair.instance(FORCE_FLAG_KW, ""));
+		}
+
+		if (!resourceName.isEmpty()) {
+			kvps.add(KeyValuePair.instance(DEST_RESC_NAME_KW, resourceName));
+		}
+
+		if (!replicaToken.isEmpty()) {
+			kvps.add(KeyValuePair.instance(REPLICA_TOKEN_KW, replicaToken));
+		}
+
+		if (!resourceHierarchy.isEmpty()) {
+			kvps.add(KeyValuePair.instance(RESC_HIER_KW, resourceHierarchy));
+		}
+
+		message.addTag(createKeyValueTag(kvps));
+		return message;
+	}
+
+	public String getFileAbsolutePath() {
+		return fileAbsolutePath;
+	}
+
+	public int getOpenFlags() {
+		return openFlags;
+	}
+
+	public String getReplicaToken() {
+		return replicaToken;
+	}
+
+	public String getResourceHierarchy() {
+		return resourceHierarchy;
+	}
+
+}
@@ -99,60 +99,74 @@ public class Tag implements Cloneable {
 		}
 
 		if (decode) {
+			this.value = decodeEntities(value);
+			return;
+		}
+		this.value = value;
+	}
+
+	/**
+	 * Replace the XML entities used by the iRODS protocol with the characters they
+	 * stand for
+	 *
+	 * @param value
+	 *            {@code String} as it appeared in the protocol message
+	 * @return {@code String} with the entities replaced
+	 */
+	static String decodeEntities(final String value) {
+		if (value.indexOf('&') < 0) {
+			return value;
+		}
 
-			StringBuilder sb = new StringBuilder();
+		StringBuilder sb = new StringBuilder(value.length());
 
-			StringBuilder cache = new StringBuilder();
+		StringBuilder cache = new StringBuilder();
 
-			char c;
-			for (int i = 0; i < value.length(); i++) {
-				c = value.charAt(i);
+		char c;
+		for (int i = 0; i < value.length(); i++) {
+			c = value.charAt(i);
+			/*
+			 * if I hit an & then consider this for the cache, and just dump what was in the
+			 * cache into the output buffer
+			 */
+			if (c == '&') {
+				if (cache.length() > 0) {
+					evaluateCache(sb, cache);
+				}
+				cache.append(c);
+			} else if (c == ';') {
 				/*
-				 * if I hit an & then consider this for the cache, and just dump what was in the
-				 * cache into the output buffer
+				 * a semi-colon will trigger evaluation of the cache if it exists, otherwise,
+				 * just dump it
 				 */
-				if (c == '&') {
-					if (cache.length() > 0) {
-						evaluateCache(sb, cache);
-					}
+				if (cache.length() > 0) {
 					cache.append(c);
-				} else if (c == ';') {
-					/*
-					 * a semi-colon will trigger evaluation of the cache if it exists, otherwise,
-					 * just dump it
-					 */
-					if (cache.length() > 0) {
-						cache.append(c);
-						evaluateCache(sb, cache);
-					} else {
-						sb.append(c);
-					}
+					evaluateCache(sb, cache);
 				} else {
-					/*
-					 * If I am caching (because I had a &) and this is not a closing ; char, then
-					 * put in the cache for eval later, otherwise just dump it to the output buffer
-					 */
-					if (cache.length() > 0) {
-						cache.append(c);
-					} else {
-						sb.append(c);
-					}
+					sb.append(c);
+				}
+			} else {
+				/*
+				 * If I am caching (because I had a &) and this is not a closing ; char, then
+				 * put in the cache for eval later, otherwise just dump it to the output buffer
+				 */
+				if (cache.length() > 0) {
+					cache.append(c);
+				} else {
+					sb.append(c);
 				}
 			}
+		}
 
-			/* dump any remaining cache into the output */
-			if (cache.length() > 0) {
-				evaluateCache(sb, cache);
-			}
-
-			this.value = sb.toString();
-			return;
-
+		/* dump any remaining cache into the output */
+		if (cache.length() > 0) {
+			evaluateCache(sb, cache);
 		}
-		this.value = value;
+
+		return sb.toString();
 	}
 
-	private void evaluateCache(final StringBuilder sb, final StringBuilder cache) {
+	private static void evaluateCache(final StringBuilder sb, final StringBuilder cache) {
 
 		if (cache.length() == 0) {
 			// do nothing, shouldn't happen
@@ -264,6 +278,21 @@ public class Tag implements Cloneable {
 		return null;
 	}
 
+	/**
+	 * Get the sub-tag at the given position, without copying the list of sub-tags
+	 * as {@link #getTags()} does
+	 *
+	 * @param index
+	 *            {@code int} with the 0 based position of the sub-tag
+	 * @return {@link Tag}
+	 */
+	public Tag getTag(final int index) {
+		if (tags == null) {
+			return null;
+		}
+		return tags.get(index);
+	}
+
 	public Tag[] getTags() {
 		// clone so it can't over write when set value is called?
 		if (tags != null) {
@@ -378,31 +407,41 @@ public class Tag implements Cloneable {
 		// If something isn't a string and you try to send a
 		// non-printable character this way, it will get all messed up.
 		// so...not sure if should be converted to Base64
-		StringBuffer parsed = new StringBuffer();
+		StringBuilder parsed = new StringBuilder();
+		appendTo(parsed);
+		return parsed.toString();
+	}
+
+	/**
+	 * Append the protocol form of this tag and its sub tags to the given builder,
+	 * so that a whole message is built in one buffer
+	 *
+	 * @param parsed
+	 *            {@code StringBuilder} that will receive the tag
+	 */
+	void appendTo(final StringBuilder parsed) {
 		parsed.append(OPEN_START_TAG);
 		parsed.append(tagName);
 		parsed.append(CLOSE_START_TAG);
 		if (tags != null) {
 			for (Tag tag : tags) {
-				parsed.append(tag.parseTag());
+				tag.appendTo(parsed);
 			}
 		} else {
-			parsed.append(escapeChars(value));
+			appendEscapedChars(parsed, value);
 		}
 		parsed.append(OPEN_END_TAG);
 		parsed.append(tagName);
 		parsed.append(CLOSE_END_TAG);
-		parsed.append("\n");
-
-		return parsed.toString();
+		parsed.append('\n');
 	}
 
-	String escapeChars(final String out) {
+	private static void appendEscapedChars(final StringBuilder sb, final String out) {
 		if (out == null) {
-			return null;
+			sb.append((String) null);
+			return;
 		}
 
-		StringBuilder sb = new StringBuilder();
 		char c;
 
 		for (int i = 0; i < out.length(); i++) {
@@ -421,7 +460,15 @@ public class Tag implements Cloneable {
 				sb.append(c);
 			}
 		}
+	}
+
+	String escapeChars(final String out) {
+		if (out == null) {
+			return null;
+		}
 
+		StringBuilder sb = new StringBuilder(out.length());
+		appendEscapedChars(sb, out);
 		return sb.toString();
 	}
 
@@ -462,12 +509,57 @@ public class Tag implements Cloneable {
 			return null;
 		}
 
-		String d = new String(data, encoding);
+		return readNextTag(data, 0, data.length, decode, encoding);
+	}
+
+	/**
+	 * Read the first tag from a region of a buffer. The returned {@code Tag} holds
+	 * no reference to the buffer, so the buffer may be reused once this returns.
+	 * The message is parsed with a {@link TagIndex} and the whole {@code Tag} tree
+	 * is then built from it, so every value is still turned into a
+	 * {@code String}.
+	 *
+	 * @param data
+	 *            {@code byte[]} holding the message
+	 * @param offset
+	 *            {@code int} with the start of the message in the buffer
+	 * @param length
+	 *            {@code int} with the length of the message
+	 * @param decode
+	 *            {@code boolean} indicating that XML entities in values should be
+	 *            decoded
+	 * @param encoding
+	 *            {@code String} with the character set of the message
+	 * @return {@link Tag}, or {@code null} if the data holds no tag
+	 * @throws UnsupportedEncodingException
+	 *             shouldn't throw, already tested for
+	 */
+	public static Tag readNextTag(final byte[] data, final int offset, final int length, final boolean decode,
+			final String encoding) throws UnsupportedEncodingException {
+		if (data == null) {
+			return null;
+		}
+
+		if (TagIndex.isSupportedEncoding(encoding)) {
+			TagIndex index = TagIndex.parse(data, offset, length, decode, encoding);
+			return index == null ? null : index.toTag();
+		}
+
+		return readNextTagFromString(new String(data, offset, length, encoding), decode);
+	}
+
+	/**
+	 * Original {@code String} based parser, kept for character sets where the
+	 * markup characters are not single bytes
+	 */
+	static Tag readNextTagFromString(final String message, final boolean decode)
+			throws UnsupportedEncodingException {
+		String d = message;
 
 		// remove the random '\n'
 		// had to find the end, sometimes '\n' is there, sometimes not.
 		// d = d.replaceAll(CLOSE_END_TAG + "\n", "" + CLOSE_END_TAG);
-		d = d.replaceAll(CLOSE_END_TAG_WITH_CR, CLOSE_END_TAG_STR);
+		d = d.replace(CLOSE_END_TAG_WITH_CR, CLOSE_END_TAG_STR);
 		int start = d.indexOf(OPEN_START_TAG), end = d.indexOf(CLOSE_START_TAG, start);
 		int offset = 0;
 		if (start < 0) {
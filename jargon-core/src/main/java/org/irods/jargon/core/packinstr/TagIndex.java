@@ -0,0 +1,294 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.irods.jargon.core.exception.JargonRuntimeException;
+
+/**
+ * Index over an iRODS XML protocol message, built in one pass over the message
+ * bytes, from which
+ * {@link Tag#readNextTag(byte[], int, int, boolean, String)} builds its
+ * {@link Tag} tree. Element names, child positions, and value positions are
+ * held in arrays, so the message is never decoded to a {@code String} as a
+ * whole, and each value is decoded once when its {@code Tag} is built.
+ * <p>
+ * The index refers to the byte array it was built from, which must not be
+ * changed until the {@code Tag} tree is built. Parsing works on the raw bytes and so is
+ * limited to character sets where the markup characters are single bytes that
+ * cannot appear inside a multi-byte character, see
+ * {@link #isSupportedEncoding(String)}.
+ * <p>
+ * The rules follow the original {@code String} parser in {@link Tag}: a newline
+ * directly after a {@code '>'} is dropped, an element whose first {@code '<'}
+ * begins its own end tag is a leaf with a (possibly empty) value, and any other
+ * element holds only sub-elements.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class TagIndex {
+
+	private static final int INITIAL_NODES = 64;
+
+	private final byte[] data;
+	private final Charset charset;
+	private final boolean decode;
+
+	/**
+	 * Distinct element names, the protocol reuses a small set of names so these are
+	 * shared between nodes
+	 */
+	private final ArrayList<String> names = new ArrayList<String>();
+
+	private int nodeCount = 0;
+	private int[] nameIds = new int[INITIAL_NODES];
+	private int[] parents = new int[INITIAL_NODES];
+	/**
+	 * Start of the value of a leaf, or -1 for an element with sub-elements
+	 */
+	private int[] valueStarts = new int[INITIAL_NODES];
+	private int[] valueEnds = new int[INITIAL_NODES];
+	private int[] childStarts;
+	private int[] childCounts;
+	private int[] children;
+
+	private TagIndex(final byte[] data, final Charset charset, final boolean decode) {
+		this.data = data;
+		this.charset = charset;
+		this.decode = decode;
+	}
+
+	/**
+	 * Indicates whether messages in the given character set can be indexed
+	 *
+	 * @param encoding
+	 *            {@code String} with the character set name
+	 * @return {@code boolean} of {@code true} if {@link #parse} accepts the
+	 *         encoding
+	 */
+	static boolean isSupportedEncoding(final String encoding) {
+		Charset charset = charsetFor(encoding);
+		return charset != null && (charset.equals(StandardCharsets.UTF_8)
+				|| charset.equals(StandardCharsets.US_ASCII) || charset.equals(StandardCharsets.ISO_8859_1));
+	}
+
+	private static Charset charsetFor(final String encoding) {
+		if (encoding == null) {
+			return null;
+		}
+		try {
+			return Charset.forName(encoding);
+		} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Index the first element found in a region of a buffer
+	 *
+	 * @param data
+	 *            {@code byte[]} holding the message, this array is referred to
+	 *            by the index and must not be changed until the tags are built
+	 * @param offset
+	 *            {@code int} with the start of the message in the buffer
+	 * @param length
+	 *            {@code int} with the length of the message
+	 * @param decode
+	 *            {@code boolean} indicating that XML entities in values are
+	 *            decoded
+	 * @param encoding
+	 *            {@code String} with the character set of the message
+	 * @return {@code TagIndex}, or {@code null} if there is no element in the
+	 *         region
+	 * @throws UnsupportedEncodingException
+	 *             if the encoding cannot be indexed, see
+	 *             {@link #isSupportedEncoding(String)}
+	 */
+	static TagIndex parse(final byte[] data, final int offset, final int length, final boolean decode,
+			final String encoding) throws UnsupportedEncodingException {
+
+		if (data == null) {
+			throw new IllegalArgumentException("null data");
+		}
+
+		if (offset < 0 || length < 0 || offset + length > data.length) {
+			throw new IllegalArgumentException("offset and length out of range of data");
+		}
+
+		if (!isSupportedEncoding(encoding)) {
+			throw new UnsupportedEncodingException("cannot index messages with encoding:" + encoding);
+		}
+
+		int end = offset + length;
+		int start = indexOf(data, (byte) Tag.OPEN_START_TAG, offset, end);
+		if (start < 0) {
+			return null;
+		}
+
+		TagIndex index = new TagIndex(data, charsetFor(encoding), decode);
+		index.parseElement(start, end, -1);
+		index.buildChildren();
+		return index;
+	}
+
+	/**
+	 * Parse the element starting at {@code start}, which points to its
+	 * {@code '<'}, and return the position just after its end tag
+	 */
+	private int parseElement(final int start, final int end, final int parent) {
+		int nameEnd = indexOf(data, (byte) Tag.CLOSE_START_TAG, start + 1, end);
+		if (nameEnd < 0) {
+			throw new JargonRuntimeException("unterminated start tag in protocol message");
+		}
+
+		int node = addNode(nameIdFor(start + 1, nameEnd), parent);
+		int pos = skipNewline(nameEnd + 1, end);
+
+		int next = indexOf(data, (byte) Tag.OPEN_START_TAG, pos, end);
+		if (next < 0 || next + 1 >= end) {
+			throw new JargonRuntimeException("unterminated element in protocol message:" + getName(node));
+		}
+
+		if (data[next + 1] == '/') {
+			valueStarts[node] = pos;
+			valueEnds[node] = next;
+		} else {
+			valueStarts[node] = -1;
+			while (data[next + 1] != '/') {
+				pos = parseElement(next, end, node);
+				next = indexOf(data, (byte) Tag.OPEN_START_TAG, pos, end);
+				if (next < 0 || next + 1 >= end) {
+					throw new JargonRuntimeException("unterminated element in protocol message:" + getName(node));
+				}
+			}
+		}
+
+		int endTagClose = indexOf(data, (byte) Tag.CLOSE_END_TAG, next, end);
+		if (endTagClose < 0) {
+			throw new JargonRuntimeException("unterminated end tag in protocol message");
+		}
+		return skipNewline(endTagClose + 1, end);
+	}
+
+	private int skipNewline(final int pos, final int end) {
+		if (pos < end && data[pos] == '\n') {
+			return pos + 1;
+		}
+		return pos;
+	}
+
+	private static int indexOf(final byte[] data, final byte b, final int from, final int end) {
+		for (int i = from; i < end; i++) {
+			if (data[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int nameIdFor(final int start, final int end) {
+		int length = end - start;
+		for (int id = 0; id < names.size(); id++) {
+			String name = names.get(id);
+			if (name.length() == length && nameMatches(name, start)) {
+				return id;
+			}
+		}
+		names.add(new String(data, start, length, charset));
+		return names.size() - 1;
+	}
+
+	private boolean nameMatches(final String name, final int start) {
+		for (int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) != (data[start + i] & 0xFF)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int addNode(final int nameId, final int parent) {
+		if (nodeCount == nameIds.length) {
+			int newLength = nodeCount * 2;
+			nameIds = Arrays.copyOf(nameIds, newLength);
+			parents = Arrays.copyOf(parents, newLength);
+			valueStarts = Arrays.copyOf(valueStarts, newLength);
+			valueEnds = Arrays.copyOf(valueEnds, newLength);
+		}
+		nameIds[nodeCount] = nameId;
+		parents[nodeCount] = parent;
+		return nodeCount++;
+	}
+
+	/**
+	 * Lay the children of each node out next to each other, nodes are numbered in
+	 * document order so a single pass keeps children in order
+	 */
+	private void buildChildren() {
+		childCounts = new int[nodeCount];
+		for (int i = 1; i < nodeCount; i++) {
+			childCounts[parents[i]]++;
+		}
+
+		childStarts = new int[nodeCount];
+		int total = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			childStarts[i] = total;
+			total += childCounts[i];
+		}
+
+		children = new int[total];
+		int[] filled = new int[nodeCount];
+		for (int i = 1; i < nodeCount; i++) {
+			int parent = parents[i];
+			children[childStarts[parent] + filled[parent]++] = i;
+		}
+	}
+
+	private String getName(final int node) {
+		return names.get(nameIds[node]);
+	}
+
+	/*
+	 * value of a leaf, decoded if requested when the index was built
+	 */
+	private String getStringValue(final int node) {
+		int start = valueStarts[node];
+		int end = valueEnds[node];
+		String value = new String(data, start, end - start, charset);
+		if (decode && indexOf(data, (byte) '&', start, end) >= 0) {
+			return Tag.decodeEntities(value);
+		}
+		return value;
+	}
+
+	/**
+	 * Build the {@link Tag} tree for the whole message. The resulting tags do not
+	 * refer to the index.
+	 *
+	 * @return {@link Tag}
+	 */
+	Tag toTag() {
+		return toTag(0);
+	}
+
+	private Tag toTag(final int node) {
+		Tag tag = new Tag(getName(node));
+		if (valueStarts[node] >= 0) {
+			tag.value = getStringValue(node);
+		} else {
+			tag.tags = new ArrayList<Tag>(childCounts[node]);
+			for (int i = childStarts[node], end = childStarts[node] + childCounts[node]; i < end; i++) {
+				tag.tags.add(toTag(children[i]));
+			}
+		}
+		return tag;
+	}
+
+}
@@ -40,6 +40,11 @@ public class TransferOptions {
 	private boolean intraFileStatusCallbacks = false;
 	private ForceOption forceOption = ForceOption.ASK_CALLBACK_LISTENER;
 	private boolean useParallelTransfer = true;
+	/**
+	 * Number of worker threads that transfer individual files concurrently during
+	 * a recursive put or get. 0 or 1 will transfer one file at a time.
+	 */
+	private int concurrentFileTransferThreads = 0;
 	private ChecksumEncodingEnum checksumEncoding = ChecksumEncodingEnum.DEFAULT;
 	/**
 	 * Number of callbacks before an intra file callback listener will be notified,
@@ -69,6 +74,21 @@ public class TransferOptions {
 	 * verify even if both values are {@code true}
 	 */
 	private boolean computeAndVerifyChecksumAfterTransfer = false;
+	/**
+	 * Compute the local checksum of a put from the bytes as they are sent, rather
+	 * than reading the file beforehand, and have iRODS register its own checksum
+	 * to compare with afterwards. Applies when one of the checksum options above
+	 * is set.
+	 */
+	private boolean digestChecksumDuringTransfer = false;
+	/**
+	 * Move the bytes of a large file over several ordinary connections that each
+	 * open the same replica and transfer a range of it, instead of having iRODS
+	 * open parallel transfer ports back to the client. Applies when
+	 * {@code useParallelTransfer} is set and the server has the replica open and
+	 * close APIs.
+	 */
+	private boolean clientDrivenParallelTransfer = false;
 	/**
 	 * Special flag signalling that this transfer operation is the result of a
 	 * client side rule action (get or put). Typically this is left to false, but is
@@ -87,6 +107,7 @@ public class TransferOptions {
 			builder.append("forceOption=").append(forceOption).append(", ");
 		}
 		builder.append("useParallelTransfer=").append(useParallelTransfer).append(", ");
+		builder.append("concurrentFileTransferThreads=").append(concurrentFileTransferThreads).append(", ");
 		if (checksumEncoding != null) {
 			builder.append("checksumEncoding=").append(checksumEncoding).append(", ");
 		}
@@ -99,6 +120,8 @@ public class TransferOptions {
 		}
 		builder.append("computeChecksumAfterTransfer=").append(computeChecksumAfterTransfer)
 				.append(", computeAndVerifyChecksumAfterTransfer=").append(computeAndVerifyChecksumAfterTransfer)
+				.append(", digestChecksumDuringTransfer=").append(digestChecksumDuringTransfer)
+				.append(", clientDrivenParallelTransfer=").append(clientDrivenParallelTransfer)
 				.append(", clientSideRuleAction=").append(clientSideRuleAction).append("]");
 		return builder.toString();
 	}
@@ -121,9 +144,12 @@ public class TransferOptions {
 				setAllowPutGetResourceRedirects(transferOptions.isAllowPutGetResourceRedirects());
 				setComputeChecksumAfterTransfer(transferOptions.isComputeChecksumAfterTransfer());
 				setComputeAndVerifyChecksumAfterTransfer(transferOptions.isComputeAndVerifyChecksumAfterTransfer());
+				setDigestChecksumDuringTransfer(transferOptions.isDigestChecksumDuringTransfer());
+				setClientDrivenParallelTransfer(transferOptions.isClientDrivenParallelTransfer());
 				setIntraFileStatusCallbacks(transferOptions.intraFileStatusCallbacks);
 				setForceOption(transferOptions.getForceOption());
 				setUseParallelTransfer(transferOptions.isUseParallelTransfer());
+				setConcurrentFileTransferThreads(transferOptions.getConcurrentFileTransferThreads());
 				setPutOption(transferOptions.getPutOption());
 				setChecksumEncoding(transferOptions.getChecksumEncoding());
 				setClientSideRuleAction(transferOptions.isClientSideRuleAction());
@@ -308,6 +334,30 @@ public class TransferOptions {
 		this.useParallelTransfer = useParallelTransfer;
 	}
 
+	/**
+	 * Get the number of worker threads used to transfer files concurrently in a
+	 * recursive put or get.
+	 *
+	 * @return {@code int} with the number of concurrent file transfer threads, 0
+	 *         or 1 means files are transferred one at a time
+	 */
+	public synchronized int getConcurrentFileTransferThreads() {
+		return concurrentFileTransferThreads;
+	}
+
+	/**
+	 * Set the number of worker threads used to transfer files concurrently in a
+	 * recursive put or get. Each worker will use its own connection to iRODS.
+	 *
+	 * @param concurrentFileTransferThreads {@code int} with the number of
+	 *                                      concurrent file transfer threads, 0 or
+	 *                                      1 means files are transferred one at a
+	 *                                      time
+	 */
+	public synchronized void setConcurrentFileTransferThreads(final int concurrentFileTransferThreads) {
+		this.concurrentFileTransferThreads = concurrentFileTransferThreads;
+	}
+
 	/**
 	 * @return the putOption
 	 */
@@ -383,4 +433,32 @@ public class TransferOptions {
 	public synchronized void setClientSideRuleAction(boolean clientSideRuleAction) {
 		this.clientSideRuleAction = clientSideRuleAction;
 	}
+
+	/**
+	 * @return the digestChecksumDuringTransfer
+	 */
+	public synchronized boolean isDigestChecksumDuringTransfer() {
+		return digestChecksumDuringTransfer;
+	}
+
+	/**
+	 * @param digestChecksumDuringTransfer the digestChecksumDuringTransfer to set
+	 */
+	public synchronized void setDigestChecksumDuringTransfer(final boolean digestChecksumDuringTransfer) {
+		this.digestChecksumDuringTransfer = digestChecksumDuringTransfer;
+	}
+
+	/**
+	 * @return the clientDrivenParallelTransfer
+	 */
+	public synchronized boolean isClientDrivenParallelTransfer() {
+		return clientDrivenParallelTransfer;
+	}
+
+	/**
+	 * @param clientDrivenParallelTransfer the clientDrivenParallelTransfer to set
+	 */
+	public synchronized void setClientDrivenParallelTransfer(final boolean clientDrivenParallelTransfer) {
+		this.clientDrivenParallelTransfer = clientDrivenParallelTransfer;
+	}
 }
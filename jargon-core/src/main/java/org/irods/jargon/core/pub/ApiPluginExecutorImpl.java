@@ -3,9 +3,13 @@
  */
 package org.irods.jargon.core.pub;
 
+import java.io.IOException;
+
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.BinBytesBufInp;
+import org.irods.jargon.core.packinstr.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,4 +58,56 @@ class ApiPluginExecutorImpl<InputType, OutputType> extends IRODSGenericAO {
 
 	}
 
+	/**
+	 * Call a pluggable API that takes and returns JSON, sending the input as JSON
+	 * and binding the JSON returned by iRODS to the given type
+	 *
+	 * @param apiNumber  {@code int} with the number of the pluggable API
+	 * @param input      {@code InputType} serialized as the JSON input
+	 * @param outputType {@code Class} of {@code OutputType} for the JSON output
+	 * @return {@code OutputType} with the output, or {@code null} if iRODS
+	 *         returned no output
+	 * @throws JargonException for iRODS error, including the error returned by the
+	 *                         API
+	 */
+	public OutputType callPluggableApi(final int apiNumber, final InputType input, final Class<OutputType> outputType)
+			throws JargonException {
+		log.info("callPluggableApi())");
+		if (apiNumber <= 0) {
+			throw new IllegalArgumentException("invalid api number");
+		}
+		if (input == null) {
+			throw new IllegalArgumentException("null input");
+		}
+		if (outputType == null) {
+			throw new IllegalArgumentException("null outputType");
+		}
+
+		log.info("apiNumber:{}", apiNumber);
+
+		String jsonInput;
+		try {
+			jsonInput = mapper.writeValueAsString(input);
+		} catch (JsonProcessingException e) {
+			log.error("Invalid json", e);
+			throw new JargonException("invalid json", e);
+		}
+
+		log.debug("jsonInput:{}", jsonInput);
+		Tag response = getIRODSProtocol().irodsFunction(BinBytesBufInp.instanceForJson(apiNumber, jsonInput));
+		String jsonOutput = BinBytesBufInp.decodeResponseAsString(response);
+		log.debug("jsonOutput:{}", jsonOutput);
+
+		if (jsonOutput.isEmpty()) {
+			return null;
+		}
+
+		try {
+			return mapper.readValue(jsonOutput, outputType);
+		} catch (IOException e) {
+			log.error("Invalid json in response", e);
+			throw new JargonException("invalid json in response", e);
+		}
+	}
+
 }
@@ -0,0 +1,233 @@
+package org.irods.jargon.core.pub;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+
+/**
+ * Asynchronous facade over the {@link IRODSAccessObjectFactory}. Each method
+ * returns at once with a {@code CompletableFuture}, and the operation runs on
+ * a worker thread, holding a connection only while it runs, so a caller does
+ * not need to dedicate a thread to every call in flight.
+ * <p>
+ * Operations for one {@link IRODSAccount} run at most a configured number at a
+ * time, the rest wait in order without holding a thread or a connection. A
+ * future that fails completes exceptionally with the {@code JargonException}
+ * that the underlying access object threw.
+ * <p>
+ * Cancelling a future removes the operation if it has not yet started. A
+ * transfer that has started is stopped by setting
+ * {@link TransferControlBlock#setCancelled(boolean)}, other operations that
+ * have started run to the end and their result is discarded.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface AsyncIRODSAccessObjectFactory extends AutoCloseable {
+
+	/**
+	 * Work done against iRODS by {@link #submit(IRODSAccount, AsyncOperation)}
+	 *
+	 * @param <T>
+	 *            type of the result
+	 */
+	interface AsyncOperation<T> {
+
+		/**
+		 * Do the work, on a worker thread that holds a connection for the account
+		 *
+		 * @param irodsAccessObjectFactory
+		 *            {@link IRODSAccessObjectFactory} to get access objects from
+		 * @param irodsAccount
+		 *            {@link IRODSAccount} the operation was submitted for
+		 * @return result of the operation
+		 * @throws JargonException
+		 *             for iRODS error
+		 */
+		T execute(IRODSAccessObjectFactory irodsAccessObjectFactory, IRODSAccount irodsAccount)
+				throws JargonException;
+	}
+
+	/**
+	 * Run arbitrary work against iRODS asynchronously
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param asyncOperation
+	 *            {@link AsyncOperation} with the work
+	 * @return {@code CompletableFuture} with the result of the operation
+	 */
+	<T> CompletableFuture<T> submit(IRODSAccount irodsAccount, AsyncOperation<T> asyncOperation);
+
+	/**
+	 * Stat a file or collection, as
+	 * {@link CollectionAndDataObjectListAndSearchAO#retrieveObjectStatForPath(String)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param irodsAbsolutePath
+	 *            {@code String} with the absolute path
+	 * @return {@code CompletableFuture} with the {@link ObjStat}
+	 */
+	CompletableFuture<ObjStat> retrieveObjectStatForPath(IRODSAccount irodsAccount, String irodsAbsolutePath);
+
+	/**
+	 * List the children of a collection, as
+	 * {@link CollectionAndDataObjectListAndSearchAO#listDataObjectsAndCollectionsUnderPath(String)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param absolutePathToParent
+	 *            {@code String} with the absolute path of the collection
+	 * @return {@code CompletableFuture} with the entries
+	 */
+	CompletableFuture<List<CollectionAndDataObjectListingEntry>> listDataObjectsAndCollectionsUnderPath(
+			IRODSAccount irodsAccount, String absolutePathToParent);
+
+	/**
+	 * Run a GenQuery and close the result, as
+	 * {@link IRODSGenQueryExecutor#executeIRODSQueryAndCloseResult(AbstractIRODSGenQuery, int)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} to run
+	 * @param partialStartIndex
+	 *            {@code int} with the offset of the first row
+	 * @return {@code CompletableFuture} with the {@link IRODSQueryResultSet}, a
+	 *         {@link JargonQueryException} is wrapped in a
+	 *         {@code JargonException}
+	 */
+	CompletableFuture<IRODSQueryResultSet> executeIRODSQueryAndCloseResult(IRODSAccount irodsAccount,
+			AbstractIRODSGenQuery irodsQuery, int partialStartIndex);
+
+	/**
+	 * Find the AVUs of a data object, as
+	 * {@link DataObjectAO#findMetadataValuesForDataObject(String)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param dataObjectAbsolutePath
+	 *            {@code String} with the absolute path of the data object
+	 * @return {@code CompletableFuture} with the AVUs
+	 */
+	CompletableFuture<List<MetaDataAndDomainData>> findMetadataValuesForDataObject(IRODSAccount irodsAccount,
+			String dataObjectAbsolutePath);
+
+	/**
+	 * Find the AVUs of a collection, as
+	 * {@link CollectionAO#findMetadataValuesForCollection(String)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param collectionAbsolutePath
+	 *            {@code String} with the absolute path of the collection
+	 * @return {@code CompletableFuture} with the AVUs
+	 */
+	CompletableFuture<List<MetaDataAndDomainData>> findMetadataValuesForCollection(IRODSAccount irodsAccount,
+			String collectionAbsolutePath);
+
+	/**
+	 * Add an AVU to a data object, as
+	 * {@link DataObjectAO#addAVUMetadata(String, AvuData)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param dataObjectAbsolutePath
+	 *            {@code String} with the absolute path of the data object
+	 * @param avuData
+	 *            {@link AvuData} to add
+	 * @return {@code CompletableFuture} that completes when the AVU is added
+	 */
+	CompletableFuture<Void> addAVUMetadataToDataObject(IRODSAccount irodsAccount, String dataObjectAbsolutePath,
+			AvuData avuData);
+
+	/**
+	 * Add an AVU to a collection, as
+	 * {@link CollectionAO#addAVUMetadata(String, AvuData)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param collectionAbsolutePath
+	 *            {@code String} with the absolute path of the collection
+	 * @param avuData
+	 *            {@link AvuData} to add
+	 * @return {@code CompletableFuture} that completes when the AVU is added
+	 */
+	CompletableFuture<Void> addAVUMetadataToCollection(IRODSAccount irodsAccount, String collectionAbsolutePath,
+			AvuData avuData);
+
+	/**
+	 * Put a local file or directory, as
+	 * {@link DataTransferOperations#putOperation(String, String, String, TransferStatusCallbackListener, TransferControlBlock)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param sourceFileAbsolutePath
+	 *            {@code String} with the local source
+	 * @param targetIrodsFileAbsolutePath
+	 *            {@code String} with the iRODS target
+	 * @param targetResourceName
+	 *            {@code String} with the resource, blank for the default
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, may be {@code null}
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock}, if {@code null} a default one is
+	 *            built from the jargon properties. Cancelling the future
+	 *            cancels it.
+	 * @return {@code CompletableFuture} that completes when the transfer is
+	 *         done
+	 */
+	CompletableFuture<Void> putOperation(IRODSAccount irodsAccount, String sourceFileAbsolutePath,
+			String targetIrodsFileAbsolutePath, String targetResourceName,
+			TransferStatusCallbackListener transferStatusCallbackListener, TransferControlBlock transferControlBlock);
+
+	/**
+	 * Get an iRODS file or collection, as
+	 * {@link DataTransferOperations#getOperation(String, String, String, TransferStatusCallbackListener, TransferControlBlock)}
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to run as
+	 * @param irodsSourceFileAbsolutePath
+	 *            {@code String} with the iRODS source
+	 * @param targetLocalFileAbsolutePath
+	 *            {@code String} with the local target
+	 * @param sourceResourceName
+	 *            {@code String} with the resource, blank for the default
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, may be {@code null}
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock}, if {@code null} a default one is
+	 *            built from the jargon properties. Cancelling the future
+	 *            cancels it.
+	 * @return {@code CompletableFuture} that completes when the transfer is
+	 *         done
+	 */
+	CompletableFuture<Void> getOperation(IRODSAccount irodsAccount, String irodsSourceFileAbsolutePath,
+			String targetLocalFileAbsolutePath, String sourceResourceName,
+			TransferStatusCallbackListener transferStatusCallbackListener, TransferControlBlock transferControlBlock);
+
+	/**
+	 * @return {@link IRODSAccessObjectFactory} that the operations use
+	 */
+	IRODSAccessObjectFactory getIrodsAccessObjectFactory();
+
+	/**
+	 * Stop accepting operations, and shut down the worker threads if this
+	 * factory created them
+	 */
+	@Override
+	void close();
+
+}
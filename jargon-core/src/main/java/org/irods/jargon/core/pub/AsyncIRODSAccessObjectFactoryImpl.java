@@ -0,0 +1,523 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.ConnectionScope;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs access object calls on a pool of worker threads and hands back
+ * {@code CompletableFuture}s. Each operation runs inside a
+ * {@link ConnectionScope}, so the connection goes back to the
+ * {@code IRODSProtocolManager} when the operation ends rather than staying
+ * bound to the worker thread. With a pooling protocol manager, such as the one
+ * in jargon-pool, the number of open sockets is bounded by the pool.
+ * <p>
+ * Each account has a lane that lets at most
+ * {@code maxConcurrentOperationsPerAccount} operations run at once, further
+ * operations are queued in the lane in the order submitted and handed to the
+ * workers as running ones finish, so waiting work does not hold a thread. If
+ * the executor refuses an operation, for instance once it is shut down, its
+ * future completes exceptionally.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class AsyncIRODSAccessObjectFactoryImpl implements AsyncIRODSAccessObjectFactory {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncIRODSAccessObjectFactoryImpl.class);
+
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final ExecutorService executorService;
+	private final boolean ownsExecutorService;
+	private final int maxConcurrentOperationsPerAccount;
+	private final ConcurrentHashMap<String, AccountLane> accountLanes = new ConcurrentHashMap<String, AccountLane>();
+	private volatile boolean closed = false;
+
+	/**
+	 * Create a factory that runs operations on its own daemon worker threads,
+	 * which are shut down by {@link #close()}
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} to get access objects from
+	 * @param maxConcurrentOperationsPerAccount
+	 *            {@code int} with the most operations that run at once for one
+	 *            account
+	 */
+	public AsyncIRODSAccessObjectFactoryImpl(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final int maxConcurrentOperationsPerAccount) {
+		this(irodsAccessObjectFactory, Executors.newCachedThreadPool(new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "jargon-async-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		}), maxConcurrentOperationsPerAccount, true);
+	}
+
+	/**
+	 * Create a factory that runs operations on the given executor, which the
+	 * caller shuts down
+	 *
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory} to get access objects from
+	 * @param executorService
+	 *            {@code ExecutorService} that runs the operations
+	 * @param maxConcurrentOperationsPerAccount
+	 *            {@code int} with the most operations that run at once for one
+	 *            account
+	 */
+	public AsyncIRODSAccessObjectFactoryImpl(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final ExecutorService executorService, final int maxConcurrentOperationsPerAccount) {
+		this(irodsAccessObjectFactory, executorService, maxConcurrentOperationsPerAccount, false);
+	}
+
+	private AsyncIRODSAccessObjectFactoryImpl(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final ExecutorService executorService, final int maxConcurrentOperationsPerAccount,
+			final boolean ownsExecutorService) {
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (executorService == null) {
+			throw new IllegalArgumentException("null executorService");
+		}
+
+		if (maxConcurrentOperationsPerAccount < 1) {
+			throw new IllegalArgumentException("maxConcurrentOperationsPerAccount must be at least 1");
+		}
+
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.executorService = executorService;
+		this.maxConcurrentOperationsPerAccount = maxConcurrentOperationsPerAccount;
+		this.ownsExecutorService = ownsExecutorService;
+	}
+
+	@Override
+	public <T> CompletableFuture<T> submit(final IRODSAccount irodsAccount, final AsyncOperation<T> asyncOperation) {
+		return enqueue(irodsAccount, asyncOperation, new CompletableFuture<T>());
+	}
+
+	@Override
+	public CompletableFuture<ObjStat> retrieveObjectStatForPath(final IRODSAccount irodsAccount,
+			final String irodsAbsolutePath) {
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<ObjStat>() {
+			@Override
+			public ObjStat execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				return irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+						.retrieveObjectStatForPath(irodsAbsolutePath);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<CollectionAndDataObjectListingEntry>> listDataObjectsAndCollectionsUnderPath(
+			final IRODSAccount irodsAccount, final String absolutePathToParent) {
+
+		if (absolutePathToParent == null || absolutePathToParent.isEmpty()) {
+			throw new IllegalArgumentException("null or empty absolutePathToParent");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<List<CollectionAndDataObjectListingEntry>>() {
+			@Override
+			public List<CollectionAndDataObjectListingEntry> execute(
+					final IRODSAccessObjectFactory irodsAccessObjectFactory, final IRODSAccount irodsAccount)
+					throws JargonException {
+				return irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+						.listDataObjectsAndCollectionsUnderPath(absolutePathToParent);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<IRODSQueryResultSet> executeIRODSQueryAndCloseResult(final IRODSAccount irodsAccount,
+			final AbstractIRODSGenQuery irodsQuery, final int partialStartIndex) {
+
+		if (irodsQuery == null) {
+			throw new IllegalArgumentException("null irodsQuery");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<IRODSQueryResultSet>() {
+			@Override
+			public IRODSQueryResultSet execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				try {
+					return irodsAccessObjectFactory.getIRODSGenQueryExecutor(irodsAccount)
+							.executeIRODSQueryAndCloseResult(irodsQuery, partialStartIndex);
+				} catch (JargonQueryException e) {
+					log.error("query exception for query:{}", irodsQuery, e);
+					throw new JargonException("error executing query", e);
+				}
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<MetaDataAndDomainData>> findMetadataValuesForDataObject(
+			final IRODSAccount irodsAccount, final String dataObjectAbsolutePath) {
+
+		if (dataObjectAbsolutePath == null || dataObjectAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty dataObjectAbsolutePath");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<List<MetaDataAndDomainData>>() {
+			@Override
+			public List<MetaDataAndDomainData> execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				return irodsAccessObjectFactory.getDataObjectAO(irodsAccount)
+						.findMetadataValuesForDataObject(dataObjectAbsolutePath);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<MetaDataAndDomainData>> findMetadataValuesForCollection(
+			final IRODSAccount irodsAccount, final String collectionAbsolutePath) {
+
+		if (collectionAbsolutePath == null || collectionAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionAbsolutePath");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<List<MetaDataAndDomainData>>() {
+			@Override
+			public List<MetaDataAndDomainData> execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				try {
+					return irodsAccessObjectFactory.getCollectionAO(irodsAccount)
+							.findMetadataValuesForCollection(collectionAbsolutePath);
+				} catch (JargonQueryException e) {
+					log.error("query exception looking up AVUs for:{}", collectionAbsolutePath, e);
+					throw new JargonException("error executing query", e);
+				}
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> addAVUMetadataToDataObject(final IRODSAccount irodsAccount,
+			final String dataObjectAbsolutePath, final AvuData avuData) {
+
+		if (dataObjectAbsolutePath == null || dataObjectAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty dataObjectAbsolutePath");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<Void>() {
+			@Override
+			public Void execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				irodsAccessObjectFactory.getDataObjectAO(irodsAccount).addAVUMetadata(dataObjectAbsolutePath,
+						avuData);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> addAVUMetadataToCollection(final IRODSAccount irodsAccount,
+			final String collectionAbsolutePath, final AvuData avuData) {
+
+		if (collectionAbsolutePath == null || collectionAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionAbsolutePath");
+		}
+
+		if (avuData == null) {
+			throw new IllegalArgumentException("null avuData");
+		}
+
+		return submit(irodsAccount, new AsyncOperation<Void>() {
+			@Override
+			public Void execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				irodsAccessObjectFactory.getCollectionAO(irodsAccount).addAVUMetadata(collectionAbsolutePath,
+						avuData);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> putOperation(final IRODSAccount irodsAccount, final String sourceFileAbsolutePath,
+			final String targetIrodsFileAbsolutePath, final String targetResourceName,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) {
+
+		if (sourceFileAbsolutePath == null || sourceFileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty sourceFileAbsolutePath");
+		}
+
+		if (targetIrodsFileAbsolutePath == null || targetIrodsFileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty targetIrodsFileAbsolutePath");
+		}
+
+		final TransferControlBlock effectiveTransferControlBlock;
+		try {
+			effectiveTransferControlBlock = transferControlBlockOrDefault(transferControlBlock);
+		} catch (JargonException e) {
+			return failedFuture(e);
+		}
+
+		return enqueue(irodsAccount, new AsyncOperation<Void>() {
+			@Override
+			public Void execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				irodsAccessObjectFactory.getDataTransferOperations(irodsAccount).putOperation(sourceFileAbsolutePath,
+						targetIrodsFileAbsolutePath, targetResourceName == null ? "" : targetResourceName,
+						transferStatusCallbackListener, effectiveTransferControlBlock);
+				return null;
+			}
+		}, new TransferFuture<Void>(effectiveTransferControlBlock));
+	}
+
+	@Override
+	public CompletableFuture<Void> getOperation(final IRODSAccount irodsAccount,
+			final String irodsSourceFileAbsolutePath, final String targetLocalFileAbsolutePath,
+			final String sourceResourceName, final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) {
+
+		if (irodsSourceFileAbsolutePath == null || irodsSourceFileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsSourceFileAbsolutePath");
+		}
+
+		if (targetLocalFileAbsolutePath == null || targetLocalFileAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty targetLocalFileAbsolutePath");
+		}
+
+		final TransferControlBlock effectiveTransferControlBlock;
+		try {
+			effectiveTransferControlBlock = transferControlBlockOrDefault(transferControlBlock);
+		} catch (JargonException e) {
+			return failedFuture(e);
+		}
+
+		return enqueue(irodsAccount, new AsyncOperation<Void>() {
+			@Override
+			public Void execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				irodsAccessObjectFactory.getDataTransferOperations(irodsAccount).getOperation(
+						irodsSourceFileAbsolutePath, targetLocalFileAbsolutePath,
+						sourceResourceName == null ? "" : sourceResourceName, transferStatusCallbackListener,
+						effectiveTransferControlBlock);
+				return null;
+			}
+		}, new TransferFuture<Void>(effectiveTransferControlBlock));
+	}
+
+	@Override
+	public IRODSAccessObjectFactory getIrodsAccessObjectFactory() {
+		return irodsAccessObjectFactory;
+	}
+
+	@Override
+	public void close() {
+		log.info("close()");
+		closed = true;
+		if (ownsExecutorService) {
+			executorService.shutdown();
+		}
+	}
+
+	private TransferControlBlock transferControlBlockOrDefault(final TransferControlBlock transferControlBlock)
+			throws JargonException {
+		if (transferControlBlock != null) {
+			return transferControlBlock;
+		}
+		return irodsAccessObjectFactory.getIrodsSession().buildDefaultTransferControlBlockBasedOnJargonProperties();
+	}
+
+	private static <T> CompletableFuture<T> failedFuture(final Throwable throwable) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(throwable);
+		return future;
+	}
+
+	private <T> CompletableFuture<T> enqueue(final IRODSAccount irodsAccount, final AsyncOperation<T> asyncOperation,
+			final CompletableFuture<T> future) {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (asyncOperation == null) {
+			throw new IllegalArgumentException("null asyncOperation");
+		}
+
+		if (closed) {
+			throw new JargonRuntimeException("async access object factory is closed");
+		}
+
+		AccountLane accountLane = accountLanes.get(irodsAccount.toString());
+		if (accountLane == null) {
+			accountLane = new AccountLane();
+			AccountLane existing = accountLanes.putIfAbsent(irodsAccount.toString(), accountLane);
+			if (existing != null) {
+				accountLane = existing;
+			}
+		}
+
+		accountLane.submit(new LaneTask<T>(accountLane, irodsAccount, asyncOperation, future));
+		return future;
+	}
+
+	private <T> void runOperation(final IRODSAccount irodsAccount, final AsyncOperation<T> asyncOperation,
+			final CompletableFuture<T> future) {
+
+		if (future.isDone()) {
+			log.debug("operation was cancelled before it started");
+			return;
+		}
+
+		try {
+			ConnectionScope connectionScope = irodsAccessObjectFactory.getIrodsSession()
+					.openConnectionScope(irodsAccount);
+			try {
+				future.complete(asyncOperation.execute(irodsAccessObjectFactory, irodsAccount));
+			} finally {
+				if (connectionScope != null) {
+					connectionScope.close();
+				}
+			}
+		} catch (Throwable e) {
+			log.warn("async operation failed", e);
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Limits the operations of one account that run at once, the waiting ones are
+	 * queued in order. Guarded by itself.
+	 */
+	private final class AccountLane {
+
+		private final Queue<LaneTask<?>> waiting = new ArrayDeque<LaneTask<?>>();
+		private int running = 0;
+
+		void submit(final LaneTask<?> laneTask) {
+			synchronized (this) {
+				if (running >= maxConcurrentOperationsPerAccount) {
+					waiting.add(laneTask);
+					return;
+				}
+				running++;
+			}
+			execute(laneTask);
+		}
+
+		void operationDone() {
+			execute(nextWaiting());
+		}
+
+		/**
+		 * Hands the operation to the executor. If the executor refuses it, as it
+		 * does once shut down, the operation fails and the next waiting one is
+		 * tried, in a loop so a long queue does not deepen the stack.
+		 */
+		private void execute(final LaneTask<?> laneTask) {
+			LaneTask<?> next = laneTask;
+			while (next != null) {
+				try {
+					executorService.execute(next);
+					return;
+				} catch (RejectedExecutionException e) {
+					log.warn("executor refused async operation");
+					next.future.completeExceptionally(new JargonException("async operation was not run", e));
+				}
+				next = nextWaiting();
+			}
+		}
+
+		private synchronized LaneTask<?> nextWaiting() {
+			LaneTask<?> next = waiting.poll();
+			if (next == null) {
+				running--;
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * An operation waiting in, or running from, an {@link AccountLane}
+	 */
+	private final class LaneTask<T> implements Runnable {
+
+		private final AccountLane accountLane;
+		private final IRODSAccount irodsAccount;
+		private final AsyncOperation<T> asyncOperation;
+		private final CompletableFuture<T> future;
+
+		LaneTask(final AccountLane accountLane, final IRODSAccount irodsAccount,
+				final AsyncOperation<T> asyncOperation, final CompletableFuture<T> future) {
+			this.accountLane = accountLane;
+			this.irodsAccount = irodsAccount;
+			this.asyncOperation = asyncOperation;
+			this.future = future;
+		}
+
+		@Override
+		public void run() {
+			try {
+				runOperation(irodsAccount, asyncOperation, future);
+			} finally {
+				accountLane.operationDone();
+			}
+		}
+	}
+
+	/**
+	 * Future of a transfer, cancelling it also cancels the transfer through its
+	 * {@link TransferControlBlock}
+	 */
+	private static final class TransferFuture<T> extends CompletableFuture<T> {
+
+		private final TransferControlBlock transferControlBlock;
+
+		TransferFuture(final TransferControlBlock transferControlBlock) {
+			this.transferControlBlock = transferControlBlock;
+		}
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			transferControlBlock.setCancelled(true);
+			return super.cancel(mayInterruptIfRunning);
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+package org.irods.jargon.core.pub;
+
+import java.util.List;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.irods.jargon.core.apiplugin.AtomicAclOperation;
+import org.irods.jargon.core.apiplugin.AtomicAclOperationsInput;
+import org.irods.jargon.core.apiplugin.AtomicMetadataOperation;
+import org.irods.jargon.core.apiplugin.AtomicMetadataOperationsInput;
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.domain.UserFilePermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Applies bulk AVU and ACL operations in a single request through the atomic
+ * operation pluggable APIs, when the server has them. A server that does not
+ * know an API is remembered in the {@link DiscoveredServerPropertiesCache}, so
+ * the attempt is made once per host and zone.
+ * <p>
+ * The APIs apply all operations or none. When a batch is refused, for example
+ * because one AVU already exists or a user is unknown, the caller falls back to
+ * sending the operations one at a time so that it can report the outcome of
+ * each.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class AtomicOperationsHelper {
+
+	private static final Logger log = LoggerFactory.getLogger(AtomicOperationsHelper.class);
+
+	private AtomicOperationsHelper() {
+	}
+
+	/**
+	 * Apply the same operation for each AVU to one collection or data object in
+	 * a single request
+	 *
+	 * @param irodsGenericAO {@link IRODSGenericAO} whose session and account
+	 *                       are used
+	 * @param entityName     {@code String} with the resolved absolute path
+	 * @param entityType     {@code String} with the entity type, see
+	 *                       {@link AtomicMetadataOperationsInput}
+	 * @param operation      {@code String} with the operation, see
+	 *                       {@link AtomicMetadataOperation}
+	 * @param avuData        {@code List} of {@link AvuData}
+	 * @return {@code boolean} of {@code true} if every operation was applied,
+	 *         {@code false} if none were and the caller should fall back to
+	 *         individual requests
+	 * @throws JargonException if the connection fails
+	 */
+	static boolean applyAvuOperations(final IRODSGenericAO irodsGenericAO, final String entityName,
+			final String entityType, final String operation, final List<AvuData> avuData) throws JargonException {
+
+		AtomicMetadataOperationsInput input = new AtomicMetadataOperationsInput();
+		input.setEntityName(entityName);
+		input.setEntityType(entityType);
+		for (AvuData value : avuData) {
+			input.getOperations().add(
+					new AtomicMetadataOperation(operation, value.getAttribute(), value.getValue(), value.getUnit()));
+		}
+
+		return callAtomicApi(irodsGenericAO, ApiPluginConstants.ATOMIC_APPLY_METADATA_OPERATIONS_APN, input,
+				DiscoveredServerPropertiesCache.ATOMIC_METADATA_OPERATIONS_SUPPORTED);
+	}
+
+	/**
+	 * Apply permissions for a list of users to one collection or data object in
+	 * a single request. This does not recurse into a collection.
+	 *
+	 * @param irodsGenericAO  {@link IRODSGenericAO} whose session and account
+	 *                        are used
+	 * @param logicalPath     {@code String} with the resolved absolute path
+	 * @param zone            {@code String} with the zone of a permission that
+	 *                        does not carry a user zone
+	 * @param userPermissions {@code List} of {@link UserFilePermission}
+	 * @return {@code boolean} of {@code true} if every permission was applied,
+	 *         {@code false} if none were and the caller should fall back to
+	 *         individual requests
+	 * @throws JargonException if the connection fails
+	 */
+	static boolean applyAclOperations(final IRODSGenericAO irodsGenericAO, final String logicalPath,
+			final String zone, final List<UserFilePermission> userPermissions) throws JargonException {
+
+		AtomicAclOperationsInput input = new AtomicAclOperationsInput();
+		input.setLogicalPath(logicalPath);
+		String localZone = irodsGenericAO.getIRODSAccount().getZone();
+		for (UserFilePermission userPermission : userPermissions) {
+			String userZone = userPermission.getUserZone() == null || userPermission.getUserZone().isEmpty() ? zone
+					: userPermission.getUserZone();
+			String entityName = userPermission.getUserName();
+			if (userZone != null && !userZone.isEmpty() && !userZone.equals(localZone)) {
+				entityName = entityName + "#" + userZone;
+			}
+			input.getOperations().add(new AtomicAclOperation(entityName,
+					PipelinedRequestHelper.translatePermission(userPermission.getFilePermissionEnum())));
+		}
+
+		return callAtomicApi(irodsGenericAO, ApiPluginConstants.ATOMIC_APPLY_ACL_OPERATIONS_APN, input,
+				DiscoveredServerPropertiesCache.ATOMIC_ACL_OPERATIONS_SUPPORTED);
+	}
+
+	private static <T> boolean callAtomicApi(final IRODSGenericAO irodsGenericAO, final int apiNumber,
+			final T input, final String supportedProperty) throws JargonException {
+
+		IRODSAccount irodsAccount = irodsGenericAO.getIRODSAccount();
+		DiscoveredServerPropertiesCache cache = irodsGenericAO.getIRODSSession().getDiscoveredServerPropertiesCache();
+		if (DiscoveredServerPropertiesCache.IS_FALSE
+				.equals(cache.retrieveValue(irodsAccount.getHost(), irodsAccount.getZone(), supportedProperty))) {
+			log.debug("api {} not supported by server", apiNumber);
+			return false;
+		}
+
+		ApiPluginExecutorImpl<T, JsonNode> executor = new ApiPluginExecutorImpl<T, JsonNode>(
+				irodsGenericAO.getIRODSSession(), irodsAccount);
+
+		try {
+			executor.callPluggableApi(apiNumber, input, JsonNode.class);
+		} catch (JargonException je) {
+			if (!irodsGenericAO.getIRODSProtocol().isConnected()) {
+				throw je;
+			}
+
+			if (je.getUnderlyingIRODSExceptionCode() == ErrorEnum.SYS_UNMATCHED_API_NUM.getInt()) {
+				log.info("server does not support api {}, will use individual requests", apiNumber);
+				cache.cacheAProperty(irodsAccount.getHost(), irodsAccount.getZone(), supportedProperty,
+						DiscoveredServerPropertiesCache.IS_FALSE);
+			} else {
+				log.info("atomic operations refused, will use individual requests:{}", je.getMessage());
+			}
+			return false;
+		}
+
+		cache.cacheAProperty(irodsAccount.getHost(), irodsAccount.getZone(), supportedProperty,
+				DiscoveredServerPropertiesCache.IS_TRUE);
+		log.info("applied operations atomically with api {}", apiNumber);
+		return true;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ *
+ */
+package org.irods.jargon.core.pub;
+
+import org.irods.jargon.core.pub.domain.UserFilePermission;
+
+/**
+ * Represents a response to a bulk ACL operation, includes success or failure
+ * for each permission that was set
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkACLOperationResponse {
+
+	public enum ResultStatus {
+		OK, MISSING_ACL_TARGET, INVALID_USER, OTHER_ERROR
+	}
+
+	private final UserFilePermission userFilePermission;
+	private final ResultStatus resultStatus;
+	private final String message;
+	private final String path;
+
+	public static BulkACLOperationResponse instance(final ResultStatus resultStatus,
+			final UserFilePermission userFilePermission, final String message, final String path) {
+		return new BulkACLOperationResponse(resultStatus, userFilePermission, message, path);
+	}
+
+	private BulkACLOperationResponse(final ResultStatus resultStatus, final UserFilePermission userFilePermission,
+			final String message, final String path) {
+
+		if (resultStatus == null) {
+			throw new IllegalArgumentException("null resultStatus");
+		}
+
+		if (userFilePermission == null) {
+			throw new IllegalArgumentException("null userFilePermission");
+		}
+
+		if (message == null) {
+			throw new IllegalArgumentException("null message");
+		}
+
+		if (path == null) {
+			throw new IllegalArgumentException("null path");
+		}
+
+		this.userFilePermission = userFilePermission;
+		this.resultStatus = resultStatus;
+		this.message = message;
+		this.path = path;
+
+	}
+
+	/**
+	 * @return the userFilePermission
+	 */
+	public UserFilePermission getUserFilePermission() {
+		return userFilePermission;
+	}
+
+	/**
+	 * @return the resultStatus
+	 */
+	public ResultStatus getResultStatus() {
+		return resultStatus;
+	}
+
+	/**
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("BulkACLOperationResponse [userFilePermission=").append(userFilePermission)
+				.append(", resultStatus=").append(resultStatus).append(", message=").append(message)
+				.append(", path=").append(path).append("]");
+		return builder.toString();
+	}
+
+}
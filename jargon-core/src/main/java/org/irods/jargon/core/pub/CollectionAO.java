@@ -1,6 +1,7 @@
 package org.irods.jargon.core.pub;
 
 import java.util.List;
+import java.util.Map;
 
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.DuplicateDataException;
@@ -321,6 +322,24 @@ public interface CollectionAO extends FileCatalogObjectAO {
 	List<MetaDataAndDomainData> findMetadataValuesForCollection(final String collectionAbsolutePath)
 			throws JargonException, JargonQueryException;
 
+	/**
+	 * List the AVU metadata of all of the collections directly under a parent
+	 * collection, in one query paged through to the end, rather than a query per
+	 * child collection. This suits crawlers and indexers that need the metadata of
+	 * each collection they enter.
+	 * <p>
+	 * Child collections that have no AVU metadata do not appear in the returned
+	 * map. The parent path is taken as given, soft links are not resolved.
+	 *
+	 * @param parentCollectionAbsolutePath {@code String} with the absolute path of
+	 *                                     the parent collection
+	 * @return {@code Map} of the absolute path of each child collection that has
+	 *         AVU metadata to its {@code List} of {@link MetaDataAndDomainData}
+	 * @throws JargonException for iRODS error
+	 */
+	Map<String, List<MetaDataAndDomainData>> findMetadataValuesForChildCollections(
+			String parentCollectionAbsolutePath) throws JargonException;
+
 	/**
 	 * Given a set of metadata query parameters, return a list of IRODS Collections
 	 * that match the metadata query. This query method allows a partial start as an
@@ -757,6 +776,32 @@ public interface CollectionAO extends FileCatalogObjectAO {
 	void setAccessPermission(String zone, String absolutePath, String userName, boolean recursive,
 			FilePermissionEnum filePermission) throws JargonException;
 
+	/**
+	 * Set a list of access permissions on a collection. The requests are sent
+	 * together on the connection, up to the {@code pipelined.request.window}
+	 * jargon property at a time, so sharing with many users costs a few network
+	 * round trips rather than one per user.
+	 * <p>
+	 * READ, WRITE and OWN are set, NONE and NULL remove the permission for the
+	 * user. Other permission values cause an {@code IllegalArgumentException}
+	 * before anything is sent. An error for one user is reported in the response
+	 * for that user and does not stop the rest.
+	 *
+	 * @param zone            {@code String} with the zone used for a permission
+	 *                        that does not carry a user zone
+	 * @param absolutePath    {@code String} with the absolute path for the
+	 *                        collection
+	 * @param userPermissions {@code List} of {@link UserFilePermission} with the
+	 *                        user name, optional zone, and permission to set
+	 * @param recursive       {@code boolean} to indicate that the permissions must
+	 *                        be recursively applied to subdirectories
+	 * @return {@code List} of {@link BulkACLOperationResponse} in the same order
+	 *         as the permissions
+	 * @throws JargonException for iRODS error
+	 */
+	List<BulkACLOperationResponse> setAccessPermissions(String zone, String absolutePath,
+			List<UserFilePermission> userPermissions, boolean recursive) throws JargonException;
+
 	/**
 	 * Find the iRODS {@code Collection} with the given primary key in the ICAT
 	 *
@@ -1,8 +1,12 @@
 package org.irods.jargon.core.pub;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.irods.jargon.core.apiplugin.AtomicMetadataOperation;
+import org.irods.jargon.core.apiplugin.AtomicMetadataOperationsInput;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.CatalogSQLException;
@@ -11,6 +15,7 @@ import org.irods.jargon.core.exception.DuplicateDataException;
 import org.irods.jargon.core.exception.FileNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.OperationNotSupportedByThisServerException;
+import org.irods.jargon.core.exception.OperationNotSupportedForCollectionTypeException;
 import org.irods.jargon.core.packinstr.ModAccessControlInp;
 import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
 import org.irods.jargon.core.protovalues.FilePermissionEnum;
@@ -359,29 +364,35 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
+		String absPath = resolveAbsolutePathForBulkAVUOperation(myPath);
+		if (absPath == null) {
+			return bulkAVUResponsesWithStatus(avuData, ResultStatus.MISSING_METADATA_TARGET,
+					"Target collection was not found, could not add AVU");
+		}
 
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
 		for (AvuData value : avuData) {
-			try {
-				addAVUMetadata(absolutePath, value);
-			} catch (FileNotFoundException dnf) {
-				log.error("FileNotFoundException when adding an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-			} catch (DuplicateDataException dde) {
-				log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value, dde.getMessage()));
-				continue;
+			if (value == null) {
+				throw new IllegalArgumentException("null AVU data");
+			}
+			requests.add(ModAvuMetadataInp.instanceForAddCollectionMetadata(absPath, value));
+		}
 
+		try {
+			if (AtomicOperationsHelper.applyAvuOperations(this, absPath, AtomicMetadataOperationsInput.COLLECTION,
+					AtomicMetadataOperation.ADD, avuData)) {
+				return bulkAVUResponsesWithStatus(avuData, ResultStatus.OK, "");
 			}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
-		}
+			List<BulkAVUOperationResponse> responses = PipelinedRequestHelper.sendAvuRequests(getIRODSProtocol(),
+					getJargonProperties().getPipelinedRequestWindow(), requests, avuData, "-814000");
 
-		log.info("...complete");
-		return responses;
+			log.info("...complete");
+			return responses;
+		} finally {
+			invalidateCachedObjStat(absPath);
+		}
 	}
 
 	/*
@@ -401,24 +412,74 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>();
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty absolutePath");
+		}
+
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
+		String absPath = resolveAbsolutePathForBulkAVUOperation(myPath);
+		if (absPath == null) {
+			return bulkAVUResponsesWithStatus(avuData, ResultStatus.MISSING_METADATA_TARGET,
+					"Target collection was not found, could not remove AVU");
+		}
 
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
 		for (AvuData value : avuData) {
-			try {
-				deleteAVUMetadata(absolutePath, value);
-			} catch (FileNotFoundException dnf) {
-				log.error("FileNotFoundException when deleti an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
+			if (value == null) {
+				throw new IllegalArgumentException("null AVU data");
+			}
+			requests.add(ModAvuMetadataInp.instanceForDeleteCollectionMetadata(absPath, value));
+		}
 
+		try {
+			if (AtomicOperationsHelper.applyAvuOperations(this, absPath, AtomicMetadataOperationsInput.COLLECTION,
+					AtomicMetadataOperation.REMOVE, avuData)) {
+				return bulkAVUResponsesWithStatus(avuData, ResultStatus.OK, "");
 			}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
+			List<BulkAVUOperationResponse> responses = PipelinedRequestHelper.sendAvuRequests(getIRODSProtocol(),
+					getJargonProperties().getPipelinedRequestWindow(), requests, avuData, "-814000");
+
+			log.info("...complete");
+			return responses;
+		} finally {
+			invalidateCachedObjStat(absPath);
+		}
+	}
+
+	/**
+	 * Find the path to send AVU requests to for a bulk operation, following soft
+	 * links, with one objStat for the whole batch
+	 *
+	 * @param myPath {@code String} with the normalized path
+	 * @return {@code String} with the resolved path, or {@code null} if the
+	 *         collection does not exist
+	 * @throws JargonException {@link JargonException}
+	 */
+	private String resolveAbsolutePathForBulkAVUOperation(final String myPath) throws JargonException {
+		ObjStat objStat;
+		try {
+			objStat = this.retrieveObjStat(myPath);
+		} catch (FileNotFoundException e) {
+			log.warn("collection not found for bulk AVU operation:{}", myPath);
+			return null;
+		}
+
+		if (objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
+			log.info("objStat indicates collection type that does not support this operation:{}", objStat);
+			throw new OperationNotSupportedForCollectionTypeException(
+					"The special collection type does not support this operation");
 		}
 
-		log.info("...complete");
+		return resolveAbsolutePathGivenObjStat(objStat);
+	}
+
+	private List<BulkAVUOperationResponse> bulkAVUResponsesWithStatus(final List<AvuData> avuData,
+			final ResultStatus resultStatus, final String message) {
+		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>(avuData.size());
+		for (AvuData value : avuData) {
+			responses.add(BulkAVUOperationResponse.instance(resultStatus, value, message));
+		}
 		return responses;
 	}
 
@@ -453,6 +514,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		try {
 
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 
 		} catch (JargonException je) {
 
@@ -499,6 +561,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		try {
 
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 
 		} catch (JargonException je) {
 
@@ -546,6 +609,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 		try {
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 		} catch (JargonException je) {
 
 			if (je.getMessage().indexOf("-814000") > -1) {
@@ -701,6 +765,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		try {
 
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 
 		} catch (JargonException je) {
 
@@ -837,6 +902,60 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_META_COLL_ATTR_ID);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.CollectionAO#
+	 * findMetadataValuesForChildCollections(java.lang.String)
+	 */
+	@Override
+	public Map<String, List<MetaDataAndDomainData>> findMetadataValuesForChildCollections(
+			final String parentCollectionAbsolutePath) throws JargonException {
+
+		if (parentCollectionAbsolutePath == null || parentCollectionAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty parentCollectionAbsolutePath");
+		}
+
+		log.info("find metadata values for child collections of:{}", parentCollectionAbsolutePath);
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		Map<String, List<MetaDataAndDomainData>> metadataByPath = new LinkedHashMap<String, List<MetaDataAndDomainData>>();
+
+		try {
+			addSelectsForMetadataAndDomainDataToBuilder(builder).addConditionAsGenQueryField(
+					RodsGenQueryEnum.COL_COLL_PARENT_NAME, QueryConditionOperators.EQUAL,
+					parentCollectionAbsolutePath);
+
+			IRODSGenQueryFromBuilder irodsQuery = builder
+					.exportIRODSQueryFromBuilder(getJargonProperties().getMaxFilesAndDirsQueryMax());
+
+			try (IRODSGenQueryResultIterator rows = irodsGenQueryExecutor.iterateIRODSQuery(irodsQuery,
+					MiscIRODSUtils.getZoneInPath(parentCollectionAbsolutePath))) {
+				while (rows.hasNext()) {
+					// the total is not known until the last page, so is left at 0
+					MetaDataAndDomainData data = AccessObjectQueryProcessingUtils
+							.buildMetaDataAndDomainDataFromResultSetRow(MetadataDomain.COLLECTION, rows.next(), 0);
+					List<MetaDataAndDomainData> forPath = metadataByPath.get(data.getDomainObjectUniqueName());
+					if (forPath == null) {
+						forPath = new ArrayList<MetaDataAndDomainData>();
+						metadataByPath.put(data.getDomainObjectUniqueName(), forPath);
+					}
+					forPath.add(data);
+				}
+			}
+
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		} catch (JargonQueryException jqe) {
+			log.error("error executing query", jqe);
+			throw new JargonException("error executing query", jqe);
+		}
+
+		log.info("found metadata for {} child collections", metadataByPath.size());
+		return metadataByPath;
+	}
+
 	private List<MetaDataAndDomainData> findMetadataValuesForCollection(final ObjStat objStat,
 			final int partialStartIndex) throws FileNotFoundException, JargonException, JargonQueryException {
 
@@ -1130,6 +1249,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp
 				.instanceForSetInheritOnACollection(collNeedsRecursive, zone, effectiveAbsPath);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1160,6 +1280,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp
 				.instanceForSetInheritOnACollectionInAdminMode(collNeedsRecursive, zone, effectiveAbsPath);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1191,6 +1312,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp
 				.instanceForSetNoInheritOnACollection(collNeedsRecursive, zone, effectiveAbsPath);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1223,6 +1345,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp
 				.instanceForSetNoInheritOnACollectionInAdminMode(collNeedsRecursive, zone, effectiveAbsPath);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1255,6 +1378,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(collNeedsRecursive, zone,
 				effectiveAbsPath, userName, ModAccessControlInp.READ_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1290,6 +1414,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(
 				collNeedsRecursive, zone, effectiveAbsPath, userName, ModAccessControlInp.READ_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1330,6 +1455,66 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 
 	}
 
+	@Override
+	public List<BulkACLOperationResponse> setAccessPermissions(final String zone, final String absolutePath,
+			final List<UserFilePermission> userPermissions, final boolean recursive) throws JargonException {
+
+		log.info("setAccessPermissions()");
+
+		if (zone == null) {
+			throw new IllegalArgumentException("null zone");
+		}
+
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty absolutePath");
+		}
+
+		if (userPermissions == null) {
+			throw new IllegalArgumentException("null userPermissions");
+		}
+
+		if (userPermissions.isEmpty()) {
+			return new ArrayList<BulkACLOperationResponse>();
+		}
+
+		log.info("setting {} permissions on absPath:{}", userPermissions.size(), absolutePath);
+
+		String effectiveAbsPath = resolveAbsolutePathViaObjStat(absolutePath);
+		boolean collNeedsRecursive = adjustRecursiveOption(effectiveAbsPath, recursive);
+
+		List<ModAccessControlInp> requests = new ArrayList<ModAccessControlInp>(userPermissions.size());
+		for (UserFilePermission userPermission : userPermissions) {
+			if (userPermission == null || userPermission.getUserName() == null
+					|| userPermission.getUserName().isEmpty()) {
+				throw new IllegalArgumentException("null userPermission or empty userName");
+			}
+			String userZone = userPermission.getUserZone() == null || userPermission.getUserZone().isEmpty() ? zone
+					: userPermission.getUserZone();
+			requests.add(ModAccessControlInp.instanceForSetPermission(collNeedsRecursive, userZone, effectiveAbsPath,
+					userPermission.getUserName(),
+					PipelinedRequestHelper.translatePermission(userPermission.getFilePermissionEnum())));
+		}
+
+		try {
+			// the atomic API does not recurse, so it only applies when there are no children
+			if (!collNeedsRecursive
+					&& AtomicOperationsHelper.applyAclOperations(this, effectiveAbsPath, zone, userPermissions)) {
+				List<BulkACLOperationResponse> responses = new ArrayList<BulkACLOperationResponse>(
+						userPermissions.size());
+				for (UserFilePermission userPermission : userPermissions) {
+					responses.add(BulkACLOperationResponse.instance(BulkACLOperationResponse.ResultStatus.OK,
+							userPermission, "", effectiveAbsPath));
+				}
+				return responses;
+			}
+
+			return PipelinedRequestHelper.sendAclRequests(getIRODSProtocol(),
+					getJargonProperties().getPipelinedRequestWindow(), requests, userPermissions, effectiveAbsPath);
+		} finally {
+			invalidateCachedObjStat(effectiveAbsPath);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -1364,6 +1549,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(collNeedsRecursive, zone,
 				effectiveAbsPath, userName, ModAccessControlInp.WRITE_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1400,6 +1586,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(
 				collNeedsRecursive, zone, effectiveAbsPath, userName, ModAccessControlInp.WRITE_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1437,6 +1624,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(collNeedsRecursive, zone,
 				effectiveAbsPath, userName, ModAccessControlInp.OWN_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1473,6 +1661,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(
 				collNeedsRecursive, zone, effectiveAbsPath, userName, ModAccessControlInp.OWN_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1510,6 +1699,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(collNeedsRecursive, zone,
 				effectiveAbsPath, userName, ModAccessControlInp.NULL_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -1548,6 +1738,7 @@ public final class CollectionAOImpl extends FileCatalogObjectAOImpl implements C
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(
 				collNeedsRecursive, zone, effectiveAbsPath, userName, ModAccessControlInp.NULL_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absolutePath);
 
 	}
 
@@ -469,6 +469,20 @@ public interface CollectionAndDataObjectListAndSearchAO extends IRODSAccessObjec
 	 */
 	ObjStat retrieveObjectStatForPath(String irodsAbsolutePath) throws FileNotFoundException, JargonException;
 
+	/**
+	 * Retrieve the {@code ObjStat} for a list of absolute paths in iRODS. The
+	 * lookups are sent together on the connection, up to the
+	 * {@code pipelined.request.window} jargon property at a time, so a long list
+	 * costs a few network round trips rather than one per path.
+	 *
+	 * @param irodsAbsolutePaths {@code List} of {@code String} with the absolute
+	 *                           paths to iRODS collections or data objects
+	 * @return {@code List} of {@link ObjStat} in the same order as the paths. A
+	 *         path that cannot be found has a {@code null} entry
+	 * @throws JargonException for iRODS error
+	 */
+	List<ObjStat> retrieveObjectStatForPaths(List<String> irodsAbsolutePaths) throws JargonException;
+
 	/**
 	 * Return the {@code CollectionAndDataObjectListingEntry} that is associated
 	 * with the given iRODS absolute path. This is equivalent to doing an 'objStat'
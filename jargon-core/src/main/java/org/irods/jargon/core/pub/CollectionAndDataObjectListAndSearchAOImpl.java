@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.ObjStatAndListingCache;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.FileNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
@@ -287,6 +288,16 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 		 */
 		MiscIRODSUtils.evaluateSpecCollSupport(objStat);
 
+		final ObjStatAndListingCache cache = getIRODSSession().getObjStatAndListingCache();
+		if (cache != null) {
+			final List<CollectionAndDataObjectListingEntry> cached = cache.retrieveListing(getIRODSAccount(),
+					absolutePathToParent);
+			if (cached != null) {
+				log.info("returning cached listing");
+				return cached;
+			}
+		}
+
 		log.info("querying for children...");
 
 		final List<CollectionAndDataObjectListingEntry> entries = new ArrayList<>();
@@ -294,6 +305,10 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 		entries.addAll(collectionListingUtils.listCollectionsUnderPath(objStat, 0));
 		entries.addAll(collectionListingUtils.listDataObjectsUnderPath(objStat, 0));
 
+		if (cache != null) {
+			cache.cacheListing(getIRODSAccount(), absolutePathToParent, entries);
+		}
+
 		return entries;
 	}
 
@@ -1598,7 +1613,90 @@ public class CollectionAndDataObjectListAndSearchAOImpl extends IRODSGenericAO
 	@Override
 	public ObjStat retrieveObjectStatForPath(final String irodsAbsolutePath)
 			throws FileNotFoundException, JargonException {
-		return collectionListingUtils.retrieveObjectStatForPath(irodsAbsolutePath);
 
+		final ObjStatAndListingCache cache = getIRODSSession().getObjStatAndListingCache();
+		if (cache == null) {
+			return collectionListingUtils.retrieveObjectStatForPath(irodsAbsolutePath);
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("irodsAbsolutePath is null or empty");
+		}
+
+		ObjStat objStat = cache.retrieveObjStat(getIRODSAccount(), irodsAbsolutePath);
+		if (objStat != null) {
+			log.debug("cached objStat for:{}", irodsAbsolutePath);
+			return objStat;
+		}
+
+		try {
+			objStat = collectionListingUtils.retrieveObjectStatForPath(irodsAbsolutePath);
+		} catch (final FileNotFoundException fnf) {
+			cache.cacheNotFound(getIRODSAccount(), irodsAbsolutePath);
+			throw fnf;
+		}
+
+		cache.cacheObjStat(getIRODSAccount(), irodsAbsolutePath, objStat);
+		return objStat;
+
+	}
+
+	@Override
+	public List<ObjStat> retrieveObjectStatForPaths(final List<String> irodsAbsolutePaths) throws JargonException {
+		log.info("retrieveObjectStatForPaths()");
+
+		final ObjStatAndListingCache cache = getIRODSSession().getObjStatAndListingCache();
+		if (cache == null) {
+			return collectionListingUtils.retrieveObjectStatForPaths(irodsAbsolutePaths);
+		}
+
+		if (irodsAbsolutePaths == null) {
+			throw new IllegalArgumentException("null irodsAbsolutePaths");
+		}
+
+		/*
+		 * answer what is cached, and send the lookups for the rest together
+		 */
+		final List<ObjStat> objStats = new ArrayList<>(irodsAbsolutePaths.size());
+		final List<Integer> missIndexes = new ArrayList<>();
+		final List<String> missPaths = new ArrayList<>();
+		for (String irodsAbsolutePath : irodsAbsolutePaths) {
+			if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+				throw new IllegalArgumentException("null or empty path in irodsAbsolutePaths");
+			}
+
+			ObjStat objStat = null;
+			boolean cached = true;
+			try {
+				objStat = cache.retrieveObjStat(getIRODSAccount(), irodsAbsolutePath);
+				cached = objStat != null;
+			} catch (final FileNotFoundException fnf) {
+				// cached as not found, stays null
+			}
+
+			if (!cached) {
+				missIndexes.add(objStats.size());
+				missPaths.add(irodsAbsolutePath);
+			}
+			objStats.add(objStat);
+		}
+
+		log.debug("{} of {} objStats not cached", missPaths.size(), irodsAbsolutePaths.size());
+		if (missPaths.isEmpty()) {
+			return objStats;
+		}
+
+		final List<ObjStat> retrieved = collectionListingUtils.retrieveObjectStatForPaths(missPaths);
+		for (int i = 0; i < retrieved.size(); i++) {
+			ObjStat objStat = retrieved.get(i);
+			if (objStat == null) {
+				cache.cacheNotFound(getIRODSAccount(), missPaths.get(i));
+			} else {
+				cache.cacheObjStat(getIRODSAccount(), missPaths.get(i), objStat);
+			}
+			objStats.set(missIndexes.get(i), objStat);
+		}
+
+		return objStats;
 	}
 }
@@ -8,6 +8,7 @@ import java.util.Date;
 import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.PipelinedResponse;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.FileDriverError;
 import org.irods.jargon.core.exception.FileNotFoundException;
@@ -572,7 +573,9 @@ class CollectionListingUtils {
 			response = irodsAccessObjectFactory.getIrodsSession().currentConnection(irodsAccount)
 					.irodsFunction(dataObjInp);
 
-			log.debug("response from function: {}", response.parseTag());
+			if (log.isDebugEnabled()) {
+				log.debug("response from function: {}", response.parseTag());
+			}
 
 			int totalRecords = response.getTag("totalRowCount").getIntValue();
 			log.info("total records:{}", totalRecords);
@@ -605,7 +608,9 @@ class CollectionListingUtils {
 				response = irodsAccessObjectFactory.getIrodsSession().currentConnection(irodsAccount)
 						.irodsFunction(dataObjInp);
 
-				log.debug("response from function: {}", response.parseTag());
+				if (log.isDebugEnabled()) {
+					log.debug("response from function: {}", response.parseTag());
+				}
 
 				totalRecords = response.getTag("totalRowCount").getIntValue();
 				log.info("total records:{}", totalRecords);
@@ -1172,7 +1177,6 @@ class CollectionListingUtils {
 
 		DataObjInpForObjStat dataObjInp = DataObjInpForObjStat.instance(myPath);
 		Tag response;
-		ObjStat objStat;
 		try {
 			response = irodsAccessObjectFactory.getIrodsSession().currentConnection(irodsAccount)
 					.irodsFunction(dataObjInp);
@@ -1181,7 +1185,69 @@ class CollectionListingUtils {
 			return handleNoObjStatUnderRootOrHomeByLookingForPublicAndHome(myPath);
 		}
 
-		log.debug("response from objStat: {}", response.parseTag());
+		if (log.isDebugEnabled()) {
+			log.debug("response from objStat: {}", response.parseTag());
+		}
+
+		return buildObjStatFromResponse(myPath, response);
+	}
+
+	/**
+	 * Retrieve iRODS ObjStat objects for a list of iRODS paths, sending the
+	 * lookups together so that the list costs a few network round trips rather
+	 * than one per path. See
+	 * {@link org.irods.jargon.core.connection.IRODSMidLevelProtocol#irodsFunctionPipelined(List, int)}
+	 *
+	 * @param irodsAbsolutePaths <code>List</code> of <code>String</code> with
+	 *                           absolute paths to irods objects
+	 * @return <code>List</code> of {@link ObjStat} in the same order as the
+	 *         paths, with a <code>null</code> entry for a path that does not exist
+	 * @throws JargonException {@link JargonException}
+	 */
+	public List<ObjStat> retrieveObjectStatForPaths(final List<String> irodsAbsolutePaths) throws JargonException {
+
+		if (irodsAbsolutePaths == null) {
+			throw new IllegalArgumentException("null irodsAbsolutePaths");
+		}
+
+		List<String> myPaths = new ArrayList<String>(irodsAbsolutePaths.size());
+		List<DataObjInpForObjStat> requests = new ArrayList<DataObjInpForObjStat>(irodsAbsolutePaths.size());
+		for (String irodsAbsolutePath : irodsAbsolutePaths) {
+			if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+				throw new IllegalArgumentException("null or empty path in irodsAbsolutePaths");
+			}
+			String myPath = MiscIRODSUtils.normalizeIrodsPath(irodsAbsolutePath);
+			myPaths.add(myPath);
+			requests.add(DataObjInpForObjStat.instance(myPath));
+		}
+
+		List<PipelinedResponse> responses = irodsAccessObjectFactory.getIrodsSession().currentConnection(irodsAccount)
+				.irodsFunctionPipelined(requests,
+						irodsAccessObjectFactory.getJargonProperties().getPipelinedRequestWindow());
+
+		List<ObjStat> objStats = new ArrayList<ObjStat>(responses.size());
+		for (int i = 0; i < responses.size(); i++) {
+			PipelinedResponse response = responses.get(i);
+			if (response.isSuccess()) {
+				objStats.add(buildObjStatFromResponse(myPaths.get(i), response.getResponse()));
+			} else if (response.getException() instanceof FileNotFoundException) {
+				// not found may still be a home or public dir that is not visible
+				try {
+					objStats.add(handleNoObjStatUnderRootOrHomeByLookingForPublicAndHome(myPaths.get(i)));
+				} catch (FileNotFoundException e) {
+					objStats.add(null);
+				}
+			} else {
+				throw response.getException();
+			}
+		}
+
+		return objStats;
+	}
+
+	private ObjStat buildObjStatFromResponse(final String myPath, final Tag response) throws JargonException {
+
+		ObjStat objStat;
 
 		/**
 		 * For spec cols - soft link - phyPath = parent canonical dir -objPath =
@@ -0,0 +1,278 @@
+package org.irods.jargon.core.pub;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.transfer.TransferStatus;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the single file steps of a recursive put or get on a bounded pool of
+ * worker threads. This is used internally by {@link TransferOperationsHelper},
+ * see {@link org.irods.jargon.core.packinstr.TransferOptions} for the setting
+ * that turns this on.
+ * <p>
+ * The {@link IRODSSession} keeps connections per-thread, so each worker obtains
+ * its own connection from the configured
+ * {@link org.irods.jargon.core.connection.IRODSProtocolManager} the first time
+ * it talks to iRODS, and that connection is returned when the worker thread
+ * exits. The {@link org.irods.jargon.core.transfer.TransferControlBlock} is
+ * already synchronized and is shared by all of the workers. Calls to the
+ * {@link TransferStatusCallbackListener} are serialized, so that a listener
+ * written for a single transfer thread sees one callback at a time.
+ * <p>
+ * The number of files handed to the workers but not yet completed is bounded,
+ * so the tree walk does not run far ahead of the transfers.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class ConcurrentFileTransferEngine {
+
+	private static final Logger log = LoggerFactory.getLogger(ConcurrentFileTransferEngine.class);
+
+	/**
+	 * Number of queued files allowed per worker thread before the tree walk blocks
+	 */
+	private static final int QUEUED_FILES_PER_THREAD = 4;
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final ThreadPoolExecutor executor;
+	private final Semaphore inFlight;
+	private final TransferStatusCallbackListener transferStatusCallbackListener;
+	private final AtomicReference<JargonException> firstError = new AtomicReference<JargonException>();
+
+	/**
+	 * A unit of work (typically the transfer of one file) that is run on a worker
+	 */
+	interface FileTransferTask {
+		void transfer() throws JargonException;
+	}
+
+	/**
+	 * Create an engine that will transfer files with the given number of worker
+	 * threads
+	 *
+	 * @param irodsSession                   {@link IRODSSession} that will hand out
+	 *                                       a connection to each worker thread
+	 * @param irodsAccount                   {@link IRODSAccount} for the workers'
+	 *                                       connections
+	 * @param numberOfThreads                {@code int} with the number of worker
+	 *                                       threads, must be at least 1
+	 * @param transferStatusCallbackListener {@link TransferStatusCallbackListener}
+	 *                                       that will receive callbacks, may be
+	 *                                       {@code null}
+	 * @return {@link ConcurrentFileTransferEngine}
+	 */
+	static ConcurrentFileTransferEngine instance(final IRODSSession irodsSession, final IRODSAccount irodsAccount,
+			final int numberOfThreads, final TransferStatusCallbackListener transferStatusCallbackListener) {
+		return new ConcurrentFileTransferEngine(irodsSession, irodsAccount, numberOfThreads,
+				transferStatusCallbackListener);
+	}
+
+	private ConcurrentFileTransferEngine(final IRODSSession irodsSession, final IRODSAccount irodsAccount,
+			final int numberOfThreads, final TransferStatusCallbackListener transferStatusCallbackListener) {
+
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads must be at least 1");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+
+		if (transferStatusCallbackListener == null) {
+			this.transferStatusCallbackListener = null;
+		} else {
+			this.transferStatusCallbackListener = new SerializedTransferStatusCallbackListener(
+					transferStatusCallbackListener);
+		}
+
+		inFlight = new Semaphore(numberOfThreads * QUEUED_FILES_PER_THREAD);
+		executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), new WorkerThreadFactory());
+		log.info("concurrent file transfer engine started with {} threads", numberOfThreads);
+	}
+
+	/**
+	 * Get the listener that should be used for all callbacks made during the
+	 * transfer, by the tree walk as well as the workers. This will be {@code null}
+	 * if no listener was provided.
+	 *
+	 * @return {@link TransferStatusCallbackListener} that serializes callbacks to
+	 *         the original listener
+	 */
+	TransferStatusCallbackListener getTransferStatusCallbackListener() {
+		return transferStatusCallbackListener;
+	}
+
+	/**
+	 * Indicates that a worker has failed with an exception that was not handled by
+	 * a callback listener. The tree walk should stop handing out work.
+	 *
+	 * @return {@code boolean} of {@code true} if a worker has failed
+	 */
+	boolean isFailed() {
+		return firstError.get() != null;
+	}
+
+	/**
+	 * Hand a task to the workers. This will block if the workers are too far
+	 * behind the caller.
+	 *
+	 * @param fileTransferTask {@link FileTransferTask} to run
+	 * @throws JargonException if the caller is interrupted while waiting
+	 */
+	void submit(final FileTransferTask fileTransferTask) throws JargonException {
+
+		if (fileTransferTask == null) {
+			throw new IllegalArgumentException("null fileTransferTask");
+		}
+
+		try {
+			inFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted waiting to queue a file transfer", e);
+		}
+
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						if (firstError.get() == null) {
+							fileTransferTask.transfer();
+						}
+					} catch (JargonException je) {
+						log.error("error in concurrent file transfer", je);
+						firstError.compareAndSet(null, je);
+					} catch (Exception e) {
+						log.error("unanticipated error in concurrent file transfer", e);
+						firstError.compareAndSet(null, new JargonException(e));
+					} finally {
+						inFlight.release();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			inFlight.release();
+			throw new JargonException("unable to queue a file transfer, the engine has been shut down", e);
+		}
+	}
+
+	/**
+	 * Stop accepting work, wait for all queued transfers to finish, and release
+	 * the worker connections. The first unhandled error from a worker is rethrown.
+	 *
+	 * @throws JargonException the first error that a worker encountered
+	 */
+	void awaitCompletion() throws JargonException {
+		log.info("waiting for concurrent file transfers to complete");
+		executor.shutdown();
+		try {
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				log.debug("still waiting on {} active file transfers", executor.getActiveCount());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			executor.shutdownNow();
+			throw new JargonException("interrupted waiting for concurrent file transfers", e);
+		}
+
+		JargonException je = firstError.get();
+		if (je != null) {
+			throw je;
+		}
+		log.info("concurrent file transfers complete");
+	}
+
+	/**
+	 * Abandon any queued transfers. Transfers in progress are allowed to finish,
+	 * and the worker connections are returned as the workers exit.
+	 */
+	void shutdownNow() {
+		if (!executor.isTerminated()) {
+			log.info("shutting down concurrent file transfers");
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Creates worker threads that give back their per-thread connection when they
+	 * exit
+	 */
+	private final class WorkerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						runnable.run();
+					} finally {
+						try {
+							irodsSession.closeSession(irodsAccount);
+						} catch (JargonException e) {
+							log.warn("error closing connection for file transfer worker, ignored", e);
+						}
+					}
+				}
+			}, "jargon-file-transfer-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Funnels callbacks from several threads through one lock
+	 */
+	private static final class SerializedTransferStatusCallbackListener implements TransferStatusCallbackListener {
+
+		private final TransferStatusCallbackListener delegate;
+
+		SerializedTransferStatusCallbackListener(final TransferStatusCallbackListener delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public synchronized FileStatusCallbackResponse statusCallback(final TransferStatus transferStatus)
+				throws JargonException {
+			return delegate.statusCallback(transferStatus);
+		}
+
+		@Override
+		public synchronized void overallStatusCallback(final TransferStatus transferStatus) throws JargonException {
+			delegate.overallStatusCallback(transferStatus);
+		}
+
+		@Override
+		public synchronized CallbackResponse transferAsksWhetherToForceOperation(final String irodsAbsolutePath,
+				final boolean isCollection) {
+			return delegate.transferAsksWhetherToForceOperation(irodsAbsolutePath, isCollection);
+		}
+	}
+
+}
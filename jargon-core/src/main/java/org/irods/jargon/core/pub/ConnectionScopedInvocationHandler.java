@@ -0,0 +1,99 @@
+package org.irods.jargon.core.pub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.irods.jargon.core.connection.ConnectionScope;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+
+/**
+ * Proxies an access object so that each call runs in a {@link ConnectionScope}
+ * of its own. This is used when the jargon properties ask for a connection per
+ * operation, the access object then does not keep a connection bound to the
+ * thread that created it, and may be shared by threads in an executor pool.
+ * <p>
+ * Calls made while the thread is already in a scope for the same account join
+ * that scope, so a caller can still group several operations on one connection.
+ * The accessors declared in {@link IRODSAccessObject} that do not talk to iRODS
+ * are passed through without a scope.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class ConnectionScopedInvocationHandler implements InvocationHandler {
+
+	private final Object accessObject;
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+
+	/**
+	 * Wrap an access object if the session is set up for a connection per
+	 * operation
+	 *
+	 * @param accessObject
+	 *            access object to wrap
+	 * @param accessObjectInterface
+	 *            {@code Class} of the interface the proxy will implement
+	 * @param irodsSession
+	 *            {@link IRODSSession} that lends the connections
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the access object was created for
+	 * @return the access object, or a proxy of it implementing
+	 *         {@code accessObjectInterface}
+	 */
+	static <T> T bind(final T accessObject, final Class<T> accessObjectInterface, final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount) {
+		if (!irodsSession.getJargonProperties().isConnectionPerOperation()) {
+			return accessObject;
+		}
+		return accessObjectInterface.cast(Proxy.newProxyInstance(accessObjectInterface.getClassLoader(),
+				new Class<?>[] { accessObjectInterface },
+				new ConnectionScopedInvocationHandler(accessObject, irodsSession, irodsAccount)));
+	}
+
+	private ConnectionScopedInvocationHandler(final Object accessObject, final IRODSSession irodsSession,
+			final IRODSAccount irodsAccount) {
+		this.accessObject = accessObject;
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+	}
+
+	@Override
+	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+		if (!needsConnection(method)) {
+			return invokeOnAccessObject(method, args);
+		}
+		ConnectionScope connectionScope = irodsSession.openConnectionScope(irodsAccount);
+		try {
+			return invokeOnAccessObject(method, args);
+		} finally {
+			if (connectionScope != null) {
+				connectionScope.close();
+			}
+		}
+	}
+
+	private Object invokeOnAccessObject(final Method method, final Object[] args) throws Throwable {
+		try {
+			return method.invoke(accessObject, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static boolean needsConnection(final Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (declaringClass == Object.class) {
+			return false;
+		}
+		if (declaringClass == IRODSAccessObject.class) {
+			return method.getName().equals("getIRODSServerProperties")
+					|| method.getName().equals("operationComplete");
+		}
+		return true;
+	}
+
+}
@@ -8,16 +8,24 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
 import org.irods.jargon.core.checksum.ChecksumManager;
 import org.irods.jargon.core.checksum.ChecksumManagerImpl;
+import org.irods.jargon.core.checksum.ChecksumMethodUnavailableException;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.exception.FileIntegrityException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.packinstr.DataObjInp;
 import org.irods.jargon.core.packinstr.OpenedDataObjInp;
@@ -422,14 +430,37 @@ public final class DataAOHelper extends AOHelper {
 
 		// see if checksum is required
 
+		AbstractChecksumComputeStrategy digestStrategy = null;
+		MessageDigest messageDigest = null;
 		if (myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()
 				|| myTransferOptions.isComputeChecksumAfterTransfer()) {
-			log.info("computing a checksum on the file at:{}", localFile.getAbsolutePath());
 
-			ChecksumValue localFileChecksum = computeLocalFileChecksum(localFile, null);
+			/*
+			 * The digest is only of use when the checksum iRODS registers is verified
+			 * afterwards, otherwise the local checksum is sent with the put as before
+			 */
+			if (myTransferOptions.isDigestChecksumDuringTransfer()
+					&& myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+				digestStrategy = irodsAccessObjectFactory.getIrodsSession().getLocalChecksumComputerFactory()
+						.instance(checksumManager.determineChecksumEncodingForTargetServer());
+				try {
+					messageDigest = digestStrategy.instanceMessageDigest();
+				} catch (ChecksumMethodUnavailableException e) {
+					log.warn("cannot digest checksum during transfer, will compute before the transfer", e);
+					myTransferOptions.setDigestChecksumDuringTransfer(false);
+				}
+			}
+
+			if (messageDigest == null) {
+				log.info("computing a checksum on the file at:{}", localFile.getAbsolutePath());
 
-			log.info("local file checksum is:{}", localFileChecksum);
-			dataObjInp.setFileChecksumValue(localFileChecksum);
+				ChecksumValue localFileChecksum = computeLocalFileChecksum(localFile, null);
+
+				log.info("local file checksum is:{}", localFileChecksum);
+				dataObjInp.setFileChecksumValue(localFileChecksum);
+			} else {
+				log.info("local checksum will be digested as the file is sent");
+			}
 		}
 
 		ConnectionProgressStatusListener intraFileStatusListener = null;
@@ -453,9 +484,111 @@ public final class DataAOHelper extends AOHelper {
 			fileInputStream = new BufferedInputStream(fileInputStream, inputStreamBuffSize);
 		}
 
+		if (messageDigest != null) {
+			fileInputStream = new DigestInputStream(fileInputStream, messageDigest);
+		}
+
 		irodsProtocol.irodsFunctionIncludingAllDataInStream(dataObjInp, localFile.length(), fileInputStream,
 				intraFileStatusListener);
 
+		if (messageDigest != null && myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+			verifyChecksumAfterPut(targetFile, localFile,
+					digestStrategy.instanceChecksumValueFromDigest(messageDigest.digest()));
+		}
+
+	}
+
+	/**
+	 * Begin computing the checksum of a local file on a separate thread, so that
+	 * it can overlap a transfer of the same file rather than delay its start.
+	 * The checksum encoding is determined here, on the calling thread, as this
+	 * may need the connection.
+	 *
+	 * @param localFile {@link File} to checksum
+	 * @return {@code Future} of the {@link ChecksumValue}, which the caller
+	 *         should cancel if the transfer fails
+	 * @throws JargonException for iRODS error
+	 */
+	Future<ChecksumValue> startLocalFileChecksum(final File localFile) throws JargonException {
+
+		if (localFile == null) {
+			throw new IllegalArgumentException("null localFile");
+		}
+
+		final ChecksumEncodingEnum checksumEncoding = checksumManager.determineChecksumEncodingForTargetServer();
+		log.info("starting checksum of:{} with algorithm:{}", localFile, checksumEncoding);
+
+		FutureTask<ChecksumValue> checksumTask = new FutureTask<ChecksumValue>(new Callable<ChecksumValue>() {
+			@Override
+			public ChecksumValue call() throws Exception {
+				return computeLocalFileChecksum(localFile, checksumEncoding);
+			}
+		});
+
+		Thread checksumThread = new Thread(checksumTask, "jargon-put-checksum");
+		checksumThread.setDaemon(true);
+		checksumThread.start();
+		return checksumTask;
+	}
+
+	/**
+	 * Wait for a checksum begun by {@link #startLocalFileChecksum(File)}
+	 *
+	 * @param checksumFuture {@code Future} of the {@link ChecksumValue}
+	 * @return {@link ChecksumValue} of the local file
+	 * @throws JargonException if the checksum could not be computed
+	 */
+	ChecksumValue awaitLocalFileChecksum(final Future<ChecksumValue> checksumFuture) throws JargonException {
+
+		if (checksumFuture == null) {
+			throw new IllegalArgumentException("null checksumFuture");
+		}
+
+		try {
+			return checksumFuture.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted waiting for local checksum", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonException("error computing local checksum", e.getCause());
+		}
+	}
+
+	/**
+	 * Compare the checksum iRODS holds for a data object that was put with the
+	 * checksum of the local file. iRODS registers the checksum in its own default
+	 * scheme, so if that is not the encoding of the local checksum, the local
+	 * file is checksummed again in the encoding iRODS used.
+	 *
+	 * @param targetFile        {@link IRODSFile} that was put
+	 * @param localFile         {@link File} that was put
+	 * @param localFileChecksum {@link ChecksumValue} of the local file
+	 * @throws FileIntegrityException if the checksums differ
+	 * @throws JargonException        for iRODS error
+	 */
+	void verifyChecksumAfterPut(final IRODSFile targetFile, final File localFile,
+			final ChecksumValue localFileChecksum) throws JargonException {
+
+		ChecksumValue irodsChecksum = irodsAccessObjectFactory.getDataObjectChecksumUtilitiesAO(irodsAccount)
+				.computeChecksumOnDataObject(targetFile);
+
+		log.info("local file checksum is:{}", localFileChecksum);
+		log.info("irods checksum:{}", irodsChecksum);
+
+		ChecksumValue comparedChecksum = localFileChecksum;
+		ChecksumEncodingEnum irodsEncoding = irodsChecksum.getChecksumEncoding();
+		if ((irodsEncoding == ChecksumEncodingEnum.MD5 || irodsEncoding == ChecksumEncodingEnum.SHA256)
+				&& irodsEncoding != localFileChecksum.getChecksumEncoding()) {
+			log.info("irods checksum encoding differs, recomputing local checksum as:{}", irodsEncoding);
+			comparedChecksum = computeLocalFileChecksum(localFile, irodsEncoding);
+		}
+
+		if (!(irodsChecksum.getChecksumStringValue().equals(comparedChecksum.getChecksumStringValue()))) {
+			throw new FileIntegrityException("checksum verification after put fails");
+		}
 	}
 
 	/**
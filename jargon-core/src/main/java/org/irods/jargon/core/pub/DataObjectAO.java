@@ -3,6 +3,7 @@ package org.irods.jargon.core.pub;
 import java.io.File;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.DuplicateDataException;
@@ -590,6 +591,24 @@ public interface DataObjectAO extends FileCatalogObjectAO {
 	List<MetaDataAndDomainData> findMetadataValuesForDataObject(String dataObjectAbsolutePath)
 			throws FileNotFoundException, JargonException;
 
+	/**
+	 * List the AVU metadata of all of the data objects directly in a collection,
+	 * in one query paged through to the end, rather than a query per data object.
+	 * This suits crawlers and indexers that need the metadata of each data object
+	 * they visit.
+	 * <p>
+	 * Data objects that have no AVU metadata do not appear in the returned map.
+	 * The collection path is taken as given, soft links are not resolved.
+	 *
+	 * @param collectionAbsolutePath {@code String} with the absolute path of the
+	 *                               parent collection
+	 * @return {@code Map} of the absolute path of each data object that has AVU
+	 *         metadata to its {@code List} of {@link MetaDataAndDomainData}
+	 * @throws JargonException {@link JargonException}
+	 */
+	Map<String, List<MetaDataAndDomainData>> findMetadataValuesForDataObjectsInCollection(
+			String collectionAbsolutePath) throws JargonException;
+
 	/**
 	 * This is a special method to modify the Avu value for a given attribute name
 	 * and unit. Often, it is the case that applications want to keep unique values
@@ -880,6 +899,30 @@ public interface DataObjectAO extends FileCatalogObjectAO {
 	void setAccessPermission(String zone, String absolutePath, String userName, FilePermissionEnum filePermission)
 			throws JargonException;
 
+	/**
+	 * Set a list of access permissions on a data object. The requests are sent
+	 * together on the connection, up to the {@code pipelined.request.window}
+	 * jargon property at a time, so sharing with many users costs a few network
+	 * round trips rather than one per user.
+	 * <p>
+	 * READ, WRITE and OWN are set, NONE and NULL remove the permission for the
+	 * user. Other permission values cause an {@code IllegalArgumentException}
+	 * before anything is sent. An error for one user is reported in the response
+	 * for that user and does not stop the rest.
+	 *
+	 * @param zone            {@code String} with the zone used for a permission
+	 *                        that does not carry a user zone
+	 * @param absolutePath    {@code String} with the absolute path for the data
+	 *                        object
+	 * @param userPermissions {@code List} of {@link UserFilePermission} with the
+	 *                        user name, optional zone, and permission to set
+	 * @return {@code List} of {@link BulkACLOperationResponse} in the same order
+	 *         as the permissions
+	 * @throws JargonException {@link JargonException}
+	 */
+	List<BulkACLOperationResponse> setAccessPermissions(String zone, String absolutePath,
+			List<UserFilePermission> userPermissions) throws JargonException;
+
 	/**
 	 * Find the data object (file) given it's unique id (the iCAT primary key)
 	 *
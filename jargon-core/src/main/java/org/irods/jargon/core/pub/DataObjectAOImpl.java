@@ -9,9 +9,14 @@ import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.apiplugin.AtomicMetadataOperation;
+import org.irods.jargon.core.apiplugin.AtomicMetadataOperationsInput;
 import org.irods.jargon.core.connection.ConnectionConstants;
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
 import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
@@ -533,6 +538,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			log.info("doing a restart of this transfer..");
 			putRestartRetryTillMaxLoop(transferControlBlock, targetFile, fileRestartInfo,
 					transferStatusCallbackListener);
+			invalidateCachedObjStat(targetFile.getAbsolutePath());
 			return;
 		}
 
@@ -617,6 +623,8 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		}
 
+		invalidateCachedObjStat(targetFile.getAbsolutePath());
+
 		long endTime = System.currentTimeMillis();
 		long duration = endTime - startTime;
 		log.info(">>>>>>>>>>>>>>transfer complete in:{} millis", duration);
@@ -790,9 +798,30 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		DataObjInp dataObjInp = DataObjInp.instanceForParallelPut(targetFile.getAbsolutePath(), localFile.length(),
 				targetFile.getResource(), overwrite, myTransferOptions, execFlag);
 
+		if (myTransferOptions.isUseParallelTransfer() && myTransferOptions.isClientDrivenParallelTransfer()
+				&& putWithMultipleStreams(localFile, targetFile, overwrite, myTransferOptions, transferControlBlock,
+						transferStatusCallbackListener)) {
+			return;
+		}
+
+		Future<ChecksumValue> localChecksumFuture = null;
+
 		try {
 
-			if (myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()
+			if (myTransferOptions.isDigestChecksumDuringTransfer()) {
+				/*
+				 * the segments of a parallel put are sent out of order, and MD5 or SHA-256
+				 * digests of the segments cannot be combined, so the local checksum is
+				 * computed alongside the transfer instead of before it, while iRODS
+				 * registers its own
+				 */
+				if (myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+					log.info("computing a checksum on the file at:{} during the transfer",
+							localFile.getAbsolutePath());
+					localChecksumFuture = dataAOHelper.startLocalFileChecksum(localFile);
+				}
+
+			} else if (myTransferOptions.isComputeAndVerifyChecksumAfterTransfer()
 					|| myTransferOptions.isComputeChecksumAfterTransfer()) {
 				log.info("before generating parallel transfer threads, computing a checksum on the file at:{}",
 						localFile.getAbsolutePath());
@@ -833,6 +862,11 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 						transferControlBlock, intraFileStatusListener);
 			}
 
+			if (localChecksumFuture != null) {
+				dataAOHelper.verifyChecksumAfterPut(targetFile, localFile,
+						dataAOHelper.awaitLocalFileChecksum(localChecksumFuture));
+			}
+
 		} catch (DataNotFoundException dnf) {
 			log.warn(
 					"send of put returned no data found from irods, currently is ignored and null is returned from put operation");
@@ -847,6 +881,70 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		} catch (Throwable e) {
 			log.error(ERROR_IN_PARALLEL_TRANSFER, e);
 			throw new JargonException(ERROR_IN_PARALLEL_TRANSFER, e);
+		} finally {
+			if (localChecksumFuture != null) {
+				localChecksumFuture.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Put a large file over several connections that each write a range of the
+	 * replica, instead of having iRODS open parallel transfer ports back to the
+	 * client. iRODS registers the checksum when the replica is closed if one is
+	 * asked for, and when verification is asked for the local checksum is computed
+	 * alongside the transfer and compared afterwards.
+	 *
+	 * @return {@code boolean} of {@code true} if the file was sent, {@code false}
+	 *         if the server does not have the replica APIs and the usual put
+	 *         should be done
+	 */
+	private boolean putWithMultipleStreams(final File localFile, final IRODSFile targetFile, final boolean overwrite,
+			final TransferOptions transferOptions, final TransferControlBlock transferControlBlock,
+			final TransferStatusCallbackListener transferStatusCallbackListener) throws JargonException {
+
+		ConnectionProgressStatusListener intraFileStatusListener = null;
+		if (transferStatusCallbackListener != null && transferOptions.isIntraFileStatusCallbacks()) {
+			intraFileStatusListener = DefaultIntraFileProgressCallbackListener.instanceSettingTransferOptions(
+					TransferType.PUT, localFile.length(), transferControlBlock, transferStatusCallbackListener,
+					transferControlBlock.getTransferOptions());
+		}
+
+		MultiStreamTransferEngine multiStreamTransferEngine = MultiStreamTransferEngine.instance(getIRODSSession(),
+				getIRODSAccount(), Math.max(0, transferOptions.getMaxThreads()), transferControlBlock,
+				intraFileStatusListener);
+
+		Future<ChecksumValue> localChecksumFuture = null;
+		try {
+			if (transferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+				log.info("computing a checksum on the file at:{} during the transfer", localFile.getAbsolutePath());
+				localChecksumFuture = dataAOHelper.startLocalFileChecksum(localFile);
+			}
+
+			String resourceName = targetFile.getResource() == null ? "" : targetFile.getResource();
+			if (!multiStreamTransferEngine.put(localFile, targetFile.getAbsolutePath(), resourceName, overwrite,
+					transferOptions.isComputeChecksumAfterTransfer()
+							|| transferOptions.isComputeAndVerifyChecksumAfterTransfer())) {
+				return false;
+			}
+
+			if (localChecksumFuture != null) {
+				dataAOHelper.verifyChecksumAfterPut(targetFile, localFile,
+						dataAOHelper.awaitLocalFileChecksum(localChecksumFuture));
+			}
+			return true;
+
+		} catch (JargonException je) {
+			if (je.getMessage() != null && je.getMessage().indexOf("-312000") > -1) {
+				log.error("attempted put of file that exists in irods without overwrite");
+				throw new JargonException(
+						"attempted put of a file that already exists in IRODS, overwrite was not set to true", je);
+			}
+			throw je;
+		} finally {
+			if (localChecksumFuture != null) {
+				localChecksumFuture.cancel(true);
+			}
 		}
 	}
 
@@ -1350,6 +1448,25 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		}
 
 		LocalFileUtils.createLocalFileIfNotExists(localFileToHoldData);
+
+		if (irodsFileLength > ConnectionConstants.MAX_SZ_FOR_SINGLE_BUF
+				&& thisFileTransferOptions.isUseParallelTransfer()
+				&& thisFileTransferOptions.isClientDrivenParallelTransfer()) {
+			try {
+				if (getWithMultipleStreams(irodsFileToGet, localFileToHoldData, thisFileTransferOptions,
+						irodsFileLength, transferControlBlock, transferStatusCallbackListener)) {
+					completeGetTransfer(irodsFileToGet, localFileToHoldData, thisFileTransferOptions, irodsFileLength,
+							transferControlBlock, transferStatusCallbackListener, clientSideAction);
+					return 0;
+				}
+			} catch (JargonException je) {
+				throw je;
+			} catch (Throwable e) {
+				log.error(ERROR_IN_PARALLEL_TRANSFER, e);
+				throw new JargonException(ERROR_IN_PARALLEL_TRANSFER, e);
+			}
+		}
+
 		Tag message;
 		try {
 			message = getIRODSProtocol().irodsFunction(dataObjInp);
@@ -1450,56 +1567,98 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 						thisFileTransferOptions, transferControlBlock, transferStatusCallbackListener);
 			}
 
-			/*
-			 * Send a final 100% callback if intra-file callbacks are desired
-			 */
+			completeGetTransfer(irodsFileToGet, localFileToHoldData, thisFileTransferOptions, irodsFileLength,
+					transferControlBlock, transferStatusCallbackListener, clientSideAction);
 
-			if (transferStatusCallbackListener != null
-					&& transferControlBlock.getTransferOptions().isIntraFileStatusCallbacks()
-					&& !transferControlBlock.isCancelled()) {
-				ConnectionProgressStatusListener intraFileStatusListener = DefaultIntraFileProgressCallbackListener
-						.instanceSettingTransferOptions(TransferType.GET, irodsFileLength, transferControlBlock,
-								transferStatusCallbackListener, transferControlBlock.getTransferOptions());
-				ConnectionProgressStatus status = ConnectionProgressStatus.instanceForSend(irodsFileLength);
-				intraFileStatusListener.finalConnectionProgressStatusCallback(status);
-			}
+		} catch (Throwable e) {
+			log.error(ERROR_IN_PARALLEL_TRANSFER, e);
+			throw new JargonException(ERROR_IN_PARALLEL_TRANSFER, e);
+		}
 
-			if (thisFileTransferOptions != null && thisFileTransferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
+		return l1descInx;
+	}
 
-				// compute iRODS first, use algorithm from iRODS to compute the
-				// local checksum that should match
-				DataObjectChecksumUtilitiesAO checksumUtils = getIRODSAccessObjectFactory()
-						.getDataObjectChecksumUtilitiesAO(getIRODSAccount());
+	/**
+	 * Steps that follow the transfer of the bytes of a get, the final progress
+	 * callback, checksum verification and setting the execute flag
+	 */
+	private void completeGetTransfer(final IRODSFile irodsFileToGet, final File localFileToHoldData,
+			final TransferOptions thisFileTransferOptions, final long irodsFileLength,
+			final TransferControlBlock transferControlBlock,
+			final TransferStatusCallbackListener transferStatusCallbackListener, final boolean clientSideAction)
+			throws JargonException {
 
-				ChecksumValue irodsChecksum = checksumUtils.computeChecksumOnDataObject(irodsFileToGet);
+		/*
+		 * Send a final 100% callback if intra-file callbacks are desired
+		 */
 
-				log.info("computing a checksum on the file at:{}", localFileToHoldData.getAbsolutePath());
+		if (transferStatusCallbackListener != null
+				&& transferControlBlock.getTransferOptions().isIntraFileStatusCallbacks()
+				&& !transferControlBlock.isCancelled()) {
+			ConnectionProgressStatusListener intraFileStatusListener = DefaultIntraFileProgressCallbackListener
+					.instanceSettingTransferOptions(TransferType.GET, irodsFileLength, transferControlBlock,
+							transferStatusCallbackListener, transferControlBlock.getTransferOptions());
+			ConnectionProgressStatus status = ConnectionProgressStatus.instanceForSend(irodsFileLength);
+			intraFileStatusListener.finalConnectionProgressStatusCallback(status);
+		}
 
-				ChecksumValue localFileChecksum = dataAOHelper.computeLocalFileChecksum(localFileToHoldData,
-						irodsChecksum.getChecksumEncoding());
+		if (thisFileTransferOptions != null && thisFileTransferOptions.isComputeAndVerifyChecksumAfterTransfer()) {
 
-				log.info("local file checksum is:{}", localFileChecksum);
-				log.info("irods checksum:{}", irodsChecksum);
-				if (!(irodsChecksum.getChecksumStringValue().equals(localFileChecksum.getChecksumStringValue()))) {
-					throw new FileIntegrityException("checksum verification after get fails");
-				}
+			// compute iRODS first, use algorithm from iRODS to compute the
+			// local checksum that should match
+			DataObjectChecksumUtilitiesAO checksumUtils = getIRODSAccessObjectFactory()
+					.getDataObjectChecksumUtilitiesAO(getIRODSAccount());
+
+			ChecksumValue irodsChecksum = checksumUtils.computeChecksumOnDataObject(irodsFileToGet);
+
+			log.info("computing a checksum on the file at:{}", localFileToHoldData.getAbsolutePath());
+
+			ChecksumValue localFileChecksum = dataAOHelper.computeLocalFileChecksum(localFileToHoldData,
+					irodsChecksum.getChecksumEncoding());
+
+			log.info("local file checksum is:{}", localFileChecksum);
+			log.info("irods checksum:{}", irodsChecksum);
+			if (!(irodsChecksum.getChecksumStringValue().equals(localFileChecksum.getChecksumStringValue()))) {
+				throw new FileIntegrityException("checksum verification after get fails");
 			}
+		}
 
-			if (!clientSideAction) {
-				log.info("looking for executable to set flag on local file");
+		if (!clientSideAction) {
+			log.info("looking for executable to set flag on local file");
 
-				if (irodsFileToGet.canExecute()) {
-					log.info("execute set on local file");
-					localFileToHoldData.setExecutable(true);
-				}
+			if (irodsFileToGet.canExecute()) {
+				log.info("execute set on local file");
+				localFileToHoldData.setExecutable(true);
 			}
+		}
+	}
 
-		} catch (Throwable e) {
-			log.error(ERROR_IN_PARALLEL_TRANSFER, e);
-			throw new JargonException(ERROR_IN_PARALLEL_TRANSFER, e);
+	/**
+	 * Get a large data object over several connections that each read a range of
+	 * the replica, instead of having iRODS open parallel transfer ports back to
+	 * the client
+	 *
+	 * @return {@code boolean} of {@code true} if the file was received,
+	 *         {@code false} if the server does not have the replica APIs and the
+	 *         usual get should be done
+	 */
+	private boolean getWithMultipleStreams(final IRODSFile irodsFileToGet, final File localFileToHoldData,
+			final TransferOptions transferOptions, final long irodsFileLength,
+			final TransferControlBlock transferControlBlock,
+			final TransferStatusCallbackListener transferStatusCallbackListener) throws JargonException {
+
+		ConnectionProgressStatusListener intraFileStatusListener = null;
+		if (transferStatusCallbackListener != null && transferOptions.isIntraFileStatusCallbacks()) {
+			intraFileStatusListener = DefaultIntraFileProgressCallbackListener.instanceSettingTransferOptions(
+					TransferType.GET, irodsFileLength, transferControlBlock, transferStatusCallbackListener,
+					transferControlBlock.getTransferOptions());
 		}
 
-		return l1descInx;
+		MultiStreamTransferEngine multiStreamTransferEngine = MultiStreamTransferEngine.instance(getIRODSSession(),
+				getIRODSAccount(), Math.max(0, transferOptions.getMaxThreads()), transferControlBlock,
+				intraFileStatusListener);
+		return multiStreamTransferEngine.get(irodsFileToGet.getAbsolutePath(), "", localFileToHoldData,
+				irodsFileLength);
 	}
 
 	/**
@@ -1803,29 +1962,35 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<>();
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
+		String absPath = resolveAbsolutePathForBulkAVUOperation(myPath);
+		if (absPath == null) {
+			return bulkAVUResponsesWithStatus(avuData, ResultStatus.MISSING_METADATA_TARGET,
+					"Target dataObject was not found, could not add AVU");
+		}
 
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
 		for (AvuData value : avuData) {
-			try {
-				addAVUMetadata(absolutePath, value);
-			} catch (DataNotFoundException dnf) {
-				log.error("dataNotFoundException when adding an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
-			} catch (DuplicateDataException dde) {
-				log.error("DuplicateDataException when adding an AVU, catch and add to response data", dde);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value, dde.getMessage()));
-				continue;
+			if (value == null) {
+				throw new IllegalArgumentException("null AVU data");
+			}
+			requests.add(ModAvuMetadataInp.instanceForAddDataObjectMetadata(absPath, value));
+		}
 
+		try {
+			if (AtomicOperationsHelper.applyAvuOperations(this, absPath, AtomicMetadataOperationsInput.DATA_OBJECT,
+					AtomicMetadataOperation.ADD, avuData)) {
+				return bulkAVUResponsesWithStatus(avuData, ResultStatus.OK, "");
 			}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
-		}
+			List<BulkAVUOperationResponse> responses = PipelinedRequestHelper.sendAvuRequests(getIRODSProtocol(),
+					getJargonProperties().getPipelinedRequestWindow(), requests, avuData, "-817000");
 
-		log.info("...complete");
-		return responses;
+			log.info("...complete");
+			return responses;
+		} finally {
+			invalidateCachedObjStat(absPath);
+		}
 	}
 
 	@Override
@@ -1838,24 +2003,78 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 			throw new IllegalArgumentException("null or empty avuData");
 		}
 
-		List<BulkAVUOperationResponse> responses = new ArrayList<>();
+		if (avuData.isEmpty()) {
+			return new ArrayList<BulkAVUOperationResponse>();
+		}
+
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException(NULL_OR_EMPTY_ABSOLUTE_PATH);
+		}
+
+		String myPath = MiscIRODSUtils.normalizeIrodsPath(absolutePath);
+		String absPath = resolveAbsolutePathForBulkAVUOperation(myPath);
+		if (absPath == null) {
+			return bulkAVUResponsesWithStatus(avuData, ResultStatus.MISSING_METADATA_TARGET,
+					"Target data object was not found, could not remove AVU");
+		}
 
+		List<ModAvuMetadataInp> requests = new ArrayList<ModAvuMetadataInp>(avuData.size());
 		for (AvuData value : avuData) {
-			try {
-				deleteAVUMetadata(absolutePath, value);
-			} catch (DataNotFoundException dnf) {
-				log.error("dataNotFoundException when deleti an AVU, catch and add to response data", dnf);
-				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
-						dnf.getMessage()));
-				continue;
+			if (value == null) {
+				throw new IllegalArgumentException("null AVU data");
+			}
+			requests.add(ModAvuMetadataInp.instanceForDeleteDataObjectMetadata(absPath, value));
+		}
 
+		try {
+			if (AtomicOperationsHelper.applyAvuOperations(this, absPath, AtomicMetadataOperationsInput.DATA_OBJECT,
+					AtomicMetadataOperation.REMOVE, avuData)) {
+				return bulkAVUResponsesWithStatus(avuData, ResultStatus.OK, "");
 			}
 
-			log.info("treat as success...", value);
-			responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
+			List<BulkAVUOperationResponse> responses = PipelinedRequestHelper.sendAvuRequests(getIRODSProtocol(),
+					getJargonProperties().getPipelinedRequestWindow(), requests, avuData, "-817000");
+
+			log.info("...complete");
+			return responses;
+		} finally {
+			invalidateCachedObjStat(absPath);
+		}
+	}
+
+	/**
+	 * Find the path to send AVU requests to for a bulk operation, following soft
+	 * links, with one objStat for the whole batch
+	 *
+	 * @param myPath {@code String} with the normalized path
+	 * @return {@code String} with the resolved path, or {@code null} if the data
+	 *         object does not exist
+	 * @throws JargonException {@link JargonException}
+	 */
+	private String resolveAbsolutePathForBulkAVUOperation(final String myPath) throws JargonException {
+		ObjStat objStat;
+		try {
+			objStat = this.retrieveObjStat(myPath);
+		} catch (FileNotFoundException e) {
+			log.warn("data object not found for bulk AVU operation:{}", myPath);
+			return null;
+		}
+
+		if (objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
+			log.info("objStat indicates collection type that does not support this operation:{}", objStat);
+			throw new OperationNotSupportedForCollectionTypeException(
+					"The special collection type does not support this operation");
 		}
 
-		log.info("...complete");
+		return resolveAbsolutePathGivenObjStat(objStat);
+	}
+
+	private List<BulkAVUOperationResponse> bulkAVUResponsesWithStatus(final List<AvuData> avuData,
+			final ResultStatus resultStatus, final String message) {
+		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>(avuData.size());
+		for (AvuData value : avuData) {
+			responses.add(BulkAVUOperationResponse.instance(resultStatus, value, message));
+		}
 		return responses;
 	}
 
@@ -1910,6 +2129,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		try {
 
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 
 		} catch (JargonException je) {
 
@@ -2048,6 +2268,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		try {
 
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 
 		} catch (JargonException je) {
 
@@ -2154,6 +2375,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		try {
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(absolutePath);
 		} catch (JargonException je) {
 
 			if (je.getMessage().indexOf("-817000") > -1) {
@@ -2372,6 +2594,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		try {
 			getIRODSProtocol().irodsFunction(dataObjInp);
+			invalidateCachedObjStat(irodsFileAbsolutePath);
 		} catch (JargonException je) {
 			log.error("error replicating irods file", je);
 			throw je;
@@ -2526,6 +2749,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		try {
 			getIRODSProtocol().irodsFunction(dataObjCopyInp);
+			invalidateCachedObjStat(myTargetFile.getAbsolutePath());
 		} catch (JargonException je) {
 			log.error("error copying irods file", je);
 			throw je;
@@ -2562,6 +2786,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		try {
 			getIRODSProtocol().irodsFunction(dataObjInp);
+			invalidateCachedObjStat(irodsFileAbsolutePath);
 		} catch (JargonException je) {
 			log.error("error replicating irods file to resource group", je);
 			throw je;
@@ -2738,6 +2963,60 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		return findMetadataValuesForDataObject(objStat);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.DataObjectAO#
+	 * findMetadataValuesForDataObjectsInCollection(java.lang.String)
+	 */
+	@Override
+	public Map<String, List<MetaDataAndDomainData>> findMetadataValuesForDataObjectsInCollection(
+			final String collectionAbsolutePath) throws JargonException {
+
+		if (collectionAbsolutePath == null || collectionAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty collectionAbsolutePath");
+		}
+
+		log.info("findMetadataValuesForDataObjectsInCollection: {}", collectionAbsolutePath);
+
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		Map<String, List<MetaDataAndDomainData>> metadataByPath = new LinkedHashMap<String, List<MetaDataAndDomainData>>();
+
+		try {
+			addMetadataAndDomainDataSelectsToBuilder(builder);
+			builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, QueryConditionOperators.EQUAL,
+					collectionAbsolutePath);
+
+			IRODSGenQueryFromBuilder irodsQuery = builder
+					.exportIRODSQueryFromBuilder(getJargonProperties().getMaxFilesAndDirsQueryMax());
+
+			try (IRODSGenQueryResultIterator rows = irodsGenQueryExecutor.iterateIRODSQuery(irodsQuery,
+					MiscIRODSUtils.getZoneInPath(collectionAbsolutePath))) {
+				while (rows.hasNext()) {
+					// the total is not known until the last page, so is left at 0
+					MetaDataAndDomainData data = DataAOHelper
+							.buildMetaDataAndDomainDataFromResultSetRowForDataObject(rows.next(), 0);
+					List<MetaDataAndDomainData> forPath = metadataByPath.get(data.getDomainObjectUniqueName());
+					if (forPath == null) {
+						forPath = new ArrayList<MetaDataAndDomainData>();
+						metadataByPath.put(data.getDomainObjectUniqueName(), forPath);
+					}
+					forPath.add(data);
+				}
+			}
+
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		} catch (JargonQueryException jqe) {
+			log.error("error executing query", jqe);
+			throw new JargonException("error executing query", jqe);
+		}
+
+		log.info("found metadata for {} data objects", metadataByPath.size());
+		return metadataByPath;
+	}
+
 	private List<MetaDataAndDomainData> findMetadataValuesForDataObject(final ObjStat objStat)
 			throws FileNotFoundException, JargonException {
 
@@ -2808,6 +3087,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 		DataObjInp dataObjInp = DataObjInp.instanceForDataObjectChecksum(irodsFile.getAbsolutePath());
 		Tag response = getIRODSProtocol().irodsFunction(dataObjInp);
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 
 		if (response == null) {
 			log.error("invalid response to checksum call, response was null, expected checksum value");
@@ -2908,6 +3188,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(false, zone, absPath,
 				userName, ModAccessControlInp.READ_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -2950,6 +3231,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(false, zone,
 				absPath, userName, ModAccessControlInp.READ_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -2987,6 +3269,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(false, zone, absPath,
 				userName, ModAccessControlInp.WRITE_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -3035,6 +3318,71 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 
 	}
 
+	@Override
+	public List<BulkACLOperationResponse> setAccessPermissions(final String zone, final String absolutePath,
+			final List<UserFilePermission> userPermissions) throws JargonException {
+
+		log.info("setAccessPermissions()");
+
+		if (zone == null) {
+			throw new IllegalArgumentException("null zone");
+		}
+
+		if (absolutePath == null || absolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty absolutePath");
+		}
+
+		if (userPermissions == null) {
+			throw new IllegalArgumentException("null userPermissions");
+		}
+
+		if (userPermissions.isEmpty()) {
+			return new ArrayList<BulkACLOperationResponse>();
+		}
+
+		log.info("setting {} permissions on absPath:{}", userPermissions.size(), absolutePath);
+
+		ObjStat objStat = this.retrieveObjStat(absolutePath);
+
+		if (objStat.getSpecColType() == SpecColType.MOUNTED_COLL) {
+			log.info("objStat indicates collection type that does not support this operation:{}", objStat);
+			throw new OperationNotSupportedForCollectionTypeException(
+					"The special collection type does not support this operation");
+		}
+
+		String effectiveAbsPath = resolveAbsolutePathGivenObjStat(objStat);
+
+		List<ModAccessControlInp> requests = new ArrayList<ModAccessControlInp>(userPermissions.size());
+		for (UserFilePermission userPermission : userPermissions) {
+			if (userPermission == null || userPermission.getUserName() == null
+					|| userPermission.getUserName().isEmpty()) {
+				throw new IllegalArgumentException("null userPermission or empty userName");
+			}
+			String userZone = userPermission.getUserZone() == null || userPermission.getUserZone().isEmpty() ? zone
+					: userPermission.getUserZone();
+			requests.add(ModAccessControlInp.instanceForSetPermission(false, userZone, effectiveAbsPath,
+					userPermission.getUserName(),
+					PipelinedRequestHelper.translatePermission(userPermission.getFilePermissionEnum())));
+		}
+
+		try {
+			if (AtomicOperationsHelper.applyAclOperations(this, effectiveAbsPath, zone, userPermissions)) {
+				List<BulkACLOperationResponse> responses = new ArrayList<BulkACLOperationResponse>(
+						userPermissions.size());
+				for (UserFilePermission userPermission : userPermissions) {
+					responses.add(BulkACLOperationResponse.instance(BulkACLOperationResponse.ResultStatus.OK,
+							userPermission, "", effectiveAbsPath));
+				}
+				return responses;
+			}
+
+			return PipelinedRequestHelper.sendAclRequests(getIRODSProtocol(),
+					getJargonProperties().getPipelinedRequestWindow(), requests, userPermissions, effectiveAbsPath);
+		} finally {
+			invalidateCachedObjStat(effectiveAbsPath);
+		}
+	}
+
 	@Override
 	public void setAccessPermissionWriteInAdminMode(final String zone, final String absolutePath, final String userName)
 			throws JargonException {
@@ -3063,6 +3411,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(false, zone,
 				absPath, userName, ModAccessControlInp.WRITE_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -3101,6 +3450,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(false, zone, absPath,
 				userName, ModAccessControlInp.OWN_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -3141,6 +3491,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(false, zone,
 				absPath, userName, ModAccessControlInp.OWN_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -3180,6 +3531,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermission(false, zone, absPath,
 				userName, ModAccessControlInp.NULL_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -3218,6 +3570,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModAccessControlInp modAccessControlInp = ModAccessControlInp.instanceForSetPermissionInAdminMode(false, zone,
 				absPath, userName, ModAccessControlInp.NULL_PERMISSION);
 		getIRODSProtocol().irodsFunction(modAccessControlInp);
+		invalidateCachedObjStat(absPath);
 	}
 
 	/*
@@ -3494,6 +3847,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		try {
 
 			getIRODSProtocol().irodsFunction(modifyAvuMetadataInp);
+			invalidateCachedObjStat(dataObjectAbsolutePath);
 
 		} catch (JargonException je) {
 
@@ -4074,6 +4428,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 					irodsRuleParameters, RuleProcessingType.EXTERNAL);
 
 			log.info("result of action:{}", result.getRuleExecOut().trim());
+			invalidateCachedObjStat(sb.toString());
 		} catch (ResourceDoesNotExistException e) {
 			log.error("resource does not exist, rethrow as datanotfound for method contract post 4.1", e);
 			if (getIRODSAccessObjectFactory().getIRODSServerProperties(getIRODSAccount()).isAtLeastIrods410()) {
@@ -4262,6 +4617,7 @@ public final class DataObjectAOImpl extends FileCatalogObjectAOImpl implements D
 		ModDataObjMetaInp modDataObjMetaInp = ModDataObjMetaInp.instanceForModExpDate(dataObjectAbsolutePath, strDate);
 
 		getIRODSProtocol().irodsFunction(modDataObjMetaInp);
+		invalidateCachedObjStat(dataObjectAbsolutePath);
 		log.info("complete!");
 
 	}
@@ -132,6 +132,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 
 		try {
 			getIRODSProtocol().irodsFunction(dataObjCopyInp);
+			invalidateCachedObjStat(irodsSourceFile.getAbsolutePath());
+			invalidateCachedObjStat(actualTargetFile.getAbsolutePath());
 		} catch (JargonException je) {
 			log.error("jargon exception in move operation", je);
 			throw je;
@@ -291,8 +293,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			if (reroutedAccount != null) {
 				// re-routing...go to another host, the finally below will close
 				// this spawned new connection
-				DataTransferOperationsImpl reroutedDataTransferOperations = (DataTransferOperationsImpl) getIRODSAccessObjectFactory()
-						.getDataTransferOperations(reroutedAccount);
+				DataTransferOperationsImpl reroutedDataTransferOperations = new DataTransferOperationsImpl(
+						getIRODSSession(), reroutedAccount);
 				reroutedDataTransferOperations.processGetAfterAnyConnectionRerouting(irodsSourceFile, targetLocalFile,
 						transferStatusCallbackListener, operativeTransferControlBlock, targetLocalFileNameForCallbacks);
 
@@ -597,8 +599,58 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 
 		log.debug("new parent directory created locally:{}", newParentDirectory.getAbsolutePath());
 
-		transferOperationsHelper.recursivelyGet(irodsSourceFile, newParentDirectory, transferStatusCallbackListener,
-				transferControlBlock);
+		ConcurrentFileTransferEngine concurrentFileTransferEngine = buildConcurrentFileTransferEngineIfConfigured(
+				transferStatusCallbackListener, transferControlBlock);
+
+		if (concurrentFileTransferEngine == null) {
+			transferOperationsHelper.recursivelyGet(irodsSourceFile, newParentDirectory,
+					transferStatusCallbackListener, transferControlBlock);
+		} else {
+			try {
+				transferOperationsHelper.recursivelyGet(irodsSourceFile, newParentDirectory,
+						concurrentFileTransferEngine.getTransferStatusCallbackListener(), transferControlBlock,
+						concurrentFileTransferEngine);
+				concurrentFileTransferEngine.awaitCompletion();
+			} finally {
+				concurrentFileTransferEngine.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Create a {@link ConcurrentFileTransferEngine} for a recursive put or get if
+	 * the {@code TransferOptions} ask for more than one concurrent file transfer
+	 * thread. Restarts of a recursive transfer depend on the order in which files
+	 * are processed, so a transfer with a restart path is always done one file at
+	 * a time.
+	 *
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, may be {@code null}
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} with the options for the transfer
+	 * @return {@link ConcurrentFileTransferEngine} or {@code null} if files should
+	 *         be transferred one at a time
+	 */
+	private ConcurrentFileTransferEngine buildConcurrentFileTransferEngineIfConfigured(
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock) {
+
+		int concurrentFileTransferThreads = transferControlBlock.getTransferOptions()
+				.getConcurrentFileTransferThreads();
+
+		if (concurrentFileTransferThreads <= 1) {
+			return null;
+		}
+
+		String restartAbsolutePath = transferControlBlock.getRestartAbsolutePath();
+		if (restartAbsolutePath != null && !restartAbsolutePath.isEmpty()) {
+			log.info("restart path is set, files will be transferred one at a time");
+			return null;
+		}
+
+		log.info("transferring files with {} concurrent threads", concurrentFileTransferThreads);
+		return ConcurrentFileTransferEngine.instance(getIRODSSession(), getIRODSAccount(),
+				concurrentFileTransferThreads, transferStatusCallbackListener);
 	}
 
 	/*
@@ -664,8 +716,8 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			 */
 			if (reroutedAccount != null) {
 				log.info("connection was rerouted");
-				DataTransferOperationsImpl reroutedDataTransferOperations = (DataTransferOperationsImpl) getIRODSAccessObjectFactory()
-						.getDataTransferOperations(reroutedAccount);
+				DataTransferOperationsImpl reroutedDataTransferOperations = new DataTransferOperationsImpl(
+						getIRODSSession(), reroutedAccount);
 				reroutedDataTransferOperations.processPutAfterAnyConnectionRerouting(sourceFile, targetIrodsFile,
 						transferStatusCallbackListener, operativeTransferControlBlock);
 			} else {
@@ -1037,8 +1089,22 @@ public final class DataTransferOperationsImpl extends IRODSGenericAO implements
 			throw new JargonException(e);
 		}
 
-		transferOperationsHelper.recursivelyPut(sourceFile, newIrodsParentDirectory, transferStatusCallbackListener,
-				transferControlBlock);
+		ConcurrentFileTransferEngine concurrentFileTransferEngine = buildConcurrentFileTransferEngineIfConfigured(
+				transferStatusCallbackListener, transferControlBlock);
+
+		if (concurrentFileTransferEngine == null) {
+			transferOperationsHelper.recursivelyPut(sourceFile, newIrodsParentDirectory,
+					transferStatusCallbackListener, transferControlBlock);
+		} else {
+			try {
+				transferOperationsHelper.recursivelyPut(sourceFile, newIrodsParentDirectory,
+						concurrentFileTransferEngine.getTransferStatusCallbackListener(), transferControlBlock,
+						concurrentFileTransferEngine);
+				concurrentFileTransferEngine.awaitCompletion();
+			} finally {
+				concurrentFileTransferEngine.shutdownNow();
+			}
+		}
 
 		/**
 		 * Send an overall status callback. If the state is cancelled, see if it was
@@ -229,7 +229,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public UserAO getUserAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new UserAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new UserAOImpl(irodsSession, irodsAccount),
+				UserAO.class, irodsAccount);
 	}
 
 	/*
@@ -241,7 +242,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public UserGroupAO getUserGroupAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new UserGroupAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new UserGroupAOImpl(irodsSession, irodsAccount),
+				UserGroupAO.class, irodsAccount);
 	}
 
 	/*
@@ -254,7 +256,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public EnvironmentalInfoAO getEnvironmentalInfoAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new EnvironmentalInfoAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new EnvironmentalInfoAOImpl(irodsSession, irodsAccount),
+				EnvironmentalInfoAO.class, irodsAccount);
 	}
 
 	/*
@@ -266,7 +269,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public QuotaAO getQuotaAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new QuotaAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new QuotaAOImpl(irodsSession, irodsAccount),
+				QuotaAO.class, irodsAccount);
 	}
 
 	/*
@@ -278,7 +282,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public IRODSGenQueryExecutor getIRODSGenQueryExecutor(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new IRODSGenQueryExecutorImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new IRODSGenQueryExecutorImpl(irodsSession, irodsAccount),
+				IRODSGenQueryExecutor.class, irodsAccount);
 	}
 
 	/*
@@ -290,7 +295,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ZoneAO getZoneAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ZoneAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new ZoneAOImpl(irodsSession, irodsAccount),
+				ZoneAO.class, irodsAccount);
 	}
 
 	/*
@@ -302,7 +308,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ResourceAO getResourceAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ResourceAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new ResourceAOImpl(irodsSession, irodsAccount),
+				ResourceAO.class, irodsAccount);
 	}
 
 	/*
@@ -314,7 +321,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ResourceGroupAO getResourceGroupAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ResourceGroupAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new ResourceGroupAOImpl(irodsSession, irodsAccount),
+				ResourceGroupAO.class, irodsAccount);
 	}
 
 	/*
@@ -326,7 +334,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public IRODSFileSystemAO getIRODSFileSystemAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new IRODSFileSystemAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new IRODSFileSystemAOImpl(irodsSession, irodsAccount),
+				IRODSFileSystemAO.class, irodsAccount);
 	}
 
 	/*
@@ -350,7 +359,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public CollectionAO getCollectionAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new CollectionAOImpl(irodsSession, irodsAccount),
+				CollectionAO.class, irodsAccount);
 	}
 
 	/*
@@ -362,7 +372,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public DataObjectAO getDataObjectAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new DataObjectAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new DataObjectAOImpl(irodsSession, irodsAccount),
+				DataObjectAO.class, irodsAccount);
 	}
 
 	/*
@@ -374,7 +385,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public DataObjectAuditAO getDataObjectAuditAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new DataObjectAuditAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new DataObjectAuditAOImpl(irodsSession, irodsAccount),
+				DataObjectAuditAO.class, irodsAccount);
 	}
 
 	/*
@@ -386,13 +398,15 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public CollectionAuditAO getCollectionAuditAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionAuditAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new CollectionAuditAOImpl(irodsSession, irodsAccount),
+				CollectionAuditAO.class, irodsAccount);
 	}
 
 	@Override
 	public CollectionPagerAO getCollectionPagerAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionPagerAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new CollectionPagerAOImpl(irodsSession, irodsAccount),
+				CollectionPagerAO.class, irodsAccount);
 	}
 
 	/*
@@ -408,7 +422,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		// don't initialize the server properties here for eIRODS, as it's used
 		// to load the rule base. This is not awesome but will go away when
 		// eirods numbering get's lined up with community
-		return new RuleProcessingAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new RuleProcessingAOImpl(irodsSession, irodsAccount),
+				RuleProcessingAO.class, irodsAccount);
 
 	}
 
@@ -421,7 +436,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public DataTransferOperations getDataTransferOperations(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new DataTransferOperationsImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new DataTransferOperationsImpl(irodsSession, irodsAccount),
+				DataTransferOperations.class, irodsAccount);
 	}
 
 	/*
@@ -433,7 +449,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public BulkFileOperationsAO getBulkFileOperationsAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new BulkFileOperationsAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new BulkFileOperationsAOImpl(irodsSession, irodsAccount),
+				BulkFileOperationsAO.class, irodsAccount);
 	}
 
 	/*
@@ -447,7 +464,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	public RemoteExecutionOfCommandsAO getRemoteExecutionOfCommandsAO(final IRODSAccount irodsAccount)
 			throws JargonException {
 		checkIrodsSessionSet();
-		return new RemoteExecutionOfCommandsAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new RemoteExecutionOfCommandsAOImpl(irodsSession, irodsAccount),
+				RemoteExecutionOfCommandsAO.class, irodsAccount);
 	}
 
 	/*
@@ -461,7 +479,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	public CollectionAndDataObjectListAndSearchAO getCollectionAndDataObjectListAndSearchAO(
 			final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new CollectionAndDataObjectListAndSearchAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new CollectionAndDataObjectListAndSearchAOImpl(irodsSession, irodsAccount),
+				CollectionAndDataObjectListAndSearchAO.class, irodsAccount);
 	}
 
 	/*
@@ -473,7 +492,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public SimpleQueryExecutorAO getSimpleQueryExecutorAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new SimpleQueryExecutorAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new SimpleQueryExecutorAOImpl(irodsSession, irodsAccount),
+				SimpleQueryExecutorAO.class, irodsAccount);
 	}
 
 	/*
@@ -485,7 +505,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public Stream2StreamAO getStream2StreamAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new Stream2StreamAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new Stream2StreamAOImpl(irodsSession, irodsAccount),
+				Stream2StreamAO.class, irodsAccount);
 	}
 
 	/*
@@ -498,7 +519,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public MountedCollectionAO getMountedCollectionAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new MountedCollectionAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new MountedCollectionAOImpl(irodsSession, irodsAccount),
+				MountedCollectionAO.class, irodsAccount);
 	}
 
 	/*
@@ -510,7 +532,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public ProtocolExtensionPoint getProtocolExtensionPoint(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new ProtocolExtensionPointImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new ProtocolExtensionPointImpl(irodsSession, irodsAccount),
+				ProtocolExtensionPoint.class, irodsAccount);
 	}
 
 	/*
@@ -523,7 +546,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	public IRODSRegistrationOfFilesAO getIRODSRegistrationOfFilesAO(final IRODSAccount irodsAccount)
 			throws JargonException {
 		checkIrodsSessionSet();
-		return new IRODSRegistrationOfFilesAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new IRODSRegistrationOfFilesAOImpl(irodsSession, irodsAccount),
+				IRODSRegistrationOfFilesAO.class, irodsAccount);
 	}
 
 	/*
@@ -547,6 +571,24 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 		this.irodsSession = irodsSession;
 	}
 
+	/**
+	 * Give back the access object as is, or, when the jargon properties ask for a
+	 * connection per operation, a proxy that borrows a connection for each call
+	 *
+	 * @param accessObject
+	 *            access object that was created
+	 * @param accessObjectInterface
+	 *            {@code Class} of the interface handed to the caller
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} the access object was created for
+	 * @return access object to hand to the caller
+	 */
+	private <T> T bindConnectionPerOperation(final T accessObject, final Class<T> accessObjectInterface,
+			final IRODSAccount irodsAccount) {
+		return ConnectionScopedInvocationHandler.bind(accessObject, accessObjectInterface, irodsSession,
+				irodsAccount);
+	}
+
 	private void checkIrodsSessionSet() throws JargonException {
 		if (irodsSession == null) {
 			throw new JargonException(
@@ -626,7 +668,8 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public SpecificQueryAO getSpecificQueryAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new SpecificQueryAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new SpecificQueryAOImpl(irodsSession, irodsAccount),
+				SpecificQueryAO.class, irodsAccount);
 	}
 
 	/*
@@ -638,14 +681,16 @@ public final class IRODSAccessObjectFactoryImpl implements IRODSAccessObjectFact
 	@Override
 	public TrashOperationsAO getTrashOperationsAO(final IRODSAccount irodsAccount) throws JargonException {
 		checkIrodsSessionSet();
-		return new TrashOperationsAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new TrashOperationsAOImpl(irodsSession, irodsAccount),
+				TrashOperationsAO.class, irodsAccount);
 	}
 
 	@Override
 	public DataObjectChecksumUtilitiesAO getDataObjectChecksumUtilitiesAO(final IRODSAccount irodsAccount)
 			throws JargonException {
 		checkIrodsSessionSet();
-		return new DataObjectChecksumUtilitiesAOImpl(irodsSession, irodsAccount);
+		return bindConnectionPerOperation(new DataObjectChecksumUtilitiesAOImpl(irodsSession, irodsAccount),
+				DataObjectChecksumUtilitiesAO.class, irodsAccount);
 	}
 
 	/*
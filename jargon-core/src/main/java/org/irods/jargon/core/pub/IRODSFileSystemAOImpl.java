@@ -883,6 +883,7 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		responseFileNbr = response.getTag(MsgHeader.PI_NAME).getTag(MsgHeader.INT_INFO).getIntValue();
 
 		log.debug("response file nbr:{}", responseFileNbr);
+		invalidateCachedObjStat(absolutePath);
 
 		return responseFileNbr;
 
@@ -917,6 +918,7 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 			log.info("directory already exists in mkdir, log and ignore");
 		}
 
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 		log.debug("mkdir succesful");
 	}
 
@@ -977,6 +979,7 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 		DataObjInp dataObjInp = DataObjInp.instanceForDeleteWithForce(irodsFile.getAbsolutePath());
 		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjInp.getParsedTags(),
 				DataObjInp.DELETE_FILE_API_NBR);
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 
 		if (response != null) {
 			String msg = "unexpected response from irods, expected null message - logged and ignored ";
@@ -1019,6 +1022,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 					"duplicate data exception logged and ignored, see GForge: [#639] 809000 errors on delete operations when trash file already exists");
 		}
 
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
+
 	}
 
 	/*
@@ -1051,6 +1056,7 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 				CollInp.RMDIR_API_NBR);
 
 		processClientStatusMessages(response);
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 
 		log.info("deletion successful");
 
@@ -1084,6 +1090,7 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 				CollInp.RMDIR_API_NBR);
 
 		processClientStatusMessages(response);
+		invalidateCachedObjStat(irodsFile.getAbsolutePath());
 
 		log.info("deletion successful");
 
@@ -1147,6 +1154,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 				toFile.getAbsolutePath(), force);
 		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
 				DataObjCopyInp.RENAME_FILE_API_NBR);
+		invalidateCachedObjStat(fromFile.getAbsolutePath());
+		invalidateCachedObjStat(toFile.getAbsolutePath());
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1177,6 +1186,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 				toFile.getAbsolutePath());
 		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
 				DataObjCopyInp.RENAME_FILE_API_NBR);
+		invalidateCachedObjStat(fromFile.getAbsolutePath());
+		invalidateCachedObjStat(toFile.getAbsolutePath());
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1204,6 +1215,8 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 				toFile.getAbsolutePath(), force);
 		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
 				DataObjCopyInp.RENAME_FILE_API_NBR);
+		invalidateCachedObjStat(fromFile.getAbsolutePath());
+		invalidateCachedObjStat(toFile.getAbsolutePath());
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -1314,6 +1327,7 @@ public final class IRODSFileSystemAOImpl extends IRODSGenericAO implements IRODS
 
 		Tag response = getIRODSProtocol().irodsFunction(IRODSConstants.RODS_API_REQ, dataObjCopyInp.getParsedTags(),
 				apiNbr);
+		invalidateCachedObjStat(absolutePathToSourceFile);
 
 		if (response != null) {
 			log.warn("unexpected response from irods, expected null message - logged and ignored ");
@@ -3,8 +3,11 @@
  */
 package org.irods.jargon.core.pub;
 
+import java.util.stream.Stream;
+
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
 import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
 
@@ -217,4 +220,62 @@ public interface IRODSGenQueryExecutor extends IRODSAccessObject {
 	IRODSQueryResultSet getMoreResults(IRODSQueryResultSet irodsQueryResultSet)
 			throws JargonException, JargonQueryException;
 
+	/**
+	 * Execute an iquest-like query and iterate over all of its rows, with the
+	 * paging through the continuation index done by the iterator. The next page
+	 * is fetched in the background while the current page is read.
+	 * <p>
+	 * The query runs on a connection of its own, separate from the one this
+	 * access object uses, so other calls may be made on the session while
+	 * iterating. The returned iterator holds that connection and an open result
+	 * in iRODS until its last row is read. It must be closed if it is abandoned
+	 * early, best done with try-with-resources.
+	 * <p>
+	 * Every call borrows that connection from the {@code IRODSProtocolManager}
+	 * and gives it back when the iterator is done, so all the pages of one query
+	 * share it but separate queries do not. With the default protocol manager
+	 * each call therefore opens and authenticates a new connection. Where many
+	 * small queries are iterated, use a pooling protocol manager such as the
+	 * one in jargon-pool, or
+	 * {@link #executeIRODSQuery(AbstractIRODSGenQuery, int)} for results that
+	 * fit in one page.
+	 *
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} that will wrap the given query
+	 * @param zoneName
+	 *            {@code String} ({@code null} or blank if not used) that indicates
+	 *            an optional zone for the query
+	 * @return {@link IRODSGenQueryResultIterator} over the rows of the query
+	 * @throws JargonException
+	 *             for iRODS error
+	 * @throws JargonQueryException
+	 *             for query error
+	 */
+	IRODSGenQueryResultIterator iterateIRODSQuery(AbstractIRODSGenQuery irodsQuery, String zoneName)
+			throws JargonException, JargonQueryException;
+
+	/**
+	 * Execute an iquest-like query and get a sequential {@code Stream} of all of
+	 * its rows, paging and read-ahead as in
+	 * {@link #iterateIRODSQuery(AbstractIRODSGenQuery, String)}.
+	 * <p>
+	 * The stream must be closed, as with try-with-resources, so that the result in
+	 * iRODS is released if the stream is not read to the end, for example after
+	 * {@code findFirst()} or {@code limit()}.
+	 * Each call borrows a connection for the query in the same way.
+	 *
+	 * @param irodsQuery
+	 *            {@link AbstractIRODSGenQuery} that will wrap the given query
+	 * @param zoneName
+	 *            {@code String} ({@code null} or blank if not used) that indicates
+	 *            an optional zone for the query
+	 * @return {@code Stream} of {@link IRODSQueryResultRow}
+	 * @throws JargonException
+	 *             for iRODS error
+	 * @throws JargonQueryException
+	 *             for query error
+	 */
+	Stream<IRODSQueryResultRow> streamIRODSQuery(AbstractIRODSGenQuery irodsQuery, String zoneName)
+			throws JargonException, JargonQueryException;
+
 }
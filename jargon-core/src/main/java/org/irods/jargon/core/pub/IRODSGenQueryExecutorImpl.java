@@ -1,10 +1,14 @@
 package org.irods.jargon.core.pub;
 
+import java.util.stream.Stream;
+
 import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.query.AbstractIRODSGenQuery;
 import org.irods.jargon.core.query.GenQueryProcessor;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
 import org.irods.jargon.core.query.IRODSQueryResultSet;
 import org.irods.jargon.core.query.JargonQueryException;
 import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
@@ -251,4 +255,58 @@ public final class IRODSGenQueryExecutorImpl extends IRODSGenericAO implements I
 		genQueryProcessor.closeResults(irodsQueryResultSet);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.IRODSGenQueryExecutor#iterateIRODSQuery(org.
+	 * irods.jargon.core.query.AbstractIRODSGenQuery, java.lang.String)
+	 */
+	@Override
+	public IRODSGenQueryResultIterator iterateIRODSQuery(final AbstractIRODSGenQuery irodsQuery,
+			final String zoneName) throws JargonException, JargonQueryException {
+
+		log.info("iterateIRODSQuery()");
+
+		if (irodsQuery == null) {
+			throw new IllegalArgumentException("null irodsQuery");
+		}
+
+		log.info("query: {}", irodsQuery);
+
+		/*
+		 * the continuation is only valid on the connection that ran the first page,
+		 * and later pages are read in the background, so the query gets a connection
+		 * of its own rather than sharing the one the caller keeps using
+		 */
+		IRODSMidLevelProtocol irodsProtocol = getIRODSSession().borrowDetachedConnection(getIRODSAccount());
+		IRODSGenQueryResultIterator iterator;
+		try {
+			GenQueryProcessor genQueryProcessor = new GenQueryProcessor(irodsProtocol);
+			TranslatedIRODSGenQuery translatedIRODSQuery = genQueryProcessor.translateProvidedQuery(irodsQuery);
+			IRODSQueryResultSet firstPage = genQueryProcessor.executeTranslatedIRODSQuery(translatedIRODSQuery, 0, 0,
+					QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+			iterator = new IRODSGenQueryResultIterator(genQueryProcessor, firstPage, zoneName, true);
+		} catch (JargonException | JargonQueryException | RuntimeException e) {
+			getIRODSSession().releaseConnection(irodsProtocol);
+			throw e;
+		}
+
+		iterator.holdRetainedConnection(getIRODSSession(), irodsProtocol);
+		return iterator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.pub.IRODSGenQueryExecutor#streamIRODSQuery(org.
+	 * irods.jargon.core.query.AbstractIRODSGenQuery, java.lang.String)
+	 */
+	@Override
+	public Stream<IRODSQueryResultRow> streamIRODSQuery(final AbstractIRODSGenQuery irodsQuery, final String zoneName)
+			throws JargonException, JargonQueryException {
+
+		log.info("streamIRODSQuery()");
+		return iterateIRODSQuery(irodsQuery, zoneName).stream();
+	}
+
 }
@@ -0,0 +1,291 @@
+package org.irods.jargon.core.pub;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
+import org.irods.jargon.core.query.GenQueryProcessor;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates the rows of a GenQuery across all of its pages, following the
+ * continuation index so the caller does not have to.
+ * <p>
+ * When a page arrives that has more records behind it, the next page is
+ * requested in the background while the rows of the current page are handed
+ * out, so network latency overlaps with processing. The request is made on the
+ * same connection as the original query, as the continuation is only valid
+ * there. That connection belongs to this iterator alone, it is not the one
+ * bound to the caller's thread, so the caller may use other access objects on
+ * the same session while iterating without their requests interleaving with
+ * the background fetch. It is borrowed from the {@code IRODSProtocolManager}
+ * for each query and given back when the query is done, which costs a new
+ * connection per query unless the protocol manager pools them.
+ * <p>
+ * An iterator that is abandoned before the last row must be closed, so that the
+ * open result is released in iRODS. Use try-with-resources, or close the
+ * {@code Stream} from {@link #stream()}. Closing an exhausted iterator is a
+ * no-op.
+ * <p>
+ * This class is not thread-safe, it is meant to be consumed by one thread.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class IRODSGenQueryResultIterator implements Iterator<IRODSQueryResultRow>, AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(IRODSGenQueryResultIterator.class);
+
+	/**
+	 * Shared daemon threads that fetch the next page, idle threads time out
+	 */
+	private static final ExecutorService readAheadExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, "jargon-genquery-read-ahead-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private final GenQueryProcessor genQueryProcessor;
+	private final String zoneName;
+	private final boolean readAhead;
+
+	/**
+	 * The page whose rows are being handed out
+	 */
+	private IRODSQueryResultSet currentPage;
+	private List<IRODSQueryResultRow> currentRows;
+	private int currentIndex = 0;
+
+	/**
+	 * Fetch of the page after {@code currentPage}, or {@code null} if there are
+	 * no more pages, or the fetch has not yet been started
+	 */
+	private Future<IRODSQueryResultSet> nextPage;
+	private boolean closed = false;
+
+	/**
+	 * Connection lent by the session that this iterator holds on to until the
+	 * query is done, or {@code null} if there is none to give back
+	 */
+	private IRODSSession retainingSession;
+	private IRODSMidLevelProtocol retainedConnection;
+
+	/**
+	 * Iterate from the first page of a query that was run with
+	 * {@link QueryCloseBehavior#MANUAL_CLOSE}
+	 *
+	 * @param genQueryProcessor
+	 *            {@link GenQueryProcessor} bound to the connection that ran the
+	 *            first page
+	 * @param firstPage
+	 *            {@link IRODSQueryResultSet} with the first page
+	 * @param zoneName
+	 *            {@code String} with the optional zone of the query, may be
+	 *            {@code null}
+	 * @param readAhead
+	 *            {@code boolean} of {@code true} to fetch the next page in the
+	 *            background
+	 */
+	IRODSGenQueryResultIterator(final GenQueryProcessor genQueryProcessor, final IRODSQueryResultSet firstPage,
+			final String zoneName, final boolean readAhead) {
+
+		if (genQueryProcessor == null) {
+			throw new IllegalArgumentException("null genQueryProcessor");
+		}
+
+		if (firstPage == null) {
+			throw new IllegalArgumentException("null firstPage");
+		}
+
+		this.genQueryProcessor = genQueryProcessor;
+		this.zoneName = zoneName;
+		this.readAhead = readAhead;
+		setCurrentPage(firstPage);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!closed && currentIndex >= currentRows.size()) {
+			if (!currentPage.isHasMoreRecords()) {
+				// iRODS closes the result itself once the last page is sent
+				closed = true;
+				releaseConnection();
+				break;
+			}
+			setCurrentPage(awaitNextPage());
+		}
+		return !closed;
+	}
+
+	@Override
+	public IRODSQueryResultRow next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentRows.get(currentIndex++);
+	}
+
+	/**
+	 * Release the open result in iRODS if the rows were not all read. Waits for a
+	 * page fetch that is in progress, as the connection cannot be interrupted
+	 * mid-request.
+	 *
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	@Override
+	public void close() throws JargonException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		try {
+			IRODSQueryResultSet openResult = currentPage;
+			if (nextPage != null && !nextPage.cancel(false)) {
+				try {
+					openResult = getNextPage();
+				} catch (JargonException e) {
+					log.warn("read-ahead of next page failed, nothing to close", e);
+					return;
+				}
+			}
+
+			nextPage = null;
+			if (openResult.isHasMoreRecords()) {
+				log.debug("closing results of abandoned query");
+				genQueryProcessor.closeResults(openResult);
+			}
+		} finally {
+			releaseConnection();
+		}
+	}
+
+	/**
+	 * Hold on to the connection lent for this query, it is released once the last
+	 * page is read or this iterator is closed
+	 *
+	 * @param irodsSession
+	 *            {@link IRODSSession} that lent the connection
+	 * @param irodsMidLevelProtocol
+	 *            {@link IRODSMidLevelProtocol} that ran the first page
+	 */
+	void holdRetainedConnection(final IRODSSession irodsSession, final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		retainingSession = irodsSession;
+		retainedConnection = irodsMidLevelProtocol;
+		if (closed) {
+			releaseConnection();
+		}
+	}
+
+	/**
+	 * Get a sequential {@code Stream} over the remaining rows. Closing the stream
+	 * closes this iterator.
+	 *
+	 * @return {@code Stream} of {@link IRODSQueryResultRow}
+	 */
+	public Stream<IRODSQueryResultRow> stream() {
+		Spliterator<IRODSQueryResultRow> spliterator = Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					close();
+				} catch (JargonException e) {
+					throw new JargonRuntimeException("unable to close query results", e);
+				}
+			}
+		});
+	}
+
+	private void setCurrentPage(final IRODSQueryResultSet page) {
+		currentPage = page;
+		currentRows = page.getResults();
+		currentIndex = 0;
+		nextPage = null;
+
+		if (readAhead && page.isHasMoreRecords()) {
+			nextPage = readAheadExecutor.submit(new Callable<IRODSQueryResultSet>() {
+				@Override
+				public IRODSQueryResultSet call() throws Exception {
+					return fetchPageAfter(page);
+				}
+			});
+		}
+	}
+
+	private IRODSQueryResultSet awaitNextPage() {
+		try {
+			if (nextPage == null) {
+				return fetchPageAfter(currentPage);
+			}
+			return getNextPage();
+		} catch (JargonException e) {
+			closed = true;
+			releaseConnection();
+			throw new JargonRuntimeException("unable to get next page of query results", e);
+		}
+	}
+
+	private IRODSQueryResultSet getNextPage() throws JargonException {
+		try {
+			return nextPage.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted waiting for next page of query results", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonException("unable to get next page of query results", e.getCause());
+		} finally {
+			nextPage = null;
+		}
+	}
+
+	private void releaseConnection() {
+		if (retainedConnection == null) {
+			return;
+		}
+		IRODSMidLevelProtocol connection = retainedConnection;
+		retainedConnection = null;
+		try {
+			retainingSession.releaseConnection(connection);
+		} catch (JargonException e) {
+			log.warn("unable to give back connection held by query results", e);
+		}
+	}
+
+	private IRODSQueryResultSet fetchPageAfter(final IRODSQueryResultSet page) throws JargonException {
+		return genQueryProcessor.executeTranslatedIRODSQuery(page.getTranslatedIRODSQuery(),
+				page.getContinuationIndex(), 0, QueryCloseBehavior.MANUAL_CLOSE, zoneName);
+	}
+
+}
@@ -57,6 +57,11 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		this.irodsAccount = irodsAccount;
 		instrumented = getIRODSSession().getJargonProperties().isInstrument();
 
+		if (getJargonProperties().isConnectionPerOperation() && !irodsSession.isInConnectionScope(irodsAccount)) {
+			log.debug("connection per operation, connect on first use");
+			return;
+		}
+
 		log.debug("establishing connection");
 		irodsSession.currentConnection(irodsAccount);
 	}
@@ -123,6 +128,17 @@ public abstract class IRODSGenericAO implements IRODSAccessObject {
 		return getIRODSSession().getJargonProperties();
 	}
 
+	/**
+	 * Remove cached stats and listings for a path that this access object has
+	 * changed, see
+	 * {@link IRODSSession#invalidateObjStatAndListingCache(String)}
+	 *
+	 * @param irodsAbsolutePath {@code String} with the absolute path that changed
+	 */
+	protected void invalidateCachedObjStat(final String irodsAbsolutePath) {
+		getIRODSSession().invalidateObjStatAndListingCache(irodsAbsolutePath);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
@@ -0,0 +1,615 @@
+package org.irods.jargon.core.pub;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.irods.jargon.core.apiplugin.FileDescriptorInfoInput;
+import org.irods.jargon.core.apiplugin.ReplicaCloseInput;
+import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInpForReplicaOpen;
+import org.irods.jargon.core.packinstr.MsgHeader;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.pub.io.FileIOOperations.SeekWhenceType;
+import org.irods.jargon.core.pub.io.FileIOOperationsAOImpl;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Moves a large file between the client and iRODS over several ordinary
+ * connections, each reading or writing its own range of the same replica. This
+ * is used internally by {@link DataObjectAOImpl} in place of a server driven
+ * parallel transfer, where iRODS opens transfer ports back to the client, see
+ * {@link org.irods.jargon.core.packinstr.TransferOptions} for the setting that
+ * turns this on.
+ * <p>
+ * A put creates the replica on the calling thread with the replica open API,
+ * and asks for the replica token and resource hierarchy of that descriptor. The
+ * other streams open the same replica with that token and write their ranges,
+ * then close without touching the catalog. Once they are done the calling
+ * thread closes its descriptor, which updates the size and status of the
+ * replica once, and optionally has iRODS register the checksum. If a stream
+ * fails or the transfer is cancelled, the other streams stop at their next
+ * buffer and close their own descriptors, and the calling thread closes without
+ * updating the catalog, so the replica is left stale. A get opens
+ * the replica for reading on the calling thread and has the other streams read
+ * from the same resource hierarchy.
+ * <p>
+ * As in {@link ConcurrentFileTransferEngine}, each stream thread gets its own
+ * connection from the {@link IRODSSession} and gives it back when the thread
+ * exits. A server without the replica APIs is remembered in the
+ * {@link DiscoveredServerPropertiesCache}, and the caller falls back to the
+ * usual transfer.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class MultiStreamTransferEngine {
+
+	private static final Logger log = LoggerFactory.getLogger(MultiStreamTransferEngine.class);
+
+	/**
+	 * Number of streams used when the transfer options do not give a thread cap
+	 */
+	static final int DEFAULT_NUMBER_OF_STREAMS = 4;
+
+	/**
+	 * Smallest range worth giving to a stream of its own
+	 */
+	static final long MIN_RANGE_LENGTH = 8L * 1024L * 1024L;
+
+	private static final String REPLICA_TOKEN = "replica_token";
+	private static final String DATA_OBJECT_INFO = "data_object_info";
+	private static final String RESOURCE_HIERARCHY = "resource_hierarchy";
+
+	private final IRODSSession irodsSession;
+	private final IRODSAccount irodsAccount;
+	private final FileIOOperationsAOImpl fileIOOperations;
+	private final int numberOfStreams;
+	private final int bufferSize;
+	private final TransferControlBlock transferControlBlock;
+	private final ConnectionProgressStatusListener connectionProgressStatusListener;
+
+	/**
+	 * First error in any stream of the current transfer, the other streams stop
+	 * when this is set
+	 */
+	private final AtomicReference<JargonException> streamError = new AtomicReference<JargonException>();
+
+	/**
+	 * Create an engine for one large file transfer
+	 *
+	 * @param irodsSession                     {@link IRODSSession} that will hand
+	 *                                         out a connection to each stream
+	 * @param irodsAccount                     {@link IRODSAccount} for the
+	 *                                         streams' connections
+	 * @param numberOfStreams                  {@code int} with the most streams to
+	 *                                         use, 0 for the default
+	 * @param transferControlBlock             {@link TransferControlBlock} that is
+	 *                                         checked for cancellation, may be
+	 *                                         {@code null}
+	 * @param connectionProgressStatusListener {@link ConnectionProgressStatusListener}
+	 *                                         for intra-file progress, may be
+	 *                                         {@code null}
+	 * @return {@link MultiStreamTransferEngine}
+	 * @throws JargonException for iRODS error
+	 */
+	static MultiStreamTransferEngine instance(final IRODSSession irodsSession, final IRODSAccount irodsAccount,
+			final int numberOfStreams, final TransferControlBlock transferControlBlock,
+			final ConnectionProgressStatusListener connectionProgressStatusListener) throws JargonException {
+		return new MultiStreamTransferEngine(irodsSession, irodsAccount, numberOfStreams, transferControlBlock,
+				connectionProgressStatusListener);
+	}
+
+	private MultiStreamTransferEngine(final IRODSSession irodsSession, final IRODSAccount irodsAccount,
+			final int numberOfStreams, final TransferControlBlock transferControlBlock,
+			final ConnectionProgressStatusListener connectionProgressStatusListener) throws JargonException {
+
+		if (irodsSession == null) {
+			throw new IllegalArgumentException("null irodsSession");
+		}
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (numberOfStreams < 0) {
+			throw new IllegalArgumentException("numberOfStreams is negative");
+		}
+
+		this.irodsSession = irodsSession;
+		this.irodsAccount = irodsAccount;
+		this.numberOfStreams = numberOfStreams == 0 ? DEFAULT_NUMBER_OF_STREAMS : numberOfStreams;
+		this.transferControlBlock = transferControlBlock;
+		this.connectionProgressStatusListener = connectionProgressStatusListener;
+		fileIOOperations = new FileIOOperationsAOImpl(irodsSession, irodsAccount);
+		bufferSize = irodsSession.getJargonProperties().getParallelCopyBufferSize();
+	}
+
+	/**
+	 * Put a local file to iRODS over several streams
+	 *
+	 * @param localFile         {@link File} to send
+	 * @param irodsAbsolutePath {@code String} with the data object to create or
+	 *                          overwrite
+	 * @param resourceName      {@code String} with the destination resource, may
+	 *                          be blank for the default
+	 * @param force             {@code boolean} to overwrite an existing data
+	 *                          object
+	 * @param computeChecksum   {@code boolean} to have iRODS compute and register
+	 *                          the checksum when the replica is closed
+	 * @return {@code boolean} of {@code true} if the file was sent, {@code false}
+	 *         if the server does not have the replica APIs and nothing was done
+	 * @throws JargonException for iRODS error or if a stream fails
+	 */
+	boolean put(final File localFile, final String irodsAbsolutePath, final String resourceName, final boolean force,
+			final boolean computeChecksum) throws JargonException {
+
+		if (localFile == null) {
+			throw new IllegalArgumentException("null localFile");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		if (resourceName == null) {
+			throw new IllegalArgumentException("null resourceName");
+		}
+
+		final long length = localFile.length();
+		log.info("multi-stream put of {} with length:{}", irodsAbsolutePath, length);
+
+		Integer fd = openReplicaIfSupported(
+				DataObjInpForReplicaOpen.instanceForCreate(irodsAbsolutePath, length, resourceName, force));
+		if (fd == null) {
+			return false;
+		}
+
+		boolean closed = false;
+		try {
+			final JsonNode descriptorInfo = getFileDescriptorInfo(fd);
+			final String replicaToken = descriptorInfo.path(REPLICA_TOKEN).asText("");
+			final String resourceHierarchy = descriptorInfo.path(DATA_OBJECT_INFO).path(RESOURCE_HIERARCHY).asText("");
+			log.debug("replica token:{} hierarchy:{}", replicaToken, resourceHierarchy);
+
+			List<long[]> ranges = computeRanges(length, numberOfStreams);
+			List<StreamTask> streamTasks = new ArrayList<StreamTask>();
+			for (int i = 1; i < ranges.size(); i++) {
+				final long[] range = ranges.get(i);
+				streamTasks.add(new StreamTask() {
+					@Override
+					public void transfer() throws JargonException {
+						int streamFd = openReplica(DataObjInpForReplicaOpen.instanceForJoinedWrite(irodsAbsolutePath,
+								replicaToken, resourceHierarchy));
+						try {
+							writeRange(streamFd, localFile, range[0], range[1]);
+						} finally {
+							closeReplica(ReplicaCloseInput.instanceForCloseWithoutUpdate(streamFd));
+						}
+					}
+				});
+			}
+
+			long[] firstRange = ranges.get(0);
+			runStreams(streamTasks, fd, localFile, firstRange, true);
+
+			closed = true;
+			closeReplica(ReplicaCloseInput.instanceForFinalClose(fd, computeChecksum));
+		} finally {
+			if (!closed) {
+				// leave the replica stale rather than finalize a partial write
+				closeReplicaAfterError(ReplicaCloseInput.instanceForCloseWithoutUpdate(fd));
+			}
+		}
+
+		log.info("multi-stream put complete");
+		return true;
+	}
+
+	/**
+	 * Get a data object from iRODS over several streams
+	 *
+	 * @param irodsAbsolutePath {@code String} with the data object to read
+	 * @param resourceHierarchy {@code String} with the replica to read, may be
+	 *                          blank to let iRODS choose
+	 * @param localFile         {@link File} to write, which is created or
+	 *                          truncated
+	 * @param length            {@code long} with the length of the data object
+	 * @return {@code boolean} of {@code true} if the file was received,
+	 *         {@code false} if the server does not have the replica APIs and
+	 *         nothing was done
+	 * @throws JargonException for iRODS error or if a stream fails
+	 */
+	boolean get(final String irodsAbsolutePath, final String resourceHierarchy, final File localFile,
+			final long length) throws JargonException {
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		if (resourceHierarchy == null) {
+			throw new IllegalArgumentException("null resourceHierarchy");
+		}
+
+		if (localFile == null) {
+			throw new IllegalArgumentException("null localFile");
+		}
+
+		log.info("multi-stream get of {} with length:{}", irodsAbsolutePath, length);
+
+		Integer fd = openReplicaIfSupported(
+				DataObjInpForReplicaOpen.instanceForRead(irodsAbsolutePath, resourceHierarchy));
+		if (fd == null) {
+			return false;
+		}
+
+		boolean closed = false;
+		try {
+			String openedHierarchy = resourceHierarchy;
+			if (openedHierarchy.isEmpty()) {
+				openedHierarchy = getFileDescriptorInfo(fd).path(DATA_OBJECT_INFO).path(RESOURCE_HIERARCHY)
+						.asText("");
+			}
+			final String streamHierarchy = openedHierarchy;
+
+			try (RandomAccessFile randomAccessFile = new RandomAccessFile(localFile, "rw")) {
+				randomAccessFile.setLength(length);
+			} catch (IOException e) {
+				log.error("unable to create local file:{}", localFile, e);
+				throw new JargonException("unable to create local file", e);
+			}
+
+			List<long[]> ranges = computeRanges(length, numberOfStreams);
+			List<StreamTask> streamTasks = new ArrayList<StreamTask>();
+			for (int i = 1; i < ranges.size(); i++) {
+				final long[] range = ranges.get(i);
+				streamTasks.add(new StreamTask() {
+					@Override
+					public void transfer() throws JargonException {
+						int streamFd = openReplica(
+								DataObjInpForReplicaOpen.instanceForRead(irodsAbsolutePath, streamHierarchy));
+						try {
+							readRange(streamFd, localFile, range[0], range[1]);
+						} finally {
+							closeReplica(ReplicaCloseInput.instanceForCloseWithoutUpdate(streamFd));
+						}
+					}
+				});
+			}
+
+			runStreams(streamTasks, fd, localFile, ranges.get(0), false);
+
+			closed = true;
+			closeReplica(ReplicaCloseInput.instanceForCloseWithoutUpdate(fd));
+		} finally {
+			if (!closed) {
+				closeReplicaAfterError(ReplicaCloseInput.instanceForCloseWithoutUpdate(fd));
+			}
+		}
+
+		log.info("multi-stream get complete");
+		return true;
+	}
+
+	/**
+	 * Split a file into contiguous ranges, one per stream, of at least
+	 * {@link #MIN_RANGE_LENGTH} bytes where the file allows
+	 *
+	 * @param length          {@code long} with the length of the file
+	 * @param numberOfStreams {@code int} with the most streams to use
+	 * @return {@code List} of {@code long[]} holding the offset and length of each
+	 *         range, there is always at least one
+	 */
+	static List<long[]> computeRanges(final long length, final int numberOfStreams) {
+		long usefulStreams = Math.max(1L, length / MIN_RANGE_LENGTH);
+		int streams = (int) Math.min(Math.max(1, numberOfStreams), usefulStreams);
+		List<long[]> ranges = new ArrayList<long[]>(streams);
+		long offset = 0L;
+		for (int i = 0; i < streams; i++) {
+			long end = length * (i + 1) / streams;
+			ranges.add(new long[] { offset, end - offset });
+			offset = end;
+		}
+		return ranges;
+	}
+
+	/**
+	 * Run the other streams on their own threads and connections while the
+	 * calling thread moves the first range over the descriptor it opened. The
+	 * first error in any stream stops the others at their next buffer, and this
+	 * waits for all of them to close their descriptors before throwing it.
+	 */
+	private void runStreams(final List<StreamTask> streamTasks, final int fd, final File localFile,
+			final long[] firstRange, final boolean isPut) throws JargonException {
+
+		streamError.set(null);
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		if (!streamTasks.isEmpty()) {
+			log.info("starting {} additional streams", streamTasks.size());
+			ExecutorService executor = Executors.newFixedThreadPool(streamTasks.size(), new StreamThreadFactory());
+			for (final StreamTask streamTask : streamTasks) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try {
+							streamTask.transfer();
+							return null;
+						} catch (JargonException | RuntimeException e) {
+							stopStreams(e);
+							throw e;
+						}
+					}
+				}));
+			}
+			executor.shutdown();
+		}
+
+		try {
+			if (isPut) {
+				writeRange(fd, localFile, firstRange[0], firstRange[1]);
+			} else {
+				readRange(fd, localFile, firstRange[0], firstRange[1]);
+			}
+		} catch (JargonException | RuntimeException e) {
+			log.error("error in first stream", e);
+			stopStreams(e);
+		}
+
+		boolean interrupted = false;
+		for (Future<Void> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					log.warn("interrupted waiting for transfer streams, stopping them");
+					interrupted = true;
+					stopStreams(new JargonException("interrupted waiting for transfer streams", e));
+				} catch (ExecutionException e) {
+					log.error("error in transfer stream", e.getCause());
+					stopStreams(e.getCause());
+					break;
+				}
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		JargonException error = streamError.get();
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Record the first error of the transfer, which the other streams see in
+	 * {@link #checkCancelled()}
+	 */
+	private void stopStreams(final Throwable cause) {
+		JargonException error = cause instanceof JargonException ? (JargonException) cause
+				: new JargonException("error in transfer stream", cause);
+		streamError.compareAndSet(null, error);
+	}
+
+	private void writeRange(final int fd, final File localFile, final long offset, final long length)
+			throws JargonException {
+
+		log.debug("writing range at offset:{} length:{}", offset, length);
+		if (length == 0) {
+			return;
+		}
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(localFile, "r")) {
+			FileChannel channel = randomAccessFile.getChannel();
+			byte[] buffer = new byte[(int) Math.min(bufferSize, length)];
+			ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+			fileIOOperations.seek(fd, offset, SeekWhenceType.SEEK_START);
+			long position = offset;
+			long remaining = length;
+			while (remaining > 0) {
+				checkCancelled();
+				byteBuffer.clear();
+				byteBuffer.limit((int) Math.min(buffer.length, remaining));
+				int read = channel.read(byteBuffer, position);
+				if (read == -1) {
+					throw new JargonException("local file is shorter than expected:" + localFile);
+				}
+				fileIOOperations.write(fd, buffer, 0, read);
+				position += read;
+				remaining -= read;
+				progress(read, true);
+			}
+		} catch (IOException e) {
+			log.error("io exception reading local file:{}", localFile, e);
+			throw new JargonException("io exception reading local file", e);
+		}
+	}
+
+	private void readRange(final int fd, final File localFile, final long offset, final long length)
+			throws JargonException {
+
+		log.debug("reading range at offset:{} length:{}", offset, length);
+		if (length == 0) {
+			return;
+		}
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(localFile, "rw")) {
+			FileChannel channel = randomAccessFile.getChannel();
+			byte[] buffer = new byte[(int) Math.min(bufferSize, length)];
+			fileIOOperations.seek(fd, offset, SeekWhenceType.SEEK_START);
+			long position = offset;
+			long remaining = length;
+			while (remaining > 0) {
+				checkCancelled();
+				int read = fileIOOperations.fileRead(fd, buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (read <= 0) {
+					throw new JargonException("data object is shorter than expected, ended at:" + position);
+				}
+				ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+				while (byteBuffer.hasRemaining()) {
+					position += channel.write(byteBuffer, position);
+				}
+				remaining -= read;
+				progress(read, false);
+			}
+		} catch (IOException e) {
+			log.error("io exception writing local file:{}", localFile, e);
+			throw new JargonException("io exception writing local file", e);
+		}
+	}
+
+	/**
+	 * Called by each stream before each buffer, so streams stop on their own, and
+	 * close their descriptors, when the transfer is cancelled or another stream
+	 * has failed
+	 */
+	private void checkCancelled() throws JargonException {
+		if (streamError.get() != null) {
+			throw new JargonException("transfer stopped after an error in another stream");
+		}
+
+		if (transferControlBlock != null && transferControlBlock.isCancelled()) {
+			throw new JargonException("transfer cancelled");
+		}
+	}
+
+	private void progress(final long length, final boolean isPut) {
+		if (connectionProgressStatusListener != null) {
+			connectionProgressStatusListener.connectionProgressStatusCallback(isPut
+					? ConnectionProgressStatus.instanceForSend(length)
+					: ConnectionProgressStatus.instanceForReceive(length));
+		}
+	}
+
+	/**
+	 * Open a replica on this thread's connection, noting in the cache if the server
+	 * does not have the API
+	 *
+	 * @return {@code Integer} with the descriptor, or {@code null} if the API is
+	 *         not supported
+	 */
+	private Integer openReplicaIfSupported(final DataObjInpForReplicaOpen dataObjInp) throws JargonException {
+
+		DiscoveredServerPropertiesCache cache = irodsSession.getDiscoveredServerPropertiesCache();
+		if (DiscoveredServerPropertiesCache.IS_FALSE.equals(cache.retrieveValue(irodsAccount.getHost(),
+				irodsAccount.getZone(), DiscoveredServerPropertiesCache.REPLICA_ACCESS_SUPPORTED))) {
+			log.debug("replica access apis not supported by server");
+			return null;
+		}
+
+		try {
+			int fd = openReplica(dataObjInp);
+			cache.cacheAProperty(irodsAccount.getHost(), irodsAccount.getZone(),
+					DiscoveredServerPropertiesCache.REPLICA_ACCESS_SUPPORTED, DiscoveredServerPropertiesCache.IS_TRUE);
+			return fd;
+		} catch (JargonException je) {
+			if (je.getUnderlyingIRODSExceptionCode() == ErrorEnum.SYS_UNMATCHED_API_NUM.getInt()
+					&& fileIOOperations.getIRODSProtocol().isConnected()) {
+				log.info("server does not support replica access apis, will use the usual transfer");
+				cache.cacheAProperty(irodsAccount.getHost(), irodsAccount.getZone(),
+						DiscoveredServerPropertiesCache.REPLICA_ACCESS_SUPPORTED,
+						DiscoveredServerPropertiesCache.IS_FALSE);
+				return null;
+			}
+			throw je;
+		}
+	}
+
+	private int openReplica(final DataObjInpForReplicaOpen dataObjInp) throws JargonException {
+		Tag response = fileIOOperations.getIRODSProtocol().irodsFunction(dataObjInp);
+		if (response == null) {
+			throw new JargonException("null response from replica open");
+		}
+		int fd = response.getTag(MsgHeader.PI_NAME).getTag(MsgHeader.INT_INFO).getIntValue();
+		log.debug("opened replica with fd:{}", fd);
+		return fd;
+	}
+
+	private JsonNode getFileDescriptorInfo(final int fd) throws JargonException {
+		ApiPluginExecutorImpl<FileDescriptorInfoInput, JsonNode> executor = new ApiPluginExecutorImpl<FileDescriptorInfoInput, JsonNode>(
+				irodsSession, irodsAccount);
+		JsonNode descriptorInfo = executor.callPluggableApi(ApiPluginConstants.GET_FILE_DESCRIPTOR_INFO_APN,
+				new FileDescriptorInfoInput(fd), JsonNode.class);
+		if (descriptorInfo == null) {
+			throw new JargonException("no file descriptor info returned for fd:" + fd);
+		}
+		return descriptorInfo;
+	}
+
+	private void closeReplica(final ReplicaCloseInput replicaCloseInput) throws JargonException {
+		log.debug("closing replica:{}", replicaCloseInput);
+		ApiPluginExecutorImpl<ReplicaCloseInput, JsonNode> executor = new ApiPluginExecutorImpl<ReplicaCloseInput, JsonNode>(
+				irodsSession, irodsAccount);
+		executor.callPluggableApi(ApiPluginConstants.REPLICA_CLOSE_APN, replicaCloseInput, JsonNode.class);
+	}
+
+	private void closeReplicaAfterError(final ReplicaCloseInput replicaCloseInput) {
+		try {
+			closeReplica(replicaCloseInput);
+		} catch (JargonException e) {
+			log.warn("error closing replica after a failed transfer, ignored", e);
+		}
+	}
+
+	/**
+	 * The transfer of one range on a stream thread
+	 */
+	private interface StreamTask {
+		void transfer() throws JargonException;
+	}
+
+	/**
+	 * Creates stream threads that give back their per-thread connection when they
+	 * exit
+	 */
+	private final class StreamThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						runnable.run();
+					} finally {
+						try {
+							irodsSession.closeSession(irodsAccount);
+						} catch (JargonException e) {
+							log.warn("error closing connection for transfer stream, ignored", e);
+						}
+					}
+				}
+			}, "jargon-transfer-stream-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.PipelinedResponse;
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.DuplicateDataException;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.InvalidUserException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.ModAccessControlInp;
+import org.irods.jargon.core.packinstr.ModAvuMetadataInp;
+import org.irods.jargon.core.protovalues.FilePermissionEnum;
+import org.irods.jargon.core.pub.BulkAVUOperationResponse.ResultStatus;
+import org.irods.jargon.core.pub.domain.AvuData;
+import org.irods.jargon.core.pub.domain.UserFilePermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the requests of a bulk AVU or ACL operation with
+ * {@link IRODSMidLevelProtocol#irodsFunctionPipelined(List, int)} and turns
+ * the responses into per item results, so that an expected failure of one
+ * item does not stop the rest of the batch.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+final class PipelinedRequestHelper {
+
+	private static final Logger log = LoggerFactory.getLogger(PipelinedRequestHelper.class);
+
+	private PipelinedRequestHelper() {
+	}
+
+	/**
+	 * Send AVU requests and report the outcome of each. A missing target or a
+	 * duplicate AVU is reported for its item. Any other error is thrown once all
+	 * of the responses have been read, as it was when the AVUs were sent one by
+	 * one, though the requests after it have by then been sent as well.
+	 *
+	 * @param irodsProtocol      {@link IRODSMidLevelProtocol} to send on
+	 * @param window             {@code int} with the pipelined request window
+	 * @param requests           {@code List} of {@link ModAvuMetadataInp}
+	 * @param avuData            {@code List} of {@link AvuData} in the same order
+	 *                           as the requests
+	 * @param missingTargetError {@code String} with the iRODS error code that
+	 *                           means the target does not exist
+	 * @return {@code List} of {@link BulkAVUOperationResponse}
+	 * @throws JargonException if the connection fails, or for the first error that
+	 *                         is not a missing target or duplicate AVU
+	 */
+	static List<BulkAVUOperationResponse> sendAvuRequests(final IRODSMidLevelProtocol irodsProtocol,
+			final int window, final List<ModAvuMetadataInp> requests, final List<AvuData> avuData,
+			final String missingTargetError) throws JargonException {
+
+		List<PipelinedResponse> pipelinedResponses = irodsProtocol.irodsFunctionPipelined(requests, window);
+		List<BulkAVUOperationResponse> responses = new ArrayList<BulkAVUOperationResponse>(requests.size());
+		JargonException unexpected = null;
+
+		for (int i = 0; i < pipelinedResponses.size(); i++) {
+			AvuData value = avuData.get(i);
+			JargonException je = pipelinedResponses.get(i).getException();
+			if (je == null) {
+				responses.add(BulkAVUOperationResponse.instance(ResultStatus.OK, value, ""));
+			} else if (je instanceof DataNotFoundException || je instanceof FileNotFoundException
+					|| String.valueOf(je.getMessage()).indexOf(missingTargetError) > -1) {
+				log.warn("target not found for AVU:{}", value);
+				responses.add(BulkAVUOperationResponse.instance(ResultStatus.MISSING_METADATA_TARGET, value,
+						String.valueOf(je.getMessage())));
+			} else if (je instanceof DuplicateDataException
+					|| String.valueOf(je.getMessage()).indexOf("-809000") > -1) {
+				log.warn("duplicate AVU:{}", value);
+				responses.add(BulkAVUOperationResponse.instance(ResultStatus.DUPLICATE_AVU, value,
+						String.valueOf(je.getMessage())));
+			} else {
+				log.error("error in AVU operation for:{}", value, je);
+				if (unexpected == null) {
+					unexpected = je;
+				}
+			}
+		}
+
+		if (unexpected != null) {
+			throw unexpected;
+		}
+
+		return responses;
+	}
+
+	/**
+	 * Send ACL requests and report the outcome of each
+	 *
+	 * @param irodsProtocol   {@link IRODSMidLevelProtocol} to send on
+	 * @param window          {@code int} with the pipelined request window
+	 * @param requests        {@code List} of {@link ModAccessControlInp}
+	 * @param userPermissions {@code List} of {@link UserFilePermission} in the
+	 *                        same order as the requests
+	 * @param absolutePath    {@code String} with the target path
+	 * @return {@code List} of {@link BulkACLOperationResponse}
+	 * @throws JargonException if the connection fails
+	 */
+	static List<BulkACLOperationResponse> sendAclRequests(final IRODSMidLevelProtocol irodsProtocol,
+			final int window, final List<ModAccessControlInp> requests,
+			final List<UserFilePermission> userPermissions, final String absolutePath) throws JargonException {
+
+		List<PipelinedResponse> pipelinedResponses = irodsProtocol.irodsFunctionPipelined(requests, window);
+		List<BulkACLOperationResponse> responses = new ArrayList<BulkACLOperationResponse>(requests.size());
+
+		for (int i = 0; i < pipelinedResponses.size(); i++) {
+			UserFilePermission value = userPermissions.get(i);
+			JargonException je = pipelinedResponses.get(i).getException();
+			if (je == null) {
+				responses.add(BulkACLOperationResponse.instance(BulkACLOperationResponse.ResultStatus.OK, value, "",
+						absolutePath));
+			} else if (je instanceof DataNotFoundException || je instanceof FileNotFoundException) {
+				log.warn("target not found for ACL:{}", value);
+				responses.add(BulkACLOperationResponse.instance(BulkACLOperationResponse.ResultStatus.MISSING_ACL_TARGET,
+						value, String.valueOf(je.getMessage()), absolutePath));
+			} else if (je instanceof InvalidUserException) {
+				log.warn("invalid user for ACL:{}", value);
+				responses.add(BulkACLOperationResponse.instance(BulkACLOperationResponse.ResultStatus.INVALID_USER,
+						value, String.valueOf(je.getMessage()), absolutePath));
+			} else {
+				log.error("error in ACL operation for:{}", value, je);
+				responses.add(BulkACLOperationResponse.instance(BulkACLOperationResponse.ResultStatus.OTHER_ERROR,
+						value, String.valueOf(je.getMessage()), absolutePath));
+			}
+		}
+
+		return responses;
+	}
+
+	/**
+	 * Translate a permission to the value sent in a {@link ModAccessControlInp}
+	 *
+	 * @param filePermissionEnum {@link FilePermissionEnum} to set
+	 * @return {@code String} with the iRODS permission value
+	 */
+	static String translatePermission(final FilePermissionEnum filePermissionEnum) {
+		if (filePermissionEnum == null) {
+			throw new IllegalArgumentException("null filePermissionEnum");
+		}
+
+		switch (filePermissionEnum) {
+		case READ:
+			return ModAccessControlInp.READ_PERMISSION;
+		case WRITE:
+			return ModAccessControlInp.WRITE_PERMISSION;
+		case OWN:
+			return ModAccessControlInp.OWN_PERMISSION;
+		case NULL:
+		case NONE:
+			return ModAccessControlInp.NULL_PERMISSION;
+		default:
+			throw new IllegalArgumentException("permission cannot be set in bulk:" + filePermissionEnum);
+		}
+	}
+
+}
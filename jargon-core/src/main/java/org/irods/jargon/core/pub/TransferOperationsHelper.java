@@ -86,6 +86,39 @@ final class TransferOperationsHelper {
 			final TransferStatusCallbackListener transferStatusCallbackListener,
 			final TransferControlBlock transferControlBlock)
 			throws OverwriteException, FileNotFoundException, JargonException {
+		recursivelyGet(irodsSourceFile, targetLocalFile, transferStatusCallbackListener, transferControlBlock, null);
+	}
+
+	/**
+	 * Recursively get a file from iRODS, handing each data object to the given
+	 * {@link ConcurrentFileTransferEngine} so that several files are retrieved at
+	 * once. Collections are walked, and local directories created, on the calling
+	 * thread. If the engine is {@code null} each file is retrieved in turn on the
+	 * calling thread.
+	 *
+	 * @param irodsSourceFile
+	 *            {@link org.irods.jargon.core.pub.io.IRODSFile} that points to the
+	 *            file or collection to retrieve.
+	 * @param targetLocalFile
+	 *            {@code File} that will hold the retrieved data.
+	 * @param transferStatusCallbackListener
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            implementation that will receive callbacks indicating the
+	 *            real-time status of the transfer.
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock} that
+	 *            is shared by all of the files in the transfer. This is required.
+	 * @param concurrentFileTransferEngine
+	 *            {@link ConcurrentFileTransferEngine} that will run the transfer of
+	 *            each file, or {@code null}
+	 * @throws FileNotFoundException
+	 * @throws JargonException
+	 */
+	void recursivelyGet(final IRODSFile irodsSourceFile, final File targetLocalFile,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock,
+			final ConcurrentFileTransferEngine concurrentFileTransferEngine)
+			throws OverwriteException, FileNotFoundException, JargonException {
 
 		log.info("recursively getting source file: {}", irodsSourceFile.getAbsolutePath());
 		log.info("    into iRODS file: {}", targetLocalFile.getAbsolutePath());
@@ -97,6 +130,11 @@ final class TransferOperationsHelper {
 				transferControlBlock.setCancelled(true);
 			}
 
+			if (concurrentFileTransferEngine != null && concurrentFileTransferEngine.isFailed()) {
+				log.info("a concurrent file transfer failed, stop handing out files");
+				return;
+			}
+
 			/**
 			 * See if I want to close and renew the socket
 			 */
@@ -154,8 +192,22 @@ final class TransferOperationsHelper {
 					}
 
 					recursivelyGet((IRODSFile) fileInSourceCollection, newSubCollection, transferStatusCallbackListener,
-							transferControlBlock);
-
+							transferControlBlock, concurrentFileTransferEngine);
+
+				} else if (concurrentFileTransferEngine != null) {
+					final IRODSFile irodsFileToGet = (IRODSFile) fileInSourceCollection;
+					concurrentFileTransferEngine.submit(new ConcurrentFileTransferEngine.FileTransferTask() {
+						@Override
+						public void transfer() throws JargonException {
+							if (transferControlBlock.isCancelled() || transferControlBlock.isPaused()) {
+								log.debug("skipping queued get, transfer is cancelled or paused");
+								return;
+							}
+							checkRenewalOfSocketForThisThread();
+							processGetOfSingleFile(irodsFileToGet, targetLocalFile, transferStatusCallbackListener,
+									transferControlBlock);
+						}
+					});
 				} else {
 					processGetOfSingleFile((IRODSFile) fileInSourceCollection, targetLocalFile,
 							transferStatusCallbackListener, transferControlBlock);
@@ -375,6 +427,40 @@ final class TransferOperationsHelper {
 			final TransferStatusCallbackListener transferStatusCallbackListener,
 			final TransferControlBlock transferControlBlock)
 			throws OverwriteException, DataNotFoundException, JargonException {
+		recursivelyPut(sourceFile, targetIrodsCollection, transferStatusCallbackListener, transferControlBlock, null);
+	}
+
+	/**
+	 * Method to recursively put a collection, handing each file to the given
+	 * {@link ConcurrentFileTransferEngine} so that several files are sent at once.
+	 * The local tree is walked, and iRODS collections created, on the calling
+	 * thread, so that a collection always exists before any file is put into it.
+	 * If the engine is {@code null} each file is sent in turn on the calling
+	 * thread.
+	 *
+	 * @param sourceFile
+	 *            {@code File} that is the local directory to put
+	 * @param targetIrodsCollection
+	 *            {@link IRODSFile} that is the collection that will receive the
+	 *            files
+	 * @param transferStatusCallbackListener
+	 *            an optional
+	 *            {@link org.irods.jargon.core.transfer.TransferStatusCallbackListener}
+	 *            that can receive status callbacks. This may be set to null if this
+	 *            functionality is not required.
+	 * @param transferControlBlock
+	 *            {@link org.irods.jargon.core.transfer.TransferControlBlock} that
+	 *            is shared by all of the files in the transfer.
+	 * @param concurrentFileTransferEngine
+	 *            {@link ConcurrentFileTransferEngine} that will run the transfer of
+	 *            each file, or {@code null}
+	 * @throws JargonException
+	 */
+	void recursivelyPut(final File sourceFile, final IRODSFile targetIrodsCollection,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock,
+			final ConcurrentFileTransferEngine concurrentFileTransferEngine)
+			throws OverwriteException, DataNotFoundException, JargonException {
 
 		if (sourceFile == null) {
 			throw new IllegalArgumentException("null source file");
@@ -419,10 +505,18 @@ final class TransferOperationsHelper {
 								.currentConnectionCheckRenewalOfSocket(collectionAO.getIRODSAccount());
 					}
 
+					if (concurrentFileTransferEngine != null && concurrentFileTransferEngine.isFailed()) {
+						log.info("a concurrent file transfer failed, stop handing out files");
+						break;
+					}
+
 					if (fileInSourceCollection.isDirectory()) {
 						recursivelyPutACollection(targetIrodsCollection, transferStatusCallbackListener,
-								transferControlBlock, fileInSourceCollection);
+								transferControlBlock, fileInSourceCollection, concurrentFileTransferEngine);
 
+					} else if (concurrentFileTransferEngine != null) {
+						submitPutOfSingleFile(fileInSourceCollection, targetIrodsCollection,
+								transferStatusCallbackListener, transferControlBlock, concurrentFileTransferEngine);
 					} else {
 
 						processPutOfSingleFile(fileInSourceCollection, targetIrodsCollection,
@@ -532,11 +626,13 @@ final class TransferOperationsHelper {
 	 * @param transferStatusCallbackListener
 	 * @param transferControlBlock
 	 * @param fileInSourceCollection
+	 * @param concurrentFileTransferEngine
 	 * @throws JargonException
 	 */
 	private void recursivelyPutACollection(final IRODSFile targetIrodsCollection,
 			final TransferStatusCallbackListener transferStatusCallbackListener,
-			final TransferControlBlock transferControlBlock, final File fileInSourceCollection)
+			final TransferControlBlock transferControlBlock, final File fileInSourceCollection,
+			final ConcurrentFileTransferEngine concurrentFileTransferEngine)
 			throws OverwriteException, DataNotFoundException, JargonException {
 
 		// make a dir in the target collection
@@ -552,7 +648,7 @@ final class TransferOperationsHelper {
 		try {
 			newSubCollection.mkdirs();
 			recursivelyPut(fileInSourceCollection, newSubCollection, transferStatusCallbackListener,
-					transferControlBlock);
+					transferControlBlock, concurrentFileTransferEngine);
 		} catch (JargonException je) {
 
 			if (!transferControlBlock.isCancelled()) {
@@ -571,6 +667,61 @@ final class TransferOperationsHelper {
 		}
 	}
 
+	/**
+	 * Queue the put of a single file found during a recursive put. The target
+	 * data object path is resolved here, on the walking thread, so that the
+	 * workers do not share the target collection {@code IRODSFile}.
+	 *
+	 * @param sourceFile
+	 *            {@code File} to put
+	 * @param targetIrodsCollection
+	 *            {@link IRODSFile} collection that will hold the file
+	 * @param transferStatusCallbackListener
+	 *            {@link TransferStatusCallbackListener}, may be {@code null}
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} shared by the transfer
+	 * @param concurrentFileTransferEngine
+	 *            {@link ConcurrentFileTransferEngine} that will run the put
+	 * @throws JargonException
+	 */
+	private void submitPutOfSingleFile(final File sourceFile, final IRODSFile targetIrodsCollection,
+			final TransferStatusCallbackListener transferStatusCallbackListener,
+			final TransferControlBlock transferControlBlock,
+			final ConcurrentFileTransferEngine concurrentFileTransferEngine) throws JargonException {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(targetIrodsCollection.getAbsolutePath());
+		sb.append("/");
+		sb.append(sourceFile.getName());
+		final IRODSFile targetFileAsFile = collectionAO.getIRODSFileFactory().instanceIRODSFile(sb.toString());
+		targetFileAsFile.setResource(targetIrodsCollection.getResource());
+
+		concurrentFileTransferEngine.submit(new ConcurrentFileTransferEngine.FileTransferTask() {
+			@Override
+			public void transfer() throws JargonException {
+				if (transferControlBlock.isCancelled() || transferControlBlock.isPaused()) {
+					log.debug("skipping queued put, transfer is cancelled or paused");
+					return;
+				}
+				checkRenewalOfSocketForThisThread();
+				processPutOfSingleFile(sourceFile, targetFileAsFile, transferStatusCallbackListener,
+						transferControlBlock);
+			}
+		});
+	}
+
+	/**
+	 * Connections are per-thread, so each worker in a concurrent transfer checks
+	 * its own connection for renewal before each file.
+	 *
+	 * @throws JargonException
+	 */
+	private void checkRenewalOfSocketForThisThread() throws JargonException {
+		if (collectionAO.getIRODSProtocol().getPipelineConfiguration().getSocketRenewalIntervalInSeconds() > 0) {
+			collectionAO.getIRODSSession().currentConnectionCheckRenewalOfSocket(collectionAO.getIRODSAccount());
+		}
+	}
+
 	/**
 	 * Method to recursively replicate a collection. This method can monitor for a
 	 * cancellation, and can also provide callbacks to a process.
@@ -1323,6 +1323,11 @@ public class IRODSFileImpl extends File implements IRODSFile {
 
 		}
 
+		if (openFlags != OpenFlags.READ) {
+			// size and modify time are only final once a write is closed
+			irodsFileSystemAO.getIRODSSession().invalidateObjStatAndListingCache(getAbsolutePath());
+		}
+
 		setFileDescriptor(-1);
 
 	}
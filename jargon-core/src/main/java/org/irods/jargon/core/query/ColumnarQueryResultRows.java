@@ -0,0 +1,163 @@
+package org.irods.jargon.core.query;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+
+/**
+ * Rows of a GenQuery or specific query result, held as one value array per
+ * attribute column, as the values arrive from iRODS in the
+ * {@code GenQueryOut_PI}.
+ * <p>
+ * Each {@link IRODSQueryResultRow} is created only when it is asked for, and
+ * its column values are a read-only view onto the column arrays rather than a
+ * copy. Callers that only need a few values can use
+ * {@link #getValue(int, int)} or {@link #getRowView(int)} and avoid creating
+ * row objects at all.
+ * <p>
+ * This list is immutable.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public final class ColumnarQueryResultRows extends AbstractList<IRODSQueryResultRow> implements RandomAccess {
+
+	private final String[][] columns;
+	private final int rowCount;
+	private final List<String> columnNames;
+	private final int firstRecordCount;
+	private final boolean lastRecord;
+
+	/**
+	 * Build from the column arrays of a query result
+	 *
+	 * @param columns
+	 *            {@code String[][]} with one array per attribute column, each
+	 *            holding at least {@code rowCount} values. The arrays are held,
+	 *            not copied, and must not be changed afterwards.
+	 * @param rowCount
+	 *            {@code int} with the number of rows
+	 * @param columnNames
+	 *            {@code List<String>} with the column names
+	 * @param firstRecordCount
+	 *            {@code int} with the record count of the first row, counting from
+	 *            1 across pages of the query
+	 * @param lastRecord
+	 *            {@code boolean} of {@code true} if this is the last page of
+	 *            results
+	 * @return {@code ColumnarQueryResultRows}
+	 */
+	public static ColumnarQueryResultRows instance(final String[][] columns, final int rowCount,
+			final List<String> columnNames, final int firstRecordCount, final boolean lastRecord) {
+		return new ColumnarQueryResultRows(columns, rowCount, columnNames, firstRecordCount, lastRecord);
+	}
+
+	private ColumnarQueryResultRows(final String[][] columns, final int rowCount, final List<String> columnNames,
+			final int firstRecordCount, final boolean lastRecord) {
+
+		if (columns == null) {
+			throw new IllegalArgumentException("null columns");
+		}
+
+		if (rowCount < 0) {
+			throw new IllegalArgumentException("rowCount < 0");
+		}
+
+		if (columnNames == null) {
+			throw new IllegalArgumentException("null columnNames");
+		}
+
+		for (String[] column : columns) {
+			if (column == null || column.length < rowCount) {
+				throw new IllegalArgumentException("column does not hold a value for each row");
+			}
+		}
+
+		this.columns = columns;
+		this.rowCount = rowCount;
+		this.columnNames = columnNames;
+		this.firstRecordCount = firstRecordCount;
+		this.lastRecord = lastRecord;
+	}
+
+	@Override
+	public int size() {
+		return rowCount;
+	}
+
+	/**
+	 * Create the row object for the given row
+	 */
+	@Override
+	public IRODSQueryResultRow get(final int index) {
+		try {
+			return IRODSQueryResultRow.instance(getRowView(index), columnNames, firstRecordCount + index,
+					lastRecord);
+		} catch (JargonException e) {
+			// only thrown for null arguments, which are checked when built
+			throw new JargonRuntimeException("unable to create result row", e);
+		}
+	}
+
+	/**
+	 * @return {@code int} with the number of attribute columns
+	 */
+	public int getColumnCount() {
+		return columns.length;
+	}
+
+	/**
+	 * Get a single value without creating a row
+	 *
+	 * @param row
+	 *            {@code int} with the 0 based row
+	 * @param column
+	 *            {@code int} with the 0 based column
+	 * @return {@code String} with the value
+	 */
+	public String getValue(final int row, final int column) {
+		checkRow(row);
+		return columns[column][row];
+	}
+
+	/**
+	 * Get a read-only view of the values in a row, this does not copy the values
+	 *
+	 * @param row
+	 *            {@code int} with the 0 based row
+	 * @return {@code List<String>} with the value for each column of the row
+	 */
+	public List<String> getRowView(final int row) {
+		checkRow(row);
+		return new RowView(row);
+	}
+
+	private void checkRow(final int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException("row:" + row + " size:" + rowCount);
+		}
+	}
+
+	private final class RowView extends AbstractList<String> implements RandomAccess {
+
+		private final int row;
+
+		RowView(final int row) {
+			this.row = row;
+		}
+
+		@Override
+		public String get(final int column) {
+			return columns[column][row];
+		}
+
+		@Override
+		public int size() {
+			return columns.length;
+		}
+	}
+
+}
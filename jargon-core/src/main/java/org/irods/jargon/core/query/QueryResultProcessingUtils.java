@@ -25,7 +25,8 @@ public class QueryResultProcessingUtils {
 
 	/**
 	 * Given the raw response from iRODS, translate into a list of result rows for
-	 * easier processing.
+	 * easier processing. The values are kept by column, and row objects are only
+	 * created as the list is read, see {@link ColumnarQueryResultRows}.
 	 *
 	 * @param queryResponse
 	 *            {@code Tag} set with the raw GenQuery response from iRODS.
@@ -56,9 +57,6 @@ public class QueryResultProcessingUtils {
 		int rows = queryResponse.getTag(GenQueryOut.ROW_CNT).getIntValue();
 		log.info("rows returned from iRODS query: {}", rows);
 
-		List<IRODSQueryResultRow> resultSet = new ArrayList<IRODSQueryResultRow>(rows);
-		List<String> row;
-
 		int recordCount;
 		if (partialStartIndex == 0) {
 			recordCount = 1;
@@ -71,18 +69,21 @@ public class QueryResultProcessingUtils {
 
 		int attributes = queryResponse.getTag(GenQueryOut.ATTRIB_CNT).getIntValue();
 
-		for (int i = 0; i < rows; i++) {
-			// new row
-			row = new ArrayList<String>();
-			for (int j = 0; j < attributes; j++) {
-
-				row.add(queryResponse.getTags()[4 + j].getTags()[2 + i].getStringValue());
+		/*
+		 * each SqlResult_PI holds one attribute for all rows, after its attriInx and
+		 * reslen, so keep the values column by column
+		 */
+		String[][] columns = new String[attributes][];
+		for (int j = 0; j < attributes; j++) {
+			Tag sqlResult = queryResponse.getTag(4 + j);
+			String[] column = new String[rows];
+			for (int i = 0; i < rows; i++) {
+				column[i] = sqlResult.getTag(2 + i).getStringValue();
 			}
-
-			resultSet.add(IRODSQueryResultRow.instance(row, columnNames, recordCount++, lastRecord));
+			columns[j] = column;
 		}
 
-		return resultSet;
+		return ColumnarQueryResultRows.instance(columns, rows, columnNames, recordCount, lastRecord);
 
 	}
 
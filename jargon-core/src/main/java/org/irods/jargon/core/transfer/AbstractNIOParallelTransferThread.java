@@ -1,16 +1,33 @@
 package org.irods.jargon.core.transfer;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 
+import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.JargonException;
-import org.irods.jargon.core.utils.Host;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Abstract superclasss for a parallel file transfer operation via NIO
+ * Abstract superclasss for a parallel file transfer operation via NIO.
+ * <p>
+ * The parallel socket is a {@link SocketChannel} kept in non-blocking mode, and
+ * each read or write that cannot make progress waits on a per-thread
+ * {@link Selector}. This keeps the parallel socket timeout in force for channel
+ * operations, which would otherwise block without limit. Unencrypted file
+ * segments move between the local {@link FileChannel} and the socket without
+ * passing through the Java heap, see
+ * {@link #transferFileToChannel(FileChannel, long, long, int, ChunkListener)}
+ * and
+ * {@link #transferChannelToFile(FileChannel, long, long, int, ChunkListener)}.
  *
  * @author Mike Conway - DICE (www.irods.org)
  *
@@ -20,66 +37,279 @@ public class AbstractNIOParallelTransferThread {
 	protected static final String IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER = "IOException occurred during parallel file transfer";
 	protected static final String IO_EXEPTION_IN_PARALLEL_TRANSFER = "IOExeption in parallel transfer";
 	private SocketChannel s;
+	private Selector selector;
+	private SelectionKey selectionKey;
+	private long socketTimeoutMillis = 0;
+
+	/**
+	 * Holds header values (ints and longs) read from or written to the socket
+	 */
+	private final ByteBuffer headerBuffer = ByteBuffer.allocate(8);
+
+	/**
+	 * Direct buffers used to land socket data on the way to a file channel. These
+	 * are kept per-thread so that the parallel transfer thread pool reuses them
+	 * across files rather than allocating off-heap memory for each transfer.
+	 */
+	private static final ThreadLocal<ByteBuffer> transferBuffers = new ThreadLocal<ByteBuffer>();
 
 	private Exception exceptionInTransfer = null;
 	public static final int DONE_OPR = 9999;
 	public static final int PUT_OPR = 1;
 	public static final int GET_OPR = 2;
+	/**
+	 * Index of the given thread. 0 based index
+	 */
+	private final int threadNumber;
 
 	public static final Logger log = LoggerFactory.getLogger(AbstractNIOParallelTransferThread.class);
 
-	protected AbstractNIOParallelTransferThread() {
+	protected AbstractNIOParallelTransferThread(final int threadNumber) {
 		super();
+		this.threadNumber = threadNumber;
 	}
 
-	private ByteBuffer readLenFromSocket(final int length) throws JargonException {
-		final ByteBuffer b = ByteBuffer.allocate(length);
+	/**
+	 * Open the channel to the parallel transfer port, applying the socket options
+	 * from the pipeline configuration, and switch it to non-blocking mode
+	 *
+	 * @param host                        {@code String} with the host to connect to
+	 * @param port                        {@code int} with the parallel transfer
+	 *                                    port
+	 * @param pipelineConfiguration       {@link PipelineConfiguration} with tcp
+	 *                                    options
+	 * @param parallelSocketTimeoutInSecs {@code int} with the timeout for each
+	 *                                    read or write, 0 means wait indefinitely
+	 * @throws IOException for socket errors
+	 */
+	protected void connect(final String host, final int port, final PipelineConfiguration pipelineConfiguration,
+			final int parallelSocketTimeoutInSecs) throws IOException {
 
-		int read;
-		int tot = 0;
-		try {
+		log.debug("opening socket channel to parallel transfer (high) port at port:{}", port);
+		SocketChannel channel = SocketChannel.open();
+		setS(channel);
+		Socket socket = channel.socket();
 
-			read = getS().read(b);
-			while (read != -1) {
-				if (Thread.interrupted()) {
-					throw new IOException(
+		if (pipelineConfiguration.getParallelTcpSendWindowSize() > 0) {
+			socket.setSendBufferSize(pipelineConfiguration.getParallelTcpSendWindowSize() * 1024);
+		}
 
-							"interrupted, consider connection corrupted and return IOException to clear");
-				}
-				tot += read;
-				if (tot == length) {
-					break;
-				}
-				read = getS().read(b);
+		if (pipelineConfiguration.getParallelTcpReceiveWindowSize() > 0) {
+			socket.setReceiveBufferSize(pipelineConfiguration.getParallelTcpReceiveWindowSize() * 1024);
+		}
+
+		socket.setPerformancePreferences(pipelineConfiguration.getParallelTcpPerformancePrefsConnectionTime(),
+				pipelineConfiguration.getParallelTcpPerformancePrefsLatency(),
+				pipelineConfiguration.getParallelTcpPerformancePrefsBandwidth());
+		socket.setKeepAlive(pipelineConfiguration.isParallelTcpKeepAlive());
+
+		// assume reuse, nodelay
+		socket.setReuseAddress(true);
+		socket.setTcpNoDelay(false);
 
+		socketTimeoutMillis = parallelSocketTimeoutInSecs * 1000L;
+		socket.connect(new InetSocketAddress(host, port), (int) socketTimeoutMillis);
+
+		channel.configureBlocking(false);
+		selector = Selector.open();
+		selectionKey = channel.register(selector, 0);
+		log.debug("socket channel connected");
+	}
+
+	/**
+	 * Wait until the channel is ready for the given operation, or the socket
+	 * timeout expires
+	 */
+	private void awaitReady(final int operation) throws IOException {
+		if (Thread.interrupted()) {
+			throw new IOException("interrupted, consider connection corrupted and return IOException to clear");
+		}
+		selectionKey.interestOps(operation);
+		int ready = selector.select(socketTimeoutMillis);
+		selector.selectedKeys().clear();
+		if (ready == 0) {
+			if (Thread.interrupted()) {
+				throw new IOException("interrupted, consider connection corrupted and return IOException to clear");
+			}
+			throw new SocketTimeoutException("timeout waiting on parallel transfer socket");
+		}
+	}
+
+	/**
+	 * Read from the socket until the buffer is full
+	 *
+	 * @param buffer {@link ByteBuffer} to fill
+	 * @throws IOException if the socket is closed before the buffer is filled
+	 */
+	protected void readFully(final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = getS().read(buffer);
+			if (read < 0) {
+				throw new EOFException("unexpected end of parallel transfer socket");
+			} else if (read == 0) {
+				awaitReady(SelectionKey.OP_READ);
+			}
+		}
+	}
+
+	/**
+	 * Write the remaining contents of the given buffers to the socket
+	 *
+	 * @param buffers {@link ByteBuffer} to send, in order
+	 * @throws IOException for socket errors
+	 */
+	protected void writeFully(final ByteBuffer... buffers) throws IOException {
+		ByteBuffer last = buffers[buffers.length - 1];
+		while (last.hasRemaining()) {
+			if (getS().write(buffers) == 0) {
+				awaitReady(SelectionKey.OP_WRITE);
 			}
+		}
+	}
+
+	protected int readInt() throws JargonException {
+		headerBuffer.clear().limit(4);
+		try {
+			readFully(headerBuffer);
 		} catch (Exception e) {
 			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER, e);
 			throw new JargonException(IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
 		}
-		return b;
+		return headerBuffer.getInt(0);
 	}
 
-	protected int readInt() throws JargonException {
-		int len = 4;
-		final byte[] bAsByte = new byte[len];
-		ByteBuffer b = readLenFromSocket(len);
-		b.flip();
-		b.get(bAsByte);
-		return Host.castToInt(bAsByte);
+	protected long readLong() throws JargonException {
+		// length comes down the wire as an signed long long in network
+		// order
+		headerBuffer.clear();
+		try {
+			readFully(headerBuffer);
+		} catch (Exception e) {
+			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER, e);
+			throw new JargonException(IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
+		}
+		return headerBuffer.getLong(0);
 	}
 
-	protected long readLong() throws JargonException {
-		int len = 8;
-		final byte[] bAsByte = new byte[len];
-		ByteBuffer b = readLenFromSocket(len);
-		b.flip();
-		b.get(bAsByte);
-		return Host.castToLong(bAsByte);
+	/**
+	 * Send an int in network order
+	 *
+	 * @param value {@code int} to send
+	 * @throws IOException for socket errors
+	 */
+	protected void writeInt(final int value) throws IOException {
+		headerBuffer.clear();
+		headerBuffer.putInt(value).flip();
+		writeFully(headerBuffer);
+	}
+
+	/**
+	 * Move a segment of a local file down the socket. The kernel copies the data
+	 * directly where the platform supports it.
+	 *
+	 * @param fileChannel {@link FileChannel} for the local file
+	 * @param position    {@code long} with the offset into the file
+	 * @param length      {@code long} with the number of bytes to send
+	 * @param chunkSize   {@code int} with the maximum bytes moved per call, which
+	 *                    sets the granularity of interrupt checks and progress
+	 * @param listener    {@link ChunkListener} told about each chunk, may be
+	 *                    {@code null}
+	 * @return {@code long} with the number of bytes sent
+	 * @throws IOException if the file is shorter than expected, or for socket
+	 *                     errors
+	 */
+	protected long transferFileToChannel(final FileChannel fileChannel, final long position, final long length,
+			final int chunkSize, final ChunkListener listener) throws IOException, JargonException {
+		long transferred = 0;
+		while (transferred < length) {
+			if (Thread.interrupted()) {
+				throw new IOException("interrupted, consider connection corrupted and return IOException to clear");
+			}
+
+			long sent = fileChannel.transferTo(position + transferred, Math.min(chunkSize, length - transferred),
+					getS());
+			if (sent > 0) {
+				transferred += sent;
+				if (listener != null) {
+					listener.chunkTransferred(sent);
+				}
+			} else if (position + transferred >= fileChannel.size()) {
+				throw new EOFException("local file ended before the requested segment was sent");
+			} else {
+				awaitReady(SelectionKey.OP_WRITE);
+			}
+		}
+		return transferred;
+	}
+
+	/**
+	 * Move a segment from the socket into a local file. Data lands in a reusable
+	 * direct buffer and is written to the file from there, so it never enters the
+	 * Java heap.
+	 *
+	 * @param fileChannel {@link FileChannel} for the local file
+	 * @param position    {@code long} with the offset into the file
+	 * @param length      {@code long} with the number of bytes to receive
+	 * @param chunkSize   {@code int} with the size of the transfer buffer
+	 * @param listener    {@link ChunkListener} told about each chunk, may be
+	 *                    {@code null}
+	 * @return {@code long} with the number of bytes received
+	 * @throws IOException if the socket closes early, or for file errors
+	 */
+	protected long transferChannelToFile(final FileChannel fileChannel, final long position, final long length,
+			final int chunkSize, final ChunkListener listener) throws IOException, JargonException {
+		ByteBuffer buffer = transferBufferForCurrentThread(chunkSize);
+		long transferred = 0;
+		while (transferred < length) {
+			if (Thread.interrupted()) {
+				throw new IOException("interrupted, consider connection corrupted and return IOException to clear");
+			}
+
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), length - transferred));
+			readFully(buffer);
+			buffer.flip();
+			int chunk = buffer.remaining();
+			while (buffer.hasRemaining()) {
+				fileChannel.write(buffer, position + transferred + (chunk - buffer.remaining()));
+			}
+			transferred += chunk;
+			if (listener != null) {
+				listener.chunkTransferred(chunk);
+			}
+		}
+		return transferred;
+	}
+
+	private static ByteBuffer transferBufferForCurrentThread(final int size) {
+		ByteBuffer buffer = transferBuffers.get();
+		if (buffer == null || buffer.capacity() < size) {
+			log.debug("allocating direct transfer buffer of size:{}", size);
+			buffer = ByteBuffer.allocateDirect(size);
+			transferBuffers.set(buffer);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Notified as each chunk of a segment moves, used for progress callbacks and
+	 * restart bookkeeping
+	 */
+	protected interface ChunkListener {
+		void chunkTransferred(long length) throws JargonException;
 	}
 
 	public void close() throws JargonException {
 		// garbage collector can be too slow
+		if (selector != null) {
+			try {
+				selector.close();
+			} catch (IOException e) {
+				log.warn("IOException on close - log and ignore");
+			}
+			selector = null;
+			selectionKey = null;
+		}
 		if (s != null) {
 			try {
 				s.close();
@@ -112,4 +342,11 @@ public class AbstractNIOParallelTransferThread {
 	protected void setExceptionInTransfer(final Exception exceptionInTransfer) {
 		this.exceptionInTransfer = exceptionInTransfer;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return the threadNumber
+	 */
+	protected int getThreadNumber() {
+		return threadNumber;
+	}
+}
@@ -3,6 +3,7 @@ package org.irods.jargon.core.transfer;
 import java.io.File;
 
 import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
+import org.irods.jargon.core.connection.JargonMetricsSink;
 import org.irods.jargon.core.connection.JargonProperties;
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
@@ -322,6 +323,19 @@ public abstract class AbstractParallelFileTransferStrategy {
 		return getIrodsAccessObjectFactory().getIrodsSession().getRestartManager();
 	}
 
+	/**
+	 * Sink the transfer threads report their throughput to
+	 *
+	 * @return {@link JargonMetricsSink}, or {@code null} if
+	 *         {@code jargon.instrument} is not set
+	 */
+	JargonMetricsSink getJargonMetricsSink() {
+		if (!getPipelineConfiguration().isInstrument()) {
+			return null;
+		}
+		return getIrodsAccessObjectFactory().getIrodsSession().getJargonMetricsSink();
+	}
+
 	/**
 	 * Handy method for threads to determine whether encryption should be done
 	 *
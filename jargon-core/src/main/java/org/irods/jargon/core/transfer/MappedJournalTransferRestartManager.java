@@ -0,0 +1,784 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.irods.jargon.core.connection.ConnectionConstants;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartStatus;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Restart manager that keeps restart information in a memory-mapped,
+ * append-only journal file, so that a long transfer can be restarted after the
+ * JVM, or the machine, goes down.
+ * <p>
+ * Storing a restart, counting a restart attempt or deleting one appends a
+ * record holding the whole change and forces the journal to disk. Segment
+ * updates from the parallel transfer threads append a small fixed-size record
+ * to a slot they reserve with an atomic add, so threads updating different
+ * segments do not wait on each other. These records are in the file as soon as
+ * they are written, and so survive the process dying, and are forced to disk at
+ * most every {@code forceIntervalMillis}. Updates not yet forced when the
+ * machine goes down are lost, and the transfer restarts from an earlier offset.
+ * <p>
+ * Each record carries a CRC, and reading the journal stops at the first record
+ * that is incomplete. When the journal is full, and whenever it is opened, it
+ * is compacted by writing the current restarts to a new file that replaces it.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class MappedJournalTransferRestartManager extends AbstractRestartManager implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(MappedJournalTransferRestartManager.class);
+
+	public static final int DEFAULT_INITIAL_CAPACITY = 1024 * 1024;
+	public static final long DEFAULT_FORCE_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * "JRGNRST1" at the start of the file
+	 */
+	private static final long MAGIC = 0x4A52474E52535431L;
+	private static final int HEADER_LENGTH = 8;
+
+	private static final byte INFO_RECORD = 1;
+	private static final byte SEGMENT_RECORD = 2;
+	private static final byte DELETE_RECORD = 3;
+
+	/**
+	 * type, restart id, thread number, offset, length
+	 */
+	private static final int SEGMENT_PAYLOAD_LENGTH = 1 + 4 + 4 + 8 + 8;
+
+	/**
+	 * A record is its payload length, the payload, and the CRC of the payload
+	 */
+	private static final int SEGMENT_RECORD_LENGTH = 4 + SEGMENT_PAYLOAD_LENGTH + 4;
+
+	private final File journalFile;
+	private final int initialCapacity;
+	private final long forceIntervalMillis;
+
+	private final ConcurrentHashMap<FileRestartInfoIdentifier, JournalEntry> entries = new ConcurrentHashMap<FileRestartInfoIdentifier, JournalEntry>();
+
+	/**
+	 * Shared by threads appending segment records, held exclusively to append
+	 * other records, to compact and to close, so those see no slot half written
+	 */
+	private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+	private final AtomicLong writePosition = new AtomicLong();
+	private final AtomicLong lastForceMillis = new AtomicLong();
+	private volatile MappedByteBuffer journal;
+
+	/**
+	 * Channel the journal is mapped through, kept open with the mapping so both
+	 * can be released before the file is replaced
+	 */
+	private FileChannel journalChannel;
+
+	/**
+	 * Guarded by {@code this}
+	 */
+	private int nextRestartId = 1;
+
+	/**
+	 * Open or create a journal with the default capacity and force interval
+	 *
+	 * @param journalFile
+	 *            {@link File} holding the journal
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be read or written
+	 */
+	public MappedJournalTransferRestartManager(final File journalFile) throws FileRestartManagementException {
+		this(journalFile, DEFAULT_INITIAL_CAPACITY, DEFAULT_FORCE_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Open or create a journal, reading the restarts already in it
+	 *
+	 * @param journalFile
+	 *            {@link File} holding the journal
+	 * @param initialCapacity
+	 *            {@code int} with the smallest size in bytes the journal is
+	 *            mapped at
+	 * @param forceIntervalMillis
+	 *            {@code long} with the longest time segment updates may go without
+	 *            being forced to disk, 0 forces each one
+	 * @throws FileRestartManagementException
+	 *             if the journal cannot be read or written
+	 */
+	public MappedJournalTransferRestartManager(final File journalFile, final int initialCapacity,
+			final long forceIntervalMillis) throws FileRestartManagementException {
+
+		if (journalFile == null) {
+			throw new IllegalArgumentException("null journalFile");
+		}
+
+		if (initialCapacity < HEADER_LENGTH + SEGMENT_RECORD_LENGTH) {
+			throw new IllegalArgumentException("initialCapacity too small");
+		}
+
+		if (forceIntervalMillis < 0) {
+			throw new IllegalArgumentException("negative forceIntervalMillis");
+		}
+
+		this.journalFile = journalFile.getAbsoluteFile();
+		this.initialCapacity = initialCapacity;
+		this.forceIntervalMillis = forceIntervalMillis;
+
+		log.info("opening restart journal:{}", this.journalFile);
+
+		journalLock.writeLock().lock();
+		try {
+			if (this.journalFile.exists() && this.journalFile.length() > 0) {
+				replay();
+			}
+			compact(0);
+		} finally {
+			journalLock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#storeRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfoIdentifier storeRestart(final FileRestartInfo fileRestartInfo)
+			throws FileRestartManagementException {
+
+		log.info("storeRestart()");
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		synchronized (this) {
+			FileRestartInfoIdentifier identifier = FileRestartInfoIdentifier
+					.instanceFromFileRestartInfo(fileRestartInfo);
+			List<FileRestartDataSegment> segments = fileRestartInfo.getFileRestartDataSegments();
+			JournalEntry entry = entries.get(identifier);
+
+			if (entry == null || entry.offsets.length() != segments.size()) {
+				int restartId = entry == null ? nextRestartId++ : entry.restartId;
+				entry = new JournalEntry(restartId, fileRestartInfo, segments.size());
+				entries.put(identifier, entry);
+			} else {
+				entry.fileRestartInfo = fileRestartInfo;
+			}
+
+			for (int i = 0; i < segments.size(); i++) {
+				entry.offsets.set(i, segments.get(i).getOffset());
+				entry.lengths.set(i, segments.get(i).getLength());
+			}
+
+			appendExclusive(encodeInfoRecord(entry));
+			return identifier;
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#deleteRestart(org
+	 * .irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public void deleteRestart(final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+
+		log.info("deleteRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+
+		synchronized (this) {
+			JournalEntry entry = entries.remove(fileRestartInfoIdentifier);
+			if (entry != null) {
+				ByteBuffer payload = ByteBuffer.allocate(5);
+				payload.put(DELETE_RECORD);
+				payload.putInt(entry.restartId);
+				appendExclusive(frame(payload.array()));
+			}
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#retrieveRestart
+	 * (org.irods.jargon.core.transfer.FileRestartInfoIdentifier)
+	 */
+	@Override
+	public FileRestartInfo retrieveRestart(final FileRestartInfoIdentifier fileRestartInfoIdentifier)
+			throws FileRestartManagementException {
+
+		log.info("retrieveRestart()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null fileRestartInfoIdentifier");
+		}
+
+		JournalEntry entry = entries.get(fileRestartInfoIdentifier);
+		if (entry == null) {
+			return null;
+		}
+
+		// bring the segments up to date with updates made since the info was stored
+		FileRestartInfo fileRestartInfo = entry.fileRestartInfo;
+		List<FileRestartDataSegment> segments = fileRestartInfo.getFileRestartDataSegments();
+		for (int i = 0; i < Math.min(segments.size(), entry.offsets.length()); i++) {
+			segments.get(i).setOffset(entry.offsets.get(i));
+			segments.get(i).setLength(entry.lengths.get(i));
+		}
+		return fileRestartInfo;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#updateSegment(org
+	 * .irods.jargon.core.transfer.FileRestartInfo,
+	 * org.irods.jargon.core.transfer.FileRestartDataSegment)
+	 */
+	@Override
+	public void updateSegment(final FileRestartInfo fileRestartInfo,
+			final FileRestartDataSegment fileRestartDataSegment) throws FileRestartManagementException {
+
+		log.info("updateSegment()");
+
+		if (fileRestartInfo == null) {
+			throw new IllegalArgumentException("null fileRestartInfo");
+		}
+
+		if (fileRestartDataSegment == null) {
+			throw new IllegalArgumentException("null fileRestartDataSegment");
+		}
+
+		JournalEntry entry = findEntryForSegment(fileRestartInfo.identifierFromThisInfo(),
+				fileRestartDataSegment.getThreadNumber());
+		int threadNumber = fileRestartDataSegment.getThreadNumber();
+		entry.offsets.set(threadNumber, fileRestartDataSegment.getOffset());
+		entry.lengths.set(threadNumber, fileRestartDataSegment.getLength());
+		appendSegmentRecord(entry.restartId, threadNumber, fileRestartDataSegment.getOffset(),
+				fileRestartDataSegment.getLength());
+	}
+
+	/**
+	 * Add to the length of a segment without taking a lock shared with other
+	 * segments
+	 */
+	@Override
+	public void updateLengthForSegment(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
+			final int threadNumber, final long length) throws FileRestartManagementException {
+		log.debug("updateLengthForSegment()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null identifier");
+		}
+
+		JournalEntry entry = findEntryForSegment(fileRestartInfoIdentifier, threadNumber);
+		long newLength = entry.lengths.addAndGet(threadNumber, length);
+		appendSegmentRecord(entry.restartId, threadNumber, entry.offsets.get(threadNumber), newLength);
+	}
+
+	/**
+	 * Set the offset of a segment, and its length to zero, without taking a lock
+	 * shared with other segments
+	 */
+	@Override
+	public void updateOffsetForSegment(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
+			final int threadNumber, final long offset) throws FileRestartManagementException {
+		log.debug("updateOffsetForSegment()");
+		if (fileRestartInfoIdentifier == null) {
+			throw new IllegalArgumentException("null identifier");
+		}
+
+		JournalEntry entry = findEntryForSegment(fileRestartInfoIdentifier, threadNumber);
+		entry.offsets.set(threadNumber, offset);
+		entry.lengths.set(threadNumber, 0);
+		appendSegmentRecord(entry.restartId, threadNumber, offset, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.core.transfer.AbstractRestartManager#
+	 * incrementRestartAttempts(org.irods.jargon.core.transfer.FileRestartInfo)
+	 */
+	@Override
+	public FileRestartInfo incrementRestartAttempts(final FileRestartInfo fileRestartInfo)
+			throws RestartFailedException, FileRestartManagementException {
+
+		log.info("incrementRestartAttempts()");
+		if (fileRestartInfo == null) {
+			log.info("no restart to increment, returning null");
+			return null;
+		}
+		log.info("fileRestartInfo:{}", fileRestartInfo);
+
+		synchronized (this) {
+			JournalEntry entry = entries.get(fileRestartInfo.identifierFromThisInfo());
+			if (entry == null) {
+				log.error("nothing to increment!");
+				return null;
+			}
+			int currentRestarts = entry.fileRestartInfo.getNumberRestarts();
+			currentRestarts++;
+			if (currentRestarts > ConnectionConstants.MAX_FILE_RESTART_ATTEMPTS) {
+				log.error("violates max restart attempts, go ahead and fail the restart attempt");
+				throw new RestartFailedException("restart failed with too many attempts");
+			}
+			entry.fileRestartInfo.setNumberRestarts(currentRestarts);
+			appendExclusive(encodeInfoRecord(entry));
+			return fileRestartInfo;
+		}
+
+	}
+
+	/**
+	 * Force the journal to disk and release it, the manager cannot be used
+	 * afterwards
+	 */
+	@Override
+	public void close() {
+		journalLock.writeLock().lock();
+		try {
+			if (journal != null) {
+				releaseJournal();
+				log.info("closed restart journal:{}", journalFile);
+			}
+		} finally {
+			journalLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return {@link File} holding the journal
+	 */
+	public File getJournalFile() {
+		return journalFile;
+	}
+
+	private JournalEntry findEntryForSegment(final FileRestartInfoIdentifier fileRestartInfoIdentifier,
+			final int threadNumber) throws FileRestartManagementException {
+		JournalEntry entry = entries.get(fileRestartInfoIdentifier);
+		if (entry == null) {
+			throw new FileRestartManagementException("unable to find restart info");
+		}
+
+		if (threadNumber < 0 || threadNumber >= entry.offsets.length()) {
+			throw new FileRestartManagementException("unable to locate thread number");
+		}
+		return entry;
+	}
+
+	/**
+	 * Write a segment record to a slot reserved with an atomic add, compacting
+	 * first if the journal is full
+	 */
+	private void appendSegmentRecord(final int restartId, final int threadNumber, final long offset,
+			final long length) throws FileRestartManagementException {
+
+		while (true) {
+			journalLock.readLock().lock();
+			try {
+				MappedByteBuffer myJournal = checkOpen();
+				long position = writePosition.getAndAdd(SEGMENT_RECORD_LENGTH);
+				if (position + SEGMENT_RECORD_LENGTH <= myJournal.capacity()) {
+					ByteBuffer slot = myJournal.duplicate();
+					slot.position((int) position);
+					slot.limit((int) position + SEGMENT_RECORD_LENGTH);
+					slot = slot.slice();
+					slot.putInt(SEGMENT_PAYLOAD_LENGTH);
+					slot.put(SEGMENT_RECORD);
+					slot.putInt(restartId);
+					slot.putInt(threadNumber);
+					slot.putLong(offset);
+					slot.putLong(length);
+					CRC32 crc = new CRC32();
+					ByteBuffer payload = slot.duplicate();
+					payload.position(4);
+					payload.limit(4 + SEGMENT_PAYLOAD_LENGTH);
+					crc.update(payload);
+					slot.putInt((int) crc.getValue());
+					forceIfDue(myJournal);
+					return;
+				}
+			} finally {
+				journalLock.readLock().unlock();
+			}
+
+			journalLock.writeLock().lock();
+			try {
+				checkOpen();
+				if (writePosition.get() + SEGMENT_RECORD_LENGTH > journal.capacity()) {
+					compact(SEGMENT_RECORD_LENGTH);
+				}
+			} finally {
+				journalLock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Write a record with no other record half written, and force it to disk
+	 */
+	private void appendExclusive(final byte[] record) throws FileRestartManagementException {
+		journalLock.writeLock().lock();
+		try {
+			checkOpen();
+			if (writePosition.get() + record.length > journal.capacity()) {
+				compact(record.length);
+			}
+			ByteBuffer target = journal.duplicate();
+			target.position((int) writePosition.getAndAdd(record.length));
+			target.put(record);
+			journal.force();
+			lastForceMillis.set(System.currentTimeMillis());
+		} finally {
+			journalLock.writeLock().unlock();
+		}
+	}
+
+	private void forceIfDue(final MappedByteBuffer myJournal) {
+		long now = System.currentTimeMillis();
+		long lastForce = lastForceMillis.get();
+		if (now - lastForce >= forceIntervalMillis && lastForceMillis.compareAndSet(lastForce, now)) {
+			myJournal.force();
+		}
+	}
+
+	private MappedByteBuffer checkOpen() throws FileRestartManagementException {
+		MappedByteBuffer myJournal = journal;
+		if (myJournal == null) {
+			throw new FileRestartManagementException("restart journal is closed");
+		}
+		return myJournal;
+	}
+
+	/**
+	 * Write the current restarts to a new journal with room for at least
+	 * {@code minimumFreeBytes} more, and move it over the old one. Called with the
+	 * journal lock held exclusively.
+	 */
+	private void compact(final int minimumFreeBytes) throws FileRestartManagementException {
+
+		List<byte[]> records = new ArrayList<byte[]>();
+		long snapshotLength = HEADER_LENGTH;
+		for (JournalEntry entry : entries.values()) {
+			byte[] record = encodeInfoRecord(entry);
+			records.add(record);
+			snapshotLength += record.length;
+		}
+
+		long capacity = Math.max(initialCapacity, 2 * snapshotLength + minimumFreeBytes);
+		if (capacity > Integer.MAX_VALUE) {
+			throw new FileRestartManagementException("restart journal would be too large");
+		}
+
+		log.info("compacting restart journal:{} with {} restarts", journalFile, records.size());
+
+		File compactedFile = new File(journalFile.getPath() + ".compact");
+		try (FileChannel channel = FileChannel.open(compactedFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer compacted = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+			compacted.putLong(MAGIC);
+			for (byte[] record : records) {
+				compacted.put(record);
+			}
+			compacted.force();
+			unmap(compacted);
+		} catch (IOException e) {
+			log.error("unable to write compacted restart journal:{}", compactedFile, e);
+			throw new FileRestartManagementException("unable to compact restart journal", e);
+		}
+
+		/*
+		 * Some platforms, Windows among them, will not replace a file that is still
+		 * mapped or open, so the old journal is released before the move, and the
+		 * new one mapped after it
+		 */
+		boolean wasOpen = journal != null;
+		releaseJournal();
+
+		try {
+			Files.move(compactedFile.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.error("unable to compact restart journal:{}", journalFile, e);
+			if (wasOpen) {
+				mapJournal(journalFile.length());
+			}
+			throw new FileRestartManagementException("unable to compact restart journal", e);
+		}
+
+		mapJournal(capacity);
+		writePosition.set(snapshotLength);
+		lastForceMillis.set(System.currentTimeMillis());
+	}
+
+	/**
+	 * Map the journal file read-write at the given size. Called with the journal
+	 * lock held exclusively.
+	 */
+	private void mapJournal(final long size) throws FileRestartManagementException {
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			journalChannel = channel;
+		} catch (IOException e) {
+			log.error("unable to map restart journal:{}", journalFile, e);
+			closeQuietly(channel);
+			throw new FileRestartManagementException("unable to map restart journal", e);
+		}
+	}
+
+	/**
+	 * Force the journal to disk, unmap it and close its channel. Called with the
+	 * journal lock held exclusively.
+	 */
+	private void releaseJournal() {
+		MappedByteBuffer myJournal = journal;
+		journal = null;
+		if (myJournal != null) {
+			myJournal.force();
+			unmap(myJournal);
+		}
+		closeQuietly(journalChannel);
+		journalChannel = null;
+	}
+
+	private static void closeQuietly(final FileChannel channel) {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			log.warn("error closing restart journal channel", e);
+		}
+	}
+
+	/**
+	 * Release a mapping now rather than when it is garbage collected. There is no
+	 * public API for this, so the JDK 9+ {@code Unsafe.invokeCleaner} is tried
+	 * first, then the JDK 8 buffer cleaner. If neither is available the mapping
+	 * is left to the GC, which is enough on platforms that allow a mapped file to
+	 * be replaced.
+	 */
+	private static void unmap(final MappedByteBuffer buffer) {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			return;
+		} catch (NoSuchMethodException e) {
+			// pre JDK 9, fall through to the buffer cleaner
+		} catch (Exception e) {
+			log.warn("unable to unmap restart journal", e);
+			return;
+		}
+
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			log.warn("unable to unmap restart journal", e);
+		}
+	}
+
+	/**
+	 * Read the records in the journal, stopping at the first that is incomplete
+	 */
+	private void replay() throws FileRestartManagementException {
+
+		Map<Integer, JournalEntry> entriesById = new HashMap<Integer, JournalEntry>();
+		int records = 0;
+
+		try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			try {
+				records = replayRecords(buffer, entriesById);
+			} finally {
+				unmap(buffer);
+			}
+		} catch (IOException e) {
+			log.error("unable to read restart journal:{}", journalFile, e);
+			throw new FileRestartManagementException("unable to read restart journal", e);
+		}
+
+		log.info("read {} records, {} restarts from restart journal", records, entries.size());
+	}
+
+	/**
+	 * Apply the records in a mapped journal, returning how many were read
+	 */
+	private int replayRecords(final ByteBuffer buffer, final Map<Integer, JournalEntry> entriesById)
+			throws FileRestartManagementException, IOException {
+
+		if (buffer.remaining() < HEADER_LENGTH || buffer.getLong() != MAGIC) {
+			throw new FileRestartManagementException("not a restart journal:" + journalFile);
+		}
+
+		int records = 0;
+		while (buffer.remaining() >= 4) {
+			int payloadLength = buffer.getInt();
+			if (payloadLength <= 0 || payloadLength > buffer.remaining() - 4) {
+				break;
+			}
+
+			byte[] payload = new byte[payloadLength];
+			buffer.get(payload);
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			if (buffer.getInt() != (int) crc.getValue()) {
+				log.warn("incomplete record in restart journal at:{}", buffer.position());
+				break;
+			}
+
+			applyRecord(payload, entriesById);
+			records++;
+		}
+		return records;
+	}
+
+	private void applyRecord(final byte[] payload, final Map<Integer, JournalEntry> entriesById)
+			throws IOException {
+
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+		byte type = input.readByte();
+		int restartId = input.readInt();
+		nextRestartId = Math.max(nextRestartId, restartId + 1);
+
+		if (type == INFO_RECORD) {
+			FileRestartInfo fileRestartInfo = new FileRestartInfo();
+			fileRestartInfo.setIrodsAccountIdentifier(input.readUTF());
+			fileRestartInfo.setLocalAbsolutePath(input.readUTF());
+			fileRestartInfo.setIrodsAbsolutePath(input.readUTF());
+			fileRestartInfo.setRestartStatus(RestartStatus.values()[input.readByte()]);
+			fileRestartInfo.setRestartType(RestartType.values()[input.readByte()]);
+			fileRestartInfo.setNumberRestarts(input.readInt());
+			int segmentCount = input.readInt();
+			JournalEntry entry = new JournalEntry(restartId, fileRestartInfo, segmentCount);
+			for (int i = 0; i < segmentCount; i++) {
+				FileRestartDataSegment segment = new FileRestartDataSegment(i);
+				segment.setOffset(input.readLong());
+				segment.setLength(input.readLong());
+				fileRestartInfo.getFileRestartDataSegments().add(segment);
+				entry.offsets.set(i, segment.getOffset());
+				entry.lengths.set(i, segment.getLength());
+			}
+
+			JournalEntry previous = entriesById.put(restartId, entry);
+			if (previous != null) {
+				entries.remove(previous.fileRestartInfo.identifierFromThisInfo());
+			}
+			entries.put(fileRestartInfo.identifierFromThisInfo(), entry);
+
+		} else if (type == SEGMENT_RECORD) {
+			JournalEntry entry = entriesById.get(restartId);
+			int threadNumber = input.readInt();
+			if (entry != null && threadNumber >= 0 && threadNumber < entry.offsets.length()) {
+				entry.offsets.set(threadNumber, input.readLong());
+				entry.lengths.set(threadNumber, input.readLong());
+			}
+
+		} else if (type == DELETE_RECORD) {
+			JournalEntry entry = entriesById.remove(restartId);
+			if (entry != null) {
+				entries.remove(entry.fileRestartInfo.identifierFromThisInfo());
+			}
+
+		} else {
+			log.warn("unknown record type in restart journal:{}", type);
+		}
+	}
+
+	private byte[] encodeInfoRecord(final JournalEntry entry) throws FileRestartManagementException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		FileRestartInfo fileRestartInfo = entry.fileRestartInfo;
+		try {
+			output.writeByte(INFO_RECORD);
+			output.writeInt(entry.restartId);
+			output.writeUTF(fileRestartInfo.getIrodsAccountIdentifier());
+			output.writeUTF(fileRestartInfo.getLocalAbsolutePath());
+			output.writeUTF(fileRestartInfo.getIrodsAbsolutePath());
+			output.writeByte(fileRestartInfo.getRestartStatus().ordinal());
+			output.writeByte(fileRestartInfo.getRestartType().ordinal());
+			output.writeInt(fileRestartInfo.getNumberRestarts());
+			output.writeInt(entry.offsets.length());
+			for (int i = 0; i < entry.offsets.length(); i++) {
+				output.writeLong(entry.offsets.get(i));
+				output.writeLong(entry.lengths.get(i));
+			}
+			output.flush();
+		} catch (IOException e) {
+			throw new FileRestartManagementException("unable to encode restart info", e);
+		}
+		return frame(bytes.toByteArray());
+	}
+
+	private static byte[] frame(final byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		ByteBuffer record = ByteBuffer.allocate(4 + payload.length + 4);
+		record.putInt(payload.length);
+		record.put(payload);
+		record.putInt((int) crc.getValue());
+		return record.array();
+	}
+
+	/**
+	 * A stored restart with its segment offsets and lengths, which are updated
+	 * atomically, one segment at a time
+	 */
+	private static final class JournalEntry {
+		private final int restartId;
+		private volatile FileRestartInfo fileRestartInfo;
+		private final AtomicLongArray offsets;
+		private final AtomicLongArray lengths;
+
+		JournalEntry(final int restartId, final FileRestartInfo fileRestartInfo, final int segmentCount) {
+			this.restartId = restartId;
+			this.fileRestartInfo = fileRestartInfo;
+			offsets = new AtomicLongArray(segmentCount);
+			lengths = new AtomicLongArray(segmentCount);
+		}
+	}
+
+}
@@ -3,21 +3,19 @@
  */
 package org.irods.jargon.core.transfer;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.RandomAccessFile;
-import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.Callable;
 
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.JargonMetricsSink;
 import org.irods.jargon.core.exception.JargonException;
-import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.jfr.JargonFlightRecorder;
+import org.irods.jargon.core.jfr.TransferSegmentEvent;
 import org.irods.jargon.core.transfer.encrypt.ParallelDecryptionCipherWrapper;
-import org.irods.jargon.core.utils.Host;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,11 +23,15 @@ import org.slf4j.LoggerFactory;
  * Handle parallel file transfer get operation within Jargon. See
  * {@link org.irods.jargon.core.pub.DataTransferOperations} for the public API
  * to transfer files.
+ * <p>
+ * Unencrypted segments are read from the socket into a reusable direct buffer
+ * and written to the local {@link FileChannel} at the segment offset, so the
+ * data never passes through the Java heap.
  *
  * @author Mike Conway - DICE (www.irods.org)
  *
  */
-public final class ParallelGetTransferThread extends AbstractParallelTransferThread
+public final class ParallelGetTransferThread extends AbstractNIOParallelTransferThread
 		implements Callable<ParallelTransferResult> {
 
 	private final ParallelGetFileTransferStrategy parallelGetFileTransferStrategy;
@@ -39,6 +41,18 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 	 */
 	private ParallelDecryptionCipherWrapper parallelDecryptionCipherWrapper;
 
+	/**
+	 * Encrypted blocks and their plaintext, grown to the largest block received
+	 * and reused for the rest
+	 */
+	private ByteBuffer encryptedBuffer = null;
+	private ByteBuffer plainTextBuffer = null;
+
+	/**
+	 * Bytes landed in the local file by this thread
+	 */
+	private long bytesTransferred = 0;
+
 	public static final Logger log = LoggerFactory.getLogger(ParallelGetTransferThread.class);
 
 	/**
@@ -82,65 +96,12 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 	@Override
 	public ParallelTransferResult call() throws JargonException {
 		try {
-			Socket s = new Socket();
-			if (parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize() > 0) {
-				s.setSendBufferSize(
-						parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize()
-								* 1024);
-			}
-
-			if (parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpReceiveWindowSize() > 0) {
-				s.setReceiveBufferSize(
-						parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpReceiveWindowSize()
-								* 1024);
-			}
-
-			s.setPerformancePreferences(
-					parallelGetFileTransferStrategy.getPipelineConfiguration()
-							.getParallelTcpPerformancePrefsConnectionTime(),
-					parallelGetFileTransferStrategy.getPipelineConfiguration().getParallelTcpPerformancePrefsLatency(),
-					parallelGetFileTransferStrategy.getPipelineConfiguration()
-							.getParallelTcpPerformancePrefsBandwidth());
-
-			InetSocketAddress address = new InetSocketAddress(parallelGetFileTransferStrategy.getHost(),
-					parallelGetFileTransferStrategy.getPort());
-
-			s.setSoTimeout(parallelGetFileTransferStrategy.getParallelSocketTimeoutInSecs() * 1000);
-
-			s.setKeepAlive(parallelGetFileTransferStrategy.getPipelineConfiguration().isParallelTcpKeepAlive());
-
-			// assume reuse, nodelay
-			s.setReuseAddress(true);
-			s.setTcpNoDelay(false);
-			s.connect(address);
-			setS(s);
-			byte[] outputBuffer = new byte[4];
-			Host.copyInt(parallelGetFileTransferStrategy.getPassword(), outputBuffer);
-
-			int inputBuffSize = parallelGetFileTransferStrategy.getJargonProperties()
-					.getInternalInputStreamBufferSize();
-			int outputBuffSize = parallelGetFileTransferStrategy.getJargonProperties()
-					.getInternalOutputStreamBufferSize();
-
-			if (inputBuffSize < 0) {
-				setIn(getS().getInputStream());
-			} else if (inputBuffSize == 0) {
-				setIn(new BufferedInputStream(getS().getInputStream()));
-			} else {
-				setIn(new BufferedInputStream(getS().getInputStream(), inputBuffSize));
-			}
-
-			if (outputBuffSize < 0) {
-				setOut(getS().getOutputStream());
-			} else if (outputBuffSize == 0) {
-				setOut(new BufferedOutputStream(getS().getOutputStream()));
-			} else {
-				setOut(new BufferedOutputStream(getS().getOutputStream(), outputBuffSize));
-			}
+			connect(parallelGetFileTransferStrategy.getHost(), parallelGetFileTransferStrategy.getPort(),
+					parallelGetFileTransferStrategy.getPipelineConfiguration(),
+					parallelGetFileTransferStrategy.getParallelSocketTimeoutInSecs());
 
 			log.debug("socket established, sending cookie to iRODS listener");
-			getOut().write(outputBuffer);
-			getOut().flush();
+			writeInt(parallelGetFileTransferStrategy.getPassword());
 			log.debug("cookie written");
 			log.info("sockets are open and password sent, now begin the get operation");
 
@@ -153,9 +114,11 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 		} catch (UnknownHostException e) {
 			log.error("Unknown host: {}", parallelGetFileTransferStrategy.getHost(), e);
 			setExceptionInTransfer(e);
+			close();
 			throw new JargonException("unknown host:" + parallelGetFileTransferStrategy.getHost(), e);
 		} catch (Throwable e) {
 			log.error("unchecked exception in transfer", e);
+			close();
 			throw new JargonException(e);
 		}
 
@@ -170,12 +133,15 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 			log.info("connection listener configured, will produce callbacks");
 		}
 
-		RandomAccessFile local = null;
+		FileChannel local = null;
+		JargonMetricsSink jargonMetricsSink = parallelGetFileTransferStrategy.getJargonMetricsSink();
+		long start = System.nanoTime();
 
 		try {
-			log.info("opening local randomAccessFile");
-			local = new RandomAccessFile(parallelGetFileTransferStrategy.getLocalFile(), "rw");
-			log.info("random access file opened rw mode");
+			log.info("opening local file channel");
+			local = FileChannel.open(parallelGetFileTransferStrategy.getLocalFile().toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			log.info("file channel opened for write");
 			processingLoopForGetData(local);
 
 		} catch (JargonException je) {
@@ -185,7 +151,7 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 			log.error("Exception closing local file", e);
 			throw new JargonException("IOException closing local file");
 		} finally {
-			log.info("parallel thread closing out local random access file stream");
+			log.info("parallel thread closing out local file channel");
 			try {
 				log.info("closing sockets, this close eats exceptions");
 				close();
@@ -196,48 +162,29 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 				log.info("local file closed, exiting get() method");
 			} catch (IOException e) {
 			}
+
+			if (jargonMetricsSink != null) {
+				jargonMetricsSink.parallelTransferThreadCompleted(false, getThreadNumber(), bytesTransferred,
+						System.nanoTime() - start);
+			}
 		}
 	}
 
 	/**
+	 * Read each header from iRODS and land the segment it describes in the local
+	 * file, until iRODS signals it is done
+	 *
 	 * @param local
+	 *            {@link FileChannel} for the local file
 	 * @throws JargonException
 	 */
-	private void processingLoopForGetData(final RandomAccessFile local) throws JargonException {
-		// log.info("reading header info...");
-
-		// read the header
-		int operation = readInt();
-		// log.info(" operation:{}", operation);
-
-		readInt();
+	private void processingLoopForGetData(final FileChannel local) throws JargonException {
 
-		// Where to seek into the data
-		long offset = readLong();
+		final int bufferSize = parallelGetFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize();
 
-		// How much to read/write
-		long length = readLong();
-		// length
-		log.info(">>>new offset:{}", offset);
-		log.info(">>>new length:{}", length);
-
-		// Holds all the data for transfer
-		byte[] buffer = null;
-		int read = 0;
-
-		if (operation != GET_OPR) {
-			log.error("Parallel transfer expected GET,  server requested {}", operation);
-			throw new JargonException("parallel get transfer, unexpected transfer type from iRODS:" + operation);
-		}
-
-		log.info("seeking to offset: {}", offset);
 		try {
 
-			seekToOffset(local, offset);
-
-			long totalWrittenSinceLastRestartUpdate = 0;
-
-			while (length > 0) {
+			while (true) {
 
 				if (Thread.interrupted()) {
 					throw new IOException(
@@ -245,211 +192,154 @@ public final class ParallelGetTransferThread extends AbstractParallelTransferThr
 							"interrupted, consider connection corrupted and return IOException to clear");
 				}
 
-				log.debug("reading....");
+				// read the header
+				int operation = readInt();
+				readInt();
+				// Where to seek into the data
+				long offset = readLong();
+				// How much to read/write
+				long length = readLong();
 
-				int newSize;
+				log.debug(">>>new offset:{}", offset);
+				log.debug(">>>new length:{}", length);
 
-				/*
-				 * if encrypted, first read an int that reflects the new length, as encryption
-				 * may change the length of the data
-				 */
-
-				if (parallelGetFileTransferStrategy.doEncryption()) {
-					// length is littleEndian
-					newSize = Integer.reverseBytes(readInt());
-					log.debug("new size of encrypted traffic:{}", newSize);
+				if (operation == DONE_OPR) {
+					break;
+				}
 
-				} else {
-					newSize = Math.min(
-							parallelGetFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize(),
-							(int) length);
-					log.debug("newSize of non-encrypted traffic:{}", newSize);
+				if (operation != GET_OPR) {
+					log.error("Parallel transfer expected GET,  server requested {}", operation);
+					throw new JargonException(
+							"parallel get transfer, unexpected transfer type from iRODS:" + operation);
+				}
 
+				if (length < 0) {
+					String msg = "length < 0 passed in header from iRODS during parallel get operation";
+					log.error(msg);
+					throw new JargonException(msg);
 				}
 
-				if (newSize <= 0) {
+				if (offset < 0) {
+					log.error("offset < 0 in transfer get() operation, return from get method");
 					return;
-				} else {
-					// c code - size_t buf_size = ( 2 * TRANS_BUF_SZ ) * sizeof(
-					// unsigned char );
-					buffer = new byte[newSize];
 				}
 
-				read = myRead(getIn(), buffer, newSize);
-
 				/*
-				 * If encrypted, strip off the iv and decrypt before writing
+				 * If restarting, maintain a reference to the offset
 				 */
-
-				if (parallelGetFileTransferStrategy.doEncryption()) {
-					buffer = parallelDecryptionCipherWrapper.decrypt(buffer);
-					read = buffer.length;
-
+				if (offset > 0 && parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+					parallelGetFileTransferStrategy.getRestartManager().updateOffsetForSegment(
+							parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+							getThreadNumber(), offset);
 				}
 
-				totalWrittenSinceLastRestartUpdate += read;
-
-				if (read > 0) {
-					length -= read;
-					if (length == 0) {
-
-						local.write(buffer, 0, read);
-
+				ChunkListener listener = new ChunkListener() {
+					@Override
+					public void chunkTransferred(final long chunkLength) throws JargonException {
 						/*
 						 * Make an intra-file status call-back if a listener is configured
 						 */
 						if (parallelGetFileTransferStrategy.getConnectionProgressStatusListener() != null) {
 							parallelGetFileTransferStrategy.getConnectionProgressStatusListener()
 									.connectionProgressStatusCallback(
-											ConnectionProgressStatus.instanceForReceive(read));
-						}
-
-						if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
-
-							parallelGetFileTransferStrategy.getRestartManager().updateLengthForSegment(
-									parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
-									getThreadNumber(), totalWrittenSinceLastRestartUpdate);
-							totalWrittenSinceLastRestartUpdate = 0;
-							log.debug("signal storage of new info");
-
-						}
-
-						// read the next header
-						operation = readInt();
-						readInt();
-						offset = readLong();
-						length = readLong();
-
-						log.info(">>>new offset:{}", offset);
-						log.info(">>>new length:{}", length);
-
-						if (operation == DONE_OPR) {
-							break;
-						}
-
-						/*
-						 * If restarting, maintain a reference to the offset
-						 */
-
-						seekToOffset(local, offset);
-
-					} else if (length < 0) {
-						String msg = "length < 0 passed in header from iRODS during parallel get operation";
-						log.error(msg);
-						throw new JargonException(msg);
-					} else {
-
-						local.write(buffer, 0, read);
-						/*
-						 * Make an intra-file status call-back if a listener is configured
-						 */
-						if (parallelGetFileTransferStrategy.getConnectionProgressStatusListener() != null) {
-							parallelGetFileTransferStrategy.getConnectionProgressStatusListener()
-									.connectionProgressStatusCallback(
-											ConnectionProgressStatus.instanceForReceive(read));
+											ConnectionProgressStatus.instanceForReceive(chunkLength));
 						}
+					}
+				};
 
+				TransferSegmentEvent transferSegmentEvent = JargonFlightRecorder.beginTransferSegment();
+				long written;
+				if (parallelGetFileTransferStrategy.doEncryption()) {
+					written = receiveAndDecryptSegment(local, offset, length, listener);
+					if (written < 0) {
+						return;
 					}
 				} else {
-					log.warn(
-							"intercepted a loop condition on parallel file get, length is > 0 but I just read and got nothing...breaking...");
-					length = 0;
-					throw new JargonException("possible loop condition in parallel file get");
+					written = transferChannelToFile(local, offset, length, bufferSize, listener);
 				}
+				bytesTransferred += written;
+				JargonFlightRecorder.commitTransferSegment(transferSegmentEvent, false, getThreadNumber(), offset,
+						written);
 
-				Thread.yield();
+				if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
+
+					parallelGetFileTransferStrategy.getRestartManager().updateLengthForSegment(
+							parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+							getThreadNumber(), written);
+					log.debug("signal storage of new info");
+
+				}
 			}
 
 		} catch (IOException e) {
 			log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER, parallelGetFileTransferStrategy.toString());
 			throw new JargonException(IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
+		} catch (JargonException je) {
+			throw je;
 		} catch (Throwable e) {
 			log.error("exception in parallel transfer", e);
 			throw new JargonException("unexpected exception in parallel transfer", e);
 		}
 	}
 
-	private int myRead(final InputStream in, final byte[] buffer, final int length)
-			throws IOException, JargonException {
-		int myLength = length;
-		int ptr = 0;
-		int read = 0;
-		int totalRead = 0;
-
-		if (buffer.length < length) {
-			throw new JargonException("attempting to read more than buffer");
-		}
-
-		while (myLength > 0) {
-			log.info(" top of while, my length:{} ", myLength);
-			if (ptr > buffer.length) {
-				log.error("ptr out of synch");
-				log.error("buffer size:{}", buffer.length);
-				log.error("ptr:{}", ptr);
-				log.error("myLength:{}", myLength);
-				log.error("totalRead:{}", totalRead);
-				throw new JargonException("pointer is pointing out of range of the buffer");
+	/**
+	 * Encrypted segments arrive as a series of blocks, each preceded by a
+	 * little-endian length, as encryption may change the length of the data
+	 *
+	 * @return {@code long} with the plain text length written, or -1 if iRODS sent
+	 *         an empty block
+	 */
+	private long receiveAndDecryptSegment(final FileChannel local, final long offset, final long length,
+			final ChunkListener listener) throws IOException, JargonException {
+		long remaining = length;
+		long position = offset;
+		while (remaining > 0) {
+			if (Thread.interrupted()) {
+				throw new IOException("interrupted, consider connection corrupted and return IOException to clear");
 			}
 
-			log.info("===========================");
-			log.info("ptr:{}", ptr);
-			log.info("myLength:{}", myLength);
-
-			read = in.read(buffer, ptr, myLength);
-
-			log.info(">>> read:{}", read);
-
-			if (read < 0) {
-				log.error("read < 0");
-				break;
+			// length is littleEndian
+			int newSize = Integer.reverseBytes(readInt());
+			log.debug("new size of encrypted traffic:{}", newSize);
+			if (newSize <= 0) {
+				return -1;
 			}
 
-			myLength -= read;
-			totalRead += read;
-			ptr += read;
-
-			log.info("total read now:{}", totalRead);
-			log.info("out of original length:{}", length);
-			log.info("makes my length:{}", myLength);
+			if (encryptedBuffer == null || encryptedBuffer.capacity() < newSize) {
+				encryptedBuffer = ByteBuffer.allocate(newSize);
+				plainTextBuffer = ByteBuffer.allocate(parallelDecryptionCipherWrapper.getDecryptedLength(newSize));
+			}
+			encryptedBuffer.clear();
+			encryptedBuffer.limit(newSize);
+			readFully(encryptedBuffer);
+			encryptedBuffer.flip();
+
+			/*
+			 * strip off the iv and decrypt before writing
+			 */
+			plainTextBuffer.clear();
+			int plainTextLength = parallelDecryptionCipherWrapper.decrypt(encryptedBuffer, plainTextBuffer);
+			if (plainTextLength == 0) {
+				log.warn(
+						"intercepted a loop condition on parallel file get, length is > 0 but I just read and got nothing...breaking...");
+				throw new JargonException("possible loop condition in parallel file get");
+			}
 
+			plainTextBuffer.flip();
+			while (plainTextBuffer.hasRemaining()) {
+				local.write(plainTextBuffer, position + plainTextBuffer.position());
+			}
+			position += plainTextLength;
+			remaining -= plainTextLength;
+			listener.chunkTransferred(plainTextLength);
 		}
 
-		if (totalRead != length) {
-			log.error("did not read expected length in myRead()");
-			throw new JargonException("did not read expected length");
+		if (remaining < 0) {
+			String msg = "decrypted data exceeded the segment length passed in header from iRODS";
+			log.error(msg);
+			throw new JargonException(msg);
 		}
-		return totalRead;
-	}
 
-	/**
-	 * @param local
-	 * @param offset
-	 * @throws JargonRuntimeException
-	 */
-	private void seekToOffset(final RandomAccessFile local, final long offset) throws JargonException {
-		if (offset < 0) {
-			log.error("offset < 0 in transfer get() operation, return from get method");
-			return;
-
-		} else if (offset > 0) {
-
-			if (parallelGetFileTransferStrategy.getFileRestartInfo() != null) {
-				parallelGetFileTransferStrategy.getRestartManager().updateOffsetForSegment(
-						parallelGetFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
-						getThreadNumber(), offset);
-			}
-
-			try {
-				if (offset == local.getFilePointer()) {
-					return; // at current location
-				}
-				local.seek(offset);
-
-				// log.debug("seek completed");
-			} catch (Exception e) {
-				log.error(IO_EXEPTION_IN_PARALLEL_TRANSFER, parallelGetFileTransferStrategy.toString());
-				throw new JargonException(IO_EXCEPTION_OCCURRED_DURING_PARALLEL_FILE_TRANSFER, e);
-			}
-		}
+		return length;
 	}
 }
@@ -1,21 +1,26 @@
 package org.irods.jargon.core.transfer;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.irods.jargon.core.connection.ConnectionConstants;
 import org.irods.jargon.core.connection.ConnectionProgressStatus;
+import org.irods.jargon.core.connection.JargonMetricsSink;
 import org.irods.jargon.core.exception.JargonException;
-import org.irods.jargon.core.transfer.encrypt.EncryptionBuffer;
+import org.irods.jargon.core.jfr.JargonFlightRecorder;
+import org.irods.jargon.core.jfr.TransferSegmentEvent;
 import org.irods.jargon.core.transfer.encrypt.ParallelEncryptionCipherWrapper;
-import org.irods.jargon.core.utils.Host;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,17 +29,60 @@ import org.slf4j.LoggerFactory;
  * and is not meant for public API use. See
  * {@link org.irods.jargon.core.pub.DataTransferOperations} for public API used
  * for file transfers.
+ * <p>
+ * Unencrypted segments are sent with {@link FileChannel#transferTo}, so the
+ * file data is copied to the socket by the kernel where the platform supports
+ * it. Encrypted segments are read and encrypted a buffer at a time on a
+ * separate thread into a small ring of reused buffers, so that the encryption
+ * of one buffer overlaps the socket write of the one before.
  *
  * @author Mike Conway - DICE (www.irods.org)
  *
  */
-public final class ParallelPutTransferThread extends AbstractParallelTransferThread
+public final class ParallelPutTransferThread extends AbstractNIOParallelTransferThread
 		implements Callable<ParallelTransferResult> {
 
 	private final ParallelPutFileTransferStrategy parallelPutFileTransferStrategy;
-	private RandomAccessFile localRandomAccessFile = null;
+	private FileChannel localFileChannel = null;
 	private ParallelEncryptionCipherWrapper parallelEncryptionCipherWrapper = null;
 
+	/**
+	 * Encrypted buffers prepared ahead of the socket write
+	 */
+	private static final int ENCRYPT_AHEAD_BUFFERS = 2;
+
+	/**
+	 * Marks the end of the segment in the queue of encrypted buffers
+	 */
+	private static final EncryptedBlock END_OF_SEGMENT = new EncryptedBlock(ByteBuffer.allocate(0));
+
+	/**
+	 * Daemon threads, released when idle, that read and encrypt segments
+	 */
+	private static final ExecutorService encryptionExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, "jargon-parallel-encrypt-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Plaintext and encrypted buffers, created with the first encrypted segment
+	 * and reused for the rest
+	 */
+	private ByteBuffer plainTextBuffer = null;
+	private BlockingQueue<EncryptedBlock> emptyBlocks = null;
+	private BlockingQueue<EncryptedBlock> filledBlocks = null;
+
+	/**
+	 * Bytes sent to iRODS by this thread
+	 */
+	private long bytesTransferred = 0;
+
 	public static final Logger log = LoggerFactory.getLogger(ParallelPutTransferThread.class);
 
 	/**
@@ -72,58 +120,9 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 		try {
 			log.info("opening socket to parallel transfer (high) port at port:{}",
 					parallelPutFileTransferStrategy.getPort());
-			Socket s = new Socket();
-			if (parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize() > 0) {
-				s.setSendBufferSize(
-						parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpSendWindowSize()
-								* 1024);
-			}
-
-			if (parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpReceiveWindowSize() > 0) {
-				s.setReceiveBufferSize(
-						parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpReceiveWindowSize()
-								* 1024);
-			}
-
-			s.setPerformancePreferences(
-					parallelPutFileTransferStrategy.getPipelineConfiguration()
-							.getParallelTcpPerformancePrefsConnectionTime(),
-					parallelPutFileTransferStrategy.getPipelineConfiguration().getParallelTcpPerformancePrefsLatency(),
-					parallelPutFileTransferStrategy.getPipelineConfiguration()
-							.getParallelTcpPerformancePrefsBandwidth());
-
-			InetSocketAddress address = new InetSocketAddress(parallelPutFileTransferStrategy.getHost(),
-					parallelPutFileTransferStrategy.getPort());
-
-			s.setSoTimeout(parallelPutFileTransferStrategy.getParallelSocketTimeoutInSecs() * 1000);
-
-			s.setKeepAlive(parallelPutFileTransferStrategy.getPipelineConfiguration().isParallelTcpKeepAlive());
-
-			// assume reuse, nodelay
-			s.setReuseAddress(true);
-			s.setTcpNoDelay(false);
-			s.connect(address);
-			setS(s);
-			int inputBuffSize = this.parallelPutFileTransferStrategy.getJargonProperties()
-					.getInternalInputStreamBufferSize();
-			int outputBuffSize = this.parallelPutFileTransferStrategy.getJargonProperties()
-					.getInternalOutputStreamBufferSize();
-
-			if (inputBuffSize < 0) {
-				setIn(getS().getInputStream());
-			} else if (inputBuffSize == 0) {
-				setIn(new BufferedInputStream(getS().getInputStream()));
-			} else {
-				setIn(new BufferedInputStream(getS().getInputStream(), inputBuffSize));
-			}
-
-			if (outputBuffSize < 0) {
-				setOut(getS().getOutputStream());
-			} else if (outputBuffSize == 0) {
-				setOut(new BufferedOutputStream(getS().getOutputStream()));
-			} else {
-				setOut(new BufferedOutputStream(getS().getOutputStream(), outputBuffSize));
-			}
+			connect(parallelPutFileTransferStrategy.getHost(), parallelPutFileTransferStrategy.getPort(),
+					parallelPutFileTransferStrategy.getPipelineConfiguration(),
+					parallelPutFileTransferStrategy.getParallelSocketTimeoutInSecs());
 
 			log.info("setting up the encryption if so negotiated");
 			if (this.parallelPutFileTransferStrategy.doEncryption()) {
@@ -134,6 +133,7 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 		} catch (Exception e) {
 			log.error("unable to create transfer thread", e);
+			close();
 			throw new JargonException(e);
 		}
 	}
@@ -143,17 +143,15 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 		try {
 
-			log.info("getting random access file for local file");
+			log.info("getting file channel for local file");
 
-			localRandomAccessFile = new RandomAccessFile(parallelPutFileTransferStrategy.getLocalFile(), "r");
+			localFileChannel = FileChannel.open(parallelPutFileTransferStrategy.getLocalFile().toPath(),
+					StandardOpenOption.READ);
 
 			log.info("writing the cookie (password) for the output thread");
 
 			// write the cookie
-			byte b[] = new byte[4];
-			Host.copyInt(parallelPutFileTransferStrategy.getPassword(), b);
-			getOut().write(b);
-			getOut().flush();
+			writeInt(parallelPutFileTransferStrategy.getPassword());
 
 			log.debug("cookie written for output thread...calling put() to start read/write loop");
 			put();
@@ -167,10 +165,12 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 		} finally {
 			log.info("closing sockets, this eats any exceptions");
 			close();
-			log.info("socket conns for parallel transfer closed, now close the file stream");
-			// close file stream
+			log.info("socket conns for parallel transfer closed, now close the file channel");
+			// close file channel
 			try {
-				localRandomAccessFile.close();
+				if (localFileChannel != null) {
+					localFileChannel.close();
+				}
 				log.info("streams and files closed");
 			} catch (IOException e) {
 			}
@@ -178,26 +178,12 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 	}
 
-	private void seekToStartingPoint(final long offset) throws JargonException {
-
-		try {
-			localRandomAccessFile.seek(offset);
-		} catch (IOException e) {
-			log.error("IOException in seek", e);
-			throw new JargonException(e);
-		}
-
-	}
-
 	private void put() throws JargonException {
 		log.info("put()..");
 
-		byte[] buffer = null;
 		boolean done = false;
-		// c code - size_t buf_size = 2 * TRANS_BUF_SZ * sizeof( unsigned char
-		// );
-		buffer = new byte[parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize()];
-		long currentOffset = 0;
+		JargonMetricsSink jargonMetricsSink = parallelPutFileTransferStrategy.getJargonMetricsSink();
+		long start = System.nanoTime();
 
 		try {
 			while (!done) {
@@ -212,13 +198,11 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 				// read the header
 				int operation = readInt();
-				if (log.isInfoEnabled()) {
-					log.info("   operation:" + operation);
-				}
+				log.debug("   operation:{}", operation);
 
-				if (operation == AbstractParallelTransferThread.PUT_OPR) {
+				if (operation == AbstractNIOParallelTransferThread.PUT_OPR) {
 					log.debug("put operation");
-				} else if (operation == AbstractParallelTransferThread.DONE_OPR) {
+				} else if (operation == AbstractNIOParallelTransferThread.DONE_OPR) {
 					log.info("done received");
 					done = true;
 					break;
@@ -228,14 +212,10 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 				// read the flags
 				int flags = readInt();
-				if (log.isInfoEnabled()) {
-					log.info("   flags:" + flags);
-				}
+				log.debug("   flags:{}", flags);
 				// Where to seek into the data
 				long offset = readLong();
-				if (log.isInfoEnabled()) {
-					log.info("   offset:" + offset);
-				}
+				log.debug("   offset:{}", offset);
 
 				/*
 				 * If restarting, maintain a reference to the offset
@@ -249,151 +229,48 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 
 				// How much to read/write
 				long length = readLong();
-				if (log.isInfoEnabled()) {
-					log.info("   length:" + length);
-				}
-
-				if (offset != currentOffset) {
-					// seekToStartingPoint(offset - currentOffset); // FIXME:
-					// test!
-					seekToStartingPoint(offset);
-					currentOffset = offset;
-				}
-
-				log.info("buffer length for put is: {}", buffer.length);
+				log.debug("   length:{}", length);
 
 				/*
 				 * Read/write loop moves data from file starting at offset down the socket until
 				 * the anticipated transfer length is consumed.
 				 */
 
-				readWriteLoopForCurrentHeaderDirective(buffer, length);
-				currentOffset += length;
+				TransferSegmentEvent transferSegmentEvent = JargonFlightRecorder.beginTransferSegment();
+				readWriteLoopForCurrentHeaderDirective(offset, length);
+				bytesTransferred += length;
+				JargonFlightRecorder.commitTransferSegment(transferSegmentEvent, true, getThreadNumber(), offset,
+						length);
 
 			}
 
 		} catch (Exception e) {
 			log.error("An IO exception occurred during a parallel file put operation", e);
 			throw new JargonException("IOException during parallel file put", e);
+		} finally {
+			if (jargonMetricsSink != null) {
+				jargonMetricsSink.parallelTransferThreadCompleted(true, getThreadNumber(), bytesTransferred,
+						System.nanoTime() - start);
+			}
 		}
 	}
 
-	private void readWriteLoopForCurrentHeaderDirective(final byte[] buffer, final long length)
+	private void readWriteLoopForCurrentHeaderDirective(final long offset, final long length)
 			throws IOException, JargonException {
-		int read = 0;
-		long totalRead = 0;
-		long transferLength = length;
-		long totalWritten = 0;
-		long totalWrittenSinceLastRestartUpdate = 0;
 		log.debug("readWriteLoopForCurrentHeaderDirective()");
+		final int bufferSize = parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize();
+		final RestartAndProgressListener listener = new RestartAndProgressListener();
+		long totalWritten;
 		try {
-			while (transferLength > 0) {
-				if (Thread.interrupted()) {
-					throw new IOException(
-
-							"interrupted, consider connection corrupted and return IOException to clear");
-				}
-
-				log.debug("read/write loop at top");
-
-				read = localRandomAccessFile.read(buffer, 0,
-						(int) Math.min(
-								parallelPutFileTransferStrategy.getJargonProperties().getParallelCopyBufferSize(),
-								transferLength));
-
-				log.debug("bytes read: {}", read);
-
-				if (read > 0) {
-
-					totalRead += read;
-					transferLength -= read;
-					log.debug("getting ready to write to iRODS, new txfr length:{}", transferLength);
-
-					/*
-					 * if encrypting, encrypt this buffer before sending
-					 */
-
-					if (parallelPutFileTransferStrategy.doEncryption()) {
-						log.debug("put with encryption, encrypt this buffer");
-						EncryptionBuffer encryptedBuff = parallelEncryptionCipherWrapper
-								.encrypt(Arrays.copyOf(buffer, read));
-						log.debug("iv length:{}", encryptedBuff.getInitializationVector().length);
-						// sendInNetworkOrder(encryptedBuff.getEncryptedData().length
-						// + encryptedBuff.getInitializationVector().length);
-						sendInLittleEndian(encryptedBuff.getEncryptedData().length
-								+ encryptedBuff.getInitializationVector().length);
-						log.debug("computed length:{}", encryptedBuff.getEncryptedData().length
-								+ encryptedBuff.getInitializationVector().length);
-						// this encryptedBuff has the data and the iv
-						ByteArrayOutputStream buffOut = new ByteArrayOutputStream(
-								encryptedBuff.getEncryptedData().length
-										+ encryptedBuff.getInitializationVector().length);
-						buffOut.write(encryptedBuff.getInitializationVector());
-						buffOut.write(encryptedBuff.getEncryptedData());
-						// getOut().write(buffOut.toByteArray());
-						buffOut.writeTo(getOut());
-						// getOut().write(encryptedBuff.getInitializationVector());
-						// getOut().write(encryptedBuff.getEncryptedData());
-					} else {
-						getOut().write(buffer, 0, read);
-					}
-
-					/*
-					 * Make an intra-file status call-back if a listener is configured
-					 */
-					if (parallelPutFileTransferStrategy.getConnectionProgressStatusListener() != null) {
-						parallelPutFileTransferStrategy.getConnectionProgressStatusListener()
-								.connectionProgressStatusCallback(ConnectionProgressStatus.instanceForSend(read));
-					}
-
-					log.debug("wrote data to the buffer");
-					totalWritten += read;
-					totalWrittenSinceLastRestartUpdate += read;
-
-					/*
-					 * See if I need to do restart stuff, see if restart is on by checking null, and
-					 * then see if I have written enough to save the restart info
-					 */
-
-					if (parallelPutFileTransferStrategy.getFileRestartInfo() != null) {
-						log.debug("checking total written for this thread");
-						if (totalWrittenSinceLastRestartUpdate >= ConnectionConstants.MIN_FILE_RESTART_SIZE) {
-							parallelPutFileTransferStrategy.getRestartManager().updateLengthForSegment(
-									parallelPutFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
-									getThreadNumber(), totalWrittenSinceLastRestartUpdate);
-							totalWrittenSinceLastRestartUpdate = 0;
-							log.debug("signal storage of new info");
-						}
-
-					}
-
-				} else {
-					log.debug("no read...break out of read/write");
-					break;
-				} /*
-					 * else if (read < 0) { } throw new JargonException(
-					 * "unexpected end of data in transfer operation"); }
-					 */
-				Thread.yield();
+			if (parallelPutFileTransferStrategy.doEncryption()) {
+				totalWritten = encryptAndSendSegment(offset, length, bufferSize, listener);
+			} else {
+				totalWritten = transferFileToChannel(localFileChannel, offset, length, bufferSize, listener);
 			}
 
-			log.info("final flush of output buffer");
-			getOut().flush();
-
-			log.info("for thread, total read: {}", totalRead);
-			log.info("   total written: {}", totalWritten);
-			log.info("   transferLength: {}", transferLength);
-
-			if (parallelPutFileTransferStrategy.getFileRestartInfo() != null) {
-				log.debug("checking total written for this thread");
-				if (totalWrittenSinceLastRestartUpdate > 0) {
-					parallelPutFileTransferStrategy.getRestartManager().updateLengthForSegment(
-							parallelPutFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
-							getThreadNumber(), totalWrittenSinceLastRestartUpdate);
-					log.debug("signal storage of new info");
-				}
+			listener.flushRestartInfo();
 
-			}
+			log.debug("for thread, total written: {} of transferLength: {}", totalWritten, length);
 
 		} catch (Throwable e) {
 			// this is throwable to prevent unchecked exceptions from leaking
@@ -403,27 +280,154 @@ public final class ParallelPutTransferThread extends AbstractParallelTransferThr
 			throw je;
 		}
 
-		if (totalRead != totalWritten) {
-			throw new JargonException("totalRead and totalWritten do not agree");
+		if (totalWritten != length) {
+			throw new JargonException("transferLength and totalWritten do not agree");
 		}
+	}
 
-		if (transferLength != 0) {
-			throw new JargonException("transferLength and totalWritten do not agree");
+	/**
+	 * Send a segment as a series of encrypted buffers, each preceded by the
+	 * little-endian length of the iv and encrypted data. The buffers are read and
+	 * encrypted on another thread while this one writes the buffers before them.
+	 */
+	private long encryptAndSendSegment(final long offset, final long length, final int bufferSize,
+			final RestartAndProgressListener listener) throws IOException, JargonException {
+
+		if (plainTextBuffer == null) {
+			initializeEncryptionBuffers(bufferSize);
+		}
+
+		Future<Void> encryptor = encryptionExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					readAndEncryptSegment(offset, length);
+				} finally {
+					// the queue always has room for the marker
+					filledBlocks.offer(END_OF_SEGMENT);
+				}
+				return null;
+			}
+		});
+
+		long totalSent = 0;
+		try {
+			EncryptedBlock block;
+			while ((block = filledBlocks.take()) != END_OF_SEGMENT) {
+				if (Thread.interrupted()) {
+					throw new IOException(
+							"interrupted, consider connection corrupted and return IOException to clear");
+				}
+				writeFully(block.buffer);
+				totalSent += block.plainTextLength;
+				emptyBlocks.put(block);
+				listener.chunkTransferred(block.plainTextLength);
+			}
+			encryptor.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted, consider connection corrupted and return IOException to clear", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof JargonException) {
+				throw (JargonException) e.getCause();
+			}
+			throw new JargonException("error encrypting parallel put", e.getCause());
+		} finally {
+			// stops an encryptor left waiting for a buffer when the write fails
+			encryptor.cancel(true);
+		}
+
+		return totalSent;
+	}
+
+	/**
+	 * Run on the encryption thread to read and encrypt each buffer of the segment
+	 * into a free block, with the length prefix reserved at the front
+	 */
+	private void readAndEncryptSegment(final long offset, final long length)
+			throws IOException, JargonException, InterruptedException {
+		long totalRead = 0;
+		while (totalRead < length) {
+			plainTextBuffer.clear();
+			plainTextBuffer.limit((int) Math.min(plainTextBuffer.capacity(), length - totalRead));
+			int read = localFileChannel.read(plainTextBuffer, offset + totalRead);
+			if (read <= 0) {
+				log.debug("no read...break out of read/write");
+				break;
+			}
+
+			totalRead += read;
+			plainTextBuffer.flip();
+			EncryptedBlock block = emptyBlocks.take();
+			block.buffer.clear();
+			block.buffer.position(ConnectionConstants.INT_LENGTH);
+			int encryptedLength = parallelEncryptionCipherWrapper.encrypt(plainTextBuffer, block.buffer);
+			log.debug("computed length:{}", encryptedLength);
+			block.buffer.putInt(0, Integer.reverseBytes(encryptedLength));
+			block.buffer.flip();
+			block.plainTextLength = read;
+			filledBlocks.put(block);
+		}
+	}
+
+	private void initializeEncryptionBuffers(final int bufferSize) {
+		plainTextBuffer = ByteBuffer.allocate(bufferSize);
+		int blockSize = ConnectionConstants.INT_LENGTH + parallelEncryptionCipherWrapper.getEncryptedLength(bufferSize);
+		emptyBlocks = new ArrayBlockingQueue<EncryptedBlock>(ENCRYPT_AHEAD_BUFFERS);
+		filledBlocks = new ArrayBlockingQueue<EncryptedBlock>(ENCRYPT_AHEAD_BUFFERS + 1);
+		for (int i = 0; i < ENCRYPT_AHEAD_BUFFERS; i++) {
+			emptyBlocks.add(new EncryptedBlock(ByteBuffer.allocate(blockSize)));
 		}
 	}
 
-	protected void sendInNetworkOrder(final int value) throws IOException {
-		byte bytes[] = new byte[ConnectionConstants.INT_LENGTH];
-		Host.copyInt(value, bytes);
-		getOut().write(bytes);
-		getOut().flush();
+	/**
+	 * A length prefix and encrypted buffer ready to send, with the length of the
+	 * plaintext it holds
+	 */
+	private static final class EncryptedBlock {
+
+		private final ByteBuffer buffer;
+		private int plainTextLength;
+
+		EncryptedBlock(final ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
 	}
 
-	protected void sendInLittleEndian(final int value) throws IOException {
-		byte theBytes[] = new byte[ConnectionConstants.INT_LENGTH];
-		int reversed = Integer.reverseBytes(value);
-		Host.copyInt(reversed, theBytes);
-		getOut().write(theBytes);
-		getOut().flush();
+	/**
+	 * Makes intra-file status call-backs and, when restart is on, saves the length
+	 * sent once enough has been written
+	 */
+	private final class RestartAndProgressListener implements ChunkListener {
+
+		private long totalWrittenSinceLastRestartUpdate = 0;
+
+		@Override
+		public void chunkTransferred(final long length) throws JargonException {
+			if (parallelPutFileTransferStrategy.getConnectionProgressStatusListener() != null) {
+				parallelPutFileTransferStrategy.getConnectionProgressStatusListener()
+						.connectionProgressStatusCallback(ConnectionProgressStatus.instanceForSend(length));
+			}
+
+			totalWrittenSinceLastRestartUpdate += length;
+
+			if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+					&& totalWrittenSinceLastRestartUpdate >= ConnectionConstants.MIN_FILE_RESTART_SIZE) {
+				flushRestartInfo();
+			}
+		}
+
+		void flushRestartInfo() throws JargonException {
+			if (parallelPutFileTransferStrategy.getFileRestartInfo() != null
+					&& totalWrittenSinceLastRestartUpdate > 0) {
+				parallelPutFileTransferStrategy.getRestartManager().updateLengthForSegment(
+						parallelPutFileTransferStrategy.getFileRestartInfo().identifierFromThisInfo(),
+						getThreadNumber(), totalWrittenSinceLastRestartUpdate);
+				totalWrittenSinceLastRestartUpdate = 0;
+				log.debug("signal storage of new info");
+			}
+		}
 	}
 }
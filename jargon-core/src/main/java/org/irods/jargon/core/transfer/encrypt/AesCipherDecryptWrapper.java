@@ -3,6 +3,7 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -12,11 +13,13 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.ClientServerNegotiationException;
+import org.irods.jargon.core.exception.EncryptionException;
 import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +52,21 @@ class AesCipherDecryptWrapper extends ParallelDecryptionCipherWrapper {
 
 	public static final Logger log = LoggerFactory.getLogger(AesCipherDecryptWrapper.class);
 
+	/**
+	 * Length of the iv at the front of each buffer
+	 */
+	private static final int IV_LENGTH = 16;
+
+	/**
+	 * Length of the iv and the unused bytes that follow it from iRODS
+	 */
+	private static final int IV_AND_PAD_LENGTH = 32;
+
+	/**
+	 * Reused to hold the iv of each buffer
+	 */
+	private final byte[] initializationVector = new byte[IV_LENGTH];
+
 	/**
 	 * Default constructor with configuration information needed to set up the
 	 * algorithm
@@ -96,7 +114,7 @@ class AesCipherDecryptWrapper extends ParallelDecryptionCipherWrapper {
 	protected byte[] doDecrypt(final EncryptionBuffer input) {
 		try {
 			getCipher().init(Cipher.DECRYPT_MODE, getNegotiatedClientServerConfiguration().getSecretKey(),
-					new IvParameterSpec(input.getInitializationVector()));
+					new IvParameterSpec(input.getInitializationVector(), 0, IV_LENGTH));
 
 			byte[] original = getCipher().doFinal(input.getEncryptedData());
 			return original;
@@ -134,6 +152,44 @@ class AesCipherDecryptWrapper extends ParallelDecryptionCipherWrapper {
 
 	}
 
+	@Override
+	protected int doDecrypt(final ByteBuffer fullBuffer, final ByteBuffer output) throws EncryptionException {
+		log.debug("fullbuffer length:{}", fullBuffer.remaining());
+		if (fullBuffer.remaining() < IV_AND_PAD_LENGTH) {
+			log.error("unusable data in buffer, less than 32 bytes");
+			throw new EncryptionException("unusable data in data buffer");
+		}
+
+		if (output.remaining() < doGetDecryptedLength(fullBuffer.remaining())) {
+			log.error("output buffer too short, {} bytes remaining", output.remaining());
+			throw new EncryptionException("output buffer too short for decrypted data");
+		}
+
+		fullBuffer.get(initializationVector);
+		fullBuffer.position(fullBuffer.position() + IV_AND_PAD_LENGTH - IV_LENGTH);
+
+		if (!fullBuffer.hasRemaining()) {
+			log.warn("no data in buffer to decrypt, return empty buffer");
+			return 0;
+		}
+
+		try {
+			getCipher().init(Cipher.DECRYPT_MODE, getNegotiatedClientServerConfiguration().getSecretKey(),
+					new IvParameterSpec(initializationVector));
+			return getCipher().doFinal(fullBuffer, output);
+		} catch (IllegalBlockSizeException | BadPaddingException | InvalidKeyException
+				| InvalidAlgorithmParameterException | ShortBufferException e) {
+			log.error("error during decryption", e);
+			throw new EncryptionException("Unable to decrypt given negotiated settings", e);
+		}
+	}
+
+	@Override
+	protected int doGetDecryptedLength(final int fullBufferLength) {
+		// with padding the plaintext is never longer than the encrypted data
+		return Math.max(0, fullBufferLength - IV_AND_PAD_LENGTH);
+	}
+
 	private byte[] extractEncryptedData(final byte[] fullBuffer) {
 		byte[] returned = new byte[fullBuffer.length - 32];
 		System.arraycopy(fullBuffer, 32, returned, 0, fullBuffer.length - 32);
@@ -5,6 +5,7 @@ package org.irods.jargon.core.transfer.encrypt;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.AlgorithmParameters;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -15,6 +16,7 @@ import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
@@ -43,6 +45,12 @@ class AesCipherEncryptWrapper extends ParallelEncryptionCipherWrapper {
 	public static final Logger log = LoggerFactory.getLogger(AesCipherEncryptWrapper.class);
 	public static byte[] ivPad = new byte[16];
 
+	/**
+	 * The cipher returns to this iv after each {@code doFinal()}, so it is read
+	 * once when the cipher is initialized
+	 */
+	private byte[] initializationVector;
+
 	/**
 	 * Default constructor with configuration information needed to set up the
 	 * algorithm
@@ -77,6 +85,7 @@ class AesCipherEncryptWrapper extends ParallelEncryptionCipherWrapper {
 
 			SecretKey secretKey = getNegotiatedClientServerConfiguration().getSecretKey();
 			getCipher().init(Cipher.ENCRYPT_MODE, secretKey);
+			initializationVector = getCipher().getIV();
 
 		} catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException e) {
 			log.error("error generating key for cipher", e);
@@ -118,4 +127,23 @@ class AesCipherEncryptWrapper extends ParallelEncryptionCipherWrapper {
 		}
 
 	}
+
+	@Override
+	protected int doEncrypt(final ByteBuffer plainText, final ByteBuffer output) throws EncryptionException {
+		int start = output.position();
+		try {
+			output.put(initializationVector);
+			output.put(ivPad);
+			getCipher().doFinal(plainText, output);
+		} catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+			log.error("encryption exception", e);
+			throw new EncryptionException("encryption exception", e);
+		}
+		return output.position() - start;
+	}
+
+	@Override
+	protected int doGetEncryptedLength(final int plainTextLength) {
+		return initializationVector.length + ivPad.length + getCipher().getOutputSize(plainTextLength);
+	}
 }
@@ -3,6 +3,8 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
+
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.EncryptionException;
@@ -57,8 +59,51 @@ public abstract class ParallelDecryptionCipherWrapper extends ParallelCipherWrap
 		return doDecrypt(fullBuffer);
 	}
 
+	/**
+	 * Decrypt a complete buffer from iRODS into the given output buffer, so that
+	 * buffers can be reused from one call to the next
+	 *
+	 * @param fullBuffer
+	 *            {@code ByteBuffer} with the full buffer from iRODS, including any
+	 *            encryption related payload, between its position and limit, which
+	 *            is consumed
+	 * @param output
+	 *            {@code ByteBuffer} written from its position, with at least
+	 *            {@link #getDecryptedLength(int)} bytes remaining
+	 * @return {@code int} with the number of plaintext bytes written to the
+	 *         output
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	public int decrypt(final ByteBuffer fullBuffer, final ByteBuffer output) throws EncryptionException {
+		log.debug("decrypt()");
+		if (fullBuffer == null) {
+			throw new IllegalArgumentException("null fullBuffer");
+		}
+		if (output == null) {
+			throw new IllegalArgumentException("null output");
+		}
+		return doDecrypt(fullBuffer, output);
+	}
+
+	/**
+	 * Get the largest number of bytes {@link #decrypt(ByteBuffer, ByteBuffer)}
+	 * writes for a full buffer of the given length
+	 *
+	 * @param fullBufferLength
+	 *            {@code int} with the length of the full buffer from iRODS
+	 * @return {@code int} with the length of the output
+	 */
+	public int getDecryptedLength(final int fullBufferLength) {
+		return doGetDecryptedLength(fullBufferLength);
+	}
+
 	protected abstract byte[] doDecrypt(byte[] fullBuffer);
 
+	protected abstract int doDecrypt(ByteBuffer fullBuffer, ByteBuffer output) throws EncryptionException;
+
+	protected abstract int doGetDecryptedLength(int fullBufferLength);
+
 	/**
 	 * Decryption method that will be overriden by the particular algo, and will
 	 * happen after any init is checked
@@ -3,6 +3,8 @@
  */
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
+
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.exception.EncryptionException;
@@ -41,6 +43,44 @@ public abstract class ParallelEncryptionCipherWrapper extends ParallelCipherWrap
 		return doEncrypt(input);
 	}
 
+	/**
+	 * Encrypt the remaining bytes of a buffer into the given output buffer,
+	 * including any encryption related payload such as the initialization vector,
+	 * so that buffers can be reused from one call to the next
+	 *
+	 * @param plainText
+	 *            {@code ByteBuffer} with the plaintext between its position and
+	 *            limit, which is consumed
+	 * @param output
+	 *            {@code ByteBuffer} written from its position, with at least
+	 *            {@link #getEncryptedLength(int)} bytes remaining
+	 * @return {@code int} with the number of bytes written to the output
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	public int encrypt(final ByteBuffer plainText, final ByteBuffer output) throws EncryptionException {
+		log.debug("encrypt()");
+		if (plainText == null) {
+			throw new IllegalArgumentException("null plainText");
+		}
+		if (output == null) {
+			throw new IllegalArgumentException("null output");
+		}
+		return doEncrypt(plainText, output);
+	}
+
+	/**
+	 * Get the largest number of bytes {@link #encrypt(ByteBuffer, ByteBuffer)}
+	 * writes for the given length of plaintext
+	 *
+	 * @param plainTextLength
+	 *            {@code int} with the length of the plaintext
+	 * @return {@code int} with the length of the output
+	 */
+	public int getEncryptedLength(final int plainTextLength) {
+		return doGetEncryptedLength(plainTextLength);
+	}
+
 	/**
 	 * Encrypt the given data
 	 *
@@ -52,4 +92,26 @@ public abstract class ParallelEncryptionCipherWrapper extends ParallelCipherWrap
 	 */
 	protected abstract EncryptionBuffer doEncrypt(byte[] input) throws EncryptionException;
 
+	/**
+	 * Encrypt the remaining bytes of a buffer into the output buffer
+	 *
+	 * @param plainText
+	 *            {@code ByteBuffer} of plaintext data
+	 * @param output
+	 *            {@code ByteBuffer} that receives the encryption payload and
+	 *            encrypted data
+	 * @return {@code int} with the number of bytes written to the output
+	 * @throws EncryptionException
+	 *             {@link EncryptionException}
+	 */
+	protected abstract int doEncrypt(ByteBuffer plainText, ByteBuffer output) throws EncryptionException;
+
+	/**
+	 * @param plainTextLength
+	 *            {@code int} with the length of the plaintext
+	 * @return {@code int} with the largest output of
+	 *         {@link #doEncrypt(ByteBuffer, ByteBuffer)}
+	 */
+	protected abstract int doGetEncryptedLength(int plainTextLength);
+
 }
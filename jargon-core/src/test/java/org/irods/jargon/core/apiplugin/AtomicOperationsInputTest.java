@@ -0,0 +1,38 @@
+package org.irods.jargon.core.apiplugin;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class AtomicOperationsInputTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testMetadataOperationsJson() throws Exception {
+		AtomicMetadataOperationsInput input = new AtomicMetadataOperationsInput();
+		input.setEntityName("/zone/home/test/file.txt");
+		input.setEntityType(AtomicMetadataOperationsInput.DATA_OBJECT);
+		input.getOperations().add(new AtomicMetadataOperation(AtomicMetadataOperation.ADD, "a", "v", "u"));
+
+		String json = mapper.writeValueAsString(input);
+		Assert.assertEquals("{\"entity_name\":\"/zone/home/test/file.txt\",\"entity_type\":\"data_object\","
+				+ "\"operations\":[{\"operation\":\"add\",\"attribute\":\"a\",\"value\":\"v\",\"units\":\"u\"}]}",
+				json);
+	}
+
+	@Test
+	public void testAclOperationsJson() throws Exception {
+		AtomicAclOperationsInput input = new AtomicAclOperationsInput();
+		input.setLogicalPath("/zone/home/test/coll");
+		input.getOperations().add(new AtomicAclOperation("user1", "read"));
+		input.getOperations().add(new AtomicAclOperation("user2#otherZone", "null"));
+
+		String json = mapper.writeValueAsString(input);
+		Assert.assertEquals("{\"logical_path\":\"/zone/home/test/coll\",\"operations\":["
+				+ "{\"entity_name\":\"user1\",\"acl\":\"read\"},{\"entity_name\":\"user2#otherZone\",\"acl\":\"null\"}]}",
+				json);
+	}
+
+}
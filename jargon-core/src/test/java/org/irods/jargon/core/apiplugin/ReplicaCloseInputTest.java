@@ -0,0 +1,31 @@
+package org.irods.jargon.core.apiplugin;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ReplicaCloseInputTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testCloseWithoutUpdateJson() throws Exception {
+		String json = mapper.writeValueAsString(ReplicaCloseInput.instanceForCloseWithoutUpdate(3));
+		Assert.assertEquals("{\"fd\":3,\"update_size\":false,\"update_status\":false,\"compute_checksum\":false,"
+				+ "\"send_notifications\":false,\"preserve_replica_state_table\":false}", json);
+	}
+
+	@Test
+	public void testFinalCloseJson() throws Exception {
+		String json = mapper.writeValueAsString(ReplicaCloseInput.instanceForFinalClose(4, true));
+		Assert.assertEquals("{\"fd\":4,\"update_size\":true,\"update_status\":true,\"compute_checksum\":true,"
+				+ "\"send_notifications\":true,\"preserve_replica_state_table\":false}", json);
+	}
+
+	@Test
+	public void testFileDescriptorInfoJson() throws Exception {
+		Assert.assertEquals("{\"fd\":5}", mapper.writeValueAsString(new FileDescriptorInfoInput(5)));
+	}
+
+}
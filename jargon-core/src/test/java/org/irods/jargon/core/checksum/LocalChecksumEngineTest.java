@@ -0,0 +1,102 @@
+package org.irods.jargon.core.checksum;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Hex;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Block reads, read-ahead and batches of {@link LocalChecksumEngine} against
+ * the single-threaded checksums in {@link LocalFileUtils}
+ */
+public class LocalChecksumEngineTest {
+
+	private LocalChecksumEngine localChecksumEngine;
+	private final List<File> files = new ArrayList<File>();
+
+	@Before
+	public void setUp() throws Exception {
+		localChecksumEngine = new LocalChecksumEngine();
+		// small blocks, so that most files are read ahead over several blocks
+		localChecksumEngine.setLimits(4096, 3);
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testReadAheadMatchesSingleThreadedChecksum() throws Exception {
+		int[] lengths = { 0, 1, 4095, 4096, 4097, 3 * 4096, 100000 };
+		for (int length : lengths) {
+			String path = createFile(length);
+
+			ChecksumValue md5 = localChecksumEngine.computeChecksumValue(new MD5LocalChecksumComputerStrategy(),
+					path);
+			Assert.assertEquals("md5 differs for length:" + length,
+					Hex.encodeHexString(LocalFileUtils.computeMD5FileCheckSumViaAbsolutePath(path)),
+					md5.getHexChecksumValue());
+
+			ChecksumValue sha256 = localChecksumEngine
+					.computeChecksumValue(new SHA256LocalChecksumComputerStrategy(), path);
+			Assert.assertEquals("sha256 differs for length:" + length,
+					Hex.encodeHexString(LocalFileUtils.computeSHA256FileCheckSumViaAbsolutePath(path)),
+					sha256.getHexChecksumValue());
+		}
+	}
+
+	@Test
+	public void testBatchReturnsChecksumsInOrder() throws Exception {
+		List<String> paths = new ArrayList<String>();
+		for (int i = 0; i < 10; i++) {
+			paths.add(createFile(i * 5000));
+		}
+
+		AbstractChecksumComputeStrategy strategy = new MD5LocalChecksumComputerStrategy(localChecksumEngine);
+		List<ChecksumValue> checksumValues = strategy.computeChecksumValuesForLocalFiles(paths);
+
+		Assert.assertEquals(paths.size(), checksumValues.size());
+		for (int i = 0; i < paths.size(); i++) {
+			Assert.assertEquals("checksum out of order at:" + i,
+					Hex.encodeHexString(LocalFileUtils.computeMD5FileCheckSumViaAbsolutePath(paths.get(i))),
+					checksumValues.get(i).getHexChecksumValue());
+		}
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testBatchWithMissingFile() throws Exception {
+		List<String> paths = new ArrayList<String>();
+		paths.add(createFile(10000));
+		paths.add(createFile(10000) + ".missing");
+		paths.add(createFile(10000));
+
+		localChecksumEngine.computeChecksumValues(new MD5LocalChecksumComputerStrategy(), paths);
+	}
+
+	private String createFile(final int length) throws Exception {
+		File file = File.createTempFile("checksum-engine", ".dat");
+		files.add(file);
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		FileOutputStream outputStream = new FileOutputStream(file);
+		try {
+			outputStream.write(data);
+		} finally {
+			outputStream.close();
+		}
+		return file.getAbsolutePath();
+	}
+
+}
@@ -1,5 +1,9 @@
 package org.irods.jargon.core.checksum;
 
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.Properties;
 
 import org.apache.commons.codec.binary.Base64;
@@ -54,4 +58,30 @@ public class MD5LocalChecksumComputerStrategyTest {
 
 	}
 
+	@Test
+	public void testDigestOfStreamMatchesFileChecksum() throws Exception {
+		String testFileName = "testDigestOfStreamMatchesFileChecksum.txt";
+		String absPath = scratchFileUtils.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH);
+		String localFileName = FileGenerator.generateFileOfFixedLengthGivenName(absPath, testFileName, 100000);
+
+		AbstractChecksumComputeStrategy checksumStrategy = new MD5LocalChecksumComputerStrategy();
+		MessageDigest messageDigest = checksumStrategy.instanceMessageDigest();
+		InputStream inputStream = new DigestInputStream(new FileInputStream(localFileName), messageDigest);
+		try {
+			byte[] buffer = new byte[4096];
+			while (inputStream.read(buffer) != -1) {
+				// digested as read
+			}
+		} finally {
+			inputStream.close();
+		}
+
+		ChecksumValue expected = checksumStrategy.computeChecksumValueForLocalFile(localFileName);
+		ChecksumValue actual = checksumStrategy.instanceChecksumValueFromDigest(messageDigest.digest());
+		Assert.assertEquals("digest of stream does not match checksum of file", expected.getChecksumStringValue(),
+				actual.getChecksumStringValue());
+		Assert.assertEquals("transmission value improper", expected.getChecksumTransmissionFormat(),
+				actual.getChecksumTransmissionFormat());
+	}
+
 }
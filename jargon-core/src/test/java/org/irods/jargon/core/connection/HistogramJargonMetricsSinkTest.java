@@ -0,0 +1,133 @@
+package org.irods.jargon.core.connection;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInpForObjStat;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.Tag;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Metrics recorded by {@link HistogramJargonMetricsSink}, and by
+ * {@link IRODSMidLevelProtocol} when {@code jargon.instrument} is set, against
+ * a mock connection
+ */
+public class HistogramJargonMetricsSinkTest {
+
+	@Test
+	public void testApiCallsAreKeyedByApiAndType() {
+		HistogramJargonMetricsSink sink = new HistogramJargonMetricsSink();
+		sink.apiCallCompleted(633, "DataObjInpForObjStat", 10, 2000, 30, 100, 200, 0);
+		sink.apiCallCompleted(633, "DataObjInpForObjStat", 10, 4000, 30, 100, 200, -310000);
+		sink.apiCallCompleted(702, "GenQueryInp", 10, 1000, 30, 100, 200, 0);
+
+		Assert.assertEquals(3, sink.getApiCallCount());
+		Assert.assertEquals(1, sink.getApiErrorCount());
+		Assert.assertEquals(2, sink.getWaitHistogram(633, "DataObjInpForObjStat").getCount());
+		Assert.assertEquals(4000, sink.getWaitHistogram(633, "DataObjInpForObjStat").getMax());
+		Assert.assertNull(sink.getWaitHistogram(1, "none"));
+		Assert.assertEquals(2, sink.getApiCallSummaries().length);
+		Assert.assertTrue(sink.getApiCallSummaries()[0].contains("-310000=1"));
+	}
+
+	@Test
+	public void testLifecycleAndTransferMetrics() {
+		HistogramJargonMetricsSink sink = new HistogramJargonMetricsSink();
+		sink.connectionLifecycleEvent(ConnectionLifecycleEvent.CONNECT, 5000, true);
+		sink.connectionLifecycleEvent(ConnectionLifecycleEvent.AUTHENTICATE, 5000, false);
+		sink.parallelTransferThreadCompleted(true, 1, 1000, 1000000000L);
+
+		Assert.assertEquals(1, sink.getLifecycleHistogram(ConnectionLifecycleEvent.CONNECT).getCount());
+		Assert.assertTrue(sink.getConnectionLifecycleSummaries()[2].contains("failures=1"));
+		Assert.assertEquals(1000, sink.getParallelTransferThroughputHistogram(true).getMax());
+		Assert.assertEquals(0, sink.getParallelTransferThroughputHistogram(false).getCount());
+
+		sink.reset();
+		Assert.assertEquals(0, sink.getLifecycleHistogram(ConnectionLifecycleEvent.CONNECT).getCount());
+		Assert.assertEquals(0, sink.getParallelTransferThroughputHistogram(true).getCount());
+	}
+
+	@Test
+	public void testSessionsShareTheDefaultSinkRegisteredInJmx() throws Exception {
+		IRODSSession firstSession = new IRODSSession(new SettableJargonProperties());
+		IRODSSession secondSession = new IRODSSession(new SettableJargonProperties());
+
+		JargonMetricsSink sink = firstSession.getJargonMetricsSink();
+		Assert.assertSame("sessions did not share the default sink", sink, secondSession.getJargonMetricsSink());
+		Assert.assertTrue("default sink not in JMX", ManagementFactory.getPlatformMBeanServer()
+				.isRegistered(new ObjectName("org.irods.jargon.core.connection:type=JargonMetrics")));
+
+		HistogramJargonMetricsSink ownSink = new HistogramJargonMetricsSink();
+		secondSession.setJargonMetricsSink(ownSink);
+		Assert.assertSame("did not use sink set on the session", ownSink, secondSession.getJargonMetricsSink());
+		Assert.assertSame("setting a sink changed another session", sink, firstSession.getJargonMetricsSink());
+	}
+
+	@Test
+	public void testProtocolRecordsEachPipelinedRequest() throws Exception {
+		HistogramJargonMetricsSink sink = new HistogramJargonMetricsSink();
+		ReplyingProtocol protocol = new ReplyingProtocol(mockConnection(true), sink);
+		List<IRodsPI> requests = new ArrayList<IRodsPI>();
+		for (int i = 0; i < 3; i++) {
+			requests.add(DataObjInpForObjStat.instance("/zone/home/test/file" + i));
+		}
+		protocol.replyInfo = -310000;
+
+		protocol.irodsFunctionPipelined(requests, 2);
+
+		LockFreeHistogram wait = sink.getWaitHistogram(DataObjInpForObjStat.OBJ_STAT_API_NBR,
+				"DataObjInpForObjStat");
+		Assert.assertNotNull("request not named after its packing instruction", wait);
+		Assert.assertEquals(3, wait.getCount());
+		Assert.assertEquals(3, sink.getApiErrorCount());
+	}
+
+	@Test
+	public void testProtocolRecordsNothingWhenNotInstrumented() throws Exception {
+		HistogramJargonMetricsSink sink = new HistogramJargonMetricsSink();
+		ReplyingProtocol protocol = new ReplyingProtocol(mockConnection(false), sink);
+
+		protocol.irodsFunction(DataObjInpForObjStat.instance("/zone/home/test/file"));
+
+		Assert.assertEquals(0, sink.getApiCallCount());
+	}
+
+	private static AbstractConnection mockConnection(final boolean instrument) throws JargonException {
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setInstrument(instrument);
+		AbstractConnection connection = Mockito.mock(AbstractConnection.class);
+		Mockito.when(connection.getPipelineConfiguration())
+				.thenReturn(PipelineConfiguration.instance(jargonProperties));
+		Mockito.when(connection.isConnected()).thenReturn(true);
+		return connection;
+	}
+
+	/**
+	 * Replies to every request with an empty message carrying the given info
+	 */
+	private static class ReplyingProtocol extends IRODSMidLevelProtocol {
+
+		int replyInfo = 0;
+
+		ReplyingProtocol(final AbstractConnection connection, final JargonMetricsSink sink) {
+			super(connection, Mockito.mock(IRODSProtocolManager.class));
+			IRODSSession irodsSession = Mockito.mock(IRODSSession.class);
+			Mockito.when(irodsSession.getJargonMetricsSink()).thenReturn(sink);
+			setIrodsSession(irodsSession);
+		}
+
+		@Override
+		Tag readHeader() throws JargonException {
+			return new Tag(IRodsPI.MSG_HEADER_PI_TAG, new Tag[] { new Tag("type", "RODS_API_REPLY"),
+					new Tag("msgLen", 0), new Tag("errorLen", 0), new Tag("bsLen", 0), new Tag("intInfo", replyInfo) });
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.DataObjInpForObjStat;
+import org.irods.jargon.core.packinstr.Tag;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Pipelining of requests in {@link IRODSMidLevelProtocol} against a mock
+ * connection, no iRODS server is needed
+ */
+public class IRODSMidLevelProtocolPipelinedTest {
+
+	@Test
+	public void testResponsesInRequestOrderWithinWindow() throws Exception {
+		ScriptedProtocol protocol = new ScriptedProtocol(mockConnection(true));
+
+		List<PipelinedResponse> responses = protocol.irodsFunctionPipelined(requests(5), 2);
+
+		Assert.assertEquals(5, responses.size());
+		for (int i = 0; i < 5; i++) {
+			Assert.assertTrue(responses.get(i).isSuccess());
+			Assert.assertEquals("response" + i, responses.get(i).getResponse().getName());
+		}
+		Assert.assertEquals(5, protocol.sent);
+		Assert.assertEquals(2, protocol.maxOutstanding);
+	}
+
+	@Test
+	public void testWindowOfZeroSendsOneAtATime() throws Exception {
+		ScriptedProtocol protocol = new ScriptedProtocol(mockConnection(true));
+
+		protocol.irodsFunctionPipelined(requests(3), 0);
+
+		Assert.assertEquals(1, protocol.maxOutstanding);
+	}
+
+	@Test
+	public void testErrorIsCorrelatedToItsRequest() throws Exception {
+		ScriptedProtocol protocol = new ScriptedProtocol(mockConnection(true));
+		protocol.failAt = 1;
+		List<DataObjInpForObjStat> requests = requests(3);
+
+		List<PipelinedResponse> responses = protocol.irodsFunctionPipelined(requests, 3);
+
+		Assert.assertTrue(responses.get(0).isSuccess());
+		Assert.assertFalse(responses.get(1).isSuccess());
+		Assert.assertSame(requests.get(1), responses.get(1).getRequest());
+		Assert.assertTrue(responses.get(1).getException() instanceof FileNotFoundException);
+		Assert.assertTrue(responses.get(2).isSuccess());
+		try {
+			responses.get(1).getResponseOrThrow();
+			Assert.fail("expected error of second request");
+		} catch (FileNotFoundException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = JargonException.class)
+	public void testLostConnectionIsThrown() throws Exception {
+		ScriptedProtocol protocol = new ScriptedProtocol(mockConnection(false));
+		protocol.failAt = 0;
+
+		protocol.irodsFunctionPipelined(requests(3), 3);
+	}
+
+	private static List<DataObjInpForObjStat> requests(final int count) throws JargonException {
+		List<DataObjInpForObjStat> requests = new ArrayList<DataObjInpForObjStat>();
+		for (int i = 0; i < count; i++) {
+			requests.add(DataObjInpForObjStat.instance("/zone/home/test/file" + i));
+		}
+		return requests;
+	}
+
+	private static AbstractConnection mockConnection(final boolean connected) throws JargonException {
+		AbstractConnection connection = Mockito.mock(AbstractConnection.class);
+		Mockito.when(connection.getPipelineConfiguration())
+				.thenReturn(PipelineConfiguration.instance(new SettableJargonProperties()));
+		Mockito.when(connection.isConnected()).thenReturn(connected);
+		return connection;
+	}
+
+	/**
+	 * Answers each request in order, counting how many were outstanding when a
+	 * response is read
+	 */
+	private static class ScriptedProtocol extends IRODSMidLevelProtocol {
+
+		int sent = 0;
+		int read = 0;
+		int maxOutstanding = 0;
+		int failAt = -1;
+
+		ScriptedProtocol(final AbstractConnection connection) throws Exception {
+			super(connection, Mockito.mock(IRODSProtocolManager.class));
+			Mockito.doAnswer(new Answer<Void>() {
+				@Override
+				public Void answer(final InvocationOnMock invocation) throws Throwable {
+					sent++;
+					return null;
+				}
+			}).when(connection).sendInNetworkOrder(Mockito.anyInt());
+		}
+
+		@Override
+		public synchronized Tag readMessage() throws JargonException {
+			maxOutstanding = Math.max(maxOutstanding, sent - read);
+			int index = read++;
+			if (index == failAt) {
+				throw new FileNotFoundException("-310000");
+			}
+			return new Tag("response" + index);
+		}
+	}
+
+}
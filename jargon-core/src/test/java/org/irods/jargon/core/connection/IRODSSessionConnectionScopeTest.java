@@ -0,0 +1,104 @@
+package org.irods.jargon.core.connection;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class IRODSSessionConnectionScopeTest {
+
+	private IRODSProtocolManager irodsProtocolManager;
+	private IRODSMidLevelProtocol irodsMidLevelProtocol;
+	private IRODSSession irodsSession;
+	private IRODSAccount irodsAccount;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsProtocolManager = Mockito.mock(IRODSProtocolManager.class);
+		irodsMidLevelProtocol = Mockito.mock(IRODSMidLevelProtocol.class);
+		Mockito.when(irodsMidLevelProtocol.isConnected()).thenReturn(true);
+		Mockito.when(irodsProtocolManager.getIRODSProtocol(Matchers.any(IRODSAccount.class),
+				Matchers.any(PipelineConfiguration.class), Matchers.any(IRODSSession.class)))
+				.thenReturn(irodsMidLevelProtocol);
+		SettableJargonProperties settableJargonProperties = new SettableJargonProperties();
+		settableJargonProperties.setConnectionPerOperation(true);
+		irodsSession = new IRODSSession(settableJargonProperties);
+		irodsSession.setIrodsProtocolManager(irodsProtocolManager);
+		irodsAccount = IRODSAccount.instance("host", 1247, "user", "password", "/zone/home/user", "zone", "");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		IRODSSession.sessionMap.remove();
+	}
+
+	@Test
+	public void testScopeReturnsConnectionOnClose() throws Exception {
+		ConnectionScope connectionScope = irodsSession.openConnectionScope(irodsAccount);
+		Assert.assertTrue("should be in scope", irodsSession.isInConnectionScope(irodsAccount));
+		Assert.assertSame("did not bind borrowed connection", irodsMidLevelProtocol,
+				irodsSession.currentConnection(irodsAccount));
+		connectionScope.close();
+		Assert.assertFalse("should not be in scope", irodsSession.isInConnectionScope(irodsAccount));
+		Assert.assertTrue("connection left bound to thread", IRODSSession.sessionMap.get() == null
+				|| IRODSSession.sessionMap.get().get(irodsAccount.toString()) == null);
+		Mockito.verify(irodsProtocolManager, Mockito.times(1)).returnIRODSProtocol(irodsMidLevelProtocol);
+	}
+
+	@Test
+	public void testNestedScopeSharesConnection() throws Exception {
+		ConnectionScope outer = irodsSession.openConnectionScope(irodsAccount);
+		ConnectionScope inner = irodsSession.openConnectionScope(irodsAccount);
+		Assert.assertNull("inner scope should not borrow", inner.getLeasedConnection());
+		inner.close();
+		Assert.assertTrue("outer scope should still be open", irodsSession.isInConnectionScope(irodsAccount));
+		Mockito.verify(irodsProtocolManager, Mockito.never()).returnIRODSProtocol(irodsMidLevelProtocol);
+		outer.close();
+		outer.close();
+		Mockito.verify(irodsProtocolManager, Mockito.times(1)).returnIRODSProtocol(irodsMidLevelProtocol);
+		Mockito.verify(irodsProtocolManager, Mockito.times(1)).getIRODSProtocol(Matchers.any(IRODSAccount.class),
+				Matchers.any(PipelineConfiguration.class), Matchers.any(IRODSSession.class));
+	}
+
+	@Test
+	public void testRetainedConnectionOutlivesScope() throws Exception {
+		ConnectionScope connectionScope = irodsSession.openConnectionScope(irodsAccount);
+		Assert.assertTrue("should retain borrowed connection", irodsSession.retainConnection(irodsMidLevelProtocol));
+		connectionScope.close();
+		Mockito.verify(irodsProtocolManager, Mockito.never()).returnIRODSProtocol(irodsMidLevelProtocol);
+		irodsSession.releaseConnection(irodsMidLevelProtocol);
+		Mockito.verify(irodsProtocolManager, Mockito.times(1)).returnIRODSProtocol(irodsMidLevelProtocol);
+		irodsSession.releaseConnection(irodsMidLevelProtocol);
+		Mockito.verify(irodsProtocolManager, Mockito.times(1)).returnIRODSProtocol(irodsMidLevelProtocol);
+	}
+
+	@Test
+	public void testScopeLeavesThreadConnectionBound() throws Exception {
+		IRODSMidLevelProtocol bound = irodsSession.currentConnection(irodsAccount);
+		ConnectionScope connectionScope = irodsSession.openConnectionScope(irodsAccount);
+		Assert.assertNull("should not borrow when thread holds a connection", connectionScope.getLeasedConnection());
+		Assert.assertFalse("thread connection is not retained", irodsSession.retainConnection(bound));
+		connectionScope.close();
+		Assert.assertSame("thread connection was unbound", bound,
+				IRODSSession.sessionMap.get().get(irodsAccount.toString()));
+		Mockito.verify(irodsProtocolManager, Mockito.never()).returnIRODSProtocol(bound);
+	}
+
+	@Test
+	public void testDetachedConnectionIsNotBoundToThread() throws Exception {
+		IRODSMidLevelProtocol detached = irodsSession.borrowDetachedConnection(irodsAccount);
+		Assert.assertSame("did not borrow from protocol manager", irodsMidLevelProtocol, detached);
+		Assert.assertTrue("detached connection bound to thread", IRODSSession.sessionMap.get() == null
+				|| IRODSSession.sessionMap.get().get(irodsAccount.toString()) == null);
+		irodsSession.releaseConnection(detached);
+		Mockito.verify(irodsProtocolManager, Mockito.times(1)).returnIRODSProtocol(detached);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOpenScopeNullAccount() throws Exception {
+		irodsSession.openConnectionScope(null);
+	}
+
+}
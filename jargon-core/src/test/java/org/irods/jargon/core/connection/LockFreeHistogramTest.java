@@ -0,0 +1,88 @@
+package org.irods.jargon.core.connection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LockFreeHistogramTest {
+
+	@Test
+	public void testEmpty() {
+		LockFreeHistogram histogram = new LockFreeHistogram();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getMean());
+		Assert.assertEquals(0, histogram.getPercentile(99));
+	}
+
+	@Test
+	public void testCountSumMeanAndMax() {
+		LockFreeHistogram histogram = new LockFreeHistogram();
+		histogram.record(10);
+		histogram.record(20);
+		histogram.record(30);
+
+		Assert.assertEquals(3, histogram.getCount());
+		Assert.assertEquals(60, histogram.getSum());
+		Assert.assertEquals(20, histogram.getMean());
+		Assert.assertEquals(30, histogram.getMax());
+	}
+
+	@Test
+	public void testPercentileWithinFactorOfTwo() {
+		LockFreeHistogram histogram = new LockFreeHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1000L);
+		}
+
+		long p50 = histogram.getPercentile(50);
+		Assert.assertTrue("p50 too low:" + p50, p50 >= 50000);
+		Assert.assertTrue("p50 too high:" + p50, p50 < 100000);
+		Assert.assertEquals("p100 should be the max", 100000, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void testNegativeRecordedAsZero() {
+		LockFreeHistogram histogram = new LockFreeHistogram();
+		histogram.record(-5);
+		Assert.assertEquals(1, histogram.getCount());
+		Assert.assertEquals(0, histogram.getSum());
+	}
+
+	@Test
+	public void testReset() {
+		LockFreeHistogram histogram = new LockFreeHistogram();
+		histogram.record(Long.MAX_VALUE);
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getMax());
+		Assert.assertEquals(0, histogram.getPercentile(50));
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		final LockFreeHistogram histogram = new LockFreeHistogram();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						histogram.record(j);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertEquals(40000, histogram.getCount());
+		Assert.assertEquals(9999, histogram.getMax());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPercentileOutOfRange() {
+		new LockFreeHistogram().getPercentile(101);
+	}
+
+}
@@ -0,0 +1,113 @@
+package org.irods.jargon.core.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ObjStatAndListingCacheTest {
+
+	private IRODSAccount irodsAccount;
+	private IRODSAccount otherAccount;
+	private long now;
+	private ObjStatAndListingCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "user", "password", "/zone/home/user", "zone", "");
+		otherAccount = IRODSAccount.instance("host", 1247, "other", "password", "/zone/home/other", "zone", "");
+		now = 1000;
+		cache = new ObjStatAndListingCache() {
+			@Override
+			protected long currentTimeMillis() {
+				return now;
+			}
+		};
+		cache.setLimits(100, 10);
+	}
+
+	@Test
+	public void testObjStatCachedUntilExpired() throws Exception {
+		ObjStat objStat = new ObjStat();
+		cache.cacheObjStat(irodsAccount, "/zone/home/user/file", objStat);
+
+		Assert.assertSame(objStat, cache.retrieveObjStat(irodsAccount, "/zone/home/user/file"));
+		Assert.assertSame("trailing slash not normalized", objStat,
+				cache.retrieveObjStat(irodsAccount, "/zone/home/user/file/"));
+		Assert.assertNull("should be per account", cache.retrieveObjStat(otherAccount, "/zone/home/user/file"));
+
+		now += 101;
+		Assert.assertNull("should have expired", cache.retrieveObjStat(irodsAccount, "/zone/home/user/file"));
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testNotFoundCached() throws Exception {
+		cache.cacheNotFound(irodsAccount, "/zone/home/user/missing");
+		cache.retrieveObjStat(irodsAccount, "/zone/home/user/missing");
+	}
+
+	@Test
+	public void testListingReturnsCopy() throws Exception {
+		List<CollectionAndDataObjectListingEntry> listing = new ArrayList<CollectionAndDataObjectListingEntry>();
+		listing.add(new CollectionAndDataObjectListingEntry());
+		cache.cacheListing(irodsAccount, "/zone/home/user", listing);
+
+		List<CollectionAndDataObjectListingEntry> cached = cache.retrieveListing(irodsAccount, "/zone/home/user");
+		Assert.assertEquals(1, cached.size());
+		cached.clear();
+		Assert.assertEquals("cached listing was changed", 1,
+				cache.retrieveListing(irodsAccount, "/zone/home/user").size());
+	}
+
+	@Test
+	public void testInvalidateRemovesPathChildrenAndParent() throws Exception {
+		List<CollectionAndDataObjectListingEntry> listing = new ArrayList<CollectionAndDataObjectListingEntry>();
+		cache.cacheListing(irodsAccount, "/zone/home/user", listing);
+		cache.cacheObjStat(irodsAccount, "/zone/home/user/dir", new ObjStat());
+		cache.cacheObjStat(irodsAccount, "/zone/home/user/dir/file", new ObjStat());
+		cache.cacheObjStat(otherAccount, "/zone/home/user/dir/file", new ObjStat());
+		cache.cacheObjStat(irodsAccount, "/zone/home/user/dir2", new ObjStat());
+		cache.cacheObjStat(irodsAccount, "/zone/home/user/dir.txt", new ObjStat());
+
+		cache.invalidate("/zone/home/user/dir");
+
+		Assert.assertNull("parent listing not removed", cache.retrieveListing(irodsAccount, "/zone/home/user"));
+		Assert.assertNull(cache.retrieveObjStat(irodsAccount, "/zone/home/user/dir"));
+		Assert.assertNull(cache.retrieveObjStat(irodsAccount, "/zone/home/user/dir/file"));
+		Assert.assertNull("not removed for other account",
+				cache.retrieveObjStat(otherAccount, "/zone/home/user/dir/file"));
+		Assert.assertNotNull("sibling removed", cache.retrieveObjStat(irodsAccount, "/zone/home/user/dir2"));
+		Assert.assertNotNull("sibling removed", cache.retrieveObjStat(irodsAccount, "/zone/home/user/dir.txt"));
+	}
+
+	@Test
+	public void testOldestEvictedOverMaxEntries() throws Exception {
+		for (int i = 0; i < 15; i++) {
+			cache.cacheObjStat(irodsAccount, "/zone/home/user/file" + i, new ObjStat());
+		}
+
+		Assert.assertEquals(10, cache.size(irodsAccount));
+		Assert.assertNull("oldest not evicted", cache.retrieveObjStat(irodsAccount, "/zone/home/user/file0"));
+		Assert.assertNotNull(cache.retrieveObjStat(irodsAccount, "/zone/home/user/file14"));
+	}
+
+	@Test
+	public void testEvictionSkipsInvalidatedEntries() throws Exception {
+		for (int i = 0; i < 200; i++) {
+			cache.cacheObjStat(irodsAccount, "/zone/home/user/dir/file" + i, new ObjStat());
+			cache.invalidate("/zone/home/user/dir/file" + i);
+		}
+		for (int i = 0; i < 10; i++) {
+			cache.cacheObjStat(irodsAccount, "/zone/home/user/keep" + i, new ObjStat());
+		}
+
+		Assert.assertEquals(10, cache.size(irodsAccount));
+		Assert.assertNotNull(cache.retrieveObjStat(irodsAccount, "/zone/home/user/keep0"));
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.irods.jargon.core.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JargonFlightRecorderTest {
+
+	@Test
+	public void testNoEventWhenNotRecording() {
+		Assert.assertNull(JargonFlightRecorder.beginProtocolCall());
+		Assert.assertNull(JargonFlightRecorder.beginConnection());
+		// committing a null event is ignored
+		JargonFlightRecorder.commitProtocolCall(null, 633, "DataObjInpForObjStat", 1, 1, 0);
+	}
+
+	@Test
+	public void testEventsAreRecorded() throws Exception {
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247, "user", "password", "/zone/home/user",
+				"zone", "");
+		Path dump = Files.createTempFile("jargon", ".jfr");
+		Recording recording = new Recording();
+		try {
+			recording.enable(ProtocolCallEvent.class);
+			recording.enable(ConnectionEvent.class);
+			recording.enable(PoolActivityEvent.class);
+			recording.start();
+
+			ProtocolCallEvent protocolCallEvent = JargonFlightRecorder.beginProtocolCall();
+			Assert.assertNotNull("event should be enabled", protocolCallEvent);
+			JargonFlightRecorder.commitProtocolCall(protocolCallEvent, 633, "DataObjInpForObjStat", 100, 200,
+					-310000);
+			JargonFlightRecorder.commitConnection(JargonFlightRecorder.beginConnection(), irodsAccount, true);
+			JargonFlightRecorder.commitPoolActivity(JargonFlightRecorder.beginPoolActivity(),
+					JargonFlightRecorder.BORROW, irodsAccount, true, 2);
+
+			recording.stop();
+			recording.dump(dump);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+			RecordedEvent protocolCall = find(events, "org.irods.jargon.ProtocolCall");
+			Assert.assertEquals(633, protocolCall.getInt("apiNumber"));
+			Assert.assertEquals("DataObjInpForObjStat", protocolCall.getString("messageType"));
+			Assert.assertEquals(200, protocolCall.getLong("bytesReceived"));
+			Assert.assertEquals(-310000, protocolCall.getInt("status"));
+
+			RecordedEvent connection = find(events, "org.irods.jargon.Connection");
+			Assert.assertEquals("host", connection.getString("host"));
+			Assert.assertTrue(connection.getBoolean("reused"));
+
+			RecordedEvent poolActivity = find(events, "org.irods.jargon.PoolActivity");
+			Assert.assertEquals(JargonFlightRecorder.BORROW, poolActivity.getString("operation"));
+			Assert.assertEquals(2, poolActivity.getInt("idleConnections"));
+		} finally {
+			recording.close();
+			Files.deleteIfExists(dump);
+		}
+	}
+
+	private static RecordedEvent find(final List<RecordedEvent> events, final String name) {
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals(name)) {
+				return event;
+			}
+		}
+		Assert.fail("no event recorded for " + name);
+		return null;
+	}
+
+}
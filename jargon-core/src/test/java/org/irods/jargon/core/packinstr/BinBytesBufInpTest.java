@@ -0,0 +1,40 @@
+package org.irods.jargon.core.packinstr;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.irods.jargon.core.utils.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinBytesBufInpTest {
+
+	@Test
+	public final void testInstanceForJson() throws Exception {
+		BinBytesBufInp instance = BinBytesBufInp
+				.instanceForJson(ApiPluginConstants.ATOMIC_APPLY_METADATA_OPERATIONS_APN, "{}");
+		Assert.assertEquals("wrong API number", ApiPluginConstants.ATOMIC_APPLY_METADATA_OPERATIONS_APN,
+				instance.getApiNumber());
+
+		Tag tag = instance.getTagValue();
+		Assert.assertEquals("json and null terminator", 3, tag.getTag(BinBytesBufInp.BUF_LEN).getIntValue());
+		byte[] buf = Base64.fromString(tag.getTag(BinBytesBufInp.BUF).getStringValue());
+		Assert.assertArrayEquals(new byte[] { '{', '}', 0 }, buf);
+	}
+
+	@Test
+	public final void testDecodeResponse() throws Exception {
+		Tag response = new Tag(BinBytesBufInp.PI_TAG, new Tag[] { new Tag(BinBytesBufInp.BUF_LEN, 3),
+				new Tag(BinBytesBufInp.BUF, Base64.toString(new byte[] { '{', '}', 0 })) });
+		Assert.assertEquals("{}", BinBytesBufInp.decodeResponseAsString(response));
+	}
+
+	@Test
+	public final void testDecodeNoResponse() {
+		Assert.assertEquals("", BinBytesBufInp.decodeResponseAsString(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInstanceNullJson() {
+		BinBytesBufInp.instanceForJson(ApiPluginConstants.ATOMIC_APPLY_METADATA_OPERATIONS_APN, null);
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.irods.jargon.core.packinstr;
+
+import org.irods.jargon.core.apiplugin.ApiPluginConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataObjInpForReplicaOpenTest {
+
+	@Test
+	public final void testInstanceForCreate() throws Exception {
+		DataObjInpForReplicaOpen dataObjInp = DataObjInpForReplicaOpen.instanceForCreate("/zone/home/test/file.txt",
+				100L, "resc", true);
+		Assert.assertEquals(ApiPluginConstants.REPLICA_OPEN_APN, dataObjInp.getApiNumber());
+		Assert.assertEquals(DataObjInpForReplicaOpen.WRITE_FLAGS | DataObjInp.CREATE | DataObjInp.TRUNCATE,
+				dataObjInp.getOpenFlags());
+
+		String tagOut = dataObjInp.getParsedTags();
+		Assert.assertTrue("no data size", tagOut.indexOf("<dataSize>100</dataSize>") > -1);
+		Assert.assertTrue("no force flag", tagOut.indexOf("<keyWord>forceFlag</keyWord>") > -1);
+		Assert.assertTrue("no resource", tagOut.indexOf("<keyWord>destRescName</keyWord>") > -1);
+		Assert.assertTrue("unexpected token", tagOut.indexOf(DataObjInpForReplicaOpen.REPLICA_TOKEN_KW) == -1);
+	}
+
+	@Test
+	public final void testInstanceForJoinedWrite() throws Exception {
+		DataObjInpForReplicaOpen dataObjInp = DataObjInpForReplicaOpen
+				.instanceForJoinedWrite("/zone/home/test/file.txt", "token", "root;leaf");
+		Assert.assertEquals(DataObjInpForReplicaOpen.WRITE_FLAGS, dataObjInp.getOpenFlags());
+
+		String tagOut = dataObjInp.getParsedTags();
+		Assert.assertTrue("no token", tagOut.indexOf("<keyWord>replicaToken</keyWord>") > -1);
+		Assert.assertTrue("no token value", tagOut.indexOf("<svalue>token</svalue>") > -1);
+		Assert.assertTrue("no hierarchy", tagOut.indexOf("<keyWord>resc_hier</keyWord>") > -1);
+		Assert.assertTrue("unexpected force flag", tagOut.indexOf("forceFlag") == -1);
+	}
+
+	@Test
+	public final void testInstanceForRead() throws Exception {
+		DataObjInpForReplicaOpen dataObjInp = DataObjInpForReplicaOpen.instanceForRead("/zone/home/test/file.txt",
+				"");
+		Assert.assertEquals(DataObjInpForReplicaOpen.READ_FLAGS, dataObjInp.getOpenFlags());
+		Assert.assertTrue("unexpected hierarchy", dataObjInp.getParsedTags().indexOf("resc_hier") == -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInstanceForJoinedWriteNoToken() throws Exception {
+		DataObjInpForReplicaOpen.instanceForJoinedWrite("/zone/home/test/file.txt", "", "root;leaf");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void testInstanceForReadBlankPath() throws Exception {
+		DataObjInpForReplicaOpen.instanceForRead("", "");
+	}
+
+}
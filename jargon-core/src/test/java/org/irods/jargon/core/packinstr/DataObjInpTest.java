@@ -176,6 +176,60 @@ public class DataObjInpTest {
 		Assert.assertEquals("did not get expected packing instruction", sb.toString(), dataObjInp.getParsedTags());
 	}
 
+	@Test
+	public final void testGetParsedTagsForCallToPutDigestingChecksum() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeChecksumAfterTransfer(true);
+		transferOptions.setDigestChecksumDuringTransfer(true);
+		DataObjInp dataObjInp = DataObjInp.instanceForNormalPutStrategy("/test1/home/test1/file.txt", 1, "test1-resc",
+				true, transferOptions, false);
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("<DataObjInp_PI><objPath>/test1/home/test1/file.txt</objPath>\n");
+		sb.append("<createMode>33188</createMode>\n");
+		sb.append("<openFlags>2</openFlags>\n");
+		sb.append("<offset>0</offset>\n");
+		sb.append("<dataSize>1</dataSize>\n");
+		sb.append("<numThreads>4</numThreads>\n");
+		sb.append("<oprType>1</oprType>\n");
+		sb.append("<KeyValPair_PI><ssLen>5</ssLen>\n");
+		sb.append("<keyWord>dataType</keyWord>\n");
+		sb.append("<keyWord>dataIncluded</keyWord>\n");
+		sb.append("<keyWord>regChksum</keyWord>\n");
+		sb.append("<keyWord>forceFlag</keyWord>\n");
+		sb.append("<keyWord>destRescName</keyWord>\n");
+		sb.append("<svalue>generic</svalue>\n");
+		sb.append("<svalue></svalue>\n");
+		sb.append("<svalue></svalue>\n");
+		sb.append("<svalue></svalue>\n");
+		sb.append("<svalue>test1-resc</svalue>\n");
+		sb.append("</KeyValPair_PI>\n");
+		sb.append("</DataObjInp_PI>\n");
+		Assert.assertEquals("did not get expected packing instruction", sb.toString(), dataObjInp.getParsedTags());
+	}
+
+	@Test
+	public final void testGetParsedTagsForCallToPutDigestingChecksumWithVerify() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeAndVerifyChecksumAfterTransfer(true);
+		transferOptions.setDigestChecksumDuringTransfer(true);
+		DataObjInp dataObjInp = DataObjInp.instanceForNormalPutStrategy("/test1/home/test1/file.txt", 1, "test1-resc",
+				true, transferOptions, false);
+
+		String tagOut = dataObjInp.getParsedTags();
+		Assert.assertTrue("no regChksum", tagOut.indexOf("<keyWord>regChksum</keyWord>") > -1);
+		Assert.assertTrue("verify should be done by the client", tagOut.indexOf("verifyChksum") == -1);
+	}
+
+	@Test(expected = JargonException.class)
+	public final void testGetParsedTagsForCallToPutChecksumWithoutValue() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeChecksumAfterTransfer(true);
+		DataObjInp dataObjInp = DataObjInp.instanceForNormalPutStrategy("/test1/home/test1/file.txt", 1, "test1-resc",
+				true, transferOptions, false);
+		dataObjInp.getParsedTags();
+	}
+
 	@Test
 	public final void testGetParsedTagsForGet() throws Exception {
 		DataObjInp dataObjInp = DataObjInp
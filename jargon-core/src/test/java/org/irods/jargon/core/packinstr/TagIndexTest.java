@@ -0,0 +1,89 @@
+package org.irods.jargon.core.packinstr;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TagIndexTest {
+
+	private static final String HEADER = "<MsgHeader_PI>\n<type>RODS_API_REPLY</type>\n<msgLen>1234</msgLen>\n"
+			+ "<errorLen>0</errorLen>\n<bsLen>0</bsLen>\n<intInfo>-808000</intInfo>\n</MsgHeader_PI>\n";
+
+	private static final String GEN_QUERY_OUT = "<GenQueryOut_PI>\n<rowCnt>2</rowCnt>\n<attriCnt>2</attriCnt>\n"
+			+ "<continueInx>0</continueInx>\n<totalRowCount>0</totalRowCount>\n<SqlResult_PI>\n"
+			+ "<attriInx>403</attriInx>\n<reslen>64</reslen>\n<value>a &amp; b</value>\n<value>&lt;tag&gt;</value>\n"
+			+ "</SqlResult_PI>\n<SqlResult_PI>\n<attriInx>407</attriInx>\n<reslen>64</reslen>\n<value></value>\n"
+			+ "<value>café &quot;q&quot; &apos; &bogus; &amp</value>\n</SqlResult_PI>\n</GenQueryOut_PI>\n";
+
+	@Test
+	public void testReadNextTagMatchesStringParserForHeader() throws Exception {
+		assertSameAsStringParser(HEADER, true);
+	}
+
+	@Test
+	public void testReadNextTagMatchesStringParserForQueryOut() throws Exception {
+		assertSameAsStringParser(GEN_QUERY_OUT, true);
+		assertSameAsStringParser(GEN_QUERY_OUT, false);
+	}
+
+	@Test
+	public void testReadNextTagNoNewlinesAndLeadingNoise() throws Exception {
+		assertSameAsStringParser("\0\0<a><b>1</b><c><d>x\ny</d></c></a>", true);
+	}
+
+	@Test
+	public void testReadNextTagFromRegionOfBuffer() throws Exception {
+		byte[] message = HEADER.getBytes(StandardCharsets.UTF_8);
+		byte[] buffer = new byte[message.length + 20];
+		System.arraycopy(message, 0, buffer, 10, message.length);
+		Tag tag = Tag.readNextTag(buffer, 10, message.length, true, "utf-8");
+		Assert.assertEquals(Tag.readNextTagFromString(HEADER, true).parseTag(), tag.parseTag());
+	}
+
+	@Test
+	public void testReadNextTagNoTag() throws Exception {
+		Assert.assertNull(Tag.readNextTag("no tags here".getBytes(StandardCharsets.UTF_8), "utf-8"));
+	}
+
+	@Test(expected = UnsupportedEncodingException.class)
+	public void testIndexUnsupportedEncoding() throws Exception {
+		byte[] data = HEADER.getBytes(StandardCharsets.UTF_16);
+		TagIndex.parse(data, 0, data.length, true, "UTF-16");
+	}
+
+	@Test
+	public void testReadNextTagUtf16FallsBackToStringParser() throws Exception {
+		Tag tag = Tag.readNextTag(HEADER.getBytes(StandardCharsets.UTF_16), "UTF-16");
+		Assert.assertEquals(Tag.readNextTagFromString(HEADER, true).parseTag(), tag.parseTag());
+		Assert.assertEquals(-808000, tag.getTag("intInfo").getIntValue());
+	}
+
+	@Test
+	public void testParseTagEscapes() {
+		Tag tag = new Tag("a", new Tag[] { new Tag("b", "x<y>&\"`z"), new Tag("c", (String) null) });
+		Assert.assertEquals("<a><b>x&lt;y&gt;&amp;&quot;&apos;z</b>\n<c>null</c>\n</a>\n", tag.parseTag());
+	}
+
+	private void assertSameAsStringParser(final String message, final boolean decode) throws Exception {
+		Tag expected = Tag.readNextTagFromString(message, decode);
+		Tag actual = Tag.readNextTag(message.getBytes(StandardCharsets.UTF_8), decode, "UTF-8");
+		assertSameTag(expected, actual);
+	}
+
+	private void assertSameTag(final Tag expected, final Tag actual) {
+		Assert.assertEquals(expected.getName(), actual.getName());
+		if (expected.tags == null) {
+			Assert.assertNull("unexpected sub tags in:" + actual.getName(), actual.tags);
+			Assert.assertEquals("value of:" + expected.getName(), expected.getStringValue(),
+					actual.getStringValue());
+		} else {
+			Assert.assertEquals(expected.tags.size(), actual.tags.size());
+			for (int i = 0; i < expected.tags.size(); i++) {
+				assertSameTag(expected.tags.get(i), actual.tags.get(i));
+			}
+		}
+	}
+
+}
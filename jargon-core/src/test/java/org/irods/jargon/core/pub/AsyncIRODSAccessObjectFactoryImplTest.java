@@ -0,0 +1,193 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.AsyncIRODSAccessObjectFactory.AsyncOperation;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.transfer.TransferStatusCallbackListener;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class AsyncIRODSAccessObjectFactoryImplTest {
+
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private IRODSSession irodsSession;
+	private IRODSAccount irodsAccount;
+	private AsyncIRODSAccessObjectFactoryImpl asyncFactory;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		irodsSession = Mockito.mock(IRODSSession.class);
+		Mockito.when(irodsAccessObjectFactory.getIrodsSession()).thenReturn(irodsSession);
+		irodsAccount = IRODSAccount.instance("host", 1247, "user", "password", "/zone/home/user", "zone", "");
+		asyncFactory = new AsyncIRODSAccessObjectFactoryImpl(irodsAccessObjectFactory, 1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		asyncFactory.close();
+	}
+
+	@Test
+	public void testRetrieveObjectStatRunsInConnectionScope() throws Exception {
+		CollectionAndDataObjectListAndSearchAO listAndSearchAO = Mockito
+				.mock(CollectionAndDataObjectListAndSearchAO.class);
+		ObjStat objStat = new ObjStat();
+		Mockito.when(irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount))
+				.thenReturn(listAndSearchAO);
+		Mockito.when(listAndSearchAO.retrieveObjectStatForPath("/zone/home/user/file")).thenReturn(objStat);
+
+		ObjStat actual = asyncFactory.retrieveObjectStatForPath(irodsAccount, "/zone/home/user/file").get(10,
+				TimeUnit.SECONDS);
+
+		Assert.assertSame("did not get stat", objStat, actual);
+		Mockito.verify(irodsSession).openConnectionScope(irodsAccount);
+	}
+
+	@Test
+	public void testFailureCompletesExceptionally() throws Exception {
+		CollectionAndDataObjectListAndSearchAO listAndSearchAO = Mockito
+				.mock(CollectionAndDataObjectListAndSearchAO.class);
+		Mockito.when(irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount))
+				.thenReturn(listAndSearchAO);
+		Mockito.when(listAndSearchAO.retrieveObjectStatForPath("/zone/home/user/missing"))
+				.thenThrow(new FileNotFoundException("missing"));
+
+		try {
+			asyncFactory.retrieveObjectStatForPath(irodsAccount, "/zone/home/user/missing").get(10, TimeUnit.SECONDS);
+			Assert.fail("should have failed");
+		} catch (ExecutionException e) {
+			Assert.assertTrue("did not get jargon exception", e.getCause() instanceof FileNotFoundException);
+		}
+	}
+
+	@Test
+	public void testConcurrencyIsLimitedPerAccount() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		AsyncOperation<Integer> operation = new AsyncOperation<Integer>() {
+			@Override
+			public Integer execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				int now = running.incrementAndGet();
+				maxRunning.set(Math.max(maxRunning.get(), now));
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				return now;
+			}
+		};
+
+		CompletableFuture<Integer> first = asyncFactory.submit(irodsAccount, operation);
+		CompletableFuture<Integer> second = asyncFactory.submit(irodsAccount, operation);
+		CompletableFuture<Integer> third = asyncFactory.submit(irodsAccount, operation);
+		Thread.sleep(100);
+		Assert.assertFalse("queued operation should not have run", second.isDone());
+		release.countDown();
+
+		CompletableFuture.allOf(first, second, third).get(10, TimeUnit.SECONDS);
+		Assert.assertEquals("more than one operation ran for the account", 1, maxRunning.get());
+	}
+
+	@Test
+	public void testCancelQueuedTransfer() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		DataTransferOperations dataTransferOperations = Mockito.mock(DataTransferOperations.class);
+		Mockito.when(irodsAccessObjectFactory.getDataTransferOperations(irodsAccount))
+				.thenReturn(dataTransferOperations);
+		TransferControlBlock transferControlBlock = Mockito.mock(TransferControlBlock.class);
+
+		CompletableFuture<Void> blocker = asyncFactory.submit(irodsAccount, new AsyncOperation<Void>() {
+			@Override
+			public Void execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return null;
+			}
+		});
+		CompletableFuture<Void> transfer = asyncFactory.putOperation(irodsAccount, "/local/file",
+				"/zone/home/user/file", null, null, transferControlBlock);
+
+		Assert.assertTrue("did not cancel", transfer.cancel(true));
+		Mockito.verify(transferControlBlock).setCancelled(true);
+		release.countDown();
+		blocker.get(10, TimeUnit.SECONDS);
+		Thread.sleep(100);
+
+		Mockito.verify(dataTransferOperations, Mockito.never()).putOperation(Matchers.anyString(),
+				Matchers.anyString(), Matchers.anyString(), Matchers.any(TransferStatusCallbackListener.class),
+				Matchers.any(TransferControlBlock.class));
+	}
+
+	@Test
+	public void testQueuedOperationsFailOnceExecutorIsShutDown() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		AsyncIRODSAccessObjectFactoryImpl callerOwnedFactory = new AsyncIRODSAccessObjectFactoryImpl(
+				irodsAccessObjectFactory, executorService, 1);
+		AsyncOperation<Void> operation = new AsyncOperation<Void>() {
+			@Override
+			public Void execute(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+					final IRODSAccount irodsAccount) throws JargonException {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return null;
+			}
+		};
+
+		CompletableFuture<Void> blocker = callerOwnedFactory.submit(irodsAccount, operation);
+		List<CompletableFuture<Void>> queued = new ArrayList<CompletableFuture<Void>>();
+		for (int i = 0; i < 20000; i++) {
+			queued.add(callerOwnedFactory.submit(irodsAccount, operation));
+		}
+		executorService.shutdown();
+		release.countDown();
+		blocker.get(10, TimeUnit.SECONDS);
+
+		try {
+			CompletableFuture.allOf(queued.toArray(new CompletableFuture<?>[queued.size()])).get(10, TimeUnit.SECONDS);
+			Assert.fail("queued operations should have failed");
+		} catch (ExecutionException e) {
+			Assert.assertTrue("did not get jargon exception", e.getCause() instanceof JargonException);
+		}
+		for (CompletableFuture<Void> future : queued) {
+			Assert.assertTrue("queued operation did not fail", future.isCompletedExceptionally());
+		}
+		callerOwnedFactory.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSubmitNullAccount() throws Exception {
+		asyncFactory.retrieveObjectStatForPath(null, "/zone/home/user/file");
+	}
+
+}
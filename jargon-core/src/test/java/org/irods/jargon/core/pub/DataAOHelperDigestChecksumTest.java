@@ -0,0 +1,173 @@
+package org.irods.jargon.core.pub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.checksum.LocalChecksumComputerFactoryImpl;
+import org.irods.jargon.core.connection.ConnectionProgressStatusListener;
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.FileIntegrityException;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.TransferOptions;
+import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Checksum digested by {@link DataAOHelper} as a put is sent, no iRODS server
+ * is needed
+ */
+public class DataAOHelperDigestChecksumTest {
+
+	private static final String CONTENT = "The quick brown fox jumps over the lazy dog";
+	private static final String CONTENT_MD5 = "9e107d9d372bb6826bd81d3542a419d6";
+	private static final String CONTENT_SHA256 = "16j7swfXgJRpypq8sAguT41WUeRtPNt2LQLQvzfJ5ZI=";
+
+	private File localFile;
+	private IRODSAccount irodsAccount;
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private DataObjectChecksumUtilitiesAO dataObjectChecksumUtilitiesAO;
+	private IRODSMidLevelProtocol irodsProtocol;
+	private IRODSFile targetFile;
+	private AtomicReference<String> sentTags;
+	private ByteArrayOutputStream sentBytes;
+
+	@Before
+	public void setUp() throws Exception {
+		localFile = File.createTempFile("jargon-digest", ".txt");
+		FileOutputStream fileOutputStream = new FileOutputStream(localFile);
+		fileOutputStream.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+		fileOutputStream.close();
+
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", "");
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setChecksumEncoding(ChecksumEncodingEnum.MD5);
+		IRODSSession irodsSession = Mockito.mock(IRODSSession.class);
+		Mockito.when(irodsSession.getLocalChecksumComputerFactory()).thenReturn(new LocalChecksumComputerFactoryImpl());
+		dataObjectChecksumUtilitiesAO = Mockito.mock(DataObjectChecksumUtilitiesAO.class);
+
+		irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		Mockito.when(irodsAccessObjectFactory.getJargonProperties()).thenReturn(jargonProperties);
+		Mockito.when(irodsAccessObjectFactory.getDiscoveredServerPropertiesCache())
+				.thenReturn(new DiscoveredServerPropertiesCache());
+		Mockito.when(irodsAccessObjectFactory.getIrodsSession()).thenReturn(irodsSession);
+		Mockito.when(irodsAccessObjectFactory.getDataObjectChecksumUtilitiesAO(irodsAccount))
+				.thenReturn(dataObjectChecksumUtilitiesAO);
+
+		targetFile = Mockito.mock(IRODSFile.class);
+		Mockito.when(targetFile.getAbsolutePath()).thenReturn("/zone/home/test/file.txt");
+		Mockito.when(targetFile.getResource()).thenReturn("");
+
+		sentTags = new AtomicReference<String>();
+		sentBytes = new ByteArrayOutputStream();
+		irodsProtocol = Mockito.mock(IRODSMidLevelProtocol.class);
+		Mockito.when(irodsProtocol.irodsFunctionIncludingAllDataInStream(Matchers.any(IRodsPI.class),
+				Matchers.anyLong(), Matchers.any(InputStream.class), Matchers.<ConnectionProgressStatusListener>any()))
+				.thenAnswer(new Answer<Object>() {
+					@Override
+					public Object answer(final InvocationOnMock invocation) throws Throwable {
+						sentTags.set(((IRodsPI) invocation.getArgument(0)).getParsedTags());
+						InputStream byteStream = invocation.getArgument(2);
+						byte[] buffer = new byte[8];
+						int read;
+						while ((read = byteStream.read(buffer)) > -1) {
+							sentBytes.write(buffer, 0, read);
+						}
+						return null;
+					}
+				});
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		localFile.delete();
+	}
+
+	@Test
+	public void testDigestDuringPutMatchesKnownChecksum() throws Exception {
+		Mockito.when(dataObjectChecksumUtilitiesAO.computeChecksumOnDataObject(targetFile))
+				.thenReturn(md5Value(CONTENT_MD5));
+
+		new DataAOHelper(irodsAccessObjectFactory, irodsAccount).processNormalPutTransfer(localFile, true, targetFile,
+				irodsProtocol, digestingTransferControlBlock(), null);
+
+		Assert.assertEquals(CONTENT, new String(sentBytes.toByteArray(), StandardCharsets.UTF_8));
+		Assert.assertTrue("no regChksum", sentTags.get().indexOf("<keyWord>regChksum</keyWord>") > -1);
+		Assert.assertTrue("checksum value sent", sentTags.get().indexOf(CONTENT_MD5) == -1);
+		Mockito.verify(dataObjectChecksumUtilitiesAO).computeChecksumOnDataObject(targetFile);
+	}
+
+	@Test(expected = FileIntegrityException.class)
+	public void testDigestDuringPutMismatchFails() throws Exception {
+		Mockito.when(dataObjectChecksumUtilitiesAO.computeChecksumOnDataObject(targetFile))
+				.thenReturn(md5Value("d41d8cd98f00b204e9800998ecf8427e"));
+
+		new DataAOHelper(irodsAccessObjectFactory, irodsAccount).processNormalPutTransfer(localFile, true, targetFile,
+				irodsProtocol, digestingTransferControlBlock(), null);
+	}
+
+	@Test
+	public void testDigestDuringPutVerifiesInServerEncoding() throws Exception {
+		ChecksumValue irodsChecksum = new ChecksumValue();
+		irodsChecksum.setChecksumEncoding(ChecksumEncodingEnum.SHA256);
+		irodsChecksum.setChecksumStringValue(CONTENT_SHA256);
+		Mockito.when(dataObjectChecksumUtilitiesAO.computeChecksumOnDataObject(targetFile)).thenReturn(irodsChecksum);
+
+		new DataAOHelper(irodsAccessObjectFactory, irodsAccount).processNormalPutTransfer(localFile, true, targetFile,
+				irodsProtocol, digestingTransferControlBlock(), null);
+
+		Assert.assertTrue("no regChksum", sentTags.get().indexOf("<keyWord>regChksum</keyWord>") > -1);
+	}
+
+	@Test
+	public void testComputeWithoutVerifySendsLocalChecksum() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeChecksumAfterTransfer(true);
+		transferOptions.setDigestChecksumDuringTransfer(true);
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		transferControlBlock.setTransferOptions(transferOptions);
+
+		new DataAOHelper(irodsAccessObjectFactory, irodsAccount).processNormalPutTransfer(localFile, true, targetFile,
+				irodsProtocol, transferControlBlock, null);
+
+		Assert.assertTrue("local checksum not sent",
+				sentTags.get().indexOf("<svalue>" + CONTENT_MD5 + "</svalue>") > -1);
+		Mockito.verify(dataObjectChecksumUtilitiesAO, Mockito.never())
+				.computeChecksumOnDataObject(Matchers.any(IRODSFile.class));
+	}
+
+	private static TransferControlBlock digestingTransferControlBlock() throws Exception {
+		TransferOptions transferOptions = new TransferOptions();
+		transferOptions.setComputeAndVerifyChecksumAfterTransfer(true);
+		transferOptions.setDigestChecksumDuringTransfer(true);
+		TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		transferControlBlock.setTransferOptions(transferOptions);
+		return transferControlBlock;
+	}
+
+	private static ChecksumValue md5Value(final String hex) {
+		ChecksumValue checksumValue = new ChecksumValue();
+		checksumValue.setChecksumEncoding(ChecksumEncodingEnum.MD5);
+		checksumValue.setChecksumStringValue(hex);
+		return checksumValue;
+	}
+
+}
@@ -1860,6 +1860,65 @@ public class DataTransferOperationsImplTest {
 		Assert.assertEquals(listener.getGetCallbackCtr(), listener.getPutCallbackCtr());
 	}
 
+	@Test
+	public void testPutThenGetMultipleCollectionsMultipleFilesConcurrentFileTransfers() throws Exception {
+
+		String rootCollection = "testPutThenGetMultipleCollectionsMultipleFilesConcurrentFileTransfers";
+		String returnCollection = "testPutThenGetMultipleCollectionsMultipleFilesConcurrentFileTransfersReturn";
+
+		TransferStatusCallbackListenerTestingImplementation listener = new TransferStatusCallbackListenerTestingImplementation();
+
+		String localCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH + '/' + rootCollection);
+
+		String returnCollectionAbsolutePath = scratchFileUtils
+				.createAndReturnAbsoluteScratchPath(IRODS_TEST_SUBDIR_PATH + '/' + returnCollection);
+
+		String irodsCollectionRootAbsolutePath = testingPropertiesHelper
+				.buildIRODSCollectionAbsolutePathFromTestProperties(testingProperties, IRODS_TEST_SUBDIR_PATH);
+
+		FileGenerator.generateManyFilesAndCollectionsInParentCollectionByAbsolutePath(localCollectionAbsolutePath,
+				"testPutThenGetMultipleCollectionsMultipleFilesConcurrentFileTransfers", 2, 3, 2, "testFile", ".txt",
+				10, 2, 20, 200);
+
+		IRODSAccount irodsAccount = testingPropertiesHelper.buildIRODSAccountFromTestProperties(testingProperties);
+
+		IRODSFileFactory irodsFileFactory = irodsFileSystem.getIRODSFileFactory(irodsAccount);
+		IRODSFile destFile = irodsFileFactory.instanceIRODSFile(irodsCollectionRootAbsolutePath);
+		DataTransferOperations dataTransferOperationsAO = irodsFileSystem.getIRODSAccessObjectFactory()
+				.getDataTransferOperations(irodsAccount);
+		File localFile = new File(localCollectionAbsolutePath);
+
+		TransferControlBlock transferControlBlock = irodsFileSystem.getIRODSAccessObjectFactory()
+				.buildDefaultTransferControlBlockBasedOnJargonProperties();
+		transferControlBlock.getTransferOptions().setConcurrentFileTransferThreads(4);
+
+		dataTransferOperationsAO.putOperation(localFile, destFile, listener, transferControlBlock);
+
+		Assert.assertEquals("did not transfer all files", transferControlBlock.getTotalFilesToTransfer(),
+				transferControlBlock.getTotalFilesTransferredSoFar());
+		Assert.assertEquals("should be no errors", 0, transferControlBlock.getErrorCount());
+
+		File returnLocalFile = new File(returnCollectionAbsolutePath);
+		destFile = irodsFileFactory.instanceIRODSFile(irodsCollectionRootAbsolutePath + '/' + rootCollection);
+
+		transferControlBlock = irodsFileSystem.getIRODSAccessObjectFactory()
+				.buildDefaultTransferControlBlockBasedOnJargonProperties();
+		transferControlBlock.getTransferOptions().setConcurrentFileTransferThreads(4);
+
+		dataTransferOperationsAO.getOperation(destFile, returnLocalFile, listener, transferControlBlock);
+
+		Assert.assertEquals("did not transfer all files", transferControlBlock.getTotalFilesToTransfer(),
+				transferControlBlock.getTotalFilesTransferredSoFar());
+
+		File resultOfPutFile = new File(returnCollectionAbsolutePath + '/' + rootCollection);
+
+		assertionHelper.assertTwoFilesAreEqualByRecursiveTreeComparison(localFile, resultOfPutFile);
+
+		Assert.assertTrue(listener.getGetCallbackCtr() > 0);
+		Assert.assertEquals(listener.getGetCallbackCtr(), listener.getPutCallbackCtr());
+	}
+
 	@Test
 	public void testPutMultipleCollectionsMultipleFilesWithCallbacksAndControlBlock() throws Exception {
 
@@ -0,0 +1,161 @@
+package org.irods.jargon.core.pub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutorImpl.QueryCloseBehavior;
+import org.irods.jargon.core.query.GenQueryProcessor;
+import org.irods.jargon.core.query.GenQuerySelectField;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.IRODSQueryResultSet;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class IRODSGenQueryResultIteratorTest {
+
+	private static final TranslatedIRODSGenQuery query = buildQuery();
+
+	@Test
+	public void testIterateAllPages() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		IRODSQueryResultSet first = page(1, "a", "b");
+		IRODSQueryResultSet second = page(2, "c");
+		IRODSQueryResultSet last = page(0, "d", "e");
+		expectPage(processor, 1, second);
+		expectPage(processor, 2, last);
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, first, null, true);
+		List<String> values = new ArrayList<String>();
+		while (iterator.hasNext()) {
+			values.add(iterator.next().getColumn(0));
+		}
+		iterator.close();
+
+		Assert.assertEquals(Arrays.asList("a", "b", "c", "d", "e"), values);
+		Mockito.verify(processor, Mockito.never()).closeResults(Matchers.any(IRODSQueryResultSet.class));
+	}
+
+	@Test
+	public void testIterateWithoutReadAhead() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		expectPage(processor, 1, page(0, "b"));
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, page(1, "a"), null, false);
+		Mockito.verifyZeroInteractions(processor);
+		Assert.assertEquals("a", iterator.next().getColumn(0));
+		Assert.assertEquals("b", iterator.next().getColumn(0));
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testEmptyPageIsSkipped() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		expectPage(processor, 1, page(0, "a"));
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, page(1), null, true);
+		Assert.assertTrue(iterator.hasNext());
+		Assert.assertEquals("a", iterator.next().getColumn(0));
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testCloseEarlyClosesReadAheadPage() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		IRODSQueryResultSet second = page(2, "c");
+		expectPage(processor, 1, second);
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, page(1, "a", "b"), null,
+				true);
+		iterator.next();
+		iterator.close();
+		iterator.close();
+
+		// the second page was either fetched and must be closed, or never asked for
+		List<IRODSQueryResultSet> closed = closedResults(processor);
+		Assert.assertEquals(1, closed.size());
+		Assert.assertEquals(closed.get(0) == second ? 2 : 1, closed.get(0).getContinuationIndex());
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testCloseEarlyWithoutReadAhead() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		IRODSQueryResultSet first = page(1, "a", "b");
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, first, null, false);
+		iterator.next();
+		iterator.close();
+
+		Mockito.verify(processor).closeResults(first);
+	}
+
+	@Test
+	public void testStreamShortCircuitClosesOnStreamClose() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		expectPage(processor, 1, page(2, "c", "d"));
+		expectPage(processor, 2, page(3, "e"));
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, page(1, "a", "b"), null,
+				true);
+		Object[] rows;
+		try (Stream<IRODSQueryResultRow> stream = iterator.stream()) {
+			rows = stream.limit(3).toArray();
+		}
+
+		Assert.assertEquals(3, rows.length);
+		Assert.assertEquals("c", ((IRODSQueryResultRow) rows[2]).getColumn(0));
+		Assert.assertEquals(1, closedResults(processor).size());
+	}
+
+	@Test
+	public void testReadAheadFailureSurfacesOnNext() throws Exception {
+		GenQueryProcessor processor = Mockito.mock(GenQueryProcessor.class);
+		Mockito.when(processor.executeTranslatedIRODSQuery(query, 1, 0, QueryCloseBehavior.MANUAL_CLOSE, null))
+				.thenThrow(new JargonException("boom"));
+
+		IRODSGenQueryResultIterator iterator = new IRODSGenQueryResultIterator(processor, page(1, "a"), null, true);
+		iterator.next();
+		try {
+			iterator.hasNext();
+			Assert.fail("expected failure of next page");
+		} catch (JargonRuntimeException e) {
+			Assert.assertEquals("boom", e.getCause().getMessage());
+		}
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	private static void expectPage(final GenQueryProcessor processor, final int continuation,
+			final IRODSQueryResultSet page) throws JargonException {
+		Mockito.when(processor.executeTranslatedIRODSQuery(query, continuation, 0, QueryCloseBehavior.MANUAL_CLOSE,
+				null)).thenReturn(page);
+	}
+
+	private static List<IRODSQueryResultSet> closedResults(final GenQueryProcessor processor) throws JargonException {
+		ArgumentCaptor<IRODSQueryResultSet> captor = ArgumentCaptor.forClass(IRODSQueryResultSet.class);
+		Mockito.verify(processor, Mockito.atLeast(0)).closeResults(captor.capture());
+		return captor.getAllValues();
+	}
+
+	private static IRODSQueryResultSet page(final int continuation, final String... values) throws JargonException {
+		List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+		for (String value : values) {
+			rows.add(IRODSQueryResultRow.instance(Arrays.asList(value), Arrays.asList("COL_A")));
+		}
+		return IRODSQueryResultSet.instance(query, rows, continuation, 0);
+	}
+
+	private static TranslatedIRODSGenQuery buildQuery() {
+		TranslatedIRODSGenQuery query = Mockito.mock(TranslatedIRODSGenQuery.class);
+		Mockito.when(query.getSelectFields()).thenReturn(new ArrayList<GenQuerySelectField>());
+		return query;
+	}
+
+}
@@ -0,0 +1,331 @@
+package org.irods.jargon.core.pub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.irods.jargon.core.connection.DiscoveredServerPropertiesCache;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.packinstr.BinBytesBufInp;
+import org.irods.jargon.core.packinstr.DataObjInpForReplicaOpen;
+import org.irods.jargon.core.packinstr.IRodsPI;
+import org.irods.jargon.core.packinstr.MsgHeader;
+import org.irods.jargon.core.packinstr.OpenedDataObjInp;
+import org.irods.jargon.core.packinstr.Tag;
+import org.irods.jargon.core.protovalues.ErrorEnum;
+import org.irods.jargon.core.transfer.DefaultTransferControlBlock;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.utils.Base64;
+import org.irods.jargon.core.utils.IRODSConstants;
+import org.irods.jargon.core.utils.RandomUtils;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class MultiStreamTransferEngineTest {
+
+	private IRODSAccount irodsAccount;
+	private IRODSSession irodsSession;
+	private IRODSMidLevelProtocol irodsProtocol;
+	private DiscoveredServerPropertiesCache cache;
+	private File localFile;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = TestingPropertiesHelper.buildBogusIrodsAccount();
+		irodsSession = Mockito.mock(IRODSSession.class);
+		irodsProtocol = Mockito.mock(IRODSMidLevelProtocol.class);
+		cache = new DiscoveredServerPropertiesCache();
+		Mockito.when(irodsSession.getJargonProperties()).thenReturn(new SettableJargonProperties());
+		Mockito.when(irodsSession.getDiscoveredServerPropertiesCache()).thenReturn(cache);
+		Mockito.when(irodsSession.currentConnection(irodsAccount)).thenReturn(irodsProtocol);
+		Mockito.when(irodsProtocol.isConnected()).thenReturn(true);
+		localFile = File.createTempFile("jargon-multi-stream", ".dat");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		localFile.delete();
+	}
+
+	@Test
+	public void testComputeRangesSmallFile() throws Exception {
+		List<long[]> ranges = MultiStreamTransferEngine.computeRanges(1000L, 4);
+		Assert.assertEquals(1, ranges.size());
+		Assert.assertEquals(0L, ranges.get(0)[0]);
+		Assert.assertEquals(1000L, ranges.get(0)[1]);
+	}
+
+	@Test
+	public void testComputeRangesAreContiguous() throws Exception {
+		long length = 100L * 1024L * 1024L + 3L;
+		List<long[]> ranges = MultiStreamTransferEngine.computeRanges(length, 4);
+		Assert.assertEquals(4, ranges.size());
+		long offset = 0L;
+		for (long[] range : ranges) {
+			Assert.assertEquals(offset, range[0]);
+			offset += range[1];
+		}
+		Assert.assertEquals(length, offset);
+	}
+
+	@Test
+	public void testComputeRangesCappedByMinimumRange() throws Exception {
+		List<long[]> ranges = MultiStreamTransferEngine.computeRanges(MultiStreamTransferEngine.MIN_RANGE_LENGTH * 2,
+				8);
+		Assert.assertEquals(2, ranges.size());
+	}
+
+	@Test
+	public void testPutNotAttemptedWhenCachedUnsupported() throws Exception {
+		cache.cacheAProperty(irodsAccount.getHost(), irodsAccount.getZone(),
+				DiscoveredServerPropertiesCache.REPLICA_ACCESS_SUPPORTED, DiscoveredServerPropertiesCache.IS_FALSE);
+		MultiStreamTransferEngine engine = MultiStreamTransferEngine.instance(irodsSession, irodsAccount, 4, null,
+				null);
+		Assert.assertFalse("should not transfer", engine.put(localFile, "/zone/home/test/file.txt", "", false, false));
+		Mockito.verify(irodsProtocol, Mockito.never()).irodsFunction(Mockito.any(IRodsPI.class));
+	}
+
+	@Test
+	public void testPutFallsBackWhenApiUnknown() throws Exception {
+		Mockito.when(irodsProtocol.irodsFunction(Mockito.any(IRodsPI.class)))
+				.thenThrow(new JargonException("unmatched api", ErrorEnum.SYS_UNMATCHED_API_NUM.getInt()));
+		MultiStreamTransferEngine engine = MultiStreamTransferEngine.instance(irodsSession, irodsAccount, 4, null,
+				null);
+		Assert.assertFalse("should not transfer", engine.put(localFile, "/zone/home/test/file.txt", "", false, false));
+		Assert.assertEquals(DiscoveredServerPropertiesCache.IS_FALSE, cache.retrieveValue(irodsAccount.getHost(),
+				irodsAccount.getZone(), DiscoveredServerPropertiesCache.REPLICA_ACCESS_SUPPORTED));
+	}
+
+	@Test
+	public void testPutSingleStreamWritesAndFinalizes() throws Exception {
+		byte[] data = "some data for a multi-stream put".getBytes(StandardCharsets.UTF_8);
+		FileOutputStream fileOutputStream = new FileOutputStream(localFile);
+		fileOutputStream.write(data);
+		fileOutputStream.close();
+
+		final List<String> jsonRequests = new ArrayList<String>();
+		Mockito.when(irodsProtocol.irodsFunction(Mockito.any(IRodsPI.class))).thenAnswer(new Answer<Tag>() {
+			@Override
+			public Tag answer(final InvocationOnMock invocation) throws Throwable {
+				IRodsPI irodsPI = invocation.getArgument(0);
+				if (irodsPI instanceof DataObjInpForReplicaOpen) {
+					return new Tag("response", new Tag(MsgHeader.PI_NAME, new Tag(MsgHeader.INT_INFO, 3)));
+				} else if (irodsPI instanceof OpenedDataObjInp) {
+					return new Tag("fileLseekOut_PI", new Tag(IRODSConstants.offset, 0L));
+				} else if (irodsPI instanceof BinBytesBufInp) {
+					jsonRequests.add(((BinBytesBufInp) irodsPI).getParsedTags());
+					String json = "{\"replica_token\":\"token\",\"data_object_info\":{\"resource_hierarchy\":\"root;leaf\"}}";
+					return new Tag(BinBytesBufInp.PI_TAG,
+							new Tag[] { new Tag(BinBytesBufInp.BUF_LEN, json.length()),
+									new Tag(BinBytesBufInp.BUF, Base64.toString(json.getBytes(StandardCharsets.UTF_8))) });
+				}
+				return null;
+			}
+		});
+
+		final ByteArrayOutputStream written = new ByteArrayOutputStream();
+		Mockito.when(irodsProtocol.irodsFunction(Mockito.anyString(), Mockito.anyString(), Mockito.<byte[]>any(),
+				Mockito.anyInt(), Mockito.anyInt(), Mockito.<byte[]>any(), Mockito.anyInt(), Mockito.anyInt(),
+				Mockito.anyInt())).thenAnswer(new Answer<Tag>() {
+					@Override
+					public Tag answer(final InvocationOnMock invocation) throws Throwable {
+						byte[] bytes = invocation.getArgument(5);
+						int offset = invocation.getArgument(6);
+						int length = invocation.getArgument(7);
+						written.write(bytes, offset, length);
+						return new Tag("response", new Tag(IRODSConstants.MsgHeader_PI,
+								new Tag(IRODSConstants.intInfo, length)));
+					}
+				});
+
+		MultiStreamTransferEngine engine = MultiStreamTransferEngine.instance(irodsSession, irodsAccount, 4, null,
+				null);
+		Assert.assertTrue("should transfer", engine.put(localFile, "/zone/home/test/file.txt", "", true, true));
+		Assert.assertArrayEquals(data, written.toByteArray());
+		Assert.assertEquals("expected descriptor info and close", 2, jsonRequests.size());
+		String closeJson = new String(
+				Base64.fromString(jsonRequests.get(1).replaceAll("(?s).*<buf>(.*)</buf>.*", "$1")),
+				StandardCharsets.UTF_8);
+		Assert.assertTrue("close did not finalize:" + closeJson, closeJson.indexOf("\"update_size\":true") > -1
+				&& closeJson.indexOf("\"compute_checksum\":true") > -1);
+	}
+
+	@Test
+	public void testPutMultipleStreamsWritesEachRange() throws Exception {
+		byte[] data = writeLocalFile(MultiStreamTransferEngine.MIN_RANGE_LENGTH * 2 + 3);
+		ReplicaServer server = new ReplicaServer(data.length, null);
+
+		MultiStreamTransferEngine engine = MultiStreamTransferEngine.instance(irodsSession, irodsAccount, 2, null,
+				null);
+		Assert.assertTrue("should transfer", engine.put(localFile, "/zone/home/test/file.txt", "", true, false));
+		Assert.assertArrayEquals(data, server.written);
+		Assert.assertEquals("expected create and joined open", 2, server.opens.get());
+		Assert.assertEquals("expected a close per open", 2, server.closeRequests.size());
+		Assert.assertTrue("joined stream updated the catalog",
+				server.closeRequests.get(0).indexOf("\"update_size\":false") > -1);
+		Assert.assertTrue("last close did not finalize",
+				server.closeRequests.get(1).indexOf("\"update_size\":true") > -1);
+	}
+
+	@Test
+	public void testPutStreamErrorLeavesReplicaStale() throws Exception {
+		writeLocalFile(MultiStreamTransferEngine.MIN_RANGE_LENGTH * 2);
+		ReplicaServer server = new ReplicaServer((int) localFile.length(), new WriteHook() {
+			@Override
+			public void beforeWrite() throws JargonException {
+				if (Thread.currentThread().getName().startsWith("jargon-transfer-stream-")) {
+					throw new JargonException("stream write failed");
+				}
+			}
+		});
+
+		MultiStreamTransferEngine engine = MultiStreamTransferEngine.instance(irodsSession, irodsAccount, 2, null,
+				null);
+		try {
+			engine.put(localFile, "/zone/home/test/file.txt", "", true, true);
+			Assert.fail("stream error not thrown");
+		} catch (JargonException e) {
+			Assert.assertEquals("stream write failed", e.getMessage());
+		}
+
+		assertAllClosedWithoutUpdate(server);
+	}
+
+	@Test
+	public void testPutCancelStopsAllStreams() throws Exception {
+		writeLocalFile(MultiStreamTransferEngine.MIN_RANGE_LENGTH * 2);
+		final TransferControlBlock transferControlBlock = DefaultTransferControlBlock.instance();
+		ReplicaServer server = new ReplicaServer((int) localFile.length(), new WriteHook() {
+			@Override
+			public void beforeWrite() {
+				if (Thread.currentThread().getName().startsWith("jargon-transfer-stream-")) {
+					transferControlBlock.setCancelled(true);
+				}
+			}
+		});
+
+		MultiStreamTransferEngine engine = MultiStreamTransferEngine.instance(irodsSession, irodsAccount, 2,
+				transferControlBlock, null);
+		try {
+			engine.put(localFile, "/zone/home/test/file.txt", "", true, true);
+			Assert.fail("cancel not thrown");
+		} catch (JargonException e) {
+			Assert.assertEquals("transfer cancelled", e.getMessage());
+		}
+
+		Assert.assertTrue("cancelled stream kept writing", server.bytesWritten.get() < localFile.length());
+		assertAllClosedWithoutUpdate(server);
+	}
+
+	private byte[] writeLocalFile(final long length) throws Exception {
+		byte[] data = RandomUtils.generateRandomBytesOfLength((int) length);
+		FileOutputStream fileOutputStream = new FileOutputStream(localFile);
+		fileOutputStream.write(data);
+		fileOutputStream.close();
+		SettableJargonProperties jargonProperties = new SettableJargonProperties();
+		jargonProperties.setParallelCopyBufferSize(1024 * 1024);
+		Mockito.when(irodsSession.getJargonProperties()).thenReturn(jargonProperties);
+		return data;
+	}
+
+	private static void assertAllClosedWithoutUpdate(final ReplicaServer server) {
+		Assert.assertEquals("expected a close per open", server.opens.get(), server.closeRequests.size());
+		for (String closeRequest : server.closeRequests) {
+			Assert.assertTrue("replica was finalized:" + closeRequest,
+					closeRequest.indexOf("\"update_size\":false") > -1
+							&& closeRequest.indexOf("\"update_status\":false") > -1);
+		}
+	}
+
+	/**
+	 * Called on the writing thread before each write reaches the mocked server
+	 */
+	private interface WriteHook {
+		void beforeWrite() throws JargonException;
+	}
+
+	/**
+	 * Mocks the replica open, descriptor info, seek, write and close calls of
+	 * every stream, which share the one mocked connection, and assembles what
+	 * each thread writes at the offset it last seeked to
+	 */
+	private final class ReplicaServer {
+
+		private final byte[] written;
+		private final AtomicInteger opens = new AtomicInteger();
+		private final AtomicLong bytesWritten = new AtomicLong();
+		private final List<String> closeRequests = Collections.synchronizedList(new ArrayList<String>());
+		private final ConcurrentHashMap<Thread, Long> positions = new ConcurrentHashMap<Thread, Long>();
+
+		ReplicaServer(final int length, final WriteHook writeHook) throws Exception {
+			written = new byte[length];
+			Mockito.when(irodsProtocol.irodsFunction(Mockito.any(IRodsPI.class))).thenAnswer(new Answer<Tag>() {
+				@Override
+				public Tag answer(final InvocationOnMock invocation) throws Throwable {
+					IRodsPI irodsPI = invocation.getArgument(0);
+					if (irodsPI instanceof DataObjInpForReplicaOpen) {
+						return new Tag("response",
+								new Tag(MsgHeader.PI_NAME, new Tag(MsgHeader.INT_INFO, 3 + opens.getAndIncrement())));
+					} else if (irodsPI instanceof OpenedDataObjInp) {
+						long offset = ((OpenedDataObjInp) irodsPI).getOffset();
+						positions.put(Thread.currentThread(), offset);
+						return new Tag("fileLseekOut_PI", new Tag(IRODSConstants.offset, offset));
+					} else if (irodsPI instanceof BinBytesBufInp) {
+						String buf = ((BinBytesBufInp) irodsPI).getParsedTags()
+								.replaceAll("(?s).*<buf>(.*)</buf>.*", "$1");
+						String request = new String(Base64.fromString(buf), StandardCharsets.UTF_8);
+						String json = "{}";
+						if (request.indexOf("update_size") > -1) {
+							closeRequests.add(request);
+						} else {
+							json = "{\"replica_token\":\"token\",\"data_object_info\":{\"resource_hierarchy\":\"root;leaf\"}}";
+						}
+						return new Tag(BinBytesBufInp.PI_TAG,
+								new Tag[] { new Tag(BinBytesBufInp.BUF_LEN, json.length()),
+										new Tag(BinBytesBufInp.BUF,
+												Base64.toString(json.getBytes(StandardCharsets.UTF_8))) });
+					}
+					return null;
+				}
+			});
+
+			Mockito.when(irodsProtocol.irodsFunction(Mockito.anyString(), Mockito.anyString(), Mockito.<byte[]>any(),
+					Mockito.anyInt(), Mockito.anyInt(), Mockito.<byte[]>any(), Mockito.anyInt(), Mockito.anyInt(),
+					Mockito.anyInt())).thenAnswer(new Answer<Tag>() {
+						@Override
+						public Tag answer(final InvocationOnMock invocation) throws Throwable {
+							if (writeHook != null) {
+								writeHook.beforeWrite();
+							}
+							byte[] bytes = invocation.getArgument(5);
+							int offset = invocation.getArgument(6);
+							int length = invocation.getArgument(7);
+							long position = positions.get(Thread.currentThread());
+							System.arraycopy(bytes, offset, written, (int) position, length);
+							positions.put(Thread.currentThread(), position + length);
+							bytesWritten.addAndGet(length);
+							return new Tag("response", new Tag(IRODSConstants.MsgHeader_PI,
+									new Tag(IRODSConstants.intInfo, length)));
+						}
+					});
+		}
+	}
+
+}
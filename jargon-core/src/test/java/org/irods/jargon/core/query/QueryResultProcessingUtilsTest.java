@@ -0,0 +1,84 @@
+package org.irods.jargon.core.query;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.irods.jargon.core.packinstr.GenQueryOut;
+import org.irods.jargon.core.packinstr.Tag;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryResultProcessingUtilsTest {
+
+	@Test
+	public void testTranslateResponseIntoResultSet() throws Exception {
+		Tag response = buildResponse(new String[][] { { "a1", "a2", "a3" }, { "b1", "b2", "b3" } }, 0);
+		List<String> columnNames = Arrays.asList("COL_A", "COL_B");
+
+		List<IRODSQueryResultRow> rows = QueryResultProcessingUtils.translateResponseIntoResultSet(response,
+				columnNames, 0, 10);
+
+		Assert.assertEquals(3, rows.size());
+		IRODSQueryResultRow row = rows.get(1);
+		Assert.assertEquals("a2", row.getColumn(0));
+		Assert.assertEquals("b2", row.getColumn("COL_B"));
+		Assert.assertEquals(12, row.getRecordCount());
+		Assert.assertTrue(row.isLastResult());
+		Assert.assertEquals(Arrays.asList("a3", "b3"), rows.get(2).getColumnsAsList());
+
+		ColumnarQueryResultRows columnar = (ColumnarQueryResultRows) rows;
+		Assert.assertEquals(2, columnar.getColumnCount());
+		Assert.assertEquals("b1", columnar.getValue(0, 1));
+		Assert.assertEquals(Arrays.asList("a1", "b1"), columnar.getRowView(0));
+	}
+
+	@Test
+	public void testTranslateResponseMoreRecordsNoOffset() throws Exception {
+		Tag response = buildResponse(new String[][] { { "x" } }, 5);
+
+		List<IRODSQueryResultRow> rows = QueryResultProcessingUtils.translateResponseIntoResultSet(response,
+				Arrays.asList("COL_X"), 5, 0);
+
+		Assert.assertEquals(1, rows.size());
+		Assert.assertEquals(1, rows.get(0).getRecordCount());
+		Assert.assertFalse(rows.get(0).isLastResult());
+	}
+
+	@Test
+	public void testTranslateNullResponse() throws Exception {
+		List<IRODSQueryResultRow> rows = QueryResultProcessingUtils.translateResponseIntoResultSet(null,
+				Arrays.asList("COL_X"), 0, 0);
+		Assert.assertTrue(rows.isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRowViewIsReadOnly() throws Exception {
+		Tag response = buildResponse(new String[][] { { "x" } }, 0);
+		List<IRODSQueryResultRow> rows = QueryResultProcessingUtils.translateResponseIntoResultSet(response,
+				Arrays.asList("COL_X"), 0, 0);
+		rows.get(0).getColumnsAsList().set(0, "y");
+	}
+
+	/**
+	 * Build a GenQueryOut_PI in the shape iRODS sends, one SqlResult_PI per column
+	 */
+	private Tag buildResponse(final String[][] columns, final int continuation) {
+		int rows = columns[0].length;
+		Tag response = new Tag("GenQueryOut_PI");
+		response.addTag(GenQueryOut.ROW_CNT, rows);
+		response.addTag(GenQueryOut.ATTRIB_CNT, columns.length);
+		response.addTag(GenQueryOut.CONTINUE_INX, continuation);
+		response.addTag("totalRowCount", 0);
+		for (int j = 0; j < columns.length; j++) {
+			Tag sqlResult = new Tag("SqlResult_PI");
+			sqlResult.addTag("attriInx", 400 + j);
+			sqlResult.addTag("reslen", 64);
+			for (String value : columns[j]) {
+				sqlResult.addTag("value", value);
+			}
+			response.addTag(sqlResult);
+		}
+		return response;
+	}
+
+}
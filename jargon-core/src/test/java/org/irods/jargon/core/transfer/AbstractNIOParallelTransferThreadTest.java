@@ -0,0 +1,184 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.irods.jargon.core.connection.PipelineConfiguration;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AbstractNIOParallelTransferThreadTest {
+
+	private static ExecutorService executor;
+	private static PipelineConfiguration pipelineConfiguration;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		executor = Executors.newCachedThreadPool();
+		pipelineConfiguration = PipelineConfiguration.instance(new SettableJargonProperties());
+	}
+
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testTransferFileToChannelSegment() throws Exception {
+		byte[] data = randomBytes(300000);
+		File localFile = File.createTempFile("nioput", ".dat");
+		localFile.deleteOnExit();
+		Files.write(localFile.toPath(), data);
+
+		final int offset = 1000;
+		final int length = 250000;
+		ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		Future<byte[]> received = executor.submit(readAll(serverSocket, 4 + length));
+
+		TestingNIOTransferThread thread = new TestingNIOTransferThread();
+		thread.connect(InetAddress.getLoopbackAddress().getHostAddress(), serverSocket.getLocalPort(),
+				pipelineConfiguration, 10);
+		CountingListener listener = new CountingListener();
+		FileChannel channel = FileChannel.open(localFile.toPath(), StandardOpenOption.READ);
+		try {
+			thread.writeInt(42);
+			long sent = thread.transferFileToChannel(channel, offset, length, 65536, listener);
+			Assert.assertEquals(length, sent);
+		} finally {
+			channel.close();
+			thread.close();
+		}
+
+		byte[] actual = received.get();
+		serverSocket.close();
+		Assert.assertEquals("cookie not sent in network order", 42, ((actual[0] & 0xFF) << 24)
+				| ((actual[1] & 0xFF) << 16) | ((actual[2] & 0xFF) << 8) | (actual[3] & 0xFF));
+		Assert.assertArrayEquals("segment data did not match",
+				Arrays.copyOfRange(data, offset, offset + length), Arrays.copyOfRange(actual, 4, actual.length));
+		Assert.assertEquals(length, listener.total);
+	}
+
+	@Test
+	public void testTransferChannelToFileSegment() throws Exception {
+		final byte[] data = randomBytes(200000);
+		File localFile = File.createTempFile("nioget", ".dat");
+		localFile.deleteOnExit();
+
+		final ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				Socket socket = serverSocket.accept();
+				try {
+					OutputStream out = socket.getOutputStream();
+					out.write(new byte[] { 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0, 7 });
+					out.write(data);
+					out.flush();
+				} finally {
+					socket.close();
+				}
+				return null;
+			}
+		});
+
+		final int offset = 5000;
+		TestingNIOTransferThread thread = new TestingNIOTransferThread();
+		thread.connect(InetAddress.getLoopbackAddress().getHostAddress(), serverSocket.getLocalPort(),
+				pipelineConfiguration, 10);
+		CountingListener listener = new CountingListener();
+		FileChannel channel = FileChannel.open(localFile.toPath(), StandardOpenOption.WRITE);
+		try {
+			Assert.assertEquals(AbstractNIOParallelTransferThread.GET_OPR, thread.readInt());
+			Assert.assertEquals(7L, thread.readLong());
+			long received = thread.transferChannelToFile(channel, offset, data.length, 30000, listener);
+			Assert.assertEquals(data.length, received);
+		} finally {
+			channel.close();
+			thread.close();
+			serverSocket.close();
+		}
+
+		byte[] actual = Files.readAllBytes(localFile.toPath());
+		Assert.assertEquals(offset + data.length, actual.length);
+		Assert.assertArrayEquals("segment data did not match", data,
+				Arrays.copyOfRange(actual, offset, actual.length));
+		Assert.assertEquals(data.length, listener.total);
+	}
+
+	@Test(expected = JargonException.class)
+	public void testReadIntTimesOut() throws Exception {
+		ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		TestingNIOTransferThread thread = new TestingNIOTransferThread();
+		try {
+			thread.connect(InetAddress.getLoopbackAddress().getHostAddress(), serverSocket.getLocalPort(),
+					pipelineConfiguration, 1);
+			thread.readInt();
+		} finally {
+			thread.close();
+			serverSocket.close();
+		}
+	}
+
+	private static byte[] randomBytes(final int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	private static Callable<byte[]> readAll(final ServerSocket serverSocket, final int length) {
+		return new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				Socket socket = serverSocket.accept();
+				try {
+					InputStream in = socket.getInputStream();
+					byte[] result = new byte[length];
+					int total = 0;
+					while (total < length) {
+						int read = in.read(result, total, length - total);
+						if (read < 0) {
+							break;
+						}
+						total += read;
+					}
+					return Arrays.copyOf(result, total);
+				} finally {
+					socket.close();
+				}
+			}
+		};
+	}
+
+	private static class TestingNIOTransferThread extends AbstractNIOParallelTransferThread {
+		TestingNIOTransferThread() {
+			super(0);
+		}
+	}
+
+	private static class CountingListener implements AbstractNIOParallelTransferThread.ChunkListener {
+		long total = 0;
+
+		@Override
+		public void chunkTransferred(final long length) {
+			total += length;
+		}
+	}
+
+}
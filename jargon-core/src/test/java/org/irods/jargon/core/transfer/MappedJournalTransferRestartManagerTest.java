@@ -0,0 +1,189 @@
+package org.irods.jargon.core.transfer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.transfer.FileRestartInfo.RestartType;
+import org.irods.jargon.testutils.TestingPropertiesHelper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedJournalTransferRestartManagerTest {
+
+	private File journalFile;
+
+	@Before
+	public void setUp() throws Exception {
+		journalFile = File.createTempFile("jargon-restart", ".journal");
+		journalFile.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		journalFile.delete();
+	}
+
+	@Test
+	public void testStoreAndReopen() throws Exception {
+		MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile);
+		FileRestartInfo fileRestartInfo = buildFileRestartInfo("/irods/path", 4);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(fileRestartInfo);
+		manager.updateOffsetForSegment(identifier, 2, 1000L);
+		manager.updateLengthForSegment(identifier, 2, 300L);
+		manager.updateLengthForSegment(identifier, 2, 200L);
+		manager.incrementRestartAttempts(fileRestartInfo);
+		manager.close();
+
+		manager = new MappedJournalTransferRestartManager(journalFile);
+		FileRestartInfo retrievedInfo = manager.retrieveRestart(identifier);
+		manager.close();
+		Assert.assertNotNull("did not recover info", retrievedInfo);
+		Assert.assertEquals("/irods/path", retrievedInfo.getIrodsAbsolutePath());
+		Assert.assertEquals("/local/path", retrievedInfo.getLocalAbsolutePath());
+		Assert.assertEquals(RestartType.GET, retrievedInfo.getRestartType());
+		Assert.assertEquals(1, retrievedInfo.getNumberRestarts());
+		Assert.assertEquals(4, retrievedInfo.getFileRestartDataSegments().size());
+		Assert.assertEquals(1000L, retrievedInfo.getFileRestartDataSegments().get(2).getOffset());
+		Assert.assertEquals(500L, retrievedInfo.getFileRestartDataSegments().get(2).getLength());
+	}
+
+	@Test
+	public void testDeleteSurvivesReopen() throws Exception {
+		MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile);
+		FileRestartInfoIdentifier deleted = manager.storeRestart(buildFileRestartInfo("/irods/deleted", 2));
+		FileRestartInfoIdentifier kept = manager.storeRestart(buildFileRestartInfo("/irods/kept", 2));
+		manager.deleteRestart(deleted);
+		manager.close();
+
+		manager = new MappedJournalTransferRestartManager(journalFile);
+		Assert.assertNull("did not remove info", manager.retrieveRestart(deleted));
+		Assert.assertNotNull("lost info", manager.retrieveRestart(kept));
+		manager.close();
+	}
+
+	@Test
+	public void testCompactWhenFull() throws Exception {
+		MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile, 4096,
+				0L);
+		FileRestartInfo fileRestartInfo = buildFileRestartInfo("/irods/path", 2);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(fileRestartInfo);
+		for (int i = 0; i < 1000; i++) {
+			manager.updateLengthForSegment(identifier, 1, 10L);
+		}
+		manager.close();
+		Assert.assertTrue("journal not compacted", journalFile.length() < 1000 * 10);
+
+		manager = new MappedJournalTransferRestartManager(journalFile);
+		FileRestartInfo retrievedInfo = manager.retrieveRestart(identifier);
+		manager.close();
+		Assert.assertEquals(10000L, retrievedInfo.getFileRestartDataSegments().get(1).getLength());
+	}
+
+	@Test
+	public void testCloseReleasesJournal() throws Exception {
+		MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile, 4096,
+				0L);
+		FileRestartInfoIdentifier identifier = manager.storeRestart(buildFileRestartInfo("/irods/path", 2));
+		for (int i = 0; i < 1000; i++) {
+			manager.updateLengthForSegment(identifier, 1, 10L);
+		}
+		manager.close();
+		Assert.assertFalse("compacted journal left behind", new File(journalFile.getPath() + ".compact").exists());
+		Assert.assertTrue("journal still held", journalFile.delete());
+
+		try {
+			manager.updateLengthForSegment(identifier, 1, 10L);
+			Assert.fail("closed journal was written");
+		} catch (FileRestartManagementException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testConcurrentSegmentUpdates() throws Exception {
+		final MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile,
+				8192, MappedJournalTransferRestartManager.DEFAULT_FORCE_INTERVAL_MILLIS);
+		int nbrThreads = 4;
+		final int nbrUpdates = 500;
+		final FileRestartInfoIdentifier identifier = manager
+				.storeRestart(buildFileRestartInfo("/irods/path", nbrThreads));
+
+		List<Thread> threads = new ArrayList<Thread>();
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		for (int i = 0; i < nbrThreads; i++) {
+			final int threadNumber = i;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						manager.updateOffsetForSegment(identifier, threadNumber, threadNumber * 100000L);
+						for (int j = 0; j < nbrUpdates; j++) {
+							manager.updateLengthForSegment(identifier, threadNumber, 1L);
+						}
+					} catch (Throwable e) {
+						synchronized (failures) {
+							failures.add(e);
+						}
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		manager.close();
+		Assert.assertTrue("failed updates:" + failures, failures.isEmpty());
+
+		MappedJournalTransferRestartManager reopened = new MappedJournalTransferRestartManager(journalFile);
+		FileRestartInfo retrievedInfo = reopened.retrieveRestart(identifier);
+		reopened.close();
+		for (int i = 0; i < nbrThreads; i++) {
+			FileRestartDataSegment segment = retrievedInfo.getFileRestartDataSegments().get(i);
+			Assert.assertEquals(i * 100000L, segment.getOffset());
+			Assert.assertEquals(nbrUpdates, segment.getLength());
+		}
+	}
+
+	@Test(expected = FileRestartManagementException.class)
+	public void testUpdateNonExistentSegment() throws Exception {
+		MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile);
+		try {
+			FileRestartInfo fileRestartInfo = buildFileRestartInfo("/irods/path", 4);
+			manager.storeRestart(fileRestartInfo);
+			manager.updateSegment(fileRestartInfo, new FileRestartDataSegment(100));
+		} finally {
+			manager.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStoreNull() throws Exception {
+		MappedJournalTransferRestartManager manager = new MappedJournalTransferRestartManager(journalFile);
+		try {
+			manager.storeRestart(null);
+		} finally {
+			manager.close();
+		}
+	}
+
+	private FileRestartInfo buildFileRestartInfo(final String irodsPath, final int nbrThreads) throws Exception {
+		IRODSAccount account = TestingPropertiesHelper.buildBogusIrodsAccount();
+		FileRestartInfo fileRestartInfo = new FileRestartInfo();
+		fileRestartInfo.setIrodsAbsolutePath(irodsPath);
+		fileRestartInfo.setLocalAbsolutePath("/local/path");
+		fileRestartInfo.setRestartType(RestartType.GET);
+		fileRestartInfo.setIrodsAccountIdentifier(account.toString());
+		for (int i = 0; i < nbrThreads; i++) {
+			fileRestartInfo.getFileRestartDataSegments().add(new FileRestartDataSegment(i));
+		}
+		return fileRestartInfo;
+	}
+
+}
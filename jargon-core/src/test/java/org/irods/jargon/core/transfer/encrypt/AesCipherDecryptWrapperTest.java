@@ -1,14 +1,17 @@
 package org.irods.jargon.core.transfer.encrypt;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import org.irods.jargon.core.connection.NegotiatedClientServerConfiguration;
 import org.irods.jargon.core.connection.PipelineConfiguration;
 import org.irods.jargon.core.connection.SettableJargonProperties;
 import org.irods.jargon.core.connection.SettableJargonPropertiesMBean;
+import org.irods.jargon.core.exception.EncryptionException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.protovalues.EncryptionAlgorithmEnum;
 import org.irods.jargon.core.pub.IRODSFileSystem;
+import org.irods.jargon.core.utils.RandomUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -59,4 +62,89 @@ public class AesCipherDecryptWrapperTest {
 		Assert.assertEquals("didnt match encrypted data", begin, result);
 
 	}
+
+	@Test
+	public void testEncryptRoundTripReusingBuffers() throws JargonException {
+		SettableJargonPropertiesMBean props = (SettableJargonPropertiesMBean) irodsFileSystem.getJargonProperties();
+		props.setEncryptionAlgorithmEnum(EncryptionAlgorithmEnum.AES_256_CBC);
+		props.setEncryptionKeySize(EncryptionAlgorithmEnum.AES_256_CBC.getKeySize());
+		props.setEncryptionNumberHashRounds(8);
+		props.setEncryptionSaltSize(8);
+		PipelineConfiguration pipelineConfiguration = PipelineConfiguration.instance(props);
+		NegotiatedClientServerConfiguration config = new NegotiatedClientServerConfiguration(true);
+		AESKeyGenerator generator = new AESKeyGenerator(pipelineConfiguration, config);
+		config.setSecretKey(generator.generateKey());
+
+		AesCipherEncryptWrapper wrapper = new AesCipherEncryptWrapper(pipelineConfiguration, config);
+		AesCipherDecryptWrapper decryptWrapper = new AesCipherDecryptWrapper(pipelineConfiguration, config);
+
+		int bufferSize = 4096;
+		ByteBuffer plainText = ByteBuffer.allocate(bufferSize);
+		ByteBuffer encrypted = ByteBuffer.allocate(wrapper.getEncryptedLength(bufferSize));
+		ByteBuffer decrypted = ByteBuffer.allocate(decryptWrapper.getDecryptedLength(encrypted.capacity()));
+
+		// a full buffer, then a partial one through the same buffers
+		int[] lengths = { bufferSize, 1000 };
+		for (int length : lengths) {
+			byte[] source = RandomUtils.generateRandomBytesOfLength(length);
+			plainText.clear();
+			plainText.put(source).flip();
+			encrypted.clear();
+			int encryptedLength = wrapper.encrypt(plainText, encrypted);
+			Assert.assertEquals(encryptedLength, encrypted.position());
+			Assert.assertTrue("encrypted length over the computed maximum",
+					encryptedLength <= wrapper.getEncryptedLength(length));
+
+			encrypted.flip();
+			decrypted.clear();
+			int decryptedLength = decryptWrapper.decrypt(encrypted, decrypted);
+			Assert.assertEquals(length, decryptedLength);
+			byte[] actual = new byte[decryptedLength];
+			decrypted.flip();
+			decrypted.get(actual);
+			Assert.assertArrayEquals("didnt match encrypted data", source, actual);
+		}
+
+	}
+
+	@Test
+	public void testDecryptIntoShortOutputBuffer() throws JargonException {
+		PipelineConfiguration pipelineConfiguration = buildAesPipelineConfiguration();
+		NegotiatedClientServerConfiguration config = new NegotiatedClientServerConfiguration(true);
+		config.setSecretKey(new AESKeyGenerator(pipelineConfiguration, config).generateKey());
+
+		AesCipherEncryptWrapper wrapper = new AesCipherEncryptWrapper(pipelineConfiguration, config);
+		AesCipherDecryptWrapper decryptWrapper = new AesCipherDecryptWrapper(pipelineConfiguration, config);
+
+		ByteBuffer plainText = ByteBuffer.wrap(RandomUtils.generateRandomBytesOfLength(1000));
+		ByteBuffer encrypted = ByteBuffer.allocate(wrapper.getEncryptedLength(1000));
+		wrapper.encrypt(plainText, encrypted);
+		encrypted.flip();
+
+		try {
+			decryptWrapper.decrypt(encrypted, ByteBuffer.allocate(100));
+			Assert.fail("decrypted into a short buffer");
+		} catch (EncryptionException e) {
+			Assert.assertEquals("input consumed", 0, encrypted.position());
+		}
+	}
+
+	@Test(expected = EncryptionException.class)
+	public void testDecryptTruncatedBuffer() throws JargonException {
+		PipelineConfiguration pipelineConfiguration = buildAesPipelineConfiguration();
+		NegotiatedClientServerConfiguration config = new NegotiatedClientServerConfiguration(true);
+		config.setSecretKey(new AESKeyGenerator(pipelineConfiguration, config).generateKey());
+
+		AesCipherDecryptWrapper decryptWrapper = new AesCipherDecryptWrapper(pipelineConfiguration, config);
+		decryptWrapper.decrypt(ByteBuffer.allocate(20), ByteBuffer.allocate(100));
+	}
+
+	private static PipelineConfiguration buildAesPipelineConfiguration() {
+		SettableJargonPropertiesMBean props = (SettableJargonPropertiesMBean) irodsFileSystem.getJargonProperties();
+		props.setEncryptionAlgorithmEnum(EncryptionAlgorithmEnum.AES_256_CBC);
+		props.setEncryptionKeySize(EncryptionAlgorithmEnum.AES_256_CBC.getKeySize());
+		props.setEncryptionNumberHashRounds(8);
+		props.setEncryptionSaltSize(8);
+		return PipelineConfiguration.instance(props);
+	}
 }
@@ -1,6 +1,7 @@
 package org.irods.jargon.core.unittest;
 
 import org.irods.jargon.core.pub.ApiPluginExecutorImplTest;
+import org.irods.jargon.core.pub.AsyncIRODSAccessObjectFactoryImplTest;
 import org.irods.jargon.core.pub.BulkFileOperationsAOImplTest;
 import org.irods.jargon.core.pub.CollectionAOImplForSoftLinkTest;
 import org.irods.jargon.core.pub.CollectionAOImplTest;
@@ -80,7 +81,8 @@ import org.junit.runners.Suite;
 		IRODSFileSystemSingletonWrapperTest.class, ResourceAOHelperTest.class, CollectionPagerAOImplTest.class,
 		DataObjectChecksumUtilitiesAOImplTest.class, CollectionListingUtilsTest.class,
 		FederatedDataObjectAOImplTest.class, DataObjectChecksumUtilitiesAOImplTest.class, TrashOperationsTest.class,
-		TrashOperationsAOImplTest.class, FederatedUserGroupAOTest.class, ApiPluginExecutorImplTest.class })
+		TrashOperationsAOImplTest.class, FederatedUserGroupAOTest.class, ApiPluginExecutorImplTest.class,
+		AsyncIRODSAccessObjectFactoryImplTest.class })
 
 /**
  * Suite to run Access Object tests in org.irods.jargon.pub.*
@@ -2,8 +2,10 @@ package org.irods.jargon.core.unittest;
 
 import org.irods.jargon.core.checksum.ChecksumManagerImplTest;
 import org.irods.jargon.core.checksum.LocalChecksumComputerFactoryImplTest;
+import org.irods.jargon.core.checksum.LocalChecksumEngineTest;
 import org.irods.jargon.core.checksum.MD5LocalChecksumComputerStrategyTest;
 import org.irods.jargon.core.checksum.SHA256LocalChecksumComputerStrategyTest;
+import org.irods.jargon.core.pub.DataAOHelperDigestChecksumTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -15,7 +17,8 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ MD5LocalChecksumComputerStrategyTest.class, SHA256LocalChecksumComputerStrategyTest.class,
-		LocalChecksumComputerFactoryImplTest.class, ChecksumManagerImplTest.class })
+		LocalChecksumComputerFactoryImplTest.class, ChecksumManagerImplTest.class, LocalChecksumEngineTest.class,
+		DataAOHelperDigestChecksumTest.class })
 public class ChecksumTests {
 
 }
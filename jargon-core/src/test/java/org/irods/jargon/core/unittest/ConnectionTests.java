@@ -6,11 +6,16 @@ import org.irods.jargon.core.connection.ConnectionProgressStatusTest;
 import org.irods.jargon.core.connection.DefaultPropertiesJargonConfigTest;
 import org.irods.jargon.core.connection.DiscoveredServerPropertiesCacheTest;
 import org.irods.jargon.core.connection.EnvironmentalInfoAccessorTest;
+import org.irods.jargon.core.connection.HistogramJargonMetricsSinkTest;
 import org.irods.jargon.core.connection.IRODSAccountTest;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocolPipelinedTest;
 import org.irods.jargon.core.connection.IRODSServerPropertiesTest;
+import org.irods.jargon.core.connection.IRODSSessionConnectionScopeTest;
 import org.irods.jargon.core.connection.IRODSSessionTest;
 import org.irods.jargon.core.connection.IRODSSimpleConnectionTest;
 import org.irods.jargon.core.connection.IRODSSimpleProtocolManagerTest;
+import org.irods.jargon.core.connection.LockFreeHistogramTest;
+import org.irods.jargon.core.connection.ObjStatAndListingCacheTest;
 import org.irods.jargon.core.connection.PAMAuthTest;
 import org.irods.jargon.core.connection.PipelineConfigurationTest;
 import org.irods.jargon.core.connection.ProxyUserFunctionalTest;
@@ -23,7 +28,9 @@ import org.junit.runners.Suite;
 		DefaultPropertiesJargonConfigTest.class, ConnectionProgressStatusTest.class, PAMAuthTest.class,
 		DiscoveredServerPropertiesCacheTest.class, IRODSAccountTest.class,
 		ClientServerNegotationPolicyFromPropertiesBuilderTest.class, ClientServerNegotiationPolicyTest.class,
-		PipelineConfigurationTest.class, ProxyUserFunctionalTest.class })
+		PipelineConfigurationTest.class, ProxyUserFunctionalTest.class, IRODSMidLevelProtocolPipelinedTest.class,
+		IRODSSessionConnectionScopeTest.class, LockFreeHistogramTest.class, HistogramJargonMetricsSinkTest.class,
+		ObjStatAndListingCacheTest.class })
 public class ConnectionTests {
 
 }
@@ -1,10 +1,13 @@
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.apiplugin.ReplicaCloseInputTest;
 import org.irods.jargon.core.packinstr.AbstractIRODSPackingInstructionTest;
 import org.irods.jargon.core.packinstr.AuthReqPluginRequestInpTest;
+import org.irods.jargon.core.packinstr.BinBytesBufInpTest;
 import org.irods.jargon.core.packinstr.CollInpTest;
 import org.irods.jargon.core.packinstr.DataObjInpForMcollTest;
 import org.irods.jargon.core.packinstr.DataObjInpForObjStatTest;
+import org.irods.jargon.core.packinstr.DataObjInpForReplicaOpenTest;
 import org.irods.jargon.core.packinstr.DataObjInpForRegTest;
 import org.irods.jargon.core.packinstr.DataObjInpForUnmountTest;
 import org.irods.jargon.core.packinstr.DataObjInpForUnregisterTest;
@@ -41,7 +44,8 @@ import org.junit.runners.Suite;
 		DataObjInpForObjStatTest.class, GetTempPasswordForOtherTest.class, DataObjInpForRegTest.class,
 		DataObjInpForUnregisterTest.class, DataObjInpForMcollTest.class, DataObjInpForUnmountTest.class,
 		ReconnMsgTest.class, SpecificQueryInpTest.class, PamAuthRequestInpTest.class, SSLStartInpTest.class,
-		SSLEndInpTest.class, AuthReqPluginRequestInpTest.class, }) // ModDataObjMetaInpTest.class
+		SSLEndInpTest.class, AuthReqPluginRequestInpTest.class, BinBytesBufInpTest.class,
+		DataObjInpForReplicaOpenTest.class, ReplicaCloseInputTest.class, }) // ModDataObjMetaInpTest.class
 																	// })
 public class PackingInstructionTests {
 
@@ -1,7 +1,9 @@
 package org.irods.jargon.core.unittest;
 
+import org.irods.jargon.core.pub.MultiStreamTransferEngineTest;
 import org.irods.jargon.core.transfer.DefaultTransferControlBlockTest;
 import org.irods.jargon.core.transfer.TransferStatusTest;
+import org.irods.jargon.core.transfer.encrypt.AesCipherDecryptWrapperTest;
 import org.irods.jargon.core.transfer.encrypt.AesCipherEncryptWrapperTest;
 import org.irods.jargon.core.transfer.encrypt.EncryptionWrapperFactoryTest;
 import org.junit.runner.RunWith;
@@ -9,7 +11,8 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ TransferStatusTest.class, DefaultTransferControlBlockTest.class,
-		EncryptionWrapperFactoryTest.class, AesCipherEncryptWrapperTest.class })
+		EncryptionWrapperFactoryTest.class, AesCipherEncryptWrapperTest.class,
+		AesCipherDecryptWrapperTest.class, MultiStreamTransferEngineTest.class })
 public class TransferTests {
 
 }
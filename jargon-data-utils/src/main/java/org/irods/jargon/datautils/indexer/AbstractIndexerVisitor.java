@@ -3,6 +3,8 @@
  */
 package org.irods.jargon.datautils.indexer;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
 import org.irods.jargon.core.connection.IRODSAccount;
@@ -53,6 +55,12 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 	 */
 	private MetadataRollup metadataRollup = new MetadataRollup();
 
+	/**
+	 * Bulk fetched metadata for the children of each collection entered, in step
+	 * with the collections on the metadata stack
+	 */
+	private final Deque<PrefetchedChildMetadata> prefetchedChildMetadata = new ArrayDeque<PrefetchedChildMetadata>();
+
 	/**
 	 * Optional control that can sleep or halt an indexing run, can be used to limit
 	 * load caused by indexing. Can be left <code>null</code> for no throttling
@@ -98,9 +106,10 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 
 		log.info("obtaining metadata for:{}", node);
 		try {
-			List<MetaDataAndDomainData> metadata = collectionAO.findMetadataValuesForCollection(node.getAbsolutePath(),
-					0);
+			List<MetaDataAndDomainData> metadata = findMetadataForCollection(node.getAbsolutePath());
 			metadataRollup.getMetadata().push(metadata);
+			prefetchedChildMetadata.push(
+					new PrefetchedChildMetadata(node.getAbsolutePath(), collectionAO, dataObjectAO));
 			log.info(
 					"pushed metadata in the stack...now filter and then delegate to visitEnterWithMetadata() in the impl class to make any determinations");
 
@@ -161,6 +170,7 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		log.info("delegating to visit leave before popping metadata off the stack");
 		boolean shortCircuit = visitLeaveWithMetadata(node, metadataRollup, wasEntered);
 		metadataRollup.getMetadata().pop();
+		prefetchedChildMetadata.pop();
 		return shortCircuit;
 	}
 
@@ -212,7 +222,7 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 
 		log.info("obtaining metadata for:{}", node);
 		try {
-			List<MetaDataAndDomainData> metadata = dataObjectAO.findMetadataValuesForDataObject(node.getAbsolutePath());
+			List<MetaDataAndDomainData> metadata = findMetadataForDataObject(node.getAbsolutePath());
 			metadataRollup.getMetadata().push(metadata);
 			log.info(
 					"pushed metadata in the stack...filter and then delegate to visitMetadata() in the impl class to make any determinations");
@@ -305,6 +315,34 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		this.controlRod = controlRod;
 	}
 
+	/*
+	 * Metadata for a collection comes from the bulk fetch made for its parent,
+	 * unless it is the starting collection, which is queried on its own
+	 */
+	private List<MetaDataAndDomainData> findMetadataForCollection(final String collectionPath)
+			throws JargonException, JargonQueryException {
+		PrefetchedChildMetadata parent = prefetchedChildMetadata.peek();
+		if (parent != null && parent.isParentOf(collectionPath)) {
+			return parent.metadataForCollection(collectionPath);
+		}
+		log.debug("no prefetched parent, query metadata for:{}", collectionPath);
+		return collectionAO.findMetadataValuesForCollection(collectionPath, 0);
+	}
+
+	/*
+	 * Metadata for a data object comes from the bulk fetch made for its
+	 * collection, unless the leaf was visited outside of a crawl
+	 */
+	private List<MetaDataAndDomainData> findMetadataForDataObject(final String dataObjectPath)
+			throws JargonException {
+		PrefetchedChildMetadata parent = prefetchedChildMetadata.peek();
+		if (parent != null && parent.isParentOf(dataObjectPath)) {
+			return parent.metadataForDataObject(dataObjectPath);
+		}
+		log.debug("no prefetched parent, query metadata for:{}", dataObjectPath);
+		return dataObjectAO.findMetadataValuesForDataObject(dataObjectPath);
+	}
+
 	/*
 	 * Give a space for a pause or end of processing
 	 *
@@ -338,6 +376,14 @@ public abstract class AbstractIndexerVisitor extends AbstractIrodsVisitorCompone
 		}
 	}
 
+	/**
+	 * @return {@code boolean} of <code>true</code> if the {@link ControlRod} ended
+	 *         the crawl before it was complete
+	 */
+	public boolean isAborted() {
+		return aborted;
+	}
+
 	public MetadataRollup getMetadataRollup() {
 		return metadataRollup;
 	}
@@ -0,0 +1,89 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.indexer;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.datautils.visitor.HierVisitor;
+import org.irods.jargon.datautils.visitor.IrodsVisitedComposite;
+import org.irods.jargon.datautils.visitor.IrodsVisitedLeaf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collection in an incremental crawl. Its children are taken from an
+ * {@link IndexerChangeSet} rather than from a listing, so only the data objects
+ * that changed, and the child collections that lead to a change, are visited.
+ * A child collection whose AVUs changed is crawled in full.
+ *
+ * @author conwaymc
+ *
+ */
+class IncrementalVisitedComposite extends IrodsVisitedComposite {
+
+	private static final long serialVersionUID = -6270281340425883307L;
+
+	public static final Logger log = LoggerFactory.getLogger(IncrementalVisitedComposite.class);
+
+	private final transient IndexerChangeSet changeSet;
+
+	/**
+	 * @param pathName
+	 *            {@code String} with the absolute path of the collection
+	 * @param irodsFileSystemAO
+	 *            {@link IRODSFileSystemAO}
+	 * @param changeSet
+	 *            {@link IndexerChangeSet} with the changes to visit
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	IncrementalVisitedComposite(final String pathName, final IRODSFileSystemAO irodsFileSystemAO,
+			final IndexerChangeSet changeSet) throws JargonException {
+		super(pathName, irodsFileSystemAO);
+		this.changeSet = changeSet;
+	}
+
+	@Override
+	public boolean accept(final HierVisitor visitor) throws JargonException {
+
+		log.info("accept()");
+		if (visitor == null) {
+			throw new IllegalArgumentException("null visitor");
+		}
+		log.debug("check if enter at:{}", getAbsolutePath());
+		boolean visitorEntered = visitor.visitEnter(this);
+		if (visitorEntered) {
+			visitChangedChildren(visitor);
+		}
+
+		log.debug("done with children...");
+		return visitor.visitLeave(this, visitorEntered);
+	}
+
+	private void visitChangedChildren(final HierVisitor visitor) throws JargonException {
+		IRODSFileSystemAO irodsFileSystemAO = getIrodsFileSystemAO();
+		for (String name : changeSet.getDataObjectsToVisit(getAbsolutePath())) {
+			IrodsVisitedLeaf leaf = new IrodsVisitedLeaf(getAbsolutePath(), name, irodsFileSystemAO);
+			if (!leaf.accept(visitor)) {
+				log.info("child doesn't accept, short circuit rest of siblings at:{}", leaf.getAbsolutePath());
+				return;
+			}
+		}
+
+		for (String childPath : changeSet.getChildCollectionsToVisit(getAbsolutePath())) {
+			IrodsVisitedComposite child;
+			if (changeSet.isSubtreeChanged(childPath)) {
+				log.debug("metadata changed, crawl all of:{}", childPath);
+				child = new IrodsVisitedComposite(childPath, irodsFileSystemAO);
+			} else {
+				child = new IncrementalVisitedComposite(childPath, irodsFileSystemAO, changeSet);
+			}
+			if (!child.accept(visitor)) {
+				log.info("child doesn't accept, short circuit rest of siblings at:{}", child.getAbsolutePath());
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,315 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.indexer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.pub.IRODSGenQueryResultIterator;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The collections and data objects under a starting collection that changed
+ * since a watermark, arranged as the part of the tree that an incremental
+ * indexer has to walk.
+ * <p>
+ * A collection or data object whose modify time changed is visited, along with
+ * the collections between it and the starting collection, so the indexer still
+ * sees the metadata of its parents. A collection whose AVUs changed is crawled
+ * in full, as the metadata rolled up to everything under it has changed.
+ * Deletions leave nothing in the catalog to find, so they are not reported.
+ *
+ * @author conwaymc
+ *
+ */
+public class IndexerChangeSet {
+
+	public static final Logger log = LoggerFactory.getLogger(IndexerChangeSet.class);
+
+	/**
+	 * Width of the times stored in the iCAT, which are compared as strings
+	 */
+	private static final int ICAT_TIME_WIDTH = 11;
+
+	private final String startingCollectionPath;
+	private final Map<String, Set<String>> childCollections = new HashMap<String, Set<String>>();
+	private final Map<String, Set<String>> changedDataObjects = new HashMap<String, Set<String>>();
+	private final Set<String> changedCollections = new HashSet<String>();
+	private final Set<String> metadataChangedCollections = new HashSet<String>();
+	private int changeCount = 0;
+
+	/**
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path of the collection the
+	 *            indexer starts at
+	 */
+	public IndexerChangeSet(final String startingCollectionPath) {
+		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty startingCollectionPath");
+		}
+		this.startingCollectionPath = withoutTrailingSlash(startingCollectionPath);
+	}
+
+	/**
+	 * Find what changed under a starting collection since a watermark, with one
+	 * paged query each on the modify times of collections, data objects and their
+	 * AVUs
+	 *
+	 * @param irodsGenQueryExecutor
+	 *            {@link IRODSGenQueryExecutor}
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path of the collection the
+	 *            indexer starts at
+	 * @param watermark
+	 *            {@code long} with the iCAT time, in seconds since the epoch, of
+	 *            the last indexing run
+	 * @param maxRowsPerPage
+	 *            {@code int} with the number of rows to ask for in each page
+	 * @return {@link IndexerChangeSet}
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	public static IndexerChangeSet findChangesSince(final IRODSGenQueryExecutor irodsGenQueryExecutor,
+			final String startingCollectionPath, final long watermark, final int maxRowsPerPage)
+			throws JargonException {
+
+		if (irodsGenQueryExecutor == null) {
+			throw new IllegalArgumentException("null irodsGenQueryExecutor");
+		}
+
+		IndexerChangeSet changeSet = new IndexerChangeSet(startingCollectionPath);
+		String since = MiscIRODSUtils.padLeft(String.valueOf(watermark), ICAT_TIME_WIDTH).replace(' ', '0');
+		log.info("finding changes under {} since:{}", changeSet.startingCollectionPath, since);
+
+		changeSet.addChanges(irodsGenQueryExecutor, RodsGenQueryEnum.COL_COLL_MODIFY_TIME, since, maxRowsPerPage);
+		changeSet.addChanges(irodsGenQueryExecutor, RodsGenQueryEnum.COL_META_COLL_MODIFY_TIME, since,
+				maxRowsPerPage);
+		changeSet.addChanges(irodsGenQueryExecutor, RodsGenQueryEnum.COL_D_MODIFY_TIME, since, maxRowsPerPage);
+		changeSet.addChanges(irodsGenQueryExecutor, RodsGenQueryEnum.COL_META_DATA_MODIFY_TIME, since,
+				maxRowsPerPage);
+
+		log.info("found {} changes", changeSet.getChangeCount());
+		return changeSet;
+	}
+
+	/**
+	 * Add a collection that changed, it is entered by the indexer, but its
+	 * children are only visited if they changed themselves
+	 *
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the collection
+	 */
+	public void addChangedCollection(final String collectionPath) {
+		String path = withoutTrailingSlash(collectionPath);
+		if (addToTree(path) && changedCollections.add(path)) {
+			changeCount++;
+		}
+	}
+
+	/**
+	 * Add a collection whose AVUs changed, the indexer crawls everything under it
+	 *
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the collection
+	 */
+	public void addCollectionWithChangedMetadata(final String collectionPath) {
+		String path = withoutTrailingSlash(collectionPath);
+		if (addToTree(path)) {
+			metadataChangedCollections.add(path);
+			if (changedCollections.add(path)) {
+				changeCount++;
+			}
+		}
+	}
+
+	/**
+	 * Add a data object that changed, or whose AVUs changed
+	 *
+	 * @param dataObjectPath
+	 *            {@code String} with the absolute path of the data object
+	 */
+	public void addChangedDataObject(final String dataObjectPath) {
+		String path = withoutTrailingSlash(dataObjectPath);
+		String parent = parentOf(path);
+		if (parent == null || !addToTree(parent)) {
+			return;
+		}
+		Set<String> names = changedDataObjects.get(parent);
+		if (names == null) {
+			names = new TreeSet<String>();
+			changedDataObjects.put(parent, names);
+		}
+		if (names.add(path.substring(path.lastIndexOf('/') + 1))) {
+			changeCount++;
+		}
+	}
+
+	/**
+	 * @return {@code boolean} of <code>true</code> if nothing changed
+	 */
+	public boolean isEmpty() {
+		return changeCount == 0;
+	}
+
+	/**
+	 * @return {@code int} with the number of changed collections and data objects
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+
+	public String getStartingCollectionPath() {
+		return startingCollectionPath;
+	}
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of a collection
+	 * @return {@code boolean} of <code>true</code> if everything under the
+	 *         collection has to be crawled
+	 */
+	public boolean isSubtreeChanged(final String collectionPath) {
+		return metadataChangedCollections.contains(collectionPath);
+	}
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of a collection
+	 * @return {@code Set} of the absolute paths of the child collections that
+	 *         changed or lead to a change, in name order
+	 */
+	public Set<String> getChildCollectionsToVisit(final String collectionPath) {
+		Set<String> children = childCollections.get(collectionPath);
+		if (children == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(children);
+	}
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of a collection
+	 * @return {@code Set} of the names of the data objects in the collection that
+	 *         changed, in name order
+	 */
+	public Set<String> getDataObjectsToVisit(final String collectionPath) {
+		Set<String> names = changedDataObjects.get(collectionPath);
+		if (names == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(names);
+	}
+
+	/*
+	 * Link the collection to its parents up to the starting collection, returns
+	 * false if it is not under the starting collection, as the LIKE condition also
+	 * matches siblings that share a prefix
+	 */
+	private boolean addToTree(final String collectionPath) {
+		if (collectionPath.equals(startingCollectionPath)) {
+			return true;
+		}
+		String prefix = startingCollectionPath.equals("/") ? "/" : startingCollectionPath + "/";
+		if (!collectionPath.startsWith(prefix)) {
+			log.debug("ignoring path outside of the starting collection:{}", collectionPath);
+			return false;
+		}
+
+		String child = collectionPath;
+		String parent = parentOf(child);
+		while (parent != null) {
+			Set<String> children = childCollections.get(parent);
+			if (children == null) {
+				children = new TreeSet<String>();
+				childCollections.put(parent, children);
+			}
+			if (!children.add(child) || parent.equals(startingCollectionPath)) {
+				break;
+			}
+			child = parent;
+			parent = parentOf(child);
+		}
+		return true;
+	}
+
+	private static String parentOf(final String path) {
+		int lastSlash = path.lastIndexOf('/');
+		if (lastSlash < 0 || path.equals("/")) {
+			return null;
+		}
+		return lastSlash == 0 ? "/" : path.substring(0, lastSlash);
+	}
+
+	private static String withoutTrailingSlash(final String path) {
+		if (path == null || path.isEmpty()) {
+			throw new IllegalArgumentException("null or empty path");
+		}
+		if (path.length() > 1 && path.endsWith("/")) {
+			return path.substring(0, path.length() - 1);
+		}
+		return path;
+	}
+
+	/*
+	 * Query the collections or data objects whose given modify time is after the
+	 * watermark, and add each row as it is paged in
+	 */
+	private void addChanges(final IRODSGenQueryExecutor irodsGenQueryExecutor, final RodsGenQueryEnum modifyTime,
+			final String since, final int maxRowsPerPage) throws JargonException {
+
+		boolean dataObjects = modifyTime == RodsGenQueryEnum.COL_D_MODIFY_TIME
+				|| modifyTime == RodsGenQueryEnum.COL_META_DATA_MODIFY_TIME;
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		String likePath = startingCollectionPath.equals("/") ? "/%" : startingCollectionPath + "%";
+		int rows = 0;
+
+		try {
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME);
+			if (dataObjects) {
+				builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME);
+			}
+			builder.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, QueryConditionOperators.LIKE, likePath)
+					.addConditionAsGenQueryField(modifyTime, QueryConditionOperators.GREATER_THAN, since);
+
+			IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(maxRowsPerPage);
+			try (IRODSGenQueryResultIterator iterator = irodsGenQueryExecutor.iterateIRODSQuery(irodsQuery,
+					MiscIRODSUtils.getZoneInPath(startingCollectionPath))) {
+				while (iterator.hasNext()) {
+					IRODSQueryResultRow row = iterator.next();
+					rows++;
+					if (dataObjects) {
+						addChangedDataObject(row.getColumn(0) + "/" + row.getColumn(1));
+					} else if (modifyTime == RodsGenQueryEnum.COL_META_COLL_MODIFY_TIME) {
+						addCollectionWithChangedMetadata(row.getColumn(0));
+					} else {
+						addChangedCollection(row.getColumn(0));
+					}
+				}
+			}
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		} catch (JargonQueryException e) {
+			log.error("error executing query", e);
+			throw new JargonException("error executing query", e);
+		}
+		log.debug("{} rows changed on:{}", rows, modifyTime);
+	}
+
+}
@@ -23,6 +23,14 @@ public class IndexerServiceImpl extends AbstractJargonService {
 
 	public static final Logger log = LoggerFactory.getLogger(IndexerServiceImpl.class);
 
+	/**
+	 * Default seconds that an incremental watermark is set back from the start of
+	 * a run
+	 */
+	public static final int DEFAULT_CLOCK_SKEW_ALLOWANCE_SECONDS = 300;
+
+	private int clockSkewAllowanceSeconds = DEFAULT_CLOCK_SKEW_ALLOWANCE_SECONDS;
+
 	/**
 	 * @param irodsAccessObjectFactory
 	 *            {@link IRODSAccessObjectFactory}
@@ -77,4 +85,100 @@ public class IndexerServiceImpl extends AbstractJargonService {
 
 	}
 
+	/**
+	 * Index only what changed under the starting collection since the last run.
+	 * The watermark of the last completed run is read from the store, and the
+	 * collections and data objects whose modify time, or whose AVUs, changed
+	 * after it are visited, along with the collections above them, so the
+	 * visitor's {@link ControlRod}, filter and metadata rollup work as in a full
+	 * crawl. A collection whose AVUs changed is crawled in full. When the store
+	 * has no watermark for the collection, the whole collection is crawled.
+	 * <p>
+	 * The new watermark is the time the run started, less the clock skew
+	 * allowance, and is only saved if the crawl was not ended by the
+	 * {@link ControlRod}, so an interrupted run is repeated. Deleted collections
+	 * and data objects are not reported, an index has to reconcile those on its
+	 * own.
+	 *
+	 * @param startingCollectionPath
+	 *            {@code String} with starting point
+	 * @param visitor
+	 *            {@link AbstractIndexerVisitor} to receive callbacks
+	 * @param indexerWatermarkStore
+	 *            {@link IndexerWatermarkStore} that keeps the watermark of this
+	 *            indexer
+	 * @return {@link IndexerChangeSet} with what was visited, or {@code null} if
+	 *         the whole collection was crawled
+	 * @throws DataNotFoundException
+	 *             {@link DataNotFoundException}
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public IndexerChangeSet launchIncremental(final String startingCollectionPath,
+			final AbstractIndexerVisitor visitor, final IndexerWatermarkStore indexerWatermarkStore)
+			throws DataNotFoundException, JargonException {
+		log.info("launchIncremental");
+		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty startingCollectionPath");
+		}
+		log.info("startingCollectionPath:{}", startingCollectionPath);
+		if (visitor == null) {
+			throw new IllegalArgumentException("null visitor");
+		}
+		if (indexerWatermarkStore == null) {
+			throw new IllegalArgumentException("null indexerWatermarkStore");
+		}
+
+		long nextWatermark = System.currentTimeMillis() / 1000 - clockSkewAllowanceSeconds;
+		Long watermark = indexerWatermarkStore.retrieveWatermark(startingCollectionPath);
+		IndexerChangeSet changeSet = null;
+
+		if (watermark == null) {
+			log.info("no watermark, crawl the whole collection");
+			launch(startingCollectionPath, visitor);
+		} else {
+			changeSet = IndexerChangeSet.findChangesSince(
+					getIrodsAccessObjectFactory().getIRODSGenQueryExecutor(getIrodsAccount()), startingCollectionPath,
+					watermark, getIrodsAccessObjectFactory().getJargonProperties().getMaxFilesAndDirsQueryMax());
+
+			if (changeSet.isEmpty()) {
+				log.info("nothing changed since:{}", watermark);
+			} else if (changeSet.isSubtreeChanged(changeSet.getStartingCollectionPath())) {
+				log.info("metadata of the starting collection changed, crawl the whole collection");
+				launch(startingCollectionPath, visitor);
+			} else {
+				IRODSFileImpl startingPoint = (IRODSFileImpl) getIrodsAccessObjectFactory()
+						.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(startingCollectionPath);
+				log.info("crawling {} changes", changeSet.getChangeCount());
+				new IncrementalVisitedComposite(changeSet.getStartingCollectionPath(),
+						startingPoint.getIrodsFileSystemAO(), changeSet).accept(visitor);
+			}
+		}
+
+		if (visitor.isAborted()) {
+			log.info("crawl was aborted, watermark is left at:{}", watermark);
+		} else {
+			indexerWatermarkStore.storeWatermark(startingCollectionPath, nextWatermark);
+		}
+		return changeSet;
+	}
+
+	public int getClockSkewAllowanceSeconds() {
+		return clockSkewAllowanceSeconds;
+	}
+
+	/**
+	 * @param clockSkewAllowanceSeconds
+	 *            {@code int} with the seconds the watermark is set back from the
+	 *            start of a run, to cover a difference between the clocks of this
+	 *            host and the iCAT server. Changes in that window are indexed
+	 *            again on the next run.
+	 */
+	public void setClockSkewAllowanceSeconds(final int clockSkewAllowanceSeconds) {
+		if (clockSkewAllowanceSeconds < 0) {
+			throw new IllegalArgumentException("clockSkewAllowanceSeconds must be 0 or greater");
+		}
+		this.clockSkewAllowanceSeconds = clockSkewAllowanceSeconds;
+	}
+
 }
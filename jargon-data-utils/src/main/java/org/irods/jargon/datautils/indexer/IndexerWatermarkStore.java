@@ -0,0 +1,44 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.indexer;
+
+import org.irods.jargon.core.exception.JargonException;
+
+/**
+ * Keeps the watermark of an incremental indexer, the time up to which changes
+ * under a starting collection have been indexed. A store belongs to one
+ * indexer, so indexers that feed different indexes each need their own store.
+ *
+ * @author conwaymc
+ *
+ */
+public interface IndexerWatermarkStore {
+
+	/**
+	 * Get the watermark of a starting collection
+	 *
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path the indexer starts at
+	 * @return {@code Long} with the iCAT time, in seconds since the epoch, up to
+	 *         which changes were indexed, or {@code null} if the collection has
+	 *         not been indexed
+	 * @throws JargonException
+	 *             {@link JargonException} if the store cannot be read
+	 */
+	Long retrieveWatermark(String startingCollectionPath) throws JargonException;
+
+	/**
+	 * Save the watermark of a starting collection after a crawl has completed
+	 *
+	 * @param startingCollectionPath
+	 *            {@code String} with the absolute path the indexer starts at
+	 * @param watermark
+	 *            {@code long} with the iCAT time, in seconds since the epoch, up
+	 *            to which changes were indexed
+	 * @throws JargonException
+	 *             {@link JargonException} if the store cannot be written
+	 */
+	void storeWatermark(String startingCollectionPath, long watermark) throws JargonException;
+
+}
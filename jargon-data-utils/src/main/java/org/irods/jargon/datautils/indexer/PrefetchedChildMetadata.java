@@ -0,0 +1,110 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.indexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.CollectionAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AVU metadata of the children of one collection, fetched in bulk for the
+ * indexer. The data objects and the child collections are each fetched with
+ * one paged query the first time a child is looked up, so a collection that is
+ * filtered out or short circuited costs no queries for its children, and only
+ * one directory level is held in memory per collection on the crawl stack.
+ *
+ * @author conwaymc
+ *
+ */
+class PrefetchedChildMetadata {
+
+	public static final Logger log = LoggerFactory.getLogger(PrefetchedChildMetadata.class);
+
+	private final String collectionPath;
+	private final CollectionAO collectionAO;
+	private final DataObjectAO dataObjectAO;
+	private Map<String, List<MetaDataAndDomainData>> dataObjectMetadata = null;
+	private Map<String, List<MetaDataAndDomainData>> collectionMetadata = null;
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the parent collection
+	 * @param collectionAO
+	 *            {@link CollectionAO}
+	 * @param dataObjectAO
+	 *            {@link DataObjectAO}
+	 */
+	PrefetchedChildMetadata(final String collectionPath, final CollectionAO collectionAO,
+			final DataObjectAO dataObjectAO) {
+		this.collectionPath = collectionPath;
+		this.collectionAO = collectionAO;
+		this.dataObjectAO = dataObjectAO;
+	}
+
+	/**
+	 * @param path
+	 *            {@code String} with an absolute path
+	 * @return {@code boolean} of <code>true</code> if the path is a direct child
+	 *         of this collection
+	 */
+	boolean isParentOf(final String path) {
+		int lastSlash = path.lastIndexOf('/');
+		if (lastSlash < 0) {
+			return false;
+		}
+		String parent = lastSlash == 0 ? "/" : path.substring(0, lastSlash);
+		return collectionPath.equals(parent);
+	}
+
+	/**
+	 * Get the metadata of a data object in this collection, an object with no
+	 * AVUs gets an empty list
+	 *
+	 * @param dataObjectPath
+	 *            {@code String} with the absolute path of a child data object
+	 * @return {@code List} of {@link MetaDataAndDomainData}
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	List<MetaDataAndDomainData> metadataForDataObject(final String dataObjectPath) throws JargonException {
+		if (dataObjectMetadata == null) {
+			log.debug("prefetching data object metadata under:{}", collectionPath);
+			dataObjectMetadata = dataObjectAO.findMetadataValuesForDataObjectsInCollection(collectionPath);
+		}
+		return orEmpty(dataObjectMetadata.remove(dataObjectPath));
+	}
+
+	/**
+	 * Get the metadata of a collection in this collection, a collection with no
+	 * AVUs gets an empty list
+	 *
+	 * @param childCollectionPath
+	 *            {@code String} with the absolute path of a child collection
+	 * @return {@code List} of {@link MetaDataAndDomainData}
+	 * @throws JargonException
+	 *             for iRODS error
+	 */
+	List<MetaDataAndDomainData> metadataForCollection(final String childCollectionPath) throws JargonException {
+		if (collectionMetadata == null) {
+			log.debug("prefetching child collection metadata under:{}", collectionPath);
+			collectionMetadata = collectionAO.findMetadataValuesForChildCollections(collectionPath);
+		}
+		return orEmpty(collectionMetadata.remove(childCollectionPath));
+	}
+
+	private static List<MetaDataAndDomainData> orEmpty(final List<MetaDataAndDomainData> metadata) {
+		if (metadata == null) {
+			return new ArrayList<MetaDataAndDomainData>();
+		}
+		return metadata;
+	}
+
+}
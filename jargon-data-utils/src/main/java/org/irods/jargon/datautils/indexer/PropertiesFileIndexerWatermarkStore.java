@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.indexer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link IndexerWatermarkStore} kept in a local properties file, one entry per
+ * starting collection. The file is rewritten through a temporary file that is
+ * moved into place, so a crash while saving leaves the previous watermarks.
+ *
+ * @author conwaymc
+ *
+ */
+public class PropertiesFileIndexerWatermarkStore implements IndexerWatermarkStore {
+
+	public static final Logger log = LoggerFactory.getLogger(PropertiesFileIndexerWatermarkStore.class);
+
+	private final File watermarkFile;
+
+	/**
+	 * @param watermarkFile
+	 *            {@link File} that holds the watermarks, it is created on the
+	 *            first save
+	 */
+	public PropertiesFileIndexerWatermarkStore(final File watermarkFile) {
+		if (watermarkFile == null) {
+			throw new IllegalArgumentException("null watermarkFile");
+		}
+		this.watermarkFile = watermarkFile;
+	}
+
+	@Override
+	public synchronized Long retrieveWatermark(final String startingCollectionPath) throws JargonException {
+		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty startingCollectionPath");
+		}
+		String value = load().getProperty(startingCollectionPath);
+		log.info("watermark for {} is:{}", startingCollectionPath, value);
+		if (value == null) {
+			return null;
+		}
+		try {
+			return Long.valueOf(value.trim());
+		} catch (NumberFormatException e) {
+			log.error("invalid watermark for {} in {}", startingCollectionPath, watermarkFile, e);
+			throw new JargonException("invalid watermark in " + watermarkFile, e);
+		}
+	}
+
+	@Override
+	public synchronized void storeWatermark(final String startingCollectionPath, final long watermark)
+			throws JargonException {
+		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty startingCollectionPath");
+		}
+		log.info("storing watermark for {}:{}", startingCollectionPath, watermark);
+		Properties properties = load();
+		properties.setProperty(startingCollectionPath, String.valueOf(watermark));
+
+		File parent = watermarkFile.getAbsoluteFile().getParentFile();
+		try {
+			if (parent != null) {
+				parent.mkdirs();
+			}
+			File temp = File.createTempFile(watermarkFile.getName(), ".tmp", parent);
+			try {
+				OutputStream out = new FileOutputStream(temp);
+				try {
+					properties.store(out, "jargon indexer watermarks");
+				} finally {
+					out.close();
+				}
+				Files.move(temp.toPath(), watermarkFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				temp.delete();
+			}
+		} catch (IOException e) {
+			log.error("unable to save watermarks to:{}", watermarkFile, e);
+			throw new JargonException("unable to save watermarks to " + watermarkFile, e);
+		}
+	}
+
+	private Properties load() throws JargonException {
+		Properties properties = new Properties();
+		if (!watermarkFile.exists()) {
+			return properties;
+		}
+		try {
+			InputStream in = new FileInputStream(watermarkFile);
+			try {
+				properties.load(in);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			log.error("unable to read watermarks from:{}", watermarkFile, e);
+			throw new JargonException("unable to read watermarks from " + watermarkFile, e);
+		}
+		return properties;
+	}
+
+}
@@ -0,0 +1,722 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+import javax.swing.tree.TreeNode;
+
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.checksum.LocalChecksumComputerFactory;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.DataObjectChecksumUtilitiesAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.pub.IRODSGenQueryResultIterator;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.transfer.TransferControlBlock;
+import org.irods.jargon.core.utils.LocalFileUtils;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.irods.jargon.datautils.AbstractDataUtilsServiceImpl;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Diff between a local tree and an iRODS collection that is meant for large
+ * synch jobs. Rather than listing each directory on both sides as
+ * {@link FileTreeDiffUtilityImpl} does, the iRODS side is listed with a few
+ * paged queries for the whole tree, the local side is scanned in parallel, and
+ * the two sorted listings are merge-joined into the same {@link FileTreeModel}.
+ * <p>
+ * Files that match on length are compared by checksum, using the checksum
+ * already in the catalog where there is one. Local checksums are computed in
+ * parallel and kept in an optional {@link LocalChecksumCache}, so a local file
+ * that has not changed is not read again on the next diff. When both last synch
+ * timestamps are given, files that neither side modified since the last synch
+ * are taken as unchanged without comparing checksums.
+ * <p>
+ * As with {@link FileTreeDiffUtilityImpl}, the iRODS connection is closed
+ * outside of the scope of this object.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class BulkFileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implements FileTreeDiffUtility {
+
+	private static Logger log = LoggerFactory.getLogger(BulkFileTreeDiffUtilityImpl.class);
+
+	/**
+	 * Orders relative paths so that '/' sorts before any other character, which
+	 * puts each directory right before everything under it
+	 */
+	static final Comparator<String> PATH_ORDER = new Comparator<String>() {
+		@Override
+		public int compare(final String left, final String right) {
+			int length = Math.min(left.length(), right.length());
+			for (int i = 0; i < length; i++) {
+				char l = left.charAt(i);
+				char r = right.charAt(i);
+				if (l != r) {
+					return (l == '/' ? 0 : l + 1) - (r == '/' ? 0 : r + 1);
+				}
+			}
+			return left.length() - right.length();
+		}
+	};
+
+	private final TransferControlBlock transferControlBlock;
+	private final LocalChecksumCache localChecksumCache;
+	private final int parallelism;
+
+	/**
+	 * Constructor with a checksum cache and no transfer control block
+	 *
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that is used to connect to the compared iRODS
+	 *            file system
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that is used to obtain objects
+	 *            needed to work with iRODS data
+	 * @param localChecksumCache
+	 *            {@link LocalChecksumCache} or {@code null} to always compute local
+	 *            checksums
+	 */
+	public BulkFileTreeDiffUtilityImpl(final IRODSAccount irodsAccount,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory, final LocalChecksumCache localChecksumCache) {
+		this(irodsAccount, irodsAccessObjectFactory, null, localChecksumCache,
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Default constructor
+	 *
+	 * @param irodsAccount
+	 *            {@code IRODSAccount} that is used to connect to the compared iRODS
+	 *            file system
+	 * @param irodsAccessObjectFactory
+	 *            {@code IRODSAccessObjectFactory} that is used to obtain objects
+	 *            needed to work with iRODS data
+	 * @param transferControlBlock
+	 *            {@link TransferControlBlock} or {@code null}. The transfer control
+	 *            block allows signalling of a cancellation of the diff process.
+	 * @param localChecksumCache
+	 *            {@link LocalChecksumCache} or {@code null} to always compute local
+	 *            checksums
+	 * @param parallelism
+	 *            {@code int} with the number of threads that scan and checksum the
+	 *            local tree
+	 */
+	public BulkFileTreeDiffUtilityImpl(final IRODSAccount irodsAccount,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory, final TransferControlBlock transferControlBlock,
+			final LocalChecksumCache localChecksumCache, final int parallelism) {
+
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (irodsAccessObjectFactory == null) {
+			throw new IllegalArgumentException("null irodsAccessObjectFactory");
+		}
+
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1");
+		}
+
+		this.irodsAccount = irodsAccount;
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.transferControlBlock = transferControlBlock;
+		this.localChecksumCache = localChecksumCache;
+		this.parallelism = parallelism;
+	}
+
+	@Override
+	public boolean verifyLocalAndIRODSTreesMatch(final File localFileRoot, final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide, final long timestampForLastSynchRightHandSide)
+			throws JargonException {
+
+		log.info("verifyLocalAndIRODSTreesMatch");
+
+		FileTreeModel diffModel = generateDiffLocalToIRODS(localFileRoot, irodsAbsolutePath,
+				timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
+		if (diffModel == null) {
+			return false;
+		}
+
+		FileTreeNode root = (FileTreeNode) diffModel.getRoot();
+		@SuppressWarnings("unchecked")
+		Enumeration<TreeNode> nodes = root.depthFirstEnumeration();
+		while (nodes.hasMoreElements()) {
+			FileTreeDiffEntry entry = (FileTreeDiffEntry) ((FileTreeNode) nodes.nextElement()).getUserObject();
+			if (entry.isCountAsDiff()) {
+				log.warn("diff found when not expected:{}", entry);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public FileTreeModel generateDiffLocalToIRODS(final File localFileRoot, final String irodsAbsolutePath,
+			final long timestampForLastSynchLeftHandSide, final long timestampForLastSynchRightHandSide)
+			throws JargonException {
+
+		if (localFileRoot == null) {
+			throw new IllegalArgumentException("null LocalFileRoot");
+		}
+
+		if (irodsAbsolutePath == null || irodsAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsAbsolutePath");
+		}
+
+		if (!localFileRoot.exists()) {
+			throw new JargonException("localFileRoot does not exist");
+		}
+
+		if (!localFileRoot.isDirectory()) {
+			throw new JargonException("localFileRoot is not a directory, cannot do a diff");
+		}
+
+		if (timestampForLastSynchLeftHandSide < 0) {
+			throw new IllegalArgumentException("timestampForLastSynchLeftHandSide is less than zero");
+		}
+
+		if (timestampForLastSynchRightHandSide < 0) {
+			throw new IllegalArgumentException("timestampForLastSynchRightHandSide is less than zero");
+		}
+
+		String irodsRoot = irodsAbsolutePath;
+		if (irodsRoot.length() > 1 && irodsRoot.endsWith("/")) {
+			irodsRoot = irodsRoot.substring(0, irodsRoot.length() - 1);
+		}
+		String localRoot = LocalFileUtils.normalizePath(localFileRoot.getAbsolutePath());
+
+		log.info("generateDiffLocalToIRODS() for localFileRoot:{}", localRoot);
+		log.info("irodsAbsolutePath for iRODS root:{}", irodsRoot);
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			NavigableMap<String, ListingEntry> rhs = listIrodsTree(irodsRoot);
+			log.info("{} entries under the iRODS root", rhs.size());
+			NavigableMap<String, ListingEntry> lhs = listLocalTree(localFileRoot.getAbsoluteFile(), pool);
+			log.info("{} entries under the local root", lhs.size());
+
+			if (isCancelled()) {
+				return null;
+			}
+
+			CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+			entry.setCreatedAt(new Date(localFileRoot.lastModified()));
+			entry.setModifiedAt(entry.getCreatedAt());
+			entry.setObjectType(ObjectType.COLLECTION);
+			entry.setParentPath(LocalFileUtils.normalizePath(localFileRoot.getAbsoluteFile().getParent()));
+			entry.setPathOrName(localRoot);
+			FileTreeNode rootNode = new FileTreeNode(
+					FileTreeDiffEntry.instance(DiffType.DIRECTORY_NO_DIFF, entry, irodsRoot));
+			FileTreeModel fileTreeModel = new FileTreeModel(rootNode);
+
+			List<PendingChecksumCompare> pending = mergeJoin(rootNode, lhs, localRoot, rhs, irodsRoot,
+					timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
+			if (pending == null || !compareChecksums(pending, pool)) {
+				return null;
+			}
+			return fileTreeModel;
+		} finally {
+			pool.shutdown();
+			if (localChecksumCache != null) {
+				localChecksumCache.flush();
+			}
+		}
+	}
+
+	/**
+	 * @return the transferControlBlock
+	 */
+	public TransferControlBlock getTransferControlBlock() {
+		return transferControlBlock;
+	}
+
+	public boolean isCancelled() {
+		boolean cancelled = false;
+		if (transferControlBlock != null) {
+			cancelled = (transferControlBlock.isCancelled() || transferControlBlock.isPaused());
+		}
+		return cancelled;
+	}
+
+	/**
+	 * List every collection and data object under an iRODS collection, with one
+	 * paged query for the collections and two for the data objects
+	 *
+	 * @param irodsRoot
+	 *            {@code String} with the absolute path of the collection, without
+	 *            a trailing slash
+	 * @return {@code NavigableMap} of the entries by path relative to the root, in
+	 *         {@link #PATH_ORDER}
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	NavigableMap<String, ListingEntry> listIrodsTree(final String irodsRoot) throws JargonException {
+		ObjStat objStat = getIrodsAccessObjectFactory().getCollectionAndDataObjectListAndSearchAO(getIrodsAccount())
+				.retrieveObjectStatForPath(irodsRoot);
+		if (!objStat.isSomeTypeOfCollection()) {
+			throw new JargonException("irodsFile is not a directory, cannot do a diff");
+		}
+
+		IRODSGenQueryExecutor irodsGenQueryExecutor = getIrodsAccessObjectFactory()
+				.getIRODSGenQueryExecutor(getIrodsAccount());
+		NavigableMap<String, ListingEntry> entries = new TreeMap<String, ListingEntry>(PATH_ORDER);
+		String under = irodsRoot.equals("/") ? "/%" : irodsRoot + "/%";
+		String zone = MiscIRODSUtils.getZoneInPath(irodsRoot);
+		int pageSize = getIrodsAccessObjectFactory().getJargonProperties().getMaxFilesAndDirsQueryMax();
+
+		try {
+			IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+			builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+					.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_MODIFY_TIME)
+					.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, QueryConditionOperators.LIKE, under);
+			IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(pageSize);
+			try (IRODSGenQueryResultIterator rows = irodsGenQueryExecutor.iterateIRODSQuery(irodsQuery, zone)) {
+				while (rows.hasNext()) {
+					IRODSQueryResultRow row = rows.next();
+					String path = row.getColumn(0);
+					entries.put(relativePath(irodsRoot, path),
+							ListingEntry.directory(path, modifyTimeMillis(row.getColumn(1))));
+				}
+			}
+
+			addIrodsDataObjects(irodsGenQueryExecutor, entries, irodsRoot, QueryConditionOperators.EQUAL, irodsRoot,
+					zone, pageSize);
+			addIrodsDataObjects(irodsGenQueryExecutor, entries, irodsRoot, QueryConditionOperators.LIKE, under, zone,
+					pageSize);
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		} catch (JargonQueryException e) {
+			log.error("error executing query", e);
+			throw new JargonException("error executing query", e);
+		}
+
+		return entries;
+	}
+
+	/*
+	 * Each replica is a row, the first row for a data object is kept, with the
+	 * first checksum found on any of its replicas
+	 */
+	private void addIrodsDataObjects(final IRODSGenQueryExecutor irodsGenQueryExecutor,
+			final NavigableMap<String, ListingEntry> entries, final String irodsRoot,
+			final QueryConditionOperators operator, final String collectionCondition, final String zone,
+			final int pageSize) throws GenQueryBuilderException, JargonQueryException, JargonException {
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		builder.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_COLL_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_NAME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME)
+				.addSelectAsGenQueryValue(RodsGenQueryEnum.COL_D_DATA_CHECKSUM)
+				.addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME, operator, collectionCondition);
+		IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(pageSize);
+		try (IRODSGenQueryResultIterator rows = irodsGenQueryExecutor.iterateIRODSQuery(irodsQuery, zone)) {
+			while (rows.hasNext()) {
+				IRODSQueryResultRow row = rows.next();
+				String collection = row.getColumn(0);
+				String path = collection.equals("/") ? "/" + row.getColumn(1) : collection + "/" + row.getColumn(1);
+				String relativePath = relativePath(irodsRoot, path);
+				ListingEntry existing = entries.get(relativePath);
+				if (existing == null) {
+					entries.put(relativePath, ListingEntry.file(path, row.getColumnAsLongOrZero(2),
+							modifyTimeMillis(row.getColumn(3)), row.getColumn(4)));
+				} else if (existing.checksum.isEmpty()) {
+					existing.checksum = row.getColumn(4);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Scan the local tree, one task per directory
+	 *
+	 * @param localRoot
+	 *            {@link File} that is the absolute local root
+	 * @param pool
+	 *            {@link ForkJoinPool} that runs the scan
+	 * @return {@code NavigableMap} of the entries by path relative to the root, in
+	 *         {@link #PATH_ORDER}
+	 */
+	NavigableMap<String, ListingEntry> listLocalTree(final File localRoot, final ForkJoinPool pool) {
+		ConcurrentSkipListMap<String, ListingEntry> entries = new ConcurrentSkipListMap<String, ListingEntry>(
+				PATH_ORDER);
+		pool.invoke(new LocalScanTask(localRoot, "", entries));
+		return entries;
+	}
+
+	/*
+	 * Walk both listings in order, adding a node for each difference under the
+	 * node of its matched parent directory. A directory that is only on one side
+	 * is added as a single diff, and everything under it is skipped. Returns the
+	 * files that have to be compared by checksum, or null if cancelled.
+	 */
+	private List<PendingChecksumCompare> mergeJoin(final FileTreeNode rootNode,
+			final NavigableMap<String, ListingEntry> lhs, final String localRoot,
+			final NavigableMap<String, ListingEntry> rhs, final String irodsRoot,
+			final long timestampForLastSynchLeftHandSide, final long timestampForLastSynchRightHandSide) {
+
+		Map<String, FileTreeNode> directoryNodes = new HashMap<String, FileTreeNode>();
+		directoryNodes.put("", rootNode);
+		List<PendingChecksumCompare> pending = new ArrayList<PendingChecksumCompare>();
+		boolean checkTimestamps = timestampForLastSynchLeftHandSide != NO_TIMESTAMP_CHECKS
+				&& timestampForLastSynchRightHandSide != NO_TIMESTAMP_CHECKS;
+
+		Iterator<Map.Entry<String, ListingEntry>> lhsIterator = lhs.entrySet().iterator();
+		Iterator<Map.Entry<String, ListingEntry>> rhsIterator = rhs.entrySet().iterator();
+		Map.Entry<String, ListingEntry> left = next(lhsIterator);
+		Map.Entry<String, ListingEntry> right = next(rhsIterator);
+		String skipLeftUnder = null;
+		String skipRightUnder = null;
+
+		while (left != null || right != null) {
+
+			if (isCancelled()) {
+				return null;
+			}
+
+			if (left != null && skipLeftUnder != null && left.getKey().startsWith(skipLeftUnder)) {
+				left = next(lhsIterator);
+				continue;
+			}
+
+			if (right != null && skipRightUnder != null && right.getKey().startsWith(skipRightUnder)) {
+				right = next(rhsIterator);
+				continue;
+			}
+
+			int compValue = left == null ? 1 : right == null ? -1 : PATH_ORDER.compare(left.getKey(), right.getKey());
+
+			if (compValue < 0) {
+				ListingEntry lhsEntry = left.getValue();
+				FileTreeDiffEntry entry = buildFileTreeDiffEntry(lhsEntry, DiffType.LEFT_HAND_PLUS,
+						irodsRoot + left.getKey(), 0, 0, "", "");
+				log.debug("left hand plus generated:{}", entry);
+				parentNode(directoryNodes, left.getKey()).add(new FileTreeNode(entry));
+				if (lhsEntry.directory) {
+					skipLeftUnder = left.getKey() + "/";
+				}
+				left = next(lhsIterator);
+			} else if (compValue > 0) {
+				ListingEntry rhsEntry = right.getValue();
+				FileTreeDiffEntry entry = buildFileTreeDiffEntry(rhsEntry, DiffType.RIGHT_HAND_PLUS,
+						localRoot + right.getKey(), 0, 0, "", "");
+				log.debug("right hand plus generated:{}", entry);
+				parentNode(directoryNodes, right.getKey()).add(new FileTreeNode(entry));
+				if (rhsEntry.directory) {
+					skipRightUnder = right.getKey() + "/";
+				}
+				right = next(rhsIterator);
+			} else {
+				String relativePath = left.getKey();
+				ListingEntry lhsEntry = left.getValue();
+				ListingEntry rhsEntry = right.getValue();
+				FileTreeNode parentNode = parentNode(directoryNodes, relativePath);
+
+				if (lhsEntry.directory && rhsEntry.directory) {
+					FileTreeNode directoryNode = new FileTreeNode(buildFileTreeDiffEntry(lhsEntry,
+							DiffType.DIRECTORY_NO_DIFF, rhsEntry.absolutePath, 0, 0, "", ""));
+					parentNode.add(directoryNode);
+					directoryNodes.put(relativePath, directoryNode);
+				} else if (lhsEntry.directory != rhsEntry.directory) {
+					log.warn("a file is being compared to a directory of the same name");
+					parentNode.add(new FileTreeNode(buildFileTreeDiffEntry(lhsEntry,
+							DiffType.FILE_NAME_DIR_NAME_COLLISION, rhsEntry.absolutePath, rhsEntry.length,
+							rhsEntry.lastModified, "", "")));
+					if (lhsEntry.directory) {
+						skipLeftUnder = relativePath + "/";
+					} else {
+						skipRightUnder = relativePath + "/";
+					}
+				} else if (lhsEntry.length != rhsEntry.length) {
+					FileTreeDiffEntry entry = buildFileTreeDiffEntry(lhsEntry, DiffType.FILE_OUT_OF_SYNCH,
+							rhsEntry.absolutePath, rhsEntry.length, rhsEntry.lastModified, "", "");
+					log.debug("files differ on length:{}", entry);
+					parentNode.add(new FileTreeNode(entry));
+				} else if (checkTimestamps && lhsEntry.lastModified <= timestampForLastSynchLeftHandSide
+						&& rhsEntry.lastModified <= timestampForLastSynchRightHandSide) {
+					log.debug("neither side modified since the last synch:{}", relativePath);
+				} else {
+					pending.add(new PendingChecksumCompare(parentNode, lhsEntry, rhsEntry));
+				}
+
+				left = next(lhsIterator);
+				right = next(rhsIterator);
+			}
+		}
+
+		return pending;
+	}
+
+	/*
+	 * Resolve the iRODS checksums, computing the ones that are missing from the
+	 * catalog, then compute the local checksums in parallel and add a node for
+	 * each mismatch in order. Returns false if cancelled.
+	 */
+	private boolean compareChecksums(final List<PendingChecksumCompare> pending, final ForkJoinPool pool)
+			throws JargonException {
+
+		if (pending.isEmpty()) {
+			return true;
+		}
+
+		log.info("comparing {} files by checksum", pending.size());
+		DataObjectChecksumUtilitiesAO dataObjectChecksumUtilitiesAO = getIrodsAccessObjectFactory()
+				.getDataObjectChecksumUtilitiesAO(getIrodsAccount());
+		final LocalChecksumComputerFactory localChecksumComputerFactory = getIrodsAccessObjectFactory()
+				.getIrodsSession().getLocalChecksumComputerFactory();
+		List<Future<String>> localChecksums = new ArrayList<Future<String>>(pending.size());
+
+		for (PendingChecksumCompare compare : pending) {
+			if (isCancelled()) {
+				return false;
+			}
+
+			ChecksumValue rhsChecksum;
+			if (compare.rhs.checksum.isEmpty()) {
+				rhsChecksum = dataObjectChecksumUtilitiesAO.computeChecksumOnDataObject(getIrodsAccessObjectFactory()
+						.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(compare.rhs.absolutePath));
+			} else {
+				rhsChecksum = dataObjectChecksumUtilitiesAO.computeChecksumValueFromIrodsData(compare.rhs.checksum);
+			}
+			compare.rhsChecksum = rhsChecksum;
+
+			final ListingEntry lhs = compare.lhs;
+			final ChecksumValue expected = rhsChecksum;
+			String cached = localChecksumCache == null ? null
+					: localChecksumCache.retrieveChecksum(lhs.absolutePath, lhs.length, lhs.lastModified,
+							expected.getChecksumEncoding());
+			if (cached != null) {
+				log.debug("using cached checksum for:{}", lhs.absolutePath);
+				compare.lhsChecksum = cached;
+				localChecksums.add(null);
+				continue;
+			}
+
+			localChecksums.add(pool.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					String checksum = localChecksumComputerFactory.instance(expected.getChecksumEncoding())
+							.computeChecksumValueForLocalFile(lhs.absolutePath).getChecksumStringValue();
+					if (localChecksumCache != null) {
+						localChecksumCache.storeChecksum(lhs.absolutePath, lhs.length, lhs.lastModified,
+								expected.getChecksumEncoding(), checksum);
+					}
+					return checksum;
+				}
+			}));
+		}
+
+		for (int i = 0; i < pending.size(); i++) {
+			PendingChecksumCompare compare = pending.get(i);
+			Future<String> localChecksum = localChecksums.get(i);
+			if (localChecksum != null) {
+				compare.lhsChecksum = awaitChecksum(localChecksum);
+			}
+
+			if (compare.lhsChecksum.equals(compare.rhsChecksum.getChecksumStringValue())) {
+				log.debug("checksum match, files are same");
+				continue;
+			}
+
+			FileTreeDiffEntry entry = buildFileTreeDiffEntry(compare.lhs, DiffType.FILE_OUT_OF_SYNCH,
+					compare.rhs.absolutePath, compare.rhs.length, compare.rhs.lastModified, compare.lhsChecksum,
+					compare.rhsChecksum.getChecksumStringValue());
+			log.debug("files differ on checksum:{}", entry);
+			compare.parentNode.add(new FileTreeNode(entry));
+		}
+
+		return !isCancelled();
+	}
+
+	private String awaitChecksum(final Future<String> localChecksum) throws JargonException {
+		try {
+			return localChecksum.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JargonException("interrupted computing local checksums", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof FileNotFoundException) {
+				log.error("file not found computing checksum", cause);
+				throw new JargonException("data error while synchronizing, cannot find local file for checksum",
+						cause);
+			} else if (cause instanceof JargonException) {
+				throw (JargonException) cause;
+			}
+			log.error("error computing local checksum", cause);
+			throw new JargonException("error computing local checksum", cause);
+		}
+	}
+
+	private FileTreeDiffEntry buildFileTreeDiffEntry(final ListingEntry diffFile, final DiffType diffType,
+			final String absolutePathOppositeFile, final long lengthOppositeSide, final long timestampOppositeSide,
+			final String checksumThisFile, final String checksumOppositeFile) {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setCreatedAt(new Date(diffFile.lastModified));
+		entry.setModifiedAt(entry.getCreatedAt());
+		entry.setDataSize(diffFile.length);
+		int lastSlash = diffFile.absolutePath.lastIndexOf('/');
+		entry.setParentPath(lastSlash == 0 ? "/" : diffFile.absolutePath.substring(0, lastSlash));
+
+		if (diffFile.directory) {
+			entry.setObjectType(ObjectType.COLLECTION);
+			entry.setPathOrName(diffFile.absolutePath);
+			return FileTreeDiffEntry.instance(diffType, entry, absolutePathOppositeFile, lengthOppositeSide,
+					timestampOppositeSide);
+		}
+
+		entry.setObjectType(ObjectType.DATA_OBJECT);
+		entry.setPathOrName(diffFile.absolutePath.substring(lastSlash + 1));
+		return FileTreeDiffEntry.instanceForFileDiff(diffType, entry, absolutePathOppositeFile, lengthOppositeSide,
+				timestampOppositeSide, checksumThisFile, checksumOppositeFile);
+	}
+
+	private static FileTreeNode parentNode(final Map<String, FileTreeNode> directoryNodes,
+			final String relativePath) {
+		return directoryNodes.get(relativePath.substring(0, relativePath.lastIndexOf('/')));
+	}
+
+	private static Map.Entry<String, ListingEntry> next(final Iterator<Map.Entry<String, ListingEntry>> iterator) {
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+	private static String relativePath(final String root, final String path) {
+		return root.equals("/") ? path : path.substring(root.length());
+	}
+
+	private static long modifyTimeMillis(final String icatTime) {
+		if (icatTime == null || icatTime.isEmpty()) {
+			return 0L;
+		}
+		return Long.parseLong(icatTime.trim()) * 1000L;
+	}
+
+	/**
+	 * A file or directory on one side of the diff
+	 */
+	static final class ListingEntry {
+
+		final String absolutePath;
+		final boolean directory;
+		final long length;
+		final long lastModified;
+		String checksum;
+
+		private ListingEntry(final String absolutePath, final boolean directory, final long length,
+				final long lastModified, final String checksum) {
+			this.absolutePath = absolutePath;
+			this.directory = directory;
+			this.length = length;
+			this.lastModified = lastModified;
+			this.checksum = checksum == null ? "" : checksum;
+		}
+
+		static ListingEntry directory(final String absolutePath, final long lastModified) {
+			return new ListingEntry(absolutePath, true, 0L, lastModified, "");
+		}
+
+		static ListingEntry file(final String absolutePath, final long length, final long lastModified,
+				final String checksum) {
+			return new ListingEntry(absolutePath, false, length, lastModified, checksum);
+		}
+
+		@Override
+		public String toString() {
+			return "ListingEntry [absolutePath=" + absolutePath + ", directory=" + directory + ", length=" + length
+					+ ", lastModified=" + lastModified + "]";
+		}
+	}
+
+	/**
+	 * Two files of the same length that are compared by checksum once the local
+	 * checksums are computed
+	 */
+	private static final class PendingChecksumCompare {
+
+		final FileTreeNode parentNode;
+		final ListingEntry lhs;
+		final ListingEntry rhs;
+		ChecksumValue rhsChecksum;
+		String lhsChecksum;
+
+		PendingChecksumCompare(final FileTreeNode parentNode, final ListingEntry lhs, final ListingEntry rhs) {
+			this.parentNode = parentNode;
+			this.lhs = lhs;
+			this.rhs = rhs;
+		}
+	}
+
+	/**
+	 * Lists one local directory into the shared map, and forks a task for each
+	 * child directory
+	 */
+	private static final class LocalScanTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		private final File directory;
+		private final String relativePath;
+		private final ConcurrentSkipListMap<String, ListingEntry> entries;
+
+		LocalScanTask(final File directory, final String relativePath,
+				final ConcurrentSkipListMap<String, ListingEntry> entries) {
+			this.directory = directory;
+			this.relativePath = relativePath;
+			this.entries = entries;
+		}
+
+		@Override
+		protected void compute() {
+			File[] children = directory.listFiles();
+			if (children == null) {
+				log.warn("unable to list local directory:{}", directory);
+				return;
+			}
+
+			List<LocalScanTask> subdirectories = new ArrayList<LocalScanTask>();
+			for (File child : children) {
+				String childRelativePath = relativePath + "/" + child.getName();
+				String absolutePath = LocalFileUtils.normalizePath(child.getAbsolutePath());
+				if (child.isDirectory()) {
+					entries.put(childRelativePath, ListingEntry.directory(absolutePath, child.lastModified()));
+					subdirectories.add(new LocalScanTask(child, childRelativePath, entries));
+				} else {
+					entries.put(childRelativePath,
+							ListingEntry.file(absolutePath, child.length(), child.lastModified(), ""));
+				}
+			}
+			invokeAll(subdirectories);
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.tree;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of an iRODS collection tree computed in the catalog by aggregate
+ * GenQueries, rather than by visiting each data object. The totals are broken
+ * down by resource, and by the child collection each replica falls under.
+ * <p>
+ * Each replica counts on its own, so a data object with two replicas adds its
+ * size twice to the total, once to each resource.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class CatalogTreeSummary {
+
+	private final String collectionPath;
+	private final Date computedAt;
+	private final TreeSummaryAggregate total = new TreeSummaryAggregate();
+	private final TreeSummaryAggregate directDataObjects = new TreeSummaryAggregate();
+	private final Map<String, TreeSummaryAggregate> byResource = new TreeMap<String, TreeSummaryAggregate>();
+	private final Map<String, TreeSummaryAggregate> byChildCollection = new TreeMap<String, TreeSummaryAggregate>();
+	private long minLength = 0L;
+	private long maxLength = 0L;
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the summarized
+	 *            collection
+	 * @param computedAt
+	 *            {@link Date} the summary was computed
+	 */
+	public CatalogTreeSummary(final String collectionPath, final Date computedAt) {
+		this.collectionPath = collectionPath;
+		this.computedAt = computedAt;
+	}
+
+	/**
+	 * Add the totals of the replicas on one resource
+	 */
+	void addResourceTotals(final String resource, final long bytes, final long count, final long minLength,
+			final long maxLength, final Date earliest, final Date latest) {
+		if (count == 0) {
+			return;
+		}
+		TreeSummaryAggregate forResource = byResource.get(resource);
+		if (forResource == null) {
+			forResource = new TreeSummaryAggregate();
+			byResource.put(resource, forResource);
+		}
+		if (total.getReplicaCount() == 0 || minLength < this.minLength) {
+			this.minLength = minLength;
+		}
+		if (maxLength > this.maxLength) {
+			this.maxLength = maxLength;
+		}
+		forResource.add(bytes, count, earliest, latest);
+		total.add(bytes, count, earliest, latest);
+	}
+
+	/**
+	 * Add the totals of the replicas in one collection, they are rolled up into
+	 * the child of the summarized collection that the collection is under
+	 */
+	void addCollectionTotals(final String collection, final long bytes, final long count, final Date earliest,
+			final Date latest) {
+		if (collection.equals(collectionPath)) {
+			directDataObjects.add(bytes, count, earliest, latest);
+			return;
+		}
+		String prefix = collectionPath.equals("/") ? "/" : collectionPath + "/";
+		if (!collection.startsWith(prefix)) {
+			return;
+		}
+		int endOfChild = collection.indexOf('/', prefix.length());
+		String child = endOfChild < 0 ? collection : collection.substring(0, endOfChild);
+		TreeSummaryAggregate forChild = byChildCollection.get(child);
+		if (forChild == null) {
+			forChild = new TreeSummaryAggregate();
+			byChildCollection.put(child, forChild);
+		}
+		forChild.add(bytes, count, earliest, latest);
+	}
+
+	/**
+	 * @param ttlMillis
+	 *            {@code long} with the time to live of a summary
+	 * @param now
+	 *            {@code long} with the current time in millis
+	 * @return {@code boolean} of <code>true</code> if the summary is older than
+	 *         the time to live
+	 */
+	public boolean isExpired(final long ttlMillis, final long now) {
+		return now - computedAt.getTime() >= ttlMillis;
+	}
+
+	public String getCollectionPath() {
+		return collectionPath;
+	}
+
+	public Date getComputedAt() {
+		return computedAt;
+	}
+
+	/**
+	 * @return {@link TreeSummaryAggregate} for every replica in the tree
+	 */
+	public TreeSummaryAggregate getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return {@link TreeSummaryAggregate} for the replicas directly in the
+	 *         summarized collection
+	 */
+	public TreeSummaryAggregate getDirectDataObjects() {
+		return directDataObjects;
+	}
+
+	/**
+	 * @return {@code Map} of resource name to {@link TreeSummaryAggregate}
+	 */
+	public Map<String, TreeSummaryAggregate> getByResource() {
+		return Collections.unmodifiableMap(byResource);
+	}
+
+	/**
+	 * @return {@code Map} of the absolute path of each child collection to the
+	 *         {@link TreeSummaryAggregate} of everything under it
+	 */
+	public Map<String, TreeSummaryAggregate> getByChildCollection() {
+		return Collections.unmodifiableMap(byChildCollection);
+	}
+
+	/**
+	 * @return the size of the smallest replica
+	 */
+	public long getMinLength() {
+		return minLength;
+	}
+
+	/**
+	 * @return the size of the largest replica
+	 */
+	public long getMaxLength() {
+		return maxLength;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("CatalogTreeSummary [collectionPath=").append(collectionPath).append(", computedAt=")
+				.append(computedAt).append(", total=").append(total).append(", byResource=").append(byResource)
+				.append(", byChildCollection=").append(byChildCollection.size()).append(" children]");
+		return builder.toString();
+	}
+
+}
@@ -2,16 +2,22 @@ package org.irods.jargon.datautils.tree;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.tree.TreeNode;
 
+import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
 import org.irods.jargon.core.checksum.ChecksumValue;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
 import org.irods.jargon.core.pub.DataObjectChecksumUtilitiesAO;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 import org.irods.jargon.core.pub.io.IRODSFile;
@@ -209,8 +215,14 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 		log.debug("set root node to:{}", fileTreeNode);
 		FileTreeModel fileTreeModel = new FileTreeModel(fileTreeNode);
 
+		/*
+		 * files of the directory being compared that match on length, and whose local
+		 * checksums are computed together once all of its files are matched
+		 */
+		List<PendingChecksumCompare> pendingChecksumCompares = new ArrayList<PendingChecksumCompare>();
 		diffTwoFiles(fileTreeNode, localFileRoot, localFileRoot.getAbsolutePath(), (IRODSFileImpl) rootIRODSFile,
-				rootIRODSFile.getAbsolutePath(), timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
+				rootIRODSFile.getAbsolutePath(), timestampForLastSynchLeftHandSide, timestampForLastSynchRightHandSide,
+				pendingChecksumCompares);
 
 		if (isCancelled()) {
 			return null;
@@ -230,13 +242,14 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 	 * @param rightHandSideRootPath
 	 * @param timestampforLastSynchLeftHandSide
 	 * @param timestampForLastSynchRightHandSide
+	 * @param pendingChecksumCompares
 	 * @return
 	 * @throws JargonException
 	 */
 	private int diffTwoFiles(final FileTreeNode currentFileTreeNode, final File leftHandSide,
 			final String leftHandSideRootPath, final File rightHandSide, final String rightHandSideRootPath,
-			final long timestampforLastSynchLeftHandSide, final long timestampForLastSynchRightHandSide)
-			throws JargonException {
+			final long timestampforLastSynchLeftHandSide, final long timestampForLastSynchRightHandSide,
+			final List<PendingChecksumCompare> pendingChecksumCompares) throws JargonException {
 
 		if (isCancelled()) {
 			return 0;
@@ -289,7 +302,8 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 			log.debug("file name match");
 			processFileNameMatched(currentFileTreeNode, leftHandSide,
 					LocalFileUtils.normalizePath(leftHandSideRootPath), rightHandSide, rightHandSideRootPath,
-					leftHandSideAsRelativePath, timestampforLastSynchLeftHandSide, timestampForLastSynchRightHandSide);
+					leftHandSideAsRelativePath, timestampforLastSynchLeftHandSide, timestampForLastSynchRightHandSide,
+					pendingChecksumCompares);
 			fileMatchIndex = 0;
 		}
 
@@ -309,12 +323,14 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 	 * @param leftHandSideAsRelativePath
 	 * @param timestampForLastSynchLeftHandSide
 	 * @param timestampForLastSynchRightHandSide
+	 * @param pendingChecksumCompares
 	 * @throws JargonException
 	 */
 	private void processFileNameMatched(final FileTreeNode currentFileTreeNode, final File leftHandSide,
 			final String leftHandSideRootPath, final File rightHandSide, final String rightHandSideRootPath,
 			final String leftHandSideAsRelativePath, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) throws JargonException {
+			final long timestampForLastSynchRightHandSide, final List<PendingChecksumCompare> pendingChecksumCompares)
+			throws JargonException {
 
 		if (isCancelled()) {
 			return;
@@ -325,7 +341,7 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 
 		if (lhsFile && rhsFile) {
 			compareTwoMatchedFiles(currentFileTreeNode, leftHandSide, rightHandSide, timestampForLastSynchLeftHandSide,
-					timestampForLastSynchRightHandSide);
+					timestampForLastSynchRightHandSide, pendingChecksumCompares);
 		} else if (lhsFile != rhsFile) {
 			log.warn("a file is being compared to a directory of the same name");
 			FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.FILE_NAME_DIR_NAME_COLLISION,
@@ -334,7 +350,7 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 		} else {
 			compareTwoEqualDirectories(currentFileTreeNode, leftHandSide, leftHandSideRootPath, rightHandSide,
 					rightHandSideRootPath, leftHandSideAsRelativePath, timestampForLastSynchLeftHandSide,
-					timestampForLastSynchRightHandSide);
+					timestampForLastSynchRightHandSide, pendingChecksumCompares);
 		}
 	}
 
@@ -349,12 +365,14 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 	 * @param leftHandSideAsRelativePath
 	 * @param timestampForLastSynchLeftHandSide
 	 * @param timestampForLastSynchRightHandSide
+	 * @param pendingChecksumCompares
 	 * @throws JargonException
 	 */
 	private void compareTwoEqualDirectories(final FileTreeNode currentFileTreeNode, final File leftHandSide,
 			final String leftHandSideRootPath, final File rightHandSide, final String rightHandSideRootPath,
 			final String leftHandSideAsRelativePath, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) throws JargonException {
+			final long timestampForLastSynchRightHandSide, final List<PendingChecksumCompare> pendingChecksumCompares)
+			throws JargonException {
 
 		if (isCancelled()) {
 			return;
@@ -427,7 +445,7 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 
 					lhMatchOrPass = diffTwoFiles(parentNode, lhsFile, leftHandSideRootPath, rhsChildren[j],
 							rightHandSideRootPath, timestampForLastSynchLeftHandSide,
-							timestampForLastSynchRightHandSide);
+							timestampForLastSynchRightHandSide, pendingChecksumCompares);
 
 					if (lhMatchOrPass == -1) {
 						// left hand side is greater than rhs, so keep pinging
@@ -448,6 +466,12 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 			}
 		}
 
+		compareChecksumsOfMatchedFiles(pendingChecksumCompares);
+
+		if (isCancelled()) {
+			return;
+		}
+
 		log.info("looking for unmatched rhs files");
 		/*
 		 * the match is driven by the lhs file. Once I've exhausted those, I need to see
@@ -524,7 +548,7 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 
 					lhMatchOrPass = diffTwoFiles(parentNode, element, leftHandSideRootPath, rhsChildren[j],
 							rightHandSideRootPath, timestampForLastSynchLeftHandSide,
-							timestampForLastSynchRightHandSide);
+							timestampForLastSynchRightHandSide, pendingChecksumCompares);
 
 					log.info("checking match or pass for a lhs dir got:{}", lhMatchOrPass);
 
@@ -616,11 +640,13 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 	 * @param rightHandSide
 	 * @param timestampForLastSynchLeftHandSide
 	 * @param timestampForLastSynchRightHandSide
+	 * @param pendingChecksumCompares
 	 * @throws JargonException
 	 */
 	private void compareTwoMatchedFiles(final FileTreeNode currentFileTreeNode, final File leftHandSide,
 			final File rightHandSide, final long timestampForLastSynchLeftHandSide,
-			final long timestampForLastSynchRightHandSide) throws JargonException {
+			final long timestampForLastSynchRightHandSide, final List<PendingChecksumCompare> pendingChecksumCompares)
+			throws JargonException {
 
 		if (isCancelled()) {
 			return;
@@ -637,30 +663,90 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 		} else {
 
 			ChecksumValue rhsChecksum = getIRODSChecksumOnDataObject(rightHandSide);
-			ChecksumValue lhsChecksum;
+			log.debug("local checksum deferred until the files of this directory are matched");
+			pendingChecksumCompares.add(new PendingChecksumCompare(currentFileTreeNode,
+					currentFileTreeNode.getChildCount(), leftHandSide, rightHandSide, rhsChecksum));
+		}
+	}
+
+	/*
+	 * Compute the local checksums of the files waiting to be compared, several at
+	 * a time for each checksum encoding, and add a diff where they differ from
+	 * iRODS, at the place in the tree the diff would have had if computed when
+	 * the files were matched.
+	 *
+	 * @param pendingChecksumCompares
+	 * @throws JargonException
+	 */
+	private void compareChecksumsOfMatchedFiles(final List<PendingChecksumCompare> pendingChecksumCompares)
+			throws JargonException {
+
+		if (pendingChecksumCompares.isEmpty()) {
+			return;
+		}
+
+		if (isCancelled()) {
+			pendingChecksumCompares.clear();
+			return;
+		}
+
+		log.debug("comparing checksums of {} files", pendingChecksumCompares.size());
+
+		Map<ChecksumEncodingEnum, List<PendingChecksumCompare>> comparesByEncoding = new LinkedHashMap<ChecksumEncodingEnum, List<PendingChecksumCompare>>();
+		for (PendingChecksumCompare compare : pendingChecksumCompares) {
+			List<PendingChecksumCompare> compares = comparesByEncoding.get(compare.rhsChecksum.getChecksumEncoding());
+			if (compares == null) {
+				compares = new ArrayList<PendingChecksumCompare>();
+				comparesByEncoding.put(compare.rhsChecksum.getChecksumEncoding(), compares);
+			}
+			compares.add(compare);
+		}
+
+		for (Map.Entry<ChecksumEncodingEnum, List<PendingChecksumCompare>> encodingEntry : comparesByEncoding
+				.entrySet()) {
+			List<String> localPaths = new ArrayList<String>(encodingEntry.getValue().size());
+			for (PendingChecksumCompare compare : encodingEntry.getValue()) {
+				localPaths.add(compare.leftHandSide.getAbsolutePath());
+			}
+
+			AbstractChecksumComputeStrategy checksumComputeStrategy = getIrodsAccessObjectFactory().getIrodsSession()
+					.getLocalChecksumComputerFactory().instance(encodingEntry.getKey());
+			List<ChecksumValue> lhsChecksums;
 			try {
-				lhsChecksum = getIrodsAccessObjectFactory().getIrodsSession().getLocalChecksumComputerFactory()
-						.instance(rhsChecksum.getChecksumEncoding())
-						.computeChecksumValueForLocalFile(leftHandSide.getAbsolutePath());
+				lhsChecksums = checksumComputeStrategy.computeChecksumValuesForLocalFiles(localPaths);
 			} catch (FileNotFoundException e) {
 				log.error("file not found computing checksum", e);
 				throw new JargonException("data error while synchronizing, cannot find local file for checksum", e);
 			}
 
-			log.debug("left hand side checksum:{}", lhsChecksum);
+			for (int i = 0; i < lhsChecksums.size(); i++) {
+				encodingEntry.getValue().get(i).lhsChecksum = lhsChecksums.get(i);
+			}
+		}
+
+		/*
+		 * insert from the last, so each diff goes in ahead of the later ones and its
+		 * recorded index is not shifted by them
+		 */
+		for (int i = pendingChecksumCompares.size() - 1; i >= 0; i--) {
+			PendingChecksumCompare compare = pendingChecksumCompares.get(i);
+			log.debug("left hand side checksum:{}", compare.lhsChecksum);
 
-			if (lhsChecksum.getChecksumStringValue().equals(rhsChecksum.getChecksumStringValue())) {
+			if (compare.lhsChecksum.getChecksumStringValue().equals(compare.rhsChecksum.getChecksumStringValue())) {
 				log.debug("checksum match, files are same");
 			} else {
 				log.debug("files differ on checksum");
-				FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(leftHandSide, DiffType.FILE_OUT_OF_SYNCH,
-						rightHandSide.getAbsolutePath(), rightHandSide.length(), rightHandSide.lastModified(),
-						lhsChecksum.getChecksumStringValue(), rhsChecksum.getChecksumStringValue());
+				FileTreeDiffEntry entry = buildFileTreeDiffEntryForFile(compare.leftHandSide,
+						DiffType.FILE_OUT_OF_SYNCH, compare.rightHandSide.getAbsolutePath(),
+						compare.rightHandSide.length(), compare.rightHandSide.lastModified(),
+						compare.lhsChecksum.getChecksumStringValue(), compare.rhsChecksum.getChecksumStringValue());
 				log.debug("files differ on checksum:{}", entry);
 
-				currentFileTreeNode.add(new FileTreeNode(entry));
+				compare.parentNode.insert(new FileTreeNode(entry), compare.childIndex);
 			}
 		}
+
+		pendingChecksumCompares.clear();
 	}
 
 	private FileTreeDiffEntry buildFileTreeDiffEntryForFile(final File diffFile, final DiffType diffType,
@@ -716,4 +802,26 @@ public class FileTreeDiffUtilityImpl extends AbstractDataUtilsServiceImpl implem
 		return cancelled;
 	}
 
+	/**
+	 * A local file and iRODS file of the same length whose checksums are still
+	 * to be compared
+	 */
+	private static final class PendingChecksumCompare {
+		private final FileTreeNode parentNode;
+		private final int childIndex;
+		private final File leftHandSide;
+		private final File rightHandSide;
+		private final ChecksumValue rhsChecksum;
+		private ChecksumValue lhsChecksum;
+
+		PendingChecksumCompare(final FileTreeNode parentNode, final int childIndex, final File leftHandSide,
+				final File rightHandSide, final ChecksumValue rhsChecksum) {
+			this.parentNode = parentNode;
+			this.childIndex = childIndex;
+			this.leftHandSide = leftHandSide;
+			this.rightHandSide = rightHandSide;
+			this.rhsChecksum = rhsChecksum;
+		}
+	}
+
 }
@@ -0,0 +1,63 @@
+package org.irods.jargon.datautils.tree;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
+
+/**
+ * Remembers the checksums computed for local files, so that a file that has not
+ * changed since it was last hashed is not read again. An entry is only valid
+ * for the length and last modified time the file had when it was hashed.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public interface LocalChecksumCache {
+
+	/**
+	 * Find a cached checksum
+	 *
+	 * @param localAbsolutePath
+	 *            {@code String} with the absolute path of the local file
+	 * @param length
+	 *            {@code long} with the current length of the file
+	 * @param lastModified
+	 *            {@code long} with the current last modified time of the file
+	 * @param checksumEncoding
+	 *            {@link ChecksumEncodingEnum} of the checksum
+	 * @return {@code String} with the checksum, or {@code null} if none is cached
+	 *         or the file changed since it was cached
+	 * @throws JargonException
+	 *             if the cache cannot be read
+	 */
+	String retrieveChecksum(String localAbsolutePath, long length, long lastModified,
+			ChecksumEncodingEnum checksumEncoding) throws JargonException;
+
+	/**
+	 * Cache a computed checksum
+	 *
+	 * @param localAbsolutePath
+	 *            {@code String} with the absolute path of the local file
+	 * @param length
+	 *            {@code long} with the length of the file that was hashed
+	 * @param lastModified
+	 *            {@code long} with the last modified time of the file that was
+	 *            hashed
+	 * @param checksumEncoding
+	 *            {@link ChecksumEncodingEnum} of the checksum
+	 * @param checksum
+	 *            {@code String} with the checksum
+	 * @throws JargonException
+	 *             if the cache cannot be read
+	 */
+	void storeChecksum(String localAbsolutePath, long length, long lastModified,
+			ChecksumEncodingEnum checksumEncoding, String checksum) throws JargonException;
+
+	/**
+	 * Save any checksums stored since the last flush
+	 *
+	 * @throws JargonException
+	 *             if the cache cannot be saved
+	 */
+	void flush() throws JargonException;
+
+}
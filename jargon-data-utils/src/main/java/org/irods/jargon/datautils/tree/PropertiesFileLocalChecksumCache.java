@@ -0,0 +1,149 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link LocalChecksumCache} kept in a local properties file. The file is read
+ * once and the entries are held in memory, they are written back on
+ * {@link #flush()} through a temporary file that is moved into place, so a
+ * crash while saving leaves the previous cache. This class is safe to share
+ * between threads.
+ *
+ * @author Mike Conway - DICE (www.irods.org)
+ *
+ */
+public class PropertiesFileLocalChecksumCache implements LocalChecksumCache {
+
+	public static final Logger log = LoggerFactory.getLogger(PropertiesFileLocalChecksumCache.class);
+
+	private final File cacheFile;
+	private Map<String, String> entries;
+	private boolean dirty = false;
+
+	/**
+	 * @param cacheFile
+	 *            {@link File} that holds the checksums, it is created on the first
+	 *            flush
+	 */
+	public PropertiesFileLocalChecksumCache(final File cacheFile) {
+		if (cacheFile == null) {
+			throw new IllegalArgumentException("null cacheFile");
+		}
+		this.cacheFile = cacheFile;
+	}
+
+	@Override
+	public String retrieveChecksum(final String localAbsolutePath, final long length, final long lastModified,
+			final ChecksumEncodingEnum checksumEncoding) throws JargonException {
+		String value = load().get(key(localAbsolutePath, checksumEncoding));
+		if (value == null) {
+			return null;
+		}
+		String[] parts = value.split(":", 3);
+		if (parts.length != 3 || !parts[0].equals(String.valueOf(length))
+				|| !parts[1].equals(String.valueOf(lastModified))) {
+			log.debug("cached checksum is stale for:{}", localAbsolutePath);
+			return null;
+		}
+		return parts[2];
+	}
+
+	@Override
+	public void storeChecksum(final String localAbsolutePath, final long length, final long lastModified,
+			final ChecksumEncodingEnum checksumEncoding, final String checksum) throws JargonException {
+		if (checksum == null || checksum.isEmpty()) {
+			throw new IllegalArgumentException("null or empty checksum");
+		}
+		load().put(key(localAbsolutePath, checksumEncoding), length + ":" + lastModified + ":" + checksum);
+		synchronized (this) {
+			dirty = true;
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws JargonException {
+		if (!dirty) {
+			return;
+		}
+		log.info("saving {} checksums to:{}", entries.size(), cacheFile);
+		Properties properties = new Properties();
+		properties.putAll(entries);
+
+		File parent = cacheFile.getAbsoluteFile().getParentFile();
+		try {
+			if (parent != null) {
+				parent.mkdirs();
+			}
+			File temp = File.createTempFile(cacheFile.getName(), ".tmp", parent);
+			try {
+				OutputStream out = new FileOutputStream(temp);
+				try {
+					properties.store(out, "jargon local checksums");
+				} finally {
+					out.close();
+				}
+				Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				temp.delete();
+			}
+		} catch (IOException e) {
+			log.error("unable to save checksums to:{}", cacheFile, e);
+			throw new JargonException("unable to save checksums to " + cacheFile, e);
+		}
+		dirty = false;
+	}
+
+	private static String key(final String localAbsolutePath, final ChecksumEncodingEnum checksumEncoding) {
+		if (localAbsolutePath == null || localAbsolutePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty localAbsolutePath");
+		}
+		if (checksumEncoding == null) {
+			throw new IllegalArgumentException("null checksumEncoding");
+		}
+		return checksumEncoding.name() + ":" + localAbsolutePath;
+	}
+
+	private synchronized Map<String, String> load() throws JargonException {
+		if (entries != null) {
+			return entries;
+		}
+		Map<String, String> loaded = new ConcurrentHashMap<String, String>();
+		if (cacheFile.exists()) {
+			Properties properties = new Properties();
+			try {
+				InputStream in = new FileInputStream(cacheFile);
+				try {
+					properties.load(in);
+				} finally {
+					in.close();
+				}
+			} catch (IOException e) {
+				log.error("unable to read checksums from:{}", cacheFile, e);
+				throw new JargonException("unable to read checksums from " + cacheFile, e);
+			}
+			for (String name : properties.stringPropertyNames()) {
+				loaded.put(name, properties.getProperty(name));
+			}
+		}
+		log.info("loaded {} checksums from:{}", loaded.size(), cacheFile);
+		entries = loaded;
+		return entries;
+	}
+
+}
@@ -28,6 +28,23 @@ public interface TreeSummarizingService {
 	 */
 	TreeSummary generateTreeSummaryForIrodsFileTree(String irodsFilePath) throws FileNotFoundException, JargonException;
 
+	/**
+	 * Summarize an iRODS collection tree in the catalog, with aggregate GenQueries
+	 * that total the sizes and counts of the replicas by resource and by child
+	 * collection, rather than by visiting each data object. Summaries may be
+	 * cached by the implementation for a time to live.
+	 *
+	 * @param irodsCollectionPath
+	 *            {@code String} with an absolute path to an iRODS collection
+	 * @return {@link CatalogTreeSummary}
+	 * @throws JargonException
+	 *             {@link JargonException}, which is a
+	 *             {@link org.irods.jargon.core.exception.FileNotFoundException}
+	 *             if the collection does not exist
+	 */
+	CatalogTreeSummary generateCatalogTreeSummaryForIrodsCollection(String irodsCollectionPath)
+			throws JargonException;
+
 	/**
 	 * Create a summary describing the contents of a local file tree
 	 *
@@ -0,0 +1,374 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.GenQueryBuilderException;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.irods.jargon.core.query.IRODSGenQueryBuilder;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.JargonQueryException;
+import org.irods.jargon.core.query.QueryConditionOperators;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.service.AbstractJargonService;
+import org.irods.jargon.core.utils.MiscIRODSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Summarizes file trees. iRODS trees are summarized in the catalog with
+ * {@code SUM}, {@code COUNT}, {@code MIN} and {@code MAX} GenQueries, eight
+ * queries in all whatever the size of the tree: the totals by resource for the
+ * data objects directly in the collection and for those under it, and the
+ * totals by collection under it, which are rolled up to the child collections
+ * here. Each set of totals takes more than one query, as a GenQuery cannot
+ * select two aggregates of the same column. Local trees are walked.
+ * <p>
+ * Catalog summaries are cached for a time to live, five minutes by default,
+ * so that dashboards polling the same collections do not repeat the queries.
+ * Set a time to live of 0 to turn the cache off. The size histogram and file
+ * extensions of a {@link TreeSummary} are only computed for local trees.
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class TreeSummarizingServiceImpl extends AbstractJargonService implements TreeSummarizingService {
+
+	public static final Logger log = LoggerFactory.getLogger(TreeSummarizingServiceImpl.class);
+
+	/**
+	 * Default time to live of a cached catalog summary
+	 */
+	public static final long DEFAULT_CACHE_TTL_MILLIS = 5 * 60 * 1000L;
+
+	private final ConcurrentMap<String, CatalogTreeSummary> summaryCache = new ConcurrentHashMap<String, CatalogTreeSummary>();
+	private volatile long cacheTtlMillis = DEFAULT_CACHE_TTL_MILLIS;
+
+	/**
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 */
+	public TreeSummarizingServiceImpl(final IRODSAccessObjectFactory irodsAccessObjectFactory,
+			final IRODSAccount irodsAccount) {
+		super(irodsAccessObjectFactory, irodsAccount);
+	}
+
+	public TreeSummarizingServiceImpl() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.tree.TreeSummarizingService#
+	 * generateTreeSummaryForIrodsFileTree(java.lang.String)
+	 */
+	@Override
+	public TreeSummary generateTreeSummaryForIrodsFileTree(final String irodsFilePath)
+			throws FileNotFoundException, JargonException {
+		log.info("generateTreeSummaryForIrodsFileTree()");
+		CatalogTreeSummary catalogTreeSummary = generateCatalogTreeSummaryForIrodsCollection(irodsFilePath);
+		TreeSummary treeSummary = new TreeSummary();
+		treeSummary.setTotalBytes(catalogTreeSummary.getTotal().getTotalBytes());
+		treeSummary.setTotalFiles(catalogTreeSummary.getTotal().getReplicaCount());
+		treeSummary.setMinLength(catalogTreeSummary.getMinLength());
+		treeSummary.setMaxLength(catalogTreeSummary.getMaxLength());
+		return treeSummary;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.tree.TreeSummarizingService#
+	 * generateCatalogTreeSummaryForIrodsCollection(java.lang.String)
+	 */
+	@Override
+	public CatalogTreeSummary generateCatalogTreeSummaryForIrodsCollection(final String irodsCollectionPath)
+			throws JargonException {
+		log.info("generateCatalogTreeSummaryForIrodsCollection()");
+		if (irodsCollectionPath == null || irodsCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsCollectionPath");
+		}
+		String path = MiscIRODSUtils.normalizeIrodsPath(irodsCollectionPath);
+		log.info("path:{}", path);
+
+		long ttl = cacheTtlMillis;
+		if (ttl > 0) {
+			CatalogTreeSummary cached = summaryCache.get(path);
+			if (cached != null && !cached.isExpired(ttl, System.currentTimeMillis())) {
+				log.info("cached summary from:{}", cached.getComputedAt());
+				return cached;
+			}
+		}
+
+		CatalogTreeSummary catalogTreeSummary = queryCatalogTreeSummary(path);
+		if (ttl > 0) {
+			summaryCache.put(path, catalogTreeSummary);
+		}
+		return catalogTreeSummary;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.irods.jargon.datautils.tree.TreeSummarizingService#
+	 * generateTreeSummaryForLocalFileTree(java.lang.String)
+	 */
+	@Override
+	public TreeSummary generateTreeSummaryForLocalFileTree(final String localFilePath)
+			throws FileNotFoundException, JargonException {
+		log.info("generateTreeSummaryForLocalFileTree()");
+		if (localFilePath == null || localFilePath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty localFilePath");
+		}
+		File root = new File(localFilePath);
+		if (!root.exists()) {
+			throw new FileNotFoundException("local file tree does not exist:" + localFilePath);
+		}
+
+		TreeSummary treeSummary = new TreeSummary();
+		Deque<File> toVisit = new ArrayDeque<File>();
+		toVisit.push(root);
+		while (!toVisit.isEmpty()) {
+			File file = toVisit.pop();
+			if (file.isDirectory()) {
+				File[] children = file.listFiles();
+				if (children != null) {
+					for (File child : children) {
+						toVisit.push(child);
+					}
+				}
+			} else {
+				treeSummary.processFileInfo(file);
+			}
+		}
+		return treeSummary;
+	}
+
+	/**
+	 * Drop the cached summary of a collection, so the next request queries the
+	 * catalog
+	 *
+	 * @param irodsCollectionPath
+	 *            {@code String} with an absolute path to an iRODS collection
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public void invalidateCachedSummary(final String irodsCollectionPath) throws JargonException {
+		if (irodsCollectionPath == null || irodsCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty irodsCollectionPath");
+		}
+		summaryCache.remove(MiscIRODSUtils.normalizeIrodsPath(irodsCollectionPath));
+	}
+
+	/**
+	 * Drop all cached summaries
+	 */
+	public void clearCache() {
+		summaryCache.clear();
+	}
+
+	public long getCacheTtlMillis() {
+		return cacheTtlMillis;
+	}
+
+	/**
+	 * @param cacheTtlMillis
+	 *            {@code long} with the time to live of a cached catalog summary,
+	 *            0 turns the cache off
+	 */
+	public void setCacheTtlMillis(final long cacheTtlMillis) {
+		if (cacheTtlMillis < 0) {
+			throw new IllegalArgumentException("cacheTtlMillis must be 0 or greater");
+		}
+		this.cacheTtlMillis = cacheTtlMillis;
+		if (cacheTtlMillis == 0) {
+			summaryCache.clear();
+		}
+	}
+
+	/**
+	 * Run the aggregate queries for a collection
+	 *
+	 * @param path
+	 *            {@code String} with the normalized absolute path
+	 * @return {@link CatalogTreeSummary}
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	CatalogTreeSummary queryCatalogTreeSummary(final String path) throws JargonException {
+		ObjStat objStat = getIrodsAccessObjectFactory().getCollectionAndDataObjectListAndSearchAO(getIrodsAccount())
+				.retrieveObjectStatForPath(path);
+		if (!objStat.isSomeTypeOfCollection()) {
+			log.error("not a collection:{}", path);
+			throw new JargonException("cannot summarize a data object, path is not a collection:" + path);
+		}
+
+		IRODSGenQueryExecutor irodsGenQueryExecutor = getIrodsAccessObjectFactory()
+				.getIRODSGenQueryExecutor(getIrodsAccount());
+		CatalogTreeSummary catalogTreeSummary = new CatalogTreeSummary(path, new Date());
+		String under = path.equals("/") ? "/%" : path + "/%";
+		String zone = MiscIRODSUtils.getZoneInPath(path);
+
+		try {
+			Map<String, GroupTotals> direct = queryGroupTotals(irodsGenQueryExecutor, RodsGenQueryEnum.COL_D_RESC_NAME,
+					QueryConditionOperators.EQUAL, path, zone, true);
+			for (Map.Entry<String, GroupTotals> entry : direct.entrySet()) {
+				GroupTotals totals = entry.getValue();
+				catalogTreeSummary.addResourceTotals(entry.getKey(), totals.bytes, totals.count, totals.minLength,
+						totals.maxLength, totals.earliest, totals.latest);
+				catalogTreeSummary.addCollectionTotals(path, totals.bytes, totals.count, totals.earliest,
+						totals.latest);
+			}
+
+			Map<String, GroupTotals> byResource = queryGroupTotals(irodsGenQueryExecutor,
+					RodsGenQueryEnum.COL_D_RESC_NAME, QueryConditionOperators.LIKE, under, zone, true);
+			for (Map.Entry<String, GroupTotals> entry : byResource.entrySet()) {
+				GroupTotals totals = entry.getValue();
+				catalogTreeSummary.addResourceTotals(entry.getKey(), totals.bytes, totals.count, totals.minLength,
+						totals.maxLength, totals.earliest, totals.latest);
+			}
+
+			Map<String, GroupTotals> byCollection = queryGroupTotals(irodsGenQueryExecutor,
+					RodsGenQueryEnum.COL_COLL_NAME, QueryConditionOperators.LIKE, under, zone, false);
+			for (Map.Entry<String, GroupTotals> entry : byCollection.entrySet()) {
+				GroupTotals totals = entry.getValue();
+				catalogTreeSummary.addCollectionTotals(entry.getKey(), totals.bytes, totals.count, totals.earliest,
+						totals.latest);
+			}
+		} catch (GenQueryBuilderException e) {
+			log.error("error building query", e);
+			throw new JargonException("error building query", e);
+		} catch (JargonQueryException e) {
+			log.error("error executing query", e);
+			throw new JargonException("error executing query", e);
+		}
+
+		log.info("summary:{}", catalogTreeSummary);
+		return catalogTreeSummary;
+	}
+
+	/**
+	 * Total the data objects in the collections matching a condition, grouped by
+	 * a column. A GenQuery selects each column once, so the aggregates of the
+	 * same column are spread over queries grouped the same way and joined on the
+	 * group value here.
+	 *
+	 * @param lengthRange
+	 *            {@code boolean} of {@code true} to also find the smallest and
+	 *            largest data object, which takes a third query
+	 */
+	private Map<String, GroupTotals> queryGroupTotals(final IRODSGenQueryExecutor irodsGenQueryExecutor,
+			final RodsGenQueryEnum groupColumn, final QueryConditionOperators operator,
+			final String collectionCondition, final String zone, final boolean lengthRange)
+			throws GenQueryBuilderException, JargonQueryException, JargonException {
+		Map<String, GroupTotals> totals = new TreeMap<String, GroupTotals>();
+
+		IRODSGenQueryBuilder builder = groupQueryBuilder(groupColumn, operator, collectionCondition);
+		builder.addSelectAsAgregateGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.SUM)
+				.addSelectAsAgregateGenQueryValue(RodsGenQueryEnum.COL_D_DATA_ID, SelectFieldTypes.COUNT)
+				.addSelectAsAgregateGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME, SelectFieldTypes.MIN);
+		queryGroups(irodsGenQueryExecutor, builder, zone, totals, new GroupRowHandler() {
+			@Override
+			public void handle(final GroupTotals groupTotals, final IRODSQueryResultRow row) throws JargonException {
+				groupTotals.bytes = row.getColumnAsLongOrZero(1);
+				groupTotals.count = row.getColumnAsLongOrZero(2);
+				groupTotals.earliest = row.getColumnAsDateOrNull(3);
+			}
+		});
+
+		builder = groupQueryBuilder(groupColumn, operator, collectionCondition);
+		builder.addSelectAsAgregateGenQueryValue(RodsGenQueryEnum.COL_D_MODIFY_TIME, SelectFieldTypes.MAX);
+		if (lengthRange) {
+			builder.addSelectAsAgregateGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.MIN);
+		}
+		queryGroups(irodsGenQueryExecutor, builder, zone, totals, new GroupRowHandler() {
+			@Override
+			public void handle(final GroupTotals groupTotals, final IRODSQueryResultRow row) throws JargonException {
+				groupTotals.latest = row.getColumnAsDateOrNull(1);
+				if (lengthRange) {
+					groupTotals.minLength = row.getColumnAsLongOrZero(2);
+				}
+			}
+		});
+
+		if (lengthRange) {
+			builder = groupQueryBuilder(groupColumn, operator, collectionCondition);
+			builder.addSelectAsAgregateGenQueryValue(RodsGenQueryEnum.COL_DATA_SIZE, SelectFieldTypes.MAX);
+			queryGroups(irodsGenQueryExecutor, builder, zone, totals, new GroupRowHandler() {
+				@Override
+				public void handle(final GroupTotals groupTotals, final IRODSQueryResultRow row)
+						throws JargonException {
+					groupTotals.maxLength = row.getColumnAsLongOrZero(1);
+				}
+			});
+		}
+
+		return totals;
+	}
+
+	private IRODSGenQueryBuilder groupQueryBuilder(final RodsGenQueryEnum groupColumn,
+			final QueryConditionOperators operator, final String collectionCondition)
+			throws GenQueryBuilderException {
+		IRODSGenQueryBuilder builder = new IRODSGenQueryBuilder(true, null);
+		builder.addSelectAsGenQueryValue(groupColumn).addConditionAsGenQueryField(RodsGenQueryEnum.COL_COLL_NAME,
+				operator, collectionCondition);
+		return builder;
+	}
+
+	private void queryGroups(final IRODSGenQueryExecutor irodsGenQueryExecutor, final IRODSGenQueryBuilder builder,
+			final String zone, final Map<String, GroupTotals> totals, final GroupRowHandler groupRowHandler)
+			throws GenQueryBuilderException, JargonQueryException, JargonException {
+		IRODSGenQueryFromBuilder irodsQuery = builder.exportIRODSQueryFromBuilder(
+				getIrodsAccessObjectFactory().getJargonProperties().getMaxFilesAndDirsQueryMax());
+		try (Stream<IRODSQueryResultRow> rows = irodsGenQueryExecutor.streamIRODSQuery(irodsQuery, zone)) {
+			Iterator<IRODSQueryResultRow> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				IRODSQueryResultRow row = iterator.next();
+				GroupTotals groupTotals = totals.get(row.getColumn(0));
+				if (groupTotals == null) {
+					groupTotals = new GroupTotals();
+					totals.put(row.getColumn(0), groupTotals);
+				}
+				groupRowHandler.handle(groupTotals, row);
+			}
+		}
+	}
+
+	/**
+	 * Aggregates of one group, filled in by the queries that each select part
+	 * of them
+	 */
+	private static final class GroupTotals {
+		private long bytes = 0L;
+		private long count = 0L;
+		private long minLength = 0L;
+		private long maxLength = 0L;
+		private Date earliest;
+		private Date latest;
+	}
+
+	private interface GroupRowHandler {
+		void handle(GroupTotals groupTotals, IRODSQueryResultRow row) throws JargonException;
+	}
+
+}
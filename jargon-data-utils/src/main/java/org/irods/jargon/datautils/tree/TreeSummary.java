@@ -129,6 +129,14 @@ public class TreeSummary {
 		return totalBytes;
 	}
 
+	/**
+	 * @param totalBytes
+	 *            the totalBytes to set
+	 */
+	public void setTotalBytes(final long totalBytes) {
+		this.totalBytes = totalBytes;
+	}
+
 	/**
 	 * @return the totalFiles
 	 */
@@ -136,6 +144,14 @@ public class TreeSummary {
 		return totalFiles;
 	}
 
+	/**
+	 * @param totalFiles
+	 *            the totalFiles to set
+	 */
+	public void setTotalFiles(final long totalFiles) {
+		this.totalFiles = totalFiles;
+	}
+
 	/**
 	 * @return the size10k
 	 */
@@ -206,6 +222,14 @@ public class TreeSummary {
 		return minLength;
 	}
 
+	/**
+	 * @param minLength
+	 *            the minLength to set
+	 */
+	public void setMinLength(final long minLength) {
+		this.minLength = minLength;
+	}
+
 	/**
 	 * @return the maxLength
 	 */
@@ -213,4 +237,12 @@ public class TreeSummary {
 		return maxLength;
 	}
 
+	/**
+	 * @param maxLength
+	 *            the maxLength to set
+	 */
+	public void setMaxLength(final long maxLength) {
+		this.maxLength = maxLength;
+	}
+
 }
@@ -0,0 +1,93 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.tree;
+
+import java.util.Date;
+
+/**
+ * Totals for part of an iRODS tree as computed by the catalog, the bytes and
+ * number of replicas, and the range of their modify times
+ *
+ * @author Mike Conway - DICE
+ *
+ */
+public class TreeSummaryAggregate {
+
+	private long totalBytes = 0L;
+	private long replicaCount = 0L;
+	private Date earliestModifyTime = null;
+	private Date latestModifyTime = null;
+
+	/**
+	 * Merge in the totals of a group of replicas
+	 *
+	 * @param bytes
+	 *            {@code long} with the sum of the sizes
+	 * @param count
+	 *            {@code long} with the number of replicas
+	 * @param earliest
+	 *            {@link Date} with the earliest modify time, may be
+	 *            {@code null}
+	 * @param latest
+	 *            {@link Date} with the latest modify time, may be {@code null}
+	 */
+	public void add(final long bytes, final long count, final Date earliest, final Date latest) {
+		totalBytes += bytes;
+		replicaCount += count;
+		if (earliest != null && (earliestModifyTime == null || earliest.before(earliestModifyTime))) {
+			earliestModifyTime = earliest;
+		}
+		if (latest != null && (latestModifyTime == null || latest.after(latestModifyTime))) {
+			latestModifyTime = latest;
+		}
+	}
+
+	/**
+	 * Merge in another aggregate
+	 *
+	 * @param other
+	 *            {@link TreeSummaryAggregate}
+	 */
+	public void add(final TreeSummaryAggregate other) {
+		add(other.totalBytes, other.replicaCount, other.earliestModifyTime, other.latestModifyTime);
+	}
+
+	/**
+	 * @return the totalBytes
+	 */
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * @return the replicaCount
+	 */
+	public long getReplicaCount() {
+		return replicaCount;
+	}
+
+	/**
+	 * @return the earliestModifyTime, {@code null} if there are no replicas
+	 */
+	public Date getEarliestModifyTime() {
+		return earliestModifyTime;
+	}
+
+	/**
+	 * @return the latestModifyTime, {@code null} if there are no replicas
+	 */
+	public Date getLatestModifyTime() {
+		return latestModifyTime;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("TreeSummaryAggregate [totalBytes=").append(totalBytes).append(", replicaCount=")
+				.append(replicaCount).append(", earliestModifyTime=").append(earliestModifyTime)
+				.append(", latestModifyTime=").append(latestModifyTime).append("]");
+		return builder.toString();
+	}
+
+}
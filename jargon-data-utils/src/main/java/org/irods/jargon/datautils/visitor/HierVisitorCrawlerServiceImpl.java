@@ -3,9 +3,15 @@
  */
 package org.irods.jargon.datautils.visitor;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
 import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
 import org.irods.jargon.core.pub.io.IRODSFileImpl;
 import org.irods.jargon.core.service.AbstractJargonService;
@@ -66,4 +72,103 @@ public class HierVisitorCrawlerServiceImpl extends AbstractJargonService {
 
 	}
 
+	/**
+	 * Crawl with several workers when the visitor is a
+	 * {@link ThreadSafeHierVisitor}. Child collections are crawled in parallel
+	 * on a work stealing pool, each worker listing with its own connection from
+	 * the session, and the connections are closed when the crawl is done. Each
+	 * collection is listed once and its children are taken from the listing
+	 * rather than looked up one by one.
+	 * <p>
+	 * A visitor that is not a {@link ThreadSafeHierVisitor}, or a
+	 * {@code parallelism} of 1 or less, gives the same depth first crawl as
+	 * {@link #launch(String, HierVisitor)}
+	 *
+	 * @param startingCollectionPath
+	 *            {@code String} with the collection to start the crawl at
+	 * @param visitor
+	 *            {@link HierVisitor} to call for each node
+	 * @param parallelism
+	 *            {@code int} with the number of workers
+	 * @throws DataNotFoundException
+	 *             if the starting collection does not exist
+	 * @throws JargonException
+	 *             {@link JargonException}
+	 */
+	public void launch(final String startingCollectionPath, final HierVisitor visitor, final int parallelism)
+			throws DataNotFoundException, JargonException {
+		log.info("launch()");
+
+		if (parallelism <= 1 || !(visitor instanceof ThreadSafeHierVisitor)) {
+			log.info("visitor is not thread safe or parallelism <= 1, crawl depth first");
+			launch(startingCollectionPath, visitor);
+			return;
+		}
+
+		if (startingCollectionPath == null || startingCollectionPath.isEmpty()) {
+			throw new IllegalArgumentException("null or empty startingCollectionPath");
+		}
+		log.info("startingCollectionPath:{}", startingCollectionPath);
+		log.info("parallelism:{}", parallelism);
+
+		IRODSFileImpl startingPoint = (IRODSFileImpl) getIrodsAccessObjectFactory()
+				.getIRODSFileFactory(getIrodsAccount()).instanceIRODSFile(startingCollectionPath);
+
+		if (!startingPoint.isDirectory()) {
+			log.info("starting point is not a leaf node:{}", startingPoint);
+			throw new JargonException("cannot start a crawl on a leaf node!");
+		}
+
+		log.info("beginning the parallel crawl...");
+		ForkJoinPool pool = new ForkJoinPool(parallelism, new ConnectionClosingWorkerThreadFactory(), null, false);
+		try {
+			pool.invoke(new ParallelCrawlTask(startingPoint.getAbsolutePath(), visitor,
+					getIrodsAccessObjectFactory(), getIrodsAccount(), startingPoint.getIrodsFileSystemAO(), null));
+		} catch (JargonRuntimeException e) {
+			/*
+			 * the pool may rethrow a copy of the exception from the worker, look down the
+			 * causes for the iRODS error
+			 */
+			Throwable cause = e.getCause();
+			while (cause != null && !(cause instanceof JargonException)) {
+				cause = cause.getCause();
+			}
+			if (cause != null) {
+				throw (JargonException) cause;
+			}
+			throw e;
+		} finally {
+			pool.shutdown();
+			try {
+				pool.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				log.warn("interrupted waiting for crawl workers to close their connections");
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		log.info("....crawl!");
+	}
+
+	/**
+	 * Workers close their connection for the account as they terminate, so that
+	 * each worker keeps one connection for the length of the crawl
+	 */
+	private final class ConnectionClosingWorkerThreadFactory implements ForkJoinWorkerThreadFactory {
+
+		@Override
+		public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+			return new ForkJoinWorkerThread(pool) {
+				@Override
+				protected void onTermination(final Throwable exception) {
+					try {
+						getIrodsAccessObjectFactory().closeSessionAndEatExceptions(getIrodsAccount());
+					} finally {
+						super.onTermination(exception);
+					}
+				}
+			};
+		}
+	}
+
 }
@@ -0,0 +1,138 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.DataNotFoundException;
+import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.exception.JargonRuntimeException;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Crawls one collection for a parallel crawl. The collection is entered on the
+ * calling worker, its data objects are visited there in listing order, and each
+ * child collection is forked as its own task, the collection is left once all
+ * of the child tasks have joined.
+ * <p>
+ * The child collections and data objects come from one listing of the
+ * collection, so no ObjStat is needed per child. When a child declines to
+ * continue, siblings that have not started are skipped, as in the depth first
+ * crawl, but siblings already running in other workers finish.
+ *
+ * @author conwaymc
+ *
+ */
+class ParallelCrawlTask extends RecursiveTask<Boolean> {
+
+	private static final long serialVersionUID = -3127736542187004467L;
+
+	public static final Logger log = LoggerFactory.getLogger(ParallelCrawlTask.class);
+
+	private final String collectionPath;
+	private final HierVisitor visitor;
+	private final IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private final IRODSAccount irodsAccount;
+	private final IRODSFileSystemAO irodsFileSystemAO;
+	private final AtomicBoolean siblingsStopped;
+
+	/**
+	 * @param collectionPath
+	 *            {@code String} with the absolute path of the collection
+	 * @param visitor
+	 *            {@link HierVisitor} that is safe to call from several threads
+	 * @param irodsAccessObjectFactory
+	 *            {@link IRODSAccessObjectFactory}, each worker lists with its own
+	 *            connection from the session
+	 * @param irodsAccount
+	 *            {@link IRODSAccount}
+	 * @param irodsFileSystemAO
+	 *            {@link IRODSFileSystemAO} given to the visited nodes
+	 * @param siblingsStopped
+	 *            {@code AtomicBoolean} set when a sibling declined to continue,
+	 *            {@code null} for the starting collection
+	 */
+	ParallelCrawlTask(final String collectionPath, final HierVisitor visitor,
+			final IRODSAccessObjectFactory irodsAccessObjectFactory, final IRODSAccount irodsAccount,
+			final IRODSFileSystemAO irodsFileSystemAO, final AtomicBoolean siblingsStopped) {
+		this.collectionPath = collectionPath;
+		this.visitor = visitor;
+		this.irodsAccessObjectFactory = irodsAccessObjectFactory;
+		this.irodsAccount = irodsAccount;
+		this.irodsFileSystemAO = irodsFileSystemAO;
+		this.siblingsStopped = siblingsStopped;
+	}
+
+	@Override
+	protected Boolean compute() {
+		if (siblingsStopped != null && siblingsStopped.get()) {
+			log.debug("sibling short circuited, skipping:{}", collectionPath);
+			return true;
+		}
+
+		try {
+			IrodsVisitedComposite composite = new IrodsVisitedComposite(collectionPath, irodsFileSystemAO);
+			log.debug("check if enter at:{}", collectionPath);
+			boolean visitorEntered = visitor.visitEnter(composite);
+			if (visitorEntered) {
+				visitChildren();
+			}
+			log.debug("done with children of:{}", collectionPath);
+			return visitor.visitLeave(composite, visitorEntered);
+		} catch (JargonException e) {
+			log.error("error crawling:{}", collectionPath, e);
+			throw new JargonRuntimeException("error crawling " + collectionPath, e);
+		}
+	}
+
+	private void visitChildren() throws JargonException {
+		List<CollectionAndDataObjectListingEntry> entries;
+		try {
+			entries = irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount)
+					.listAllDataObjectsAndCollectionsUnderPath(collectionPath);
+		} catch (FileNotFoundException | DataNotFoundException e) {
+			log.warn("collection went away during the crawl:{}", collectionPath);
+			return;
+		}
+
+		AtomicBoolean childrenStopped = new AtomicBoolean(false);
+		List<ParallelCrawlTask> forked = new ArrayList<ParallelCrawlTask>();
+
+		for (CollectionAndDataObjectListingEntry entry : entries) {
+			if (childrenStopped.get()) {
+				break;
+			}
+
+			if (entry.isCollection()) {
+				ParallelCrawlTask child = new ParallelCrawlTask(entry.getFormattedAbsolutePath(), visitor,
+						irodsAccessObjectFactory, irodsAccount, irodsFileSystemAO, childrenStopped);
+				child.fork();
+				forked.add(child);
+			} else {
+				IrodsVisitedLeaf leaf = new IrodsVisitedLeaf(entry.getFormattedAbsolutePath(), irodsFileSystemAO);
+				if (!leaf.accept(visitor)) {
+					log.info("child doesn't accept, short circuit rest of siblings at:{}", leaf.getAbsolutePath());
+					childrenStopped.set(true);
+				}
+			}
+		}
+
+		for (ParallelCrawlTask child : forked) {
+			if (!child.join()) {
+				log.info("child doesn't accept, short circuit rest of siblings at:{}", child.collectionPath);
+				childrenStopped.set(true);
+			}
+		}
+	}
+
+}
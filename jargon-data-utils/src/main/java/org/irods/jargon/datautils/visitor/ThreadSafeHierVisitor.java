@@ -0,0 +1,19 @@
+/**
+ *
+ */
+package org.irods.jargon.datautils.visitor;
+
+/**
+ * Marks a {@link HierVisitor} that may be called from several threads at once,
+ * so that {@link HierVisitorCrawlerServiceImpl} can crawl sibling collections
+ * in parallel. Each node is still entered before any of its children are
+ * visited, and left after all of them, but the calls for different subtrees
+ * interleave, so a visitor must not keep state that assumes a single depth
+ * first walk, such as a stack of the nodes entered.
+ *
+ * @author conwaymc
+ *
+ */
+public interface ThreadSafeHierVisitor extends HierVisitor {
+
+}
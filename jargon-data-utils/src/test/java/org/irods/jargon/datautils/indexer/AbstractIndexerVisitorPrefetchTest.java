@@ -0,0 +1,141 @@
+package org.irods.jargon.datautils.indexer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.CollectionAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.query.MetaDataAndDomainData;
+import org.irods.jargon.core.query.MetaDataAndDomainData.MetadataDomain;
+import org.irods.jargon.datautils.indexer.NodeVisitLogEntry.VisitTypeEnum;
+import org.irods.jargon.datautils.visitor.IrodsVisitedComposite;
+import org.irods.jargon.datautils.visitor.IrodsVisitedLeaf;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * Bulk metadata prefetch of {@link AbstractIndexerVisitor} against mock access
+ * objects, no iRODS server is needed
+ */
+public class AbstractIndexerVisitorPrefetchTest {
+
+	private static final String ROOT = "/zone/home/test/index";
+	private static final String CHILD = ROOT + "/child";
+
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private IRODSAccount irodsAccount;
+	private CollectionAO collectionAO;
+	private DataObjectAO dataObjectAO;
+	private IRODSFileSystemAO irodsFileSystemAO;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", "");
+		irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		collectionAO = Mockito.mock(CollectionAO.class);
+		dataObjectAO = Mockito.mock(DataObjectAO.class);
+		irodsFileSystemAO = Mockito.mock(IRODSFileSystemAO.class);
+		Mockito.when(irodsFileSystemAO.getIRODSAccount()).thenReturn(irodsAccount);
+		Mockito.when(irodsAccessObjectFactory.getCollectionAO(irodsAccount)).thenReturn(collectionAO);
+		Mockito.when(irodsAccessObjectFactory.getDataObjectAO(irodsAccount)).thenReturn(dataObjectAO);
+
+		Mockito.when(collectionAO.findMetadataValuesForCollection(ROOT, 0))
+				.thenReturn(avus(MetadataDomain.COLLECTION, ROOT, "root"));
+
+		Map<String, List<MetaDataAndDomainData>> children = new HashMap<String, List<MetaDataAndDomainData>>();
+		children.put(CHILD, avus(MetadataDomain.COLLECTION, CHILD, "child"));
+		Mockito.when(collectionAO.findMetadataValuesForChildCollections(ROOT)).thenReturn(children);
+
+		Map<String, List<MetaDataAndDomainData>> dataObjects = new HashMap<String, List<MetaDataAndDomainData>>();
+		dataObjects.put(CHILD + "/tagged.dat", avus(MetadataDomain.DATA, CHILD + "/tagged.dat", "tagged"));
+		Mockito.when(dataObjectAO.findMetadataValuesForDataObjectsInCollection(CHILD)).thenReturn(dataObjects);
+	}
+
+	@Test
+	public void testCrawlUsesPrefetchedMetadata() throws Exception {
+		TestIndexVisitor visitor = new TestIndexVisitor(irodsAccessObjectFactory, irodsAccount);
+		IrodsVisitedComposite root = new IrodsVisitedComposite(ROOT, irodsFileSystemAO);
+		IrodsVisitedComposite child = new IrodsVisitedComposite(CHILD, irodsFileSystemAO);
+
+		Assert.assertTrue(visitor.visitEnter(root));
+		Assert.assertTrue(visitor.visitEnter(child));
+		Assert.assertTrue(visitor.visit(new IrodsVisitedLeaf(CHILD + "/tagged.dat", irodsFileSystemAO)));
+		Assert.assertTrue(visitor.visit(new IrodsVisitedLeaf(CHILD + "/untagged.dat", irodsFileSystemAO)));
+		visitor.visitLeave(child, true);
+		visitor.visitLeave(root, true);
+
+		List<NodeVisitLogEntry> entries = visitor.getNodeVisitLog().getLogEntries();
+		Assert.assertEquals(6, entries.size());
+		assertEntry(entries.get(0), VisitTypeEnum.ENTER, ROOT, "root");
+		assertEntry(entries.get(1), VisitTypeEnum.ENTER, CHILD, "child");
+		assertEntry(entries.get(2), VisitTypeEnum.VISIT_LEAF, CHILD + "/tagged.dat", "tagged");
+		Assert.assertTrue(entries.get(3).getMetadataThisLevel().isEmpty());
+		Assert.assertTrue(visitor.getMetadataRollup().getMetadata().isEmpty());
+
+		Mockito.verify(collectionAO, Mockito.times(1)).findMetadataValuesForCollection(Matchers.anyString(),
+				Matchers.anyInt());
+		Mockito.verify(collectionAO, Mockito.times(1)).findMetadataValuesForChildCollections(ROOT);
+		Mockito.verify(dataObjectAO, Mockito.times(1)).findMetadataValuesForDataObjectsInCollection(CHILD);
+		Mockito.verify(dataObjectAO, Mockito.never()).findMetadataValuesForDataObject(Matchers.anyString());
+	}
+
+	@Test
+	public void testCollectionWithoutChildrenVisitedMakesNoPrefetch() throws Exception {
+		TestIndexVisitor visitor = new TestIndexVisitor(irodsAccessObjectFactory, irodsAccount);
+		IrodsVisitedComposite root = new IrodsVisitedComposite(ROOT, irodsFileSystemAO);
+
+		visitor.visitEnter(root);
+		visitor.visitLeave(root, true);
+
+		Mockito.verify(collectionAO, Mockito.never()).findMetadataValuesForChildCollections(Matchers.anyString());
+		Mockito.verify(dataObjectAO, Mockito.never())
+				.findMetadataValuesForDataObjectsInCollection(Matchers.anyString());
+	}
+
+	@Test
+	public void testLeafOutsideOfCrawlIsQueriedDirectly() throws Exception {
+		String path = "/zone/home/test/other/file.dat";
+		Mockito.when(dataObjectAO.findMetadataValuesForDataObject(path))
+				.thenReturn(avus(MetadataDomain.DATA, path, "direct"));
+		TestIndexVisitor visitor = new TestIndexVisitor(irodsAccessObjectFactory, irodsAccount);
+
+		visitor.visit(new IrodsVisitedLeaf(path, irodsFileSystemAO));
+
+		assertEntry(visitor.getNodeVisitLog().getLogEntries().get(0), VisitTypeEnum.VISIT_LEAF, path, "direct");
+		Mockito.verify(dataObjectAO, Mockito.never())
+				.findMetadataValuesForDataObjectsInCollection(Matchers.anyString());
+	}
+
+	@Test
+	public void testPrefetchIsParentOf() {
+		PrefetchedChildMetadata prefetch = new PrefetchedChildMetadata(ROOT, collectionAO, dataObjectAO);
+		Assert.assertTrue(prefetch.isParentOf(CHILD));
+		Assert.assertFalse(prefetch.isParentOf(CHILD + "/grandchild"));
+		Assert.assertFalse(prefetch.isParentOf(ROOT + "x/child"));
+		Assert.assertTrue(new PrefetchedChildMetadata("/", collectionAO, dataObjectAO).isParentOf("/zone"));
+	}
+
+	private static void assertEntry(final NodeVisitLogEntry entry, final VisitTypeEnum visitType, final String path,
+			final String avuValue) {
+		Assert.assertEquals(visitType, entry.getVisitType());
+		Assert.assertEquals(path, entry.getNodeAbsolutePath());
+		Assert.assertEquals(1, entry.getMetadataThisLevel().size());
+		Assert.assertEquals(avuValue, entry.getMetadataThisLevel().get(0).getAvuValue());
+	}
+
+	private static List<MetaDataAndDomainData> avus(final MetadataDomain domain, final String path,
+			final String value) throws Exception {
+		List<MetaDataAndDomainData> metadata = new ArrayList<MetaDataAndDomainData>();
+		metadata.add(MetaDataAndDomainData.instance(domain, "1", path, 0L, null, null, 1, "indexed", value, ""));
+		return metadata;
+	}
+
+}
@@ -0,0 +1,180 @@
+package org.irods.jargon.datautils.indexer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.pub.CollectionAO;
+import org.irods.jargon.core.pub.DataObjectAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.pub.io.IRODSFile;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.pub.io.IRODSFileImpl;
+import org.irods.jargon.datautils.visitor.HierComponent;
+import org.irods.jargon.datautils.visitor.HierComposite;
+import org.irods.jargon.datautils.visitor.HierLeaf;
+import org.irods.jargon.datautils.visitor.HierVisitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Incremental indexing in {@link IndexerServiceImpl} and
+ * {@link IndexerChangeSet} against mock access objects, no iRODS server is
+ * needed
+ */
+public class IndexerServiceImplIncrementalTest {
+
+	private static final String ROOT = "/zone/home/test/index";
+
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private IRODSAccount irodsAccount;
+	private IRODSFileSystemAO irodsFileSystemAO;
+	private File watermarkFile;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", "");
+		irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		irodsFileSystemAO = Mockito.mock(IRODSFileSystemAO.class);
+		Mockito.when(irodsFileSystemAO.getIRODSAccount()).thenReturn(irodsAccount);
+		IRODSFileFactory irodsFileFactory = Mockito.mock(IRODSFileFactory.class);
+		IRODSFileImpl startingPoint = Mockito.mock(IRODSFileImpl.class);
+
+		Mockito.when(irodsAccessObjectFactory.getCollectionAO(irodsAccount))
+				.thenReturn(Mockito.mock(CollectionAO.class));
+		Mockito.when(irodsAccessObjectFactory.getDataObjectAO(irodsAccount))
+				.thenReturn(Mockito.mock(DataObjectAO.class));
+		Mockito.when(irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)).thenReturn(irodsFileFactory);
+		Mockito.when(irodsFileFactory.instanceIRODSFile(ROOT)).thenReturn(startingPoint);
+		Mockito.when(startingPoint.isDirectory()).thenReturn(true);
+		Mockito.when(startingPoint.getAbsolutePath()).thenReturn(ROOT);
+		Mockito.when(startingPoint.getIrodsFileSystemAO()).thenReturn(irodsFileSystemAO);
+
+		watermarkFile = File.createTempFile("indexer-watermarks", ".properties");
+		watermarkFile.delete();
+	}
+
+	@After
+	public void tearDown() {
+		watermarkFile.delete();
+	}
+
+	@Test
+	public void testFirstRunCrawlsAllAndStoresWatermark() throws Exception {
+		IndexerWatermarkStore store = new PropertiesFileIndexerWatermarkStore(watermarkFile);
+		TestIndexVisitor visitor = new TestIndexVisitor(irodsAccessObjectFactory, irodsAccount);
+		IndexerServiceImpl service = new IndexerServiceImpl(irodsAccessObjectFactory, irodsAccount);
+		long before = System.currentTimeMillis() / 1000;
+
+		IndexerChangeSet changeSet = service.launchIncremental(ROOT, visitor, store);
+
+		Assert.assertNull("whole collection should be crawled", changeSet);
+		Assert.assertEquals(ROOT, visitor.getNodeVisitLog().getLogEntries().get(0).getNodeAbsolutePath());
+		Long watermark = new PropertiesFileIndexerWatermarkStore(watermarkFile).retrieveWatermark(ROOT);
+		Assert.assertNotNull(watermark);
+		Assert.assertEquals(before - IndexerServiceImpl.DEFAULT_CLOCK_SKEW_ALLOWANCE_SECONDS, watermark, 2);
+	}
+
+	@Test
+	public void testAbortedRunKeepsWatermark() throws Exception {
+		IndexerWatermarkStore store = new PropertiesFileIndexerWatermarkStore(watermarkFile);
+		TestIndexVisitor visitor = new TestIndexVisitor(irodsAccessObjectFactory, irodsAccount);
+		visitor.setControlRod(new ControlRod() {
+			@Override
+			public boolean checkControlRod(final HierComponent hierComponent) {
+				return true;
+			}
+		});
+		IndexerServiceImpl service = new IndexerServiceImpl(irodsAccessObjectFactory, irodsAccount);
+
+		service.launchIncremental(ROOT, visitor, store);
+
+		Assert.assertTrue(visitor.isAborted());
+		Assert.assertNull(store.retrieveWatermark(ROOT));
+	}
+
+	@Test
+	public void testChangeSetIgnoresPathsOutsideOfStart() {
+		IndexerChangeSet changeSet = new IndexerChangeSet(ROOT + "/");
+		changeSet.addChangedDataObject(ROOT + "er/sibling.dat");
+		changeSet.addChangedCollection("/zone/home/other");
+		Assert.assertTrue(changeSet.isEmpty());
+
+		changeSet.addChangedDataObject(ROOT + "/a/b/file.dat");
+		changeSet.addChangedDataObject(ROOT + "/a/b/file.dat");
+		Assert.assertEquals(1, changeSet.getChangeCount());
+		Assert.assertTrue(changeSet.getChildCollectionsToVisit(ROOT).contains(ROOT + "/a"));
+		Assert.assertTrue(changeSet.getChildCollectionsToVisit(ROOT + "/a").contains(ROOT + "/a/b"));
+		Assert.assertTrue(changeSet.getDataObjectsToVisit(ROOT + "/a/b").contains("file.dat"));
+	}
+
+	@Test
+	public void testIncrementalCrawlVisitsOnlyChangedPaths() throws Exception {
+		IndexerChangeSet changeSet = new IndexerChangeSet(ROOT);
+		changeSet.addChangedDataObject(ROOT + "/a/b/changed.dat");
+		changeSet.addChangedDataObject(ROOT + "/top.dat");
+		changeSet.addChangedCollection(ROOT + "/c");
+		RecordingVisitor visitor = new RecordingVisitor();
+
+		new IncrementalVisitedComposite(ROOT, irodsFileSystemAO, changeSet).accept(visitor);
+
+		List<String> expected = new ArrayList<String>();
+		expected.add("enter " + ROOT);
+		expected.add("visit " + ROOT + "/top.dat");
+		expected.add("enter " + ROOT + "/a");
+		expected.add("enter " + ROOT + "/a/b");
+		expected.add("visit " + ROOT + "/a/b/changed.dat");
+		expected.add("leave " + ROOT + "/a/b");
+		expected.add("leave " + ROOT + "/a");
+		expected.add("enter " + ROOT + "/c");
+		expected.add("leave " + ROOT + "/c");
+		expected.add("leave " + ROOT);
+		Assert.assertEquals(expected, visitor.calls);
+		Mockito.verify(irodsFileSystemAO, Mockito.never()).getListInDir(Mockito.any(IRODSFile.class));
+	}
+
+	@Test
+	public void testMetadataChangeCrawlsSubtree() throws Exception {
+		IndexerChangeSet changeSet = new IndexerChangeSet(ROOT);
+		changeSet.addCollectionWithChangedMetadata(ROOT + "/a");
+		RecordingVisitor visitor = new RecordingVisitor();
+
+		new IncrementalVisitedComposite(ROOT, irodsFileSystemAO, changeSet).accept(visitor);
+
+		Assert.assertTrue(changeSet.isSubtreeChanged(ROOT + "/a"));
+		Assert.assertTrue(visitor.calls.contains("enter " + ROOT + "/a"));
+		Mockito.verify(irodsFileSystemAO).getListInDir(Mockito.any(IRODSFile.class));
+	}
+
+	/**
+	 * Records the calls in order
+	 */
+	private static class RecordingVisitor implements HierVisitor {
+
+		final List<String> calls = new ArrayList<String>();
+
+		@Override
+		public boolean visitEnter(final HierComposite node) {
+			calls.add("enter " + node.getAbsolutePath());
+			return true;
+		}
+
+		@Override
+		public boolean visitLeave(final HierComposite node, final boolean visitorEntered) {
+			calls.add("leave " + node.getAbsolutePath());
+			return true;
+		}
+
+		@Override
+		public boolean visit(final HierLeaf node) {
+			calls.add("visit " + node.getAbsolutePath());
+			return true;
+		}
+	}
+
+}
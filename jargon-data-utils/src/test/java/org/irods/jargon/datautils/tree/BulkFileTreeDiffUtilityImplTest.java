@@ -0,0 +1,269 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.tree.TreeNode;
+
+import org.irods.jargon.core.checksum.AbstractChecksumComputeStrategy;
+import org.irods.jargon.core.checksum.ChecksumMethodUnavailableException;
+import org.irods.jargon.core.checksum.ChecksumValue;
+import org.irods.jargon.core.checksum.LocalChecksumComputerFactory;
+import org.irods.jargon.core.checksum.LocalChecksumComputerFactoryImpl;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSSession;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.protovalues.ChecksumEncodingEnum;
+import org.irods.jargon.core.pub.DataObjectChecksumUtilitiesAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.datautils.tree.BulkFileTreeDiffUtilityImpl.ListingEntry;
+import org.irods.jargon.datautils.tree.FileTreeDiffEntry.DiffType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Merge-join diff and local checksum caching of
+ * {@link BulkFileTreeDiffUtilityImpl} against a listed iRODS tree, no iRODS
+ * server is needed
+ */
+public class BulkFileTreeDiffUtilityImplTest {
+
+	private static final String ROOT = "/zone/home/test/synch";
+
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private IRODSAccount irodsAccount;
+	private final AtomicInteger localChecksums = new AtomicInteger();
+	private File localRoot;
+	private File cacheFile;
+	private String helloChecksum;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", "");
+		irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		IRODSSession irodsSession = Mockito.mock(IRODSSession.class);
+		DataObjectChecksumUtilitiesAO dataObjectChecksumUtilitiesAO = Mockito
+				.mock(DataObjectChecksumUtilitiesAO.class);
+		Mockito.when(irodsAccessObjectFactory.getIrodsSession()).thenReturn(irodsSession);
+		Mockito.when(irodsAccessObjectFactory.getDataObjectChecksumUtilitiesAO(irodsAccount))
+				.thenReturn(dataObjectChecksumUtilitiesAO);
+		Mockito.when(irodsSession.getLocalChecksumComputerFactory()).thenReturn(new CountingChecksumFactory());
+		Mockito.when(dataObjectChecksumUtilitiesAO.computeChecksumValueFromIrodsData(Matchers.anyString()))
+				.thenAnswer(new Answer<ChecksumValue>() {
+					@Override
+					public ChecksumValue answer(final InvocationOnMock invocation) throws Throwable {
+						ChecksumValue value = new ChecksumValue();
+						value.setChecksumEncoding(ChecksumEncodingEnum.MD5);
+						value.setChecksumStringValue((String) invocation.getArguments()[0]);
+						return value;
+					}
+				});
+
+		localRoot = File.createTempFile("bulk-diff", "");
+		localRoot.delete();
+		localRoot.mkdirs();
+		cacheFile = File.createTempFile("bulk-diff-checksums", ".properties");
+		cacheFile.delete();
+
+		writeFile(new File(localRoot, "length.txt"), "0123456789");
+		writeFile(new File(localRoot, "same.txt"), "hello");
+		writeFile(new File(localRoot, "changed.txt"), "hellx");
+		writeFile(new File(localRoot, "collide"), "x");
+		writeFile(new File(localRoot, "dir1/same.txt"), "hello");
+		writeFile(new File(localRoot, "onlylocal/deep/file.txt"), "local");
+
+		helloChecksum = new LocalChecksumComputerFactoryImpl().instance(ChecksumEncodingEnum.MD5)
+				.computeChecksumValueForLocalFile(new File(localRoot, "same.txt").getAbsolutePath())
+				.getChecksumStringValue();
+	}
+
+	@After
+	public void tearDown() {
+		delete(localRoot);
+		cacheFile.delete();
+	}
+
+	@Test
+	public void testDiffLocalToIRODS() throws Exception {
+		ListedTreeDiffUtility diffUtility = new ListedTreeDiffUtility(null);
+
+		FileTreeModel model = diffUtility.generateDiffLocalToIRODS(localRoot, ROOT, 0, 0);
+
+		Map<String, DiffType> diffs = diffs(model);
+		Assert.assertEquals(DiffType.FILE_OUT_OF_SYNCH, diffs.get("length.txt"));
+		Assert.assertEquals(DiffType.FILE_OUT_OF_SYNCH, diffs.get("changed.txt"));
+		Assert.assertEquals(DiffType.FILE_NAME_DIR_NAME_COLLISION, diffs.get("collide"));
+		Assert.assertEquals(DiffType.LEFT_HAND_PLUS, diffs.get(localPath("onlylocal")));
+		Assert.assertEquals(DiffType.RIGHT_HAND_PLUS, diffs.get(ROOT + "/onlyirods"));
+		Assert.assertEquals(DiffType.DIRECTORY_NO_DIFF, diffs.get(localPath("dir1")));
+		Assert.assertEquals("unchanged files and children of unmatched directories are not diffs", 6, diffs.size());
+		Assert.assertEquals(3, localChecksums.get());
+		Assert.assertFalse(diffUtility.verifyLocalAndIRODSTreesMatch(localRoot, ROOT, 0, 0));
+	}
+
+	@Test
+	public void testUnchangedFilesAreNotHashedAgain() throws Exception {
+		new ListedTreeDiffUtility(new PropertiesFileLocalChecksumCache(cacheFile)).generateDiffLocalToIRODS(localRoot,
+				ROOT, 0, 0);
+		Assert.assertEquals(3, localChecksums.get());
+		Assert.assertTrue(cacheFile.exists());
+
+		writeFile(new File(localRoot, "changed.txt"), "hello");
+		new File(localRoot, "changed.txt").setLastModified(1000L);
+		FileTreeModel model = new ListedTreeDiffUtility(new PropertiesFileLocalChecksumCache(cacheFile))
+				.generateDiffLocalToIRODS(localRoot, ROOT, 0, 0);
+
+		Assert.assertEquals("only the changed file is hashed again", 4, localChecksums.get());
+		Assert.assertNull(diffs(model).get("changed.txt"));
+	}
+
+	@Test
+	public void testFilesUnmodifiedSinceLastSynchAreNotCompared() throws Exception {
+		long future = System.currentTimeMillis() + 60000L;
+
+		FileTreeModel model = new ListedTreeDiffUtility(null).generateDiffLocalToIRODS(localRoot, ROOT, future,
+				future);
+
+		Assert.assertEquals(0, localChecksums.get());
+		Assert.assertNull(diffs(model).get("changed.txt"));
+		Assert.assertEquals(DiffType.FILE_OUT_OF_SYNCH, diffs(model).get("length.txt"));
+	}
+
+	@Test
+	public void testPathOrderPutsChildrenAfterTheirParent() {
+		List<String> paths = new ArrayList<String>();
+		paths.add("/a.b");
+		paths.add("/a/z");
+		paths.add("/a");
+		paths.add("/a-b");
+		Collections.sort(paths, BulkFileTreeDiffUtilityImpl.PATH_ORDER);
+		Assert.assertEquals("[/a, /a/z, /a-b, /a.b]", paths.toString());
+	}
+
+	@Test
+	public void testCachedChecksumIsStaleWhenFileChanges() throws Exception {
+		PropertiesFileLocalChecksumCache cache = new PropertiesFileLocalChecksumCache(cacheFile);
+		cache.storeChecksum("/local/file", 10L, 2000L, ChecksumEncodingEnum.MD5, "sha2:abc:def");
+		cache.flush();
+
+		LocalChecksumCache reloaded = new PropertiesFileLocalChecksumCache(cacheFile);
+		Assert.assertEquals("sha2:abc:def",
+				reloaded.retrieveChecksum("/local/file", 10L, 2000L, ChecksumEncodingEnum.MD5));
+		Assert.assertNull(reloaded.retrieveChecksum("/local/file", 11L, 2000L, ChecksumEncodingEnum.MD5));
+		Assert.assertNull(reloaded.retrieveChecksum("/local/file", 10L, 2001L, ChecksumEncodingEnum.MD5));
+		Assert.assertNull(reloaded.retrieveChecksum("/local/file", 10L, 2000L, ChecksumEncodingEnum.SHA256));
+	}
+
+	/*
+	 * Diff type of each non directory node and of directories, keyed by the name
+	 * of files and the absolute path of directories
+	 */
+	private static Map<String, DiffType> diffs(final FileTreeModel model) {
+		Map<String, DiffType> diffs = new HashMap<String, DiffType>();
+		@SuppressWarnings("unchecked")
+		Enumeration<TreeNode> nodes = ((FileTreeNode) model.getRoot()).depthFirstEnumeration();
+		while (nodes.hasMoreElements()) {
+			FileTreeNode node = (FileTreeNode) nodes.nextElement();
+			if (node == model.getRoot()) {
+				continue;
+			}
+			FileTreeDiffEntry entry = (FileTreeDiffEntry) node.getUserObject();
+			diffs.put(entry.getCollectionAndDataObjectListingEntry().getPathOrName(), entry.getDiffType());
+		}
+		return diffs;
+	}
+
+	private String localPath(final String relativePath) {
+		return new File(localRoot, relativePath).getAbsolutePath().replace('\\', '/');
+	}
+
+	private static void writeFile(final File file, final String contents) throws Exception {
+		file.getParentFile().mkdirs();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(contents.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void delete(final File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Counts the local checksums that are computed
+	 */
+	private class CountingChecksumFactory implements LocalChecksumComputerFactory {
+
+		@Override
+		public AbstractChecksumComputeStrategy instance(final ChecksumEncodingEnum checksumEncodingEnum)
+				throws ChecksumMethodUnavailableException {
+			final AbstractChecksumComputeStrategy strategy = new LocalChecksumComputerFactoryImpl()
+					.instance(checksumEncodingEnum);
+			return new AbstractChecksumComputeStrategy() {
+				@Override
+				public ChecksumValue computeChecksumValueForLocalFile(final String localFileAbsolutePath)
+						throws FileNotFoundException, JargonException {
+					localChecksums.incrementAndGet();
+					return strategy.computeChecksumValueForLocalFile(localFileAbsolutePath);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Lists a fixed iRODS tree instead of querying the catalog
+	 */
+	private class ListedTreeDiffUtility extends BulkFileTreeDiffUtilityImpl {
+
+		ListedTreeDiffUtility(final LocalChecksumCache localChecksumCache) {
+			super(BulkFileTreeDiffUtilityImplTest.this.irodsAccount,
+					BulkFileTreeDiffUtilityImplTest.this.irodsAccessObjectFactory, null, localChecksumCache, 2);
+		}
+
+		@Override
+		NavigableMap<String, ListingEntry> listIrodsTree(final String irodsRoot) {
+			NavigableMap<String, ListingEntry> entries = new TreeMap<String, ListingEntry>(
+					BulkFileTreeDiffUtilityImpl.PATH_ORDER);
+			addFile(entries, "/length.txt", 11L, helloChecksum);
+			addFile(entries, "/same.txt", 5L, helloChecksum);
+			addFile(entries, "/changed.txt", 5L, helloChecksum);
+			entries.put("/collide", ListingEntry.directory(ROOT + "/collide", 0L));
+			addFile(entries, "/collide/child.txt", 1L, "");
+			entries.put("/dir1", ListingEntry.directory(ROOT + "/dir1", 0L));
+			addFile(entries, "/dir1/same.txt", 5L, helloChecksum);
+			entries.put("/onlyirods", ListingEntry.directory(ROOT + "/onlyirods", 0L));
+			addFile(entries, "/onlyirods/file.txt", 1L, "");
+			return entries;
+		}
+
+		private void addFile(final NavigableMap<String, ListingEntry> entries, final String relativePath,
+				final long length, final String checksum) {
+			entries.put(relativePath, ListingEntry.file(ROOT + relativePath, length, 0L, checksum));
+		}
+	}
+
+}
@@ -0,0 +1,251 @@
+package org.irods.jargon.datautils.tree;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.SettableJargonProperties;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSGenQueryExecutor;
+import org.irods.jargon.core.pub.domain.ObjStat;
+import org.irods.jargon.core.query.AbstractIRODSGenQuery;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.irods.jargon.core.query.GenQueryField.SelectFieldTypes;
+import org.irods.jargon.core.query.GenQuerySelectField;
+import org.irods.jargon.core.query.IRODSGenQueryFromBuilder;
+import org.irods.jargon.core.query.IRODSQueryResultRow;
+import org.irods.jargon.core.query.RodsGenQueryEnum;
+import org.irods.jargon.core.query.TranslatedIRODSGenQuery;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Catalog summary queries, rollup and caching of
+ * {@link TreeSummarizingServiceImpl}, no iRODS server is needed
+ */
+public class TreeSummarizingServiceImplTest {
+
+	private static final String ROOT = "/zone/home/test/summary";
+
+	@Test
+	public void testRollupByResourceAndChildCollection() {
+		CatalogTreeSummary summary = new CatalogTreeSummary(ROOT, new Date());
+		summary.addResourceTotals("demoResc", 1000L, 10L, 5L, 500L, new Date(2000L), new Date(9000L));
+		summary.addResourceTotals("archive", 400L, 2L, 100L, 300L, new Date(1000L), new Date(3000L));
+		summary.addCollectionTotals(ROOT, 100L, 1L, new Date(5000L), new Date(5000L));
+		summary.addCollectionTotals(ROOT + "/a", 300L, 3L, new Date(2000L), new Date(4000L));
+		summary.addCollectionTotals(ROOT + "/a/deeper/still", 500L, 4L, new Date(1000L), new Date(9000L));
+		summary.addCollectionTotals(ROOT + "/b", 500L, 4L, null, null);
+		summary.addCollectionTotals(ROOT + "er/sibling", 7L, 7L, null, null);
+
+		Assert.assertEquals(1400L, summary.getTotal().getTotalBytes());
+		Assert.assertEquals(12L, summary.getTotal().getReplicaCount());
+		Assert.assertEquals(5L, summary.getMinLength());
+		Assert.assertEquals(500L, summary.getMaxLength());
+		Assert.assertEquals(new Date(1000L), summary.getTotal().getEarliestModifyTime());
+		Assert.assertEquals(new Date(9000L), summary.getTotal().getLatestModifyTime());
+		Assert.assertEquals(400L, summary.getByResource().get("archive").getTotalBytes());
+
+		Assert.assertEquals(100L, summary.getDirectDataObjects().getTotalBytes());
+		Assert.assertEquals(2, summary.getByChildCollection().size());
+		TreeSummaryAggregate a = summary.getByChildCollection().get(ROOT + "/a");
+		Assert.assertEquals(800L, a.getTotalBytes());
+		Assert.assertEquals(7L, a.getReplicaCount());
+		Assert.assertEquals(new Date(1000L), a.getEarliestModifyTime());
+		Assert.assertEquals(new Date(9000L), a.getLatestModifyTime());
+		Assert.assertNull(summary.getByChildCollection().get(ROOT + "/b").getLatestModifyTime());
+	}
+
+	@Test
+	public void testCatalogQueriesAreBuiltAndJoined() throws Exception {
+		final Map<String, String> values = new HashMap<String, String>();
+		putTotals(values, "direct", "demoResc", "100", "1", "100", "100", "5", "5");
+		putTotals(values, "under", "demoResc", "1300", "7", "5", "500", "1", "9");
+		putTotals(values, "under", "archive", "400", "2", "100", "300", "1", "3");
+		putTotals(values, "under", ROOT + "/a", "300", "3", "", "", "2", "4");
+		putTotals(values, "under", ROOT + "/a/deeper", "500", "4", "", "", "1", "9");
+		putTotals(values, "under", ROOT + "/b", "900", "2", "", "", "3", "3");
+
+		IRODSAccessObjectFactory irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		IRODSAccount irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone",
+				"");
+		CollectionAndDataObjectListAndSearchAO listAndSearchAO = Mockito
+				.mock(CollectionAndDataObjectListAndSearchAO.class);
+		ObjStat objStat = new ObjStat();
+		objStat.setObjectType(ObjectType.COLLECTION);
+		Mockito.when(listAndSearchAO.retrieveObjectStatForPath(ROOT)).thenReturn(objStat);
+		IRODSGenQueryExecutor irodsGenQueryExecutor = Mockito.mock(IRODSGenQueryExecutor.class);
+		Mockito.when(irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount))
+				.thenReturn(listAndSearchAO);
+		Mockito.when(irodsAccessObjectFactory.getIRODSGenQueryExecutor(irodsAccount))
+				.thenReturn(irodsGenQueryExecutor);
+		Mockito.when(irodsAccessObjectFactory.getJargonProperties()).thenReturn(new SettableJargonProperties());
+
+		final AtomicInteger queries = new AtomicInteger();
+		Mockito.when(irodsGenQueryExecutor.streamIRODSQuery(Matchers.any(AbstractIRODSGenQuery.class),
+				Matchers.anyString())).thenAnswer(new Answer<Stream<IRODSQueryResultRow>>() {
+					@Override
+					public Stream<IRODSQueryResultRow> answer(final InvocationOnMock invocation) throws Throwable {
+						queries.incrementAndGet();
+						TranslatedIRODSGenQuery query = ((IRODSGenQueryFromBuilder) invocation.getArgument(0))
+								.convertToTranslatedIRODSGenQuery();
+						String scope = query.getTranslatedQueryConditions().get(0).getOperator().trim()
+								.equalsIgnoreCase("like") ? "under" : "direct";
+						List<String> columnNames = new ArrayList<String>();
+						for (GenQuerySelectField selectField : query.getSelectFields()) {
+							columnNames.add(selectField.getSelectFieldColumnName());
+						}
+						String groupColumn = columnNames.get(0);
+						List<IRODSQueryResultRow> rows = new ArrayList<IRODSQueryResultRow>();
+						for (String group : groupsFor(values, scope, groupColumn)) {
+							List<String> columns = new ArrayList<String>();
+							columns.add(group);
+							for (GenQuerySelectField selectField : query.getSelectFields().subList(1,
+									columnNames.size())) {
+								columns.add(values.get(scope + ":" + group + ":" + selectField.getSelectFieldType()
+										+ ":" + selectField.getSelectFieldColumnName()));
+							}
+							rows.add(IRODSQueryResultRow.instance(columns, columnNames));
+						}
+						return rows.stream();
+					}
+				});
+
+		TreeSummarizingServiceImpl service = new TreeSummarizingServiceImpl(irodsAccessObjectFactory, irodsAccount);
+		CatalogTreeSummary summary = service.generateCatalogTreeSummaryForIrodsCollection(ROOT);
+
+		Assert.assertEquals(8, queries.get());
+		Assert.assertEquals(1800L, summary.getTotal().getTotalBytes());
+		Assert.assertEquals(10L, summary.getTotal().getReplicaCount());
+		Assert.assertEquals(5L, summary.getMinLength());
+		Assert.assertEquals(500L, summary.getMaxLength());
+		Assert.assertEquals(new Date(1000L), summary.getTotal().getEarliestModifyTime());
+		Assert.assertEquals(new Date(9000L), summary.getTotal().getLatestModifyTime());
+		Assert.assertEquals(1400L, summary.getByResource().get("demoResc").getTotalBytes());
+		Assert.assertEquals(100L, summary.getDirectDataObjects().getTotalBytes());
+		TreeSummaryAggregate a = summary.getByChildCollection().get(ROOT + "/a");
+		Assert.assertEquals(800L, a.getTotalBytes());
+		Assert.assertEquals(7L, a.getReplicaCount());
+		Assert.assertEquals(new Date(1000L), a.getEarliestModifyTime());
+		Assert.assertEquals(new Date(9000L), a.getLatestModifyTime());
+		Assert.assertEquals(900L, summary.getByChildCollection().get(ROOT + "/b").getTotalBytes());
+	}
+
+	@Test
+	public void testSummaryIsCachedForTtl() throws Exception {
+		CountingService service = new CountingService();
+
+		CatalogTreeSummary first = service.generateCatalogTreeSummaryForIrodsCollection(ROOT + "/");
+		CatalogTreeSummary second = service.generateCatalogTreeSummaryForIrodsCollection(ROOT);
+		Assert.assertSame(first, second);
+		Assert.assertEquals(1, service.queries.get());
+
+		service.invalidateCachedSummary(ROOT);
+		service.generateCatalogTreeSummaryForIrodsCollection(ROOT);
+		Assert.assertEquals(2, service.queries.get());
+
+		service.setCacheTtlMillis(0);
+		service.generateCatalogTreeSummaryForIrodsCollection(ROOT);
+		service.generateCatalogTreeSummaryForIrodsCollection(ROOT);
+		Assert.assertEquals(4, service.queries.get());
+	}
+
+	@Test
+	public void testExpiredSummaryIsQueriedAgain() throws Exception {
+		CatalogTreeSummary summary = new CatalogTreeSummary(ROOT, new Date(1000L));
+		Assert.assertFalse(summary.isExpired(500L, 1499L));
+		Assert.assertTrue(summary.isExpired(500L, 1500L));
+	}
+
+	@Test
+	public void testLocalTreeSummary() throws Exception {
+		File root = File.createTempFile("tree-summary", "");
+		root.delete();
+		File sub = new File(root, "sub");
+		sub.mkdirs();
+		writeFile(new File(root, "one.txt"), 10);
+		writeFile(new File(sub, "two.dat"), 30);
+		try {
+			TreeSummary summary = new TreeSummarizingServiceImpl().generateTreeSummaryForLocalFileTree(root.getPath());
+			Assert.assertEquals(2L, summary.getTotalFiles());
+			Assert.assertEquals(40L, summary.getTotalBytes());
+			Assert.assertEquals(1L, summary.getFileExtensionSummaryMap().get(".txt").get());
+		} finally {
+			new File(sub, "two.dat").delete();
+			sub.delete();
+			new File(root, "one.txt").delete();
+			root.delete();
+		}
+	}
+
+	/**
+	 * Aggregate values of one group, a blank length range marks a collection
+	 */
+	private static void putTotals(final Map<String, String> values, final String scope, final String group,
+			final String bytes, final String count, final String minLength, final String maxLength,
+			final String earliest, final String latest) {
+		String prefix = scope + ":" + group + ":";
+		values.put(prefix + "GROUP", minLength.isEmpty() ? RodsGenQueryEnum.COL_COLL_NAME.getName()
+				: RodsGenQueryEnum.COL_D_RESC_NAME.getName());
+		values.put(prefix + SelectFieldTypes.SUM + ":" + RodsGenQueryEnum.COL_DATA_SIZE.getName(), bytes);
+		values.put(prefix + SelectFieldTypes.COUNT + ":" + RodsGenQueryEnum.COL_D_DATA_ID.getName(), count);
+		values.put(prefix + SelectFieldTypes.MIN + ":" + RodsGenQueryEnum.COL_DATA_SIZE.getName(), minLength);
+		values.put(prefix + SelectFieldTypes.MAX + ":" + RodsGenQueryEnum.COL_DATA_SIZE.getName(), maxLength);
+		values.put(prefix + SelectFieldTypes.MIN + ":" + RodsGenQueryEnum.COL_D_MODIFY_TIME.getName(), earliest);
+		values.put(prefix + SelectFieldTypes.MAX + ":" + RodsGenQueryEnum.COL_D_MODIFY_TIME.getName(), latest);
+	}
+
+	private static List<String> groupsFor(final Map<String, String> values, final String scope,
+			final String groupColumn) {
+		List<String> groups = new ArrayList<String>();
+		for (Map.Entry<String, String> entry : values.entrySet()) {
+			if (entry.getKey().startsWith(scope + ":") && entry.getKey().endsWith(":GROUP")
+					&& entry.getValue().equals(groupColumn)) {
+				groups.add(entry.getKey().substring(scope.length() + 1, entry.getKey().length() - ":GROUP".length()));
+			}
+		}
+		return groups;
+	}
+
+	private static void writeFile(final File file, final int length) throws Exception {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(new byte[length]);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Counts the catalog queries instead of running them
+	 */
+	private static class CountingService extends TreeSummarizingServiceImpl {
+
+		final AtomicInteger queries = new AtomicInteger();
+
+		CountingService() throws JargonException {
+			super(Mockito.mock(IRODSAccessObjectFactory.class),
+					IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", ""));
+		}
+
+		@Override
+		CatalogTreeSummary queryCatalogTreeSummary(final String path) {
+			queries.incrementAndGet();
+			return new CatalogTreeSummary(path, new Date());
+		}
+	}
+
+}
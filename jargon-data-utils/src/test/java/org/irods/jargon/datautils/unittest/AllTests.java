@@ -9,14 +9,19 @@ import org.irods.jargon.datautils.filearchive.LocalFileGzipCompressorTest;
 import org.irods.jargon.datautils.filearchive.LocalTarFileArchiverTest;
 import org.irods.jargon.datautils.filesampler.FileSamplerServiceImplTest;
 import org.irods.jargon.datautils.indexer.AbstractIndexerVisitorTest;
+import org.irods.jargon.datautils.indexer.IndexerServiceImplIncrementalTest;
+import org.irods.jargon.datautils.indexer.AbstractIndexerVisitorPrefetchTest;
 import org.irods.jargon.datautils.metadatamanifest.MetadataManifestProcessorImplTest;
 import org.irods.jargon.datautils.shoppingcart.FileShoppingCartTest;
 import org.irods.jargon.datautils.shoppingcart.ShoppingCartServiceImplTest;
 import org.irods.jargon.datautils.synchproperties.SynchPropertiesServiceImplTest;
+import org.irods.jargon.datautils.tree.BulkFileTreeDiffUtilityImplTest;
 import org.irods.jargon.datautils.tree.DiffTreePostProcessorTest;
 import org.irods.jargon.datautils.tree.FileTreeDiffEntryTest;
 import org.irods.jargon.datautils.tree.FileTreeDiffUtilityTest;
 import org.irods.jargon.datautils.tree.FileTreeNodeTest;
+import org.irods.jargon.datautils.tree.TreeSummarizingServiceImplTest;
+import org.irods.jargon.datautils.visitor.HierVisitorCrawlerServiceImplTest;
 import org.irods.jargon.datautils.visitor.IrodsVisitedCompositeTest;
 import org.irods.jargon.datautils.visitor.IrodsVisitedLeafTest;
 import org.junit.runner.RunWith;
@@ -29,7 +34,10 @@ import org.junit.runners.Suite;
 		FileShoppingCartTest.class, ShoppingCartServiceImplTest.class, DiffTreePostProcessorTest.class,
 		LocalTarFileArchiverTest.class, LocalFileGzipCompressorTest.class, FileSamplerServiceImplTest.class,
 		ConnectionTesterImplTest.class, MetadataManifestProcessorImplTest.class, AvuAutocompleteServiceImplTest.class,
-		AbstractIndexerVisitorTest.class, IrodsVisitedLeafTest.class, IrodsVisitedCompositeTest.class })
+		AbstractIndexerVisitorTest.class, IrodsVisitedLeafTest.class, IrodsVisitedCompositeTest.class,
+		HierVisitorCrawlerServiceImplTest.class, AbstractIndexerVisitorPrefetchTest.class,
+		IndexerServiceImplIncrementalTest.class, TreeSummarizingServiceImplTest.class,
+		BulkFileTreeDiffUtilityImplTest.class })
 
 public class AllTests {
 
@@ -0,0 +1,204 @@
+package org.irods.jargon.datautils.visitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
+import org.irods.jargon.core.pub.IRODSAccessObjectFactory;
+import org.irods.jargon.core.pub.IRODSFileSystemAO;
+import org.irods.jargon.core.pub.domain.ObjStat.SpecColType;
+import org.irods.jargon.core.pub.io.IRODSFileFactory;
+import org.irods.jargon.core.pub.io.IRODSFileImpl;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry;
+import org.irods.jargon.core.query.CollectionAndDataObjectListingEntry.ObjectType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Parallel crawl of {@link HierVisitorCrawlerServiceImpl} against mock
+ * listings, no iRODS server is needed
+ */
+public class HierVisitorCrawlerServiceImplTest {
+
+	private static final String ROOT = "/zone/home/test/crawl";
+
+	private final Map<String, List<CollectionAndDataObjectListingEntry>> tree = new HashMap<String, List<CollectionAndDataObjectListingEntry>>();
+	private IRODSAccessObjectFactory irodsAccessObjectFactory;
+	private IRODSAccount irodsAccount;
+	private CollectionAndDataObjectListAndSearchAO listAndSearchAO;
+
+	@Before
+	public void setUp() throws Exception {
+		irodsAccount = IRODSAccount.instance("host", 1247, "test", "test", "/zone/home/test", "zone", "");
+		irodsAccessObjectFactory = Mockito.mock(IRODSAccessObjectFactory.class);
+		listAndSearchAO = Mockito.mock(CollectionAndDataObjectListAndSearchAO.class);
+		IRODSFileFactory irodsFileFactory = Mockito.mock(IRODSFileFactory.class);
+		IRODSFileImpl startingPoint = Mockito.mock(IRODSFileImpl.class);
+
+		Mockito.when(irodsAccessObjectFactory.getIRODSFileFactory(irodsAccount)).thenReturn(irodsFileFactory);
+		Mockito.when(irodsAccessObjectFactory.getCollectionAndDataObjectListAndSearchAO(irodsAccount))
+				.thenReturn(listAndSearchAO);
+		Mockito.when(irodsFileFactory.instanceIRODSFile(ROOT)).thenReturn(startingPoint);
+		Mockito.when(startingPoint.isDirectory()).thenReturn(true);
+		Mockito.when(startingPoint.getAbsolutePath()).thenReturn(ROOT);
+		Mockito.when(startingPoint.getIrodsFileSystemAO()).thenReturn(Mockito.mock(IRODSFileSystemAO.class));
+		Mockito.when(listAndSearchAO.listAllDataObjectsAndCollectionsUnderPath(Matchers.anyString()))
+				.thenAnswer(new Answer<List<CollectionAndDataObjectListingEntry>>() {
+					@Override
+					public List<CollectionAndDataObjectListingEntry> answer(final InvocationOnMock invocation) {
+						List<CollectionAndDataObjectListingEntry> entries = tree.get(invocation.getArguments()[0]);
+						if (entries == null) {
+							return Collections.emptyList();
+						}
+						return entries;
+					}
+				});
+
+		for (int i = 0; i < 4; i++) {
+			String child = ROOT + "/coll" + i;
+			addCollection(ROOT, child);
+			for (int j = 0; j < 5; j++) {
+				addDataObject(child, "file" + j);
+			}
+			String grandChild = child + "/sub";
+			addCollection(child, grandChild);
+			for (int j = 0; j < 3; j++) {
+				addDataObject(grandChild, "file" + j);
+			}
+		}
+	}
+
+	@Test
+	public void testParallelCrawlKeepsEnterLeaveOrderPerSubtree() throws Exception {
+		RecordingVisitor visitor = new RecordingVisitor(null);
+		HierVisitorCrawlerServiceImpl service = new HierVisitorCrawlerServiceImpl(irodsAccessObjectFactory,
+				irodsAccount);
+
+		service.launch(ROOT, visitor, 4);
+
+		Assert.assertEquals(1 + 4 + 4, visitor.entered.size());
+		Assert.assertEquals(1 + 4 + 4, visitor.left.size());
+		Assert.assertEquals(4 * (5 + 3), visitor.visited.size());
+
+		for (Map.Entry<String, Integer> leaf : visitor.visited.entrySet()) {
+			String parent = parentOf(leaf.getKey());
+			Assert.assertTrue(visitor.entered.get(parent) < leaf.getValue());
+			Assert.assertTrue(visitor.left.get(parent) > leaf.getValue());
+		}
+		for (String collection : visitor.entered.keySet()) {
+			Assert.assertTrue(visitor.entered.get(collection) < visitor.left.get(collection));
+			if (!collection.equals(ROOT)) {
+				String parent = parentOf(collection);
+				Assert.assertTrue(visitor.entered.get(parent) < visitor.entered.get(collection));
+				Assert.assertTrue(visitor.left.get(parent) > visitor.left.get(collection));
+			}
+		}
+
+		Mockito.verify(irodsAccessObjectFactory, Mockito.atLeastOnce()).closeSessionAndEatExceptions(irodsAccount);
+	}
+
+	@Test
+	public void testParallelCrawlDeclinedEnterSkipsChildren() throws Exception {
+		RecordingVisitor visitor = new RecordingVisitor(ROOT + "/coll1");
+		HierVisitorCrawlerServiceImpl service = new HierVisitorCrawlerServiceImpl(irodsAccessObjectFactory,
+				irodsAccount);
+
+		service.launch(ROOT, visitor, 4);
+
+		Assert.assertTrue(visitor.left.containsKey(ROOT + "/coll1"));
+		Assert.assertFalse(visitor.entered.containsKey(ROOT + "/coll1/sub"));
+		Assert.assertFalse(visitor.visited.containsKey(ROOT + "/coll1/file0"));
+		Assert.assertEquals(3 * (5 + 3), visitor.visited.size());
+	}
+
+	@Test(expected = JargonException.class)
+	public void testParallelCrawlListingErrorIsThrown() throws Exception {
+		Mockito.when(listAndSearchAO.listAllDataObjectsAndCollectionsUnderPath(ROOT + "/coll2"))
+				.thenThrow(new JargonException("listing failed"));
+		HierVisitorCrawlerServiceImpl service = new HierVisitorCrawlerServiceImpl(irodsAccessObjectFactory,
+				irodsAccount);
+
+		service.launch(ROOT, new RecordingVisitor(null), 4);
+	}
+
+	private void addCollection(final String parent, final String path) {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setObjectType(ObjectType.COLLECTION);
+		entry.setParentPath(parent);
+		entry.setPathOrName(path);
+		entry.setSpecColType(SpecColType.NORMAL);
+		entriesOf(parent).add(entry);
+	}
+
+	private void addDataObject(final String parent, final String name) {
+		CollectionAndDataObjectListingEntry entry = new CollectionAndDataObjectListingEntry();
+		entry.setObjectType(ObjectType.DATA_OBJECT);
+		entry.setParentPath(parent);
+		entry.setPathOrName(name);
+		entriesOf(parent).add(entry);
+	}
+
+	private List<CollectionAndDataObjectListingEntry> entriesOf(final String parent) {
+		List<CollectionAndDataObjectListingEntry> entries = tree.get(parent);
+		if (entries == null) {
+			entries = new ArrayList<CollectionAndDataObjectListingEntry>();
+			tree.put(parent, entries);
+		}
+		return entries;
+	}
+
+	private static String parentOf(final String path) {
+		return path.substring(0, path.lastIndexOf('/'));
+	}
+
+	/**
+	 * Records the order of each call, declining to enter one collection if given
+	 */
+	private static class RecordingVisitor implements ThreadSafeHierVisitor {
+
+		final AtomicInteger sequence = new AtomicInteger();
+		final Map<String, Integer> entered = new ConcurrentHashMap<String, Integer>();
+		final Map<String, Integer> left = new ConcurrentHashMap<String, Integer>();
+		final Map<String, Integer> visited = new ConcurrentHashMap<String, Integer>();
+		private final String declineAt;
+
+		RecordingVisitor(final String declineAt) {
+			this.declineAt = declineAt;
+		}
+
+		@Override
+		public boolean visitEnter(final HierComposite node) {
+			String path = ((IrodsVisitedComposite) node).getAbsolutePath();
+			if (path.equals(declineAt)) {
+				return false;
+			}
+			entered.put(path, sequence.incrementAndGet());
+			return true;
+		}
+
+		@Override
+		public boolean visitLeave(final HierComposite node, final boolean visitorEntered) {
+			left.put(((IrodsVisitedComposite) node).getAbsolutePath(), sequence.incrementAndGet());
+			return true;
+		}
+
+		@Override
+		public boolean visit(final HierLeaf node) {
+			visited.put(((IrodsVisitedLeaf) node).getAbsolutePath(), sequence.incrementAndGet());
+			return true;
+		}
+	}
+
+}
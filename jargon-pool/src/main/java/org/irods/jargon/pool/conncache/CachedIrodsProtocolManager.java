@@ -60,18 +60,7 @@ public class CachedIrodsProtocolManager extends IRODSProtocolManager {
 
 		log.info("for irodsAccount:{}", irodsAccount);
 
-		try {
-			return jargonConnectionCache.borrowObject(irodsAccount);
-		} catch (Exception e) {
-			log.error("error creating connection", e);
-			if (e instanceof AuthenticationException) {
-				log.error("authentication exception");
-				throw (AuthenticationException) e;
-			} else {
-				log.error("jargon exception");
-				throw new JargonException(e);
-			}
-		}
+		return jargonConnectionCache.borrowObject(irodsAccount);
 	}
 
 	@Override
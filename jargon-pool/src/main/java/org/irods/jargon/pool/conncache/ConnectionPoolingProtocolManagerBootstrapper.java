@@ -3,9 +3,16 @@
  */
 package org.irods.jargon.pool.conncache;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSProtocolManager;
 import org.irods.jargon.core.connection.IRODSSession;
 import org.irods.jargon.core.connection.IRODSSimpleProtocolManager;
+import org.irods.jargon.core.exception.JargonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Bootstraps an {@link IRODSProtocolManager} that supports connection pooling
@@ -23,15 +30,20 @@ import org.irods.jargon.core.connection.IRODSSimpleProtocolManager;
  * defaults will be used.
  * <p>
  * Once the dependencies are in place, the {@code init()} method should be
- * called to set up the connection pool.
+ * called to set up the connection pool. Accounts given as
+ * {@code preWarmAccounts} get {@code minIdlePerKey} connections opened during
+ * {@code init()}, so the first requests do not wait on a new connection.
  * 
  * @author conwaymc
  *
  */
 public class ConnectionPoolingProtocolManagerBootstrapper {
 
+	private static final Logger log = LoggerFactory.getLogger(ConnectionPoolingProtocolManagerBootstrapper.class);
+
 	private JargonKeyedPoolConfig jargonKeyedPoolConfig;
 	private IRODSSession irodsSession;
+	private List<IRODSAccount> preWarmAccounts = new ArrayList<IRODSAccount>();
 
 	/**
 	 * Default constructor
@@ -61,6 +73,14 @@ public class ConnectionPoolingProtocolManagerBootstrapper {
 		cachedIrodsProtocolManager.setJargonConnectionCache(jargonConnectionCache);
 		irodsSession.setIrodsProtocolManager(cachedIrodsProtocolManager);
 
+		for (IRODSAccount irodsAccount : preWarmAccounts) {
+			try {
+				jargonConnectionCache.preparePool(irodsAccount);
+			} catch (JargonException e) {
+				log.warn("unable to pre-warm connections for:{}, will connect on demand", irodsAccount, e);
+			}
+		}
+
 	}
 
 	/**
@@ -79,6 +99,26 @@ public class ConnectionPoolingProtocolManagerBootstrapper {
 		this.jargonKeyedPoolConfig = jargonKeyedPoolConfig;
 	}
 
+	/**
+	 * @return {@code List} of {@link IRODSAccount} that have connections opened
+	 *         when the pool is set up
+	 */
+	public List<IRODSAccount> getPreWarmAccounts() {
+		return preWarmAccounts;
+	}
+
+	/**
+	 * @param preWarmAccounts
+	 *            {@code List} of {@link IRODSAccount} that will have
+	 *            {@code minIdlePerKey} connections opened in {@code init()}
+	 */
+	public void setPreWarmAccounts(List<IRODSAccount> preWarmAccounts) {
+		if (preWarmAccounts == null) {
+			throw new IllegalArgumentException("null preWarmAccounts");
+		}
+		this.preWarmAccounts = preWarmAccounts;
+	}
+
 	/**
 	 * @return the irodsSession {@link IRODSSession} that will have been provisioned
 	 *         with a pooled connection manager.
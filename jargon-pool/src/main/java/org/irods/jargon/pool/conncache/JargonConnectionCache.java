@@ -3,41 +3,617 @@
  */
 package org.irods.jargon.pool.conncache;
 
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 import org.apache.commons.pool2.KeyedPooledObjectFactory;
-import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.PooledObject;
 import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.exception.JargonException;
+import org.irods.jargon.core.jfr.JargonFlightRecorder;
+import org.irods.jargon.core.jfr.PoolActivityEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Connection cache keeps a pool of managed iRODS connections
+ * Connection cache keeps a pool of managed iRODS connections, keyed by the
+ * {@link IRODSAccount} they were borrowed for.
+ * <p>
+ * Borrow and return do not take locks. A thread first tries the connection it
+ * last returned for the key, then claims any idle connection with a
+ * compare-and-set on its state. Waiting only happens when a key has
+ * {@code maxTotalPerKey} connections out, and waiters are served in arrival
+ * order when {@code fairness} is set. A key never has more than
+ * {@code maxTotalPerKey} connections open, idle and borrowed together, and
+ * returned connections are kept idle up to {@code maxIdlePerKey}, which
+ * defaults to {@code maxTotalPerKey}. Borrow only checks that the socket is
+ * still connected; validation by the factory, eviction of connections idle too
+ * long, and topping up to {@code minIdlePerKey} are done by a background thread
+ * every {@code timeBetweenEvictionRunsMillis}.
+ * <p>
+ * The sizing and timing settings are read from the
+ * {@link JargonKeyedPoolConfig} when the cache is created.
  *
  * @author mconway
  *
  */
-public class JargonConnectionCache extends GenericKeyedObjectPool<IRODSAccount, IRODSMidLevelProtocol> {
+public class JargonConnectionCache {
+
+	private static final Logger log = LoggerFactory.getLogger(JargonConnectionCache.class);
+
+	private static final int IDLE = 0;
+	private static final int IN_USE = 1;
+	private static final int RESERVED = 2;
+	private static final int REMOVED = 3;
+
+	private final KeyedPooledObjectFactory<IRODSAccount, IRODSMidLevelProtocol> factory;
+	private final ConcurrentMap<IRODSAccount, KeyedPool> pools = new ConcurrentHashMap<IRODSAccount, KeyedPool>();
+	private final ConcurrentMap<IRODSMidLevelProtocol, PooledConnection> pooledConnections = new ConcurrentHashMap<IRODSMidLevelProtocol, PooledConnection>();
+	private final ScheduledExecutorService maintenanceExecutor;
 
-	public static final Logger log = LoggerFactory.getLogger(JargonPooledObjectFactory.class);
+	private final int maxTotalPerKey;
+	private final int maxIdlePerKey;
+	private final int minIdlePerKey;
+	private final long maxWaitMillis;
+	private final boolean blockWhenExhausted;
+	private final boolean fairness;
+	private final long minEvictableIdleTimeMillis;
+	private final long softMinEvictableIdleTimeMillis;
+	private final boolean testWhileIdle;
 
+	private final AtomicLong borrowedCount = new AtomicLong();
+	private final AtomicLong returnedCount = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong destroyedCount = new AtomicLong();
+	private volatile boolean closed = false;
+
+	/**
+	 * Create a cache, starting the background maintenance thread if the config
+	 * has a positive {@code timeBetweenEvictionRunsMillis}
+	 *
+	 * @param factory
+	 *            {@link KeyedPooledObjectFactory} that creates, validates and
+	 *            destroys connections, typically a {@link JargonPooledObjectFactory}
+	 * @param config
+	 *            {@link JargonKeyedPoolConfig} with the pool settings, or
+	 *            {@code null} for the defaults
+	 */
 	public JargonConnectionCache(final KeyedPooledObjectFactory<IRODSAccount, IRODSMidLevelProtocol> factory,
 			final JargonKeyedPoolConfig config) {
-		super(factory, config);
-		setMaxIdlePerKey(config.getMaxIdlePerKey());
-		setMinEvictableIdleTimeMillis(30000);
-		setTimeBetweenEvictionRunsMillis(45000);
-		setTestOnBorrow(true);
+
+		if (factory == null) {
+			throw new IllegalArgumentException("null factory");
+		}
+
+		JargonKeyedPoolConfig poolConfig = config == null ? new JargonKeyedPoolConfig() : config;
+
+		this.factory = factory;
+		maxTotalPerKey = poolConfig.getMaxTotalPerKey() < 0 ? Integer.MAX_VALUE : poolConfig.getMaxTotalPerKey();
+		maxIdlePerKey = poolConfig.getMaxIdlePerKey() < 0 ? Integer.MAX_VALUE : poolConfig.getMaxIdlePerKey();
+		minIdlePerKey = Math.min(poolConfig.getMinIdlePerKey(), maxIdlePerKey);
+		maxWaitMillis = poolConfig.getMaxWaitMillis();
+		blockWhenExhausted = poolConfig.getBlockWhenExhausted();
+		fairness = poolConfig.getFairness();
+		minEvictableIdleTimeMillis = poolConfig.getMinEvictableIdleTimeMillis();
+		softMinEvictableIdleTimeMillis = poolConfig.getSoftMinEvictableIdleTimeMillis();
+		testWhileIdle = poolConfig.getTestWhileIdle();
+
+		long period = poolConfig.getTimeBetweenEvictionRunsMillis();
+		if (period > 0) {
+			maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable runnable) {
+					Thread thread = new Thread(runnable, "jargon-connection-cache-maintenance");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			maintenanceExecutor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					maintain();
+				}
+			}, period, period, TimeUnit.MILLISECONDS);
+		} else {
+			maintenanceExecutor = null;
+		}
+	}
+
+	/**
+	 * Borrow a connection for the given account, waiting if {@code maxTotalPerKey}
+	 * connections are already out for it
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} that is the key of the connection
+	 * @return {@link IRODSMidLevelProtocol} that is connected
+	 * @throws JargonException
+	 *             if the connection cannot be created, or no connection became
+	 *             available in time
+	 */
+	public IRODSMidLevelProtocol borrowObject(final IRODSAccount irodsAccount) throws JargonException {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+
+		if (closed) {
+			throw new IllegalStateException("connection cache is closed");
+		}
+
+		PoolActivityEvent poolActivityEvent = JargonFlightRecorder.beginPoolActivity();
+		KeyedPool pool = poolFor(irodsAccount);
+		pool.acquirePermit();
+		boolean borrowed = false;
+		try {
+			PooledConnection connection = null;
+			boolean created = false;
+			while (connection == null) {
+				connection = pool.takeIdle();
+				if (connection != null) {
+					break;
+				} else if (pool.connectionSlots.tryAcquire()) {
+					connection = pool.create(IN_USE);
+					created = true;
+				} else {
+					pool.awaitIdle();
+				}
+			}
+			borrowed = true;
+			borrowedCount.incrementAndGet();
+			JargonFlightRecorder.commitPoolActivity(poolActivityEvent, JargonFlightRecorder.BORROW, irodsAccount,
+					created, pool.idleCount.get());
+			return connection.getProtocol();
+		} finally {
+			if (!borrowed) {
+				pool.permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Give back a borrowed connection. Connections that are no longer connected,
+	 * that would take the key above {@code maxIdlePerKey}, or that come back after
+	 * {@link #close()} are shut down.
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} of the connection, kept for compatibility,
+	 *            the connection is matched to the key it was borrowed under
+	 * @param irodsMidLevelProtocol
+	 *            {@link IRODSMidLevelProtocol} that was borrowed
+	 */
+	public void returnObject(final IRODSAccount irodsAccount, final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		PoolActivityEvent poolActivityEvent = JargonFlightRecorder.beginPoolActivity();
+		PooledConnection connection = borrowedConnection(irodsMidLevelProtocol);
+		KeyedPool pool = connection.pool;
+		returnedCount.incrementAndGet();
+
+		if (closed || !connection.getProtocol().isConnected() || pool.idleCount.get() >= maxIdlePerKey) {
+			pool.discard(connection);
+		} else {
+			connection.lastUsedMillis = System.currentTimeMillis();
+			pool.idleCount.incrementAndGet();
+			connection.state.set(IDLE);
+			pool.lastReturned.set(new WeakReference<PooledConnection>(connection));
+		}
+		pool.permits.release();
+		JargonFlightRecorder.commitPoolActivity(poolActivityEvent, JargonFlightRecorder.RETURN, irodsAccount, false,
+				pool.idleCount.get());
+	}
+
+	/**
+	 * Shut down a borrowed connection rather than returning it, for connections
+	 * left in an unknown state by an error
+	 *
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} of the connection, kept for compatibility
+	 * @param irodsMidLevelProtocol
+	 *            {@link IRODSMidLevelProtocol} that was borrowed
+	 */
+	public void invalidateObject(final IRODSAccount irodsAccount, final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		PoolActivityEvent poolActivityEvent = JargonFlightRecorder.beginPoolActivity();
+		PooledConnection connection = borrowedConnection(irodsMidLevelProtocol);
+		connection.pool.discard(connection);
+		connection.pool.permits.release();
+		JargonFlightRecorder.commitPoolActivity(poolActivityEvent, JargonFlightRecorder.INVALIDATE, irodsAccount,
+				false, connection.pool.idleCount.get());
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Create idle connections for the account up to {@code minIdlePerKey}, so
+	 * that the first requests do not pay for the connection and authentication.
+	 * The background thread keeps the account topped up after this.
 	 *
-	 * @see org.apache.commons.pool2.impl.GenericKeyedObjectPool#close()
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} to create connections for
+	 * @throws JargonException
+	 *             if a connection cannot be created
+	 */
+	public void preparePool(final IRODSAccount irodsAccount) throws JargonException {
+		if (irodsAccount == null) {
+			throw new IllegalArgumentException("null irodsAccount");
+		}
+		poolFor(irodsAccount).ensureMinIdle();
+	}
+
+	/**
+	 * Shut down the idle connections of all keys, connections that are out are
+	 * shut down when returned
+	 */
+	public void clear() {
+		log.info("clear()");
+		for (KeyedPool pool : pools.values()) {
+			for (PooledConnection connection : pool.connections) {
+				if (pool.tryReserve(connection)) {
+					pool.discard(connection);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stop the background thread and shut down the idle connections. The cache
+	 * cannot be borrowed from afterwards.
 	 */
-	@Override
 	public void close() {
 		log.info("close()");
-		this.clear();
+		closed = true;
+		if (maintenanceExecutor != null) {
+			maintenanceExecutor.shutdownNow();
+		}
+		clear();
+	}
+
+	/**
+	 * @return {@code boolean} if {@link #close()} was called
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return {@code long} with the number of borrows since the cache was created
+	 */
+	public long getBorrowedCount() {
+		return borrowedCount.get();
+	}
+
+	/**
+	 * @return {@code long} with the number of returns since the cache was created
+	 */
+	public long getReturnedCount() {
+		return returnedCount.get();
+	}
+
+	/**
+	 * @return {@code long} with the number of connections created
+	 */
+	public long getCreatedCount() {
+		return createdCount.get();
+	}
+
+	/**
+	 * @return {@code long} with the number of connections shut down
+	 */
+	public long getDestroyedCount() {
+		return destroyedCount.get();
+	}
+
+	/**
+	 * @return {@code int} with the number of connections out across all keys
+	 */
+	public int getNumActive() {
+		int active = 0;
+		for (KeyedPool pool : pools.values()) {
+			active += pool.countInState(IN_USE);
+		}
+		return active;
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} key
+	 * @return {@code int} with the number of connections out for the key
+	 */
+	public int getNumActive(final IRODSAccount irodsAccount) {
+		KeyedPool pool = pools.get(irodsAccount);
+		return pool == null ? 0 : pool.countInState(IN_USE);
+	}
+
+	/**
+	 * @return {@code int} with the number of idle connections across all keys
+	 */
+	public int getNumIdle() {
+		int idle = 0;
+		for (KeyedPool pool : pools.values()) {
+			idle += pool.idleCount.get();
+		}
+		return idle;
+	}
+
+	/**
+	 * @param irodsAccount
+	 *            {@link IRODSAccount} key
+	 * @return {@code int} with the number of idle connections for the key
+	 */
+	public int getNumIdle(final IRODSAccount irodsAccount) {
+		KeyedPool pool = pools.get(irodsAccount);
+		return pool == null ? 0 : pool.idleCount.get();
+	}
+
+	/**
+	 * Validate and evict idle connections, then top each key up to
+	 * {@code minIdlePerKey}. Run by the background thread.
+	 */
+	void maintain() {
+		long now = System.currentTimeMillis();
+		for (KeyedPool pool : pools.values()) {
+			for (PooledConnection connection : pool.connections) {
+				if (closed) {
+					return;
+				}
+
+				if (!pool.tryReserve(connection)) {
+					continue;
+				}
+
+				long idleMillis = now - connection.lastUsedMillis;
+				if ((minEvictableIdleTimeMillis > 0 && idleMillis > minEvictableIdleTimeMillis)
+						|| (softMinEvictableIdleTimeMillis > 0 && idleMillis > softMinEvictableIdleTimeMillis
+								&& pool.idleCount.get() >= minIdlePerKey)) {
+					log.debug("evicting connection idle for {} ms", idleMillis);
+					pool.discard(connection);
+				} else if (testWhileIdle && !pool.validate(connection)) {
+					log.debug("evicting connection that failed validation");
+					pool.discard(connection);
+				} else {
+					pool.idleCount.incrementAndGet();
+					connection.state.set(IDLE);
+				}
+			}
+
+			try {
+				pool.ensureMinIdle();
+			} catch (JargonException e) {
+				log.warn("unable to create idle connections for:{}", pool.irodsAccount, e);
+			}
+		}
+	}
+
+	private KeyedPool poolFor(final IRODSAccount irodsAccount) {
+		KeyedPool pool = pools.get(irodsAccount);
+		if (pool == null) {
+			KeyedPool created = new KeyedPool(irodsAccount);
+			pool = pools.putIfAbsent(irodsAccount, created);
+			if (pool == null) {
+				pool = created;
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * Look up a borrowed connection and reserve it, so it is given back once
+	 */
+	private PooledConnection borrowedConnection(final IRODSMidLevelProtocol irodsMidLevelProtocol) {
+		if (irodsMidLevelProtocol == null) {
+			throw new IllegalArgumentException("null irodsMidLevelProtocol");
+		}
+
+		PooledConnection connection = pooledConnections.get(irodsMidLevelProtocol);
+		if (connection == null || !connection.state.compareAndSet(IN_USE, RESERVED)) {
+			throw new IllegalStateException("connection is not currently borrowed from this cache");
+		}
+		return connection;
+	}
+
+	/**
+	 * Connections and waiters for one key
+	 */
+	private final class KeyedPool {
+
+		private final IRODSAccount irodsAccount;
+		private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<PooledConnection>();
+		private final AtomicInteger idleCount = new AtomicInteger();
+		private final ThreadLocal<WeakReference<PooledConnection>> lastReturned = new ThreadLocal<WeakReference<PooledConnection>>();
+
+		/**
+		 * One permit for each connection that may still be borrowed
+		 */
+		private final Semaphore permits;
+
+		/**
+		 * One slot for each connection that may still be opened. A connection holds
+		 * its slot, whether idle or borrowed, until it is shut down.
+		 */
+		private final Semaphore connectionSlots;
+
+		KeyedPool(final IRODSAccount irodsAccount) {
+			this.irodsAccount = irodsAccount;
+			permits = new Semaphore(maxTotalPerKey, fairness);
+			connectionSlots = new Semaphore(maxTotalPerKey);
+		}
+
+		void acquirePermit() throws JargonException {
+			boolean acquired;
+			try {
+				if (!blockWhenExhausted) {
+					acquired = permits.tryAcquire();
+				} else if (maxWaitMillis < 0) {
+					permits.acquire();
+					acquired = true;
+				} else {
+					acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new JargonException("interrupted waiting for a pooled connection", e);
+			}
+
+			if (!acquired) {
+				throw new JargonException("no pooled connection available for:" + irodsAccount.getUserName());
+			}
+		}
+
+		/**
+		 * Claim an idle connection, trying the one this thread last returned first
+		 */
+		PooledConnection takeIdle() {
+			WeakReference<PooledConnection> reference = lastReturned.get();
+			PooledConnection preferred = reference == null ? null : reference.get();
+			if (preferred != null && tryClaim(preferred)) {
+				return preferred;
+			}
+
+			for (PooledConnection connection : connections) {
+				if (tryClaim(connection)) {
+					return connection;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Called by a borrower holding a permit when every slot is taken. As fewer
+		 * than {@code maxTotalPerKey} connections are borrowed, one is being
+		 * validated, created or shut down, and will soon be idle or free its slot.
+		 */
+		void awaitIdle() throws JargonException {
+			if (closed) {
+				throw new IllegalStateException("connection cache is closed");
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				throw new JargonException("interrupted waiting for a pooled connection");
+			}
+		}
+
+		private boolean tryClaim(final PooledConnection connection) {
+			if (!connection.state.compareAndSet(IDLE, IN_USE)) {
+				return false;
+			}
+
+			idleCount.decrementAndGet();
+			if (connection.getProtocol().isConnected()) {
+				return true;
+			}
+
+			log.debug("idle connection was disconnected, discarding");
+			discard(connection);
+			return false;
+		}
+
+		boolean tryReserve(final PooledConnection connection) {
+			if (connection.state.compareAndSet(IDLE, RESERVED)) {
+				idleCount.decrementAndGet();
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Open a connection in a slot the caller has acquired, which is released if
+		 * the connection cannot be made
+		 */
+		PooledConnection create(final int initialState) throws JargonException {
+			PooledObject<IRODSMidLevelProtocol> pooledObject;
+			try {
+				pooledObject = factory.makeObject(irodsAccount);
+			} catch (JargonException e) {
+				connectionSlots.release();
+				throw e;
+			} catch (Exception e) {
+				connectionSlots.release();
+				throw new JargonException("unable to create pooled connection", e);
+			}
+
+			createdCount.incrementAndGet();
+			PooledConnection connection = new PooledConnection(this, pooledObject, initialState);
+			pooledConnections.put(connection.getProtocol(), connection);
+			if (initialState == IDLE) {
+				idleCount.incrementAndGet();
+			}
+			connections.add(connection);
+			return connection;
+		}
+
+		/**
+		 * Create idle connections up to {@code minIdlePerKey}. Each takes a
+		 * connection slot, as a borrower creating one would, so the key cannot go
+		 * past {@code maxTotalPerKey}. Stops without waiting when no slot is free.
+		 */
+		void ensureMinIdle() throws JargonException {
+			while (!closed && idleCount.get() < minIdlePerKey && connectionSlots.tryAcquire()) {
+				create(IDLE);
+			}
+		}
+
+		boolean validate(final PooledConnection connection) {
+			try {
+				return factory.validateObject(irodsAccount, connection.pooledObject);
+			} catch (Exception e) {
+				log.warn("error validating pooled connection", e);
+				return false;
+			}
+		}
+
+		void discard(final PooledConnection connection) {
+			connection.state.set(REMOVED);
+			boolean removed = connections.remove(connection);
+			pooledConnections.remove(connection.getProtocol());
+			destroyedCount.incrementAndGet();
+			try {
+				factory.destroyObject(irodsAccount, connection.pooledObject);
+			} catch (Exception e) {
+				log.warn("error shutting down pooled connection, ignored", e);
+			} finally {
+				if (removed) {
+					connectionSlots.release();
+				}
+			}
+		}
+
+		int countInState(final int state) {
+			int count = 0;
+			for (PooledConnection connection : connections) {
+				if (connection.state.get() == state) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * A connection and its pool state
+	 */
+	private static final class PooledConnection {
+
+		private final KeyedPool pool;
+		private final PooledObject<IRODSMidLevelProtocol> pooledObject;
+		private final AtomicInteger state;
+		private volatile long lastUsedMillis = System.currentTimeMillis();
+
+		PooledConnection(final KeyedPool pool, final PooledObject<IRODSMidLevelProtocol> pooledObject,
+				final int initialState) {
+			this.pool = pool;
+			this.pooledObject = pooledObject;
+			state = new AtomicInteger(initialState);
+		}
+
+		IRODSMidLevelProtocol getProtocol() {
+			return pooledObject.getObject();
+		}
 	}
 
 }
@@ -7,6 +7,14 @@ import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
 import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
 
 /**
+ * Settings for a {@link JargonConnectionCache}. The cache honors the per key
+ * sizing ({@code maxTotalPerKey}, {@code maxIdlePerKey},
+ * {@code minIdlePerKey}), the waiting behavior ({@code blockWhenExhausted},
+ * {@code maxWaitMillis}, {@code fairness}), and the background maintenance
+ * settings ({@code timeBetweenEvictionRunsMillis},
+ * {@code minEvictableIdleTimeMillis}, {@code softMinEvictableIdleTimeMillis},
+ * {@code testWhileIdle}). Connections are not validated on borrow or return.
+ *
  * @author mconway
  *
  */
@@ -14,13 +22,28 @@ public class JargonKeyedPoolConfig extends GenericKeyedObjectPoolConfig<IRODSMid
 
 	public static final int TIME_30_SECONDS = 30 * 1000;
 	public static final int TIME_60_SECONDS = 30 * 1000;
+	/**
+	 * @deprecated no longer the default, {@code maxIdlePerKey} defaults to
+	 *             {@code maxTotalPerKey}
+	 */
+	@Deprecated
 	public static final int MAX_IDLE = 3;
+	public static final int TIME_BETWEEN_EVICTION_RUNS = 45 * 1000;
 
-	private int maxIdlePerKey = MAX_IDLE;
+	/**
+	 * {@code null} until set, so that every connection that may be out for a key
+	 * can also be kept idle, rather than being shut down on return and
+	 * reconnected on the next borrow
+	 */
+	private Integer maxIdlePerKey = null;
 
+	/**
+	 * @return {@code int} with the most idle connections kept for a key, which
+	 *         is {@code maxTotalPerKey} unless set
+	 */
 	@Override
 	public int getMaxIdlePerKey() {
-		return maxIdlePerKey;
+		return maxIdlePerKey == null ? getMaxTotalPerKey() : maxIdlePerKey;
 	}
 
 	@Override
@@ -32,9 +55,8 @@ public class JargonKeyedPoolConfig extends GenericKeyedObjectPoolConfig<IRODSMid
 		super();
 		setMinEvictableIdleTimeMillis(TIME_60_SECONDS);
 		setSoftMinEvictableIdleTimeMillis(TIME_30_SECONDS);
-		this.setMaxIdlePerKey(maxIdlePerKey);
-		setTestOnReturn(true);
-		setTestOnBorrow(true);
+		setTimeBetweenEvictionRunsMillis(TIME_BETWEEN_EVICTION_RUNS);
+		setTestWhileIdle(true);
 		this.setJmxEnabled(true);
 	}
 
@@ -0,0 +1,379 @@
+package org.irods.jargon.pool.conncache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.irods.jargon.core.connection.IRODSAccount;
+import org.irods.jargon.core.connection.IRODSMidLevelProtocol;
+import org.irods.jargon.core.exception.JargonException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Pool behavior of {@link JargonConnectionCache} against mock connections, no
+ * iRODS server is needed
+ */
+public class JargonConnectionCachePoolingTest {
+
+	private static final IRODSAccount account1 = account("test1");
+	private static final IRODSAccount account2 = account("test2");
+
+	@Test
+	public void testReturnedConnectionIsReusedBySameThread() throws Exception {
+		MockConnectionFactory factory = new MockConnectionFactory();
+		JargonConnectionCache cache = new JargonConnectionCache(factory, noMaintenanceConfig());
+
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		IRODSMidLevelProtocol second = cache.borrowObject(account1);
+		cache.returnObject(account1, second);
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals(1, cache.getCreatedCount());
+		Assert.assertEquals(2, cache.getBorrowedCount());
+		Assert.assertEquals(2, cache.getReturnedCount());
+		Assert.assertEquals(0, cache.getNumActive());
+		Assert.assertEquals(1, cache.getNumIdle(account1));
+		Assert.assertEquals(0, cache.getNumIdle(account2));
+
+		cache.close();
+		Assert.assertEquals(0, cache.getNumIdle());
+		Mockito.verify(first).shutdown();
+	}
+
+	@Test
+	public void testKeysArePooledSeparately() throws Exception {
+		JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), noMaintenanceConfig());
+
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		IRODSMidLevelProtocol other = cache.borrowObject(account2);
+
+		Assert.assertNotSame(first, other);
+		Assert.assertEquals(1, cache.getNumActive(account2));
+		Assert.assertEquals(0, cache.getNumActive(account1));
+		cache.close();
+	}
+
+	@Test
+	public void testDisconnectedIdleConnectionIsReplaced() throws Exception {
+		MockConnectionFactory factory = new MockConnectionFactory();
+		JargonConnectionCache cache = new JargonConnectionCache(factory, noMaintenanceConfig());
+
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		Mockito.when(first.isConnected()).thenReturn(false);
+
+		IRODSMidLevelProtocol second = cache.borrowObject(account1);
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals(1, cache.getDestroyedCount());
+		cache.close();
+	}
+
+	@Test
+	public void testReturnAboveMaxIdleIsShutDown() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMaxIdlePerKey(1);
+		JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		IRODSMidLevelProtocol second = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		cache.returnObject(account1, second);
+
+		Assert.assertEquals(1, cache.getNumIdle(account1));
+		Mockito.verify(second).shutdown();
+		cache.close();
+	}
+
+	@Test(expected = JargonException.class)
+	public void testExhaustedKeyTimesOut() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMaxTotalPerKey(1);
+		config.setMaxWaitMillis(50);
+		JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+
+		cache.borrowObject(account1);
+		cache.borrowObject(account1);
+	}
+
+	@Test
+	public void testWaiterGetsReturnedConnection() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMaxTotalPerKey(1);
+		config.setFairness(true);
+		final JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+
+		IRODSMidLevelProtocol held = cache.borrowObject(account1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<IRODSMidLevelProtocol> waiter = executor.submit(new Callable<IRODSMidLevelProtocol>() {
+				@Override
+				public IRODSMidLevelProtocol call() throws Exception {
+					return cache.borrowObject(account1);
+				}
+			});
+			Thread.sleep(50);
+			Assert.assertFalse("waiter should be blocked", waiter.isDone());
+			cache.returnObject(account1, held);
+			Assert.assertSame(held, waiter.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+		Assert.assertEquals(1, cache.getCreatedCount());
+	}
+
+	@Test
+	public void testPreparePoolOpensMinIdle() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMinIdlePerKey(2);
+		JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+
+		cache.preparePool(account1);
+
+		Assert.assertEquals(2, cache.getNumIdle(account1));
+		Assert.assertEquals(2, cache.getCreatedCount());
+		cache.borrowObject(account1);
+		Assert.assertEquals(2, cache.getCreatedCount());
+		cache.close();
+	}
+
+	@Test
+	public void testMaintainEvictsInvalidAndRefillsMinIdle() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMinIdlePerKey(1);
+		config.setTestWhileIdle(true);
+		MockConnectionFactory factory = new MockConnectionFactory();
+		JargonConnectionCache cache = new JargonConnectionCache(factory, config);
+
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		factory.valid = false;
+		cache.maintain();
+
+		Mockito.verify(first).shutdown();
+		Assert.assertEquals(1, cache.getNumIdle(account1));
+		Assert.assertEquals(2, cache.getCreatedCount());
+		cache.close();
+	}
+
+	@Test
+	public void testMaintainEvictsIdleTooLong() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMinEvictableIdleTimeMillis(1);
+		JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		Thread.sleep(10);
+		cache.maintain();
+
+		Assert.assertEquals(0, cache.getNumIdle(account1));
+		Mockito.verify(first).shutdown();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReturnTwice() throws Exception {
+		JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), noMaintenanceConfig());
+		IRODSMidLevelProtocol first = cache.borrowObject(account1);
+		cache.returnObject(account1, first);
+		cache.returnObject(account1, first);
+	}
+
+	@Test
+	public void testConcurrentBorrowNeverExceedsMaxTotal() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMaxTotalPerKey(4);
+		config.setMaxIdlePerKey(4);
+		final JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+		final AtomicInteger inUse = new AtomicInteger();
+		final AtomicInteger maxInUse = new AtomicInteger();
+		final int iterations = 2000;
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		try {
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						for (int j = 0; j < iterations; j++) {
+							IRODSMidLevelProtocol protocol = cache.borrowObject(account1);
+							int now = inUse.incrementAndGet();
+							int max = maxInUse.get();
+							while (now > max && !maxInUse.compareAndSet(max, now)) {
+								max = maxInUse.get();
+							}
+							inUse.decrementAndGet();
+							cache.returnObject(account1, protocol);
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Assert.assertTrue(maxInUse.get() <= 4);
+		Assert.assertEquals(16 * iterations, cache.getBorrowedCount());
+		Assert.assertEquals(16 * iterations, cache.getReturnedCount());
+		Assert.assertEquals(0, cache.getNumActive());
+		cache.close();
+	}
+
+	@Test
+	public void testMinIdleRefillNeverExceedsMaxTotal() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMaxTotalPerKey(1);
+		config.setMinIdlePerKey(1);
+		config.setMaxWaitMillis(5000);
+		final CountDownLatch creating = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final MockConnectionFactory factory = new MockConnectionFactory() {
+			@Override
+			public IRODSMidLevelProtocol create(final IRODSAccount key) throws Exception {
+				if (creating.getCount() > 0) {
+					creating.countDown();
+					proceed.await(5, TimeUnit.SECONDS);
+				}
+				return super.create(key);
+			}
+		};
+		final JargonConnectionCache cache = new JargonConnectionCache(factory, config);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Void> prepare = executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					cache.preparePool(account1);
+					return null;
+				}
+			});
+			Assert.assertTrue("idle connection not being created", creating.await(5, TimeUnit.SECONDS));
+			Future<IRODSMidLevelProtocol> borrow = executor.submit(new Callable<IRODSMidLevelProtocol>() {
+				@Override
+				public IRODSMidLevelProtocol call() throws Exception {
+					return cache.borrowObject(account1);
+				}
+			});
+			Thread.sleep(50);
+			proceed.countDown();
+			prepare.get(5, TimeUnit.SECONDS);
+			Assert.assertNotNull(borrow.get(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Assert.assertEquals("borrower should take the idle connection", 1, cache.getCreatedCount());
+		Assert.assertEquals(1, factory.maxLive.get());
+		cache.close();
+	}
+
+	@Test
+	public void testConcurrentReturnsAreKeptIdleByDefault() throws Exception {
+		JargonKeyedPoolConfig config = noMaintenanceConfig();
+		config.setMaxTotalPerKey(8);
+		final JargonConnectionCache cache = new JargonConnectionCache(new MockConnectionFactory(), config);
+		final int threads = 8;
+		final int rounds = 50;
+		final CyclicBarrier allBorrowed = new CyclicBarrier(threads);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						for (int j = 0; j < rounds; j++) {
+							IRODSMidLevelProtocol protocol = cache.borrowObject(account1);
+							allBorrowed.await(5, TimeUnit.SECONDS);
+							cache.returnObject(account1, protocol);
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Assert.assertEquals("returned connections were reconnected", threads, cache.getCreatedCount());
+		Assert.assertEquals("returned connections were shut down", 0, cache.getDestroyedCount());
+		Assert.assertEquals(threads, cache.getNumIdle(account1));
+		cache.close();
+	}
+
+	private static JargonKeyedPoolConfig noMaintenanceConfig() {
+		JargonKeyedPoolConfig config = new JargonKeyedPoolConfig();
+		config.setTimeBetweenEvictionRunsMillis(-1);
+		config.setMinEvictableIdleTimeMillis(-1);
+		config.setSoftMinEvictableIdleTimeMillis(-1);
+		return config;
+	}
+
+	private static IRODSAccount account(final String userName) {
+		try {
+			return IRODSAccount.instance("host", 1247, userName, "password", "/zone/home/" + userName, "zone", "");
+		} catch (JargonException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class MockConnectionFactory extends BaseKeyedPooledObjectFactory<IRODSAccount, IRODSMidLevelProtocol> {
+
+		volatile boolean valid = true;
+		final AtomicInteger live = new AtomicInteger();
+		final AtomicInteger maxLive = new AtomicInteger();
+
+		@Override
+		public IRODSMidLevelProtocol create(final IRODSAccount key) throws Exception {
+			int now = live.incrementAndGet();
+			int max = maxLive.get();
+			while (now > max && !maxLive.compareAndSet(max, now)) {
+				max = maxLive.get();
+			}
+			IRODSMidLevelProtocol protocol = Mockito.mock(IRODSMidLevelProtocol.class);
+			Mockito.when(protocol.isConnected()).thenReturn(true);
+			return protocol;
+		}
+
+		@Override
+		public PooledObject<IRODSMidLevelProtocol> wrap(final IRODSMidLevelProtocol value) {
+			return new DefaultPooledObject<IRODSMidLevelProtocol>(value);
+		}
+
+		@Override
+		public void destroyObject(final IRODSAccount key, final PooledObject<IRODSMidLevelProtocol> p)
+				throws Exception {
+			live.decrementAndGet();
+			p.getObject().shutdown();
+		}
+
+		@Override
+		public boolean validateObject(final IRODSAccount key, final PooledObject<IRODSMidLevelProtocol> p) {
+			return valid;
+		}
+	}
+
+}
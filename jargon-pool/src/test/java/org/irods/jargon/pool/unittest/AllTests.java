@@ -2,6 +2,7 @@ package org.irods.jargon.pool.unittest;
 
 import org.irods.jargon.pool.conncache.CachedIrodsProtocolManagerTest;
 import org.irods.jargon.pool.conncache.ConnectionPoolingProtocolManagerBootstrapperTest;
+import org.irods.jargon.pool.conncache.JargonConnectionCachePoolingTest;
 import org.irods.jargon.pool.conncache.JargonConnectionCacheTest;
 import org.irods.jargon.pool.conncache.functtest.CacheMultiThreadedFunctionalTest;
 import org.junit.runner.RunWith;
@@ -10,7 +11,8 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ JargonConnectionCacheTest.class, CachedIrodsProtocolManagerTest.class,
-		CacheMultiThreadedFunctionalTest.class, ConnectionPoolingProtocolManagerBootstrapperTest.class })
+		CacheMultiThreadedFunctionalTest.class, ConnectionPoolingProtocolManagerBootstrapperTest.class,
+		JargonConnectionCachePoolingTest.class })
 public class AllTests {
 
 }
@@ -10,8 +10,10 @@ import org.irods.jargon.core.connection.IRODSAccount;
 import org.irods.jargon.core.exception.DataNotFoundException;
 import org.irods.jargon.core.exception.DuplicateDataException;
 import org.irods.jargon.core.exception.FileNotFoundException;
+import org.irods.jargon.core.exception.InvalidUserException;
 import org.irods.jargon.core.exception.JargonException;
 import org.irods.jargon.core.exception.OperationNotSupportedByThisServerException;
+import org.irods.jargon.core.pub.BulkACLOperationResponse;
 import org.irods.jargon.core.pub.CollectionAO;
 import org.irods.jargon.core.pub.CollectionAndDataObjectListAndSearchAO;
 import org.irods.jargon.core.pub.DataObjectAO;
@@ -476,13 +478,10 @@ public class IRODSSharingServiceImpl extends AbstractIRODSTaggingService impleme
 		collectionAO.setAccessPermissionInherit(MiscIRODSUtils.getZoneInPath(absPath),
 				irodsSharedFileOrCollection.getDomainUniqueName(), true);
 		log.info("inheritance set, now setting the ACLs desired...");
-		for (ShareUser shareUser : irodsSharedFileOrCollection.getShareUsers()) {
-			log.info("shareUser:{}", shareUser);
-			// FIXMME: need objstat lookup optimization
-			// assume recursive is true..
-			collectionAO.setAccessPermission(shareUser.getZone(), irodsSharedFileOrCollection.getDomainUniqueName(),
-					shareUser.getUserName(), true, shareUser.getFilePermission());
-		}
+		// assume recursive is true..
+		checkShareAclResponses(collectionAO.setAccessPermissions(getIrodsAccount().getZone(),
+				irodsSharedFileOrCollection.getDomainUniqueName(), buildUserFilePermissions(irodsSharedFileOrCollection),
+				true));
 	}
 
 	/**
@@ -500,12 +499,63 @@ public class IRODSSharingServiceImpl extends AbstractIRODSTaggingService impleme
 		log.info("setting metadata for share:{}", avuData);
 		dataObjectAO.addAVUMetadata(irodsSharedFileOrCollection.getDomainUniqueName(), avuData);
 		log.info("inheritance set, now setting the ACLs desired...");
+		checkShareAclResponses(dataObjectAO.setAccessPermissions(getIrodsAccount().getZone(),
+				irodsSharedFileOrCollection.getDomainUniqueName(),
+				buildUserFilePermissions(irodsSharedFileOrCollection)));
+	}
+
+	/**
+	 * Turn the share users into the permissions to set in one batch
+	 *
+	 * @param irodsSharedFileOrCollection
+	 *            {@link IRODSSharedFileOrCollection} with the users to share with
+	 * @return {@code List} of {@link UserFilePermission}, one per share user
+	 */
+	private List<UserFilePermission> buildUserFilePermissions(
+			final IRODSSharedFileOrCollection irodsSharedFileOrCollection) {
+		List<UserFilePermission> userFilePermissions = new ArrayList<>();
 		for (ShareUser shareUser : irodsSharedFileOrCollection.getShareUsers()) {
 			log.info("shareUser:{}", shareUser);
-			// FIXMME: need objstat lookup optimization
-			// assume recursive is true..
-			dataObjectAO.setAccessPermission(shareUser.getZone(), irodsSharedFileOrCollection.getDomainUniqueName(),
-					shareUser.getUserName(), shareUser.getFilePermission());
+			UserFilePermission userFilePermission = new UserFilePermission();
+			userFilePermission.setUserName(shareUser.getUserName());
+			userFilePermission.setUserZone(shareUser.getZone() == null ? "" : shareUser.getZone());
+			userFilePermission.setFilePermissionEnum(shareUser.getFilePermission());
+			userFilePermissions.add(userFilePermission);
+		}
+		return userFilePermissions;
+	}
+
+	/**
+	 * A share is not complete unless every user got their permission. The first
+	 * failure is thrown as the exception the single ACL call would have thrown.
+	 *
+	 * @param responses
+	 *            {@code List} of {@link BulkACLOperationResponse} from setting
+	 *            the share permissions
+	 * @throws FileNotFoundException
+	 *             if the shared file or collection is missing
+	 * @throws InvalidUserException
+	 *             if a share user does not exist
+	 * @throws JargonException
+	 *             for any other failure
+	 */
+	private void checkShareAclResponses(final List<BulkACLOperationResponse> responses)
+			throws FileNotFoundException, InvalidUserException, JargonException {
+		for (BulkACLOperationResponse response : responses) {
+			if (response.getResultStatus() == BulkACLOperationResponse.ResultStatus.OK) {
+				continue;
+			}
+			log.error("unable to set share permission:{}", response);
+			String message = "unable to set share permission for user "
+					+ response.getUserFilePermission().getUserName() + ":" + response.getMessage();
+			switch (response.getResultStatus()) {
+			case MISSING_ACL_TARGET:
+				throw new FileNotFoundException(message);
+			case INVALID_USER:
+				throw new InvalidUserException(message);
+			default:
+				throw new JargonException(message);
+			}
 		}
 	}
 